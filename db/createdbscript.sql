@@ -20,7 +20,7 @@
 
 DROP DATABASE IF EXISTS diabetes_registry;
 
-CREATE DATABASE diabetes_registry;
+CREATE DATABASE diabetes_registry DEFAULT CHARACTER SET latin1;
 
 USE diabetes_registry;
 
@@ -815,6 +815,54 @@ CREATE TABLE QualityChecklistItem (
 	PRIMARY KEY (patient_id, date_recorded, responsibility)
 ) ENGINE=InnoDB;
 
+CREATE TABLE StatisticsSnapshot (
+	clinic_id INT NOT NULL, 
+	refreshed_at DATETIME NOT NULL, 
+	change_count INT NOT NULL DEFAULT 0, 
+	refreshed_change_count INT NOT NULL DEFAULT 0, 
+	PRIMARY KEY (clinic_id),
+	FOREIGN KEY (clinic_id) REFERENCES Clinic (clinic_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE StatisticsSnapshotValue (
+	clinic_id INT NOT NULL, 
+	statistic VARCHAR(32) NOT NULL, 
+	result_set SMALLINT NOT NULL, 
+	column_number SMALLINT NOT NULL, 
+	label VARCHAR(64) NOT NULL, 
+	result DECIMAL(14,6), 
+	FOREIGN KEY (clinic_id) REFERENCES Clinic (clinic_id), 
+	CONSTRAINT PK_StatisticsSnapshotValue_clinic_id_statistic_result_set_column 
+	PRIMARY KEY (clinic_id, statistic, result_set, column_number)
+) ENGINE=InnoDB;
+
+CREATE TABLE StatisticsSnapshotRow (
+	row_id INT NOT NULL AUTO_INCREMENT, 
+	clinic_id INT NOT NULL, 
+	statistic VARCHAR(32) NOT NULL, 
+	result_set SMALLINT NOT NULL, 
+	result DECIMAL(7,2), 
+	category VARCHAR(32), 
+	PRIMARY KEY (row_id), 
+	KEY IX_StatisticsSnapshotRow_clinic_id_statistic_result_set 
+	(clinic_id, statistic, result_set), 
+	FOREIGN KEY (clinic_id) REFERENCES Clinic (clinic_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE EmailJob (
+	job_id CHAR(36) NOT NULL, 
+	clinic_id INT NOT NULL, 
+	total INT NOT NULL, 
+	sent_count INT NOT NULL DEFAULT 0, 
+	failed_count INT NOT NULL DEFAULT 0, 
+	skipped_count INT NOT NULL DEFAULT 0, 
+	authentication_failed TINYINT(1) NOT NULL DEFAULT 0, 
+	complete TINYINT(1) NOT NULL DEFAULT 0, 
+	updated_at DATETIME NOT NULL, 
+	PRIMARY KEY (job_id), 
+	FOREIGN KEY (clinic_id) REFERENCES Clinic (clinic_id)
+) ENGINE=InnoDB;
+
 /**
 * USAGE: To set the values for the Healthy Target Status table
 *CALL setTargetStatus 
@@ -3003,6 +3051,11 @@ CALL setTargetStatus(patient_id_in, a1c_result_in, glucoseac_result_in,
 	smoking_result_in, telephonefollowup_result_out,
 	ast_result_in, alt_result_in,
 	psa_result_in, date_entered, string_in, @success);
+
+/*mark the statistics snapshot outdated*/
+UPDATE StatisticsSnapshot ss 
+	SET ss.change_count = ss.change_count + 1 
+	WHERE ss.clinic_id = clinic_in;
 	
 SELECT @success INTO target_function;
 
@@ -3017,6 +3070,112 @@ IF target_function = 1 THEN
 END ; //
 DELIMITER ;
 
+/**
+* USAGE: To store one imported lab result in a batch. The procedure has no 
+* transaction handling of its own, so the caller commits or rolls back each 
+* batch of results.
+*CALL importLabResult(?, ?, ?, ?, ?, ?, ?);
+*1 = patient_id
+*2 = test
+*3 = date_entered
+*4 = result
+*5 = poc_in
+*6 = user_in
+*7 = clinic_in
+*/
+
+DELIMITER //
+CREATE PROCEDURE importLabResult
+	(IN patient_id_in INT, IN test_in VARCHAR(20), IN date_entered DATE, 
+	IN result_in DECIMAL(7,2), IN poc_in TINYINT(1), IN user_in VARCHAR(100), 
+	IN clinic_in INT)
+BEGIN
+
+IF test_in = 'A1C' THEN
+	INSERT INTO A1C 
+	VALUES (patient_id_in, date_entered, result_in, 
+	poc_in, user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in, poc = poc_in;
+	ELSEIF test_in = 'GLUCOSE AC' OR test_in = 'GLUCOSE PC' THEN
+	INSERT INTO Glucose 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'LDL' OR test_in = 'LDL POST MI' THEN
+	INSERT INTO LDL 
+	VALUES (patient_id_in, date_entered, result_in, 
+	IF(test_in = 'LDL POST MI', 1, 0), user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in, 
+	post_mi = IF(test_in = 'LDL POST MI', 1, 0);
+	INSERT INTO LDLOnStatin 
+	VALUES (patient_id_in, date_entered, 0) 
+	ON DUPLICATE KEY UPDATE on_statin = 0;
+	ELSEIF test_in = 'HDL' THEN
+	INSERT INTO HDL 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'TRIGLYCERIDES' THEN
+	INSERT INTO Triglycerides 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'TSH' THEN
+	INSERT INTO TSH 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	INSERT INTO TSHOnThyroidTreatment 
+	VALUES (patient_id_in, date_entered, 0) 
+	ON DUPLICATE KEY UPDATE on_thyroid_treatment = 0;
+	ELSEIF test_in = 'T4' THEN
+	INSERT INTO T4 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'UACR' THEN
+	INSERT INTO UACR 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'EGFR' THEN
+	INSERT INTO EGFR 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'CREATININE' THEN
+	INSERT INTO Creatinine 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'AST' THEN
+	INSERT INTO AST 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'ALT' THEN
+	INSERT INTO ALT 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSEIF test_in = 'PSA' THEN
+	INSERT INTO PSA 
+	VALUES (patient_id_in, date_entered, result_in, 
+	user_in, clinic_in) 
+	ON DUPLICATE KEY UPDATE result = result_in;
+	ELSE
+	SIGNAL SQLSTATE '45000' 
+	SET MESSAGE_TEXT = 'The test is not recognized.';
+	END IF;
+
+/*mark the statistics snapshot outdated*/
+UPDATE StatisticsSnapshot ss 
+	SET ss.change_count = ss.change_count + 1 
+	WHERE ss.clinic_id = clinic_in;
+
+END ; //
+DELIMITER ;
+
 /**
 * USAGE: To set the values for patient treatment
 *CALL addTreatment 
@@ -3053,6 +3212,10 @@ IF rx_class_in IS NOT NULL THEN
 		VALUES (patient_id_in, date_entered, rx_class_in, 
 		user_in, clinic_in);
 		END IF;
+	/*mark the statistics snapshot outdated*/
+	UPDATE StatisticsSnapshot ss 
+		SET ss.change_count = ss.change_count + 1 
+		WHERE ss.clinic_id = clinic_in;
 END IF;
 IF med_id_in IS NOT NULL THEN 
 	SELECT COUNT(*) INTO med_count 
@@ -4870,6 +5033,192 @@ COMMIT;
 END ; //
 DELIMITER ;
 
+/**
+*USAGE: To retrieve the results and notes of several history topics for a 
+*patient in one call. For each requested topic, in the order below, the 
+*results are returned followed by the topic-specific notes. The treatment 
+*topic returns only its notes.
+* CALL getHistories(?, ?, ?, ?)
+* 1 = patient_id
+* 2 = comma-separated list of history topics
+* 3 = string
+* 4 = procedure success
+*/
+
+DELIMITER //
+CREATE PROCEDURE getHistories
+	(IN patient_id_in INT, IN topics_in VARCHAR(1000), 
+    IN string_in VARCHAR(64), OUT proc_success TINYINT(1))
+BEGIN
+
+DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
+DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
+
+SET proc_success = 0;
+
+IF FIND_IN_SET('A1C', topics_in) > 0 THEN 
+	CALL getA1C(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'A1C', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Glucose', topics_in) > 0 THEN 
+	CALL getGlucose(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Glucose', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('LDL', topics_in) > 0 THEN 
+	CALL getLDL(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'LDL', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('HDL', topics_in) > 0 THEN 
+	CALL getHDL(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'HDL', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Triglycerides', topics_in) > 0 THEN 
+	CALL getTriglycerides(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Triglycerides', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('TSH', topics_in) > 0 THEN 
+	CALL getTSH(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'TSH', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('T4', topics_in) > 0 THEN 
+	CALL getT4(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'T4', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('UACR', topics_in) > 0 THEN 
+	CALL getUACR(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'UACR', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('eGFR', topics_in) > 0 THEN 
+	CALL getEGFR(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'eGFR', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Creatinine', topics_in) > 0 THEN 
+	CALL getCreatinine(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Creatinine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('BMI', topics_in) > 0 THEN 
+	CALL getBMI(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'BMI', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Waist', topics_in) > 0 THEN 
+	CALL getWaist(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Waist', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Blood Pressure', topics_in) > 0 THEN 
+	CALL getBP(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Blood Pressure', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Class', topics_in) > 0 THEN 
+	CALL getClass(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Class', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Eye Screening', topics_in) > 0 THEN 
+	CALL getEye(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Eye Screening', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Foot Screening', topics_in) > 0 THEN 
+	CALL getFoot(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Foot Screening', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Psychological Screening', topics_in) > 0 THEN 
+	CALL getPsychologicalScreening(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Psychological Screening', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Physical Activity', topics_in) > 0 THEN 
+	CALL getPhysicalActivity(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Physical Activity', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Influenza Vaccine', topics_in) > 0 THEN 
+	CALL getInfluenza(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Influenza Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('PCV-13 Vaccine', topics_in) > 0 THEN 
+	CALL getPCV13(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'PCV-13 Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('PPSV-23 Vaccine', topics_in) > 0 THEN 
+	CALL getPPSV23(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'PPSV-23 Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Hepatitis B Vaccine', topics_in) > 0 THEN 
+	CALL getHepB(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Hepatitis B Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('TDAP Vaccine', topics_in) > 0 THEN 
+	CALL getTDAP(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'TDAP Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Zoster Vaccine', topics_in) > 0 THEN 
+	CALL getZoster(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Zoster Vaccine', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Smoking', topics_in) > 0 THEN 
+	CALL getSmoker(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Smoking', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Telephone Follow Up', topics_in) > 0 THEN 
+	CALL getTelephoneFollowUp(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Telephone Follow Up', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('AST', topics_in) > 0 THEN 
+	CALL getAst(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'AST', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('ALT', topics_in) > 0 THEN 
+	CALL getAlt(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'ALT', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('PSA', topics_in) > 0 THEN 
+	CALL getPsa(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'PSA', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Compliance', topics_in) > 0 THEN 
+	CALL getCompliance(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Compliance', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Hospitalization', topics_in) > 0 THEN 
+	CALL getER(patient_id_in, @success);
+	CALL getNotes(patient_id_in, 'Hospitalization', string_in, @success);
+END IF;
+
+IF FIND_IN_SET('Treatment', topics_in) > 0 THEN 
+	CALL getNotes(patient_id_in, 'Treatment', string_in, @success);
+END IF;
+SET proc_success = 1;
+
+END ; //
+DELIMITER ;
+
 /**
 *USAGE: To retrieve all note topics
 * CALL getNoteTopics(?)
@@ -4900,7 +5249,7 @@ DELIMITER ;
 
 /**
 *USAGE: to add patient demographic information to the database
-*CALL addPatient(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
+*CALL addPatient(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
 *1 = first_name
 *2 = last_name
 *3 = birth_date
@@ -4913,7 +5262,8 @@ DELIMITER ;
 *10 = start_date
 *11 = clinic_id_in
 *12 = string
-*13 = proc_success
+*13 = patient_id
+*14 = proc_success
 */
 DELIMITER //
 CREATE PROCEDURE addPatient
@@ -4921,7 +5271,7 @@ CREATE PROCEDURE addPatient
 	IN birth_date_in DATE, IN address_in VARCHAR(255), IN contact_number_in VARCHAR(50), 
 	IN gender_in VARCHAR(50), IN race_in VARCHAR(50), IN email_in VARCHAR(255), 
 	IN language_in VARCHAR(50), IN start_date_in DATE, IN clinic_id_in INT, 
-	IN string_in VARCHAR(64), OUT proc_success TINYINT(1))
+	IN string_in VARCHAR(64), OUT patient_id_out INT, OUT proc_success TINYINT(1))
 BEGIN
 	
 	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
@@ -4940,6 +5290,7 @@ BEGIN
 		AES_ENCRYPT(gender_in, string_in), 
 		AES_ENCRYPT(race_in, string_in), 
 		AES_ENCRYPT(start_date_in, string_in));
+	SET patient_id_out = LAST_INSERT_ID();
 	INSERT INTO PatientClinic VALUES (LAST_INSERT_ID(), clinic_id_in);
 
 	IF address_in IS NOT NULL THEN 
@@ -4955,6 +5306,11 @@ BEGIN
 			language_in);
 	END IF;
 
+	/*mark the statistics snapshot outdated*/
+	UPDATE StatisticsSnapshot ss 
+		SET ss.change_count = ss.change_count + 1 
+		WHERE ss.clinic_id = clinic_id_in;
+
 SET proc_success = 1;
 
 COMMIT;
@@ -4962,35 +5318,21 @@ END ; //
 DELIMITER ;
 
 /**
-*USAGE: to retrieve clinic population body mass statistics:
-* avg bmi, avg bmi for males and females, avg change in bmi,
-* avg change in bmi for males and females
-*CALL getBodyMassStatistics(?, ?, ?);
+*USAGE: to retrieve clinic population body mass statistics
+* from the statistics snapshot: avg bmi for males and females, and the last 
+* bmi and classes attended of each male and female patient. Nothing is 
+* returned if the snapshot has not been created or patient data has 
+* changed since it was refreshed.
+*CALL getBodyMassStatistics(?, ?);
 *1 = clinic_id
-*2 = string
-*3 = proc_success
+*2 = proc_success
 */
 DELIMITER //
 CREATE PROCEDURE getBodyMassStatistics
-	(IN clinic_id_in INT, IN string_in VARCHAR(64), OUT proc_success TINYINT(1))
+	(IN clinic_id_in INT, OUT proc_success TINYINT(1))
 BEGIN
-	DECLARE avg_all DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_m DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_f DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_this_year DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_last_year DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_last DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_year_before DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_this_year_m DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_last_year_m DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_last_m DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_year_before_m DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_this_year_f DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_last_year_f DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_last_f DECIMAL(7, 2) DEFAULT 0;
-	DECLARE avg_year_before_year_before_f DECIMAL(7, 2) DEFAULT 0;
-	
-	
+	DECLARE snapshot_count INT DEFAULT 0;
+
 	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
 	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
 
@@ -4998,78 +5340,51 @@ BEGIN
 
 	SET proc_success = 0;
 
-	/*Retrieving body mass statistics*/
-
-	/*SELECT TRUNCATE(AVG(b.result), 2) INTO avg_all 
-	FROM BMI b;*/
-	SELECT TRUNCATE(AVG(b.result), 2) INTO avg_m 
-	FROM BMI b, Patient p 
-	WHERE b.clinic_id = clinic_id_in 
-	AND b.patient_id = p.patient_id 
-	AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male';
-	SELECT TRUNCATE(AVG(b.result), 2) INTO avg_f 
-	FROM BMI b, Patient p 
-	WHERE b.clinic_id = clinic_id_in 
-	AND b.patient_id = p.patient_id 
-	AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female';
-	
-	SELECT avg_m AS 'avg male', 
-		avg_f AS 'avg female';
+	SELECT COUNT(*) INTO snapshot_count 
+		FROM StatisticsSnapshot 
+		WHERE clinic_id = clinic_id_in 
+		AND change_count = refreshed_change_count;
 
-/*last A1C males and females by classes attended*/
-	SELECT a.result AS 'last BMI', count(c.patient_id) AS 'classes attended' 
-		FROM BMI a, LastClass c, Patient p 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = c.patient_id 
-		AND c.patient_id = p.patient_id 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND a.date_recorded = (
-		SELECT max(b.date_recorded) 
-		FROM BMI b 
-		WHERE b.patient_id = a.patient_id) 
-		GROUP BY c.patient_id;
-	SELECT a.result AS 'last BMI', count(c.patient_id) AS 'classes attended' 
-		FROM BMI a, LastClass c, Patient p 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = c.patient_id 
-		AND c.patient_id = p.patient_id 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND a.date_recorded = (
-		SELECT max(b.date_recorded) 
-		FROM BMI b 
-		WHERE b.patient_id = a.patient_id) 
-		GROUP BY c.patient_id;
+	IF snapshot_count > 0 THEN
 
-SET proc_success = 1;
+		CALL selectStatisticsSnapshotValues(clinic_id_in, 'bodyMass', 1, @success);
+
+		SELECT result AS 'last BMI', CAST(category AS SIGNED) AS 'classes attended' 
+			FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'bodyMass' 
+			AND result_set = 2;
+
+		SELECT result AS 'last BMI', CAST(category AS SIGNED) AS 'classes attended' 
+			FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'bodyMass' 
+			AND result_set = 3;
+
+		SET proc_success = 1;
+
+	END IF;
 
 COMMIT;
 END ; //
 DELIMITER ;
 
 /**
-*USAGE: to retrieve clinic population demographic information:
-* total number of patients, percent male and female, percent 
-* by ethnicity, and ages 
+*USAGE: to retrieve clinic population demographic information
+* from the statistics snapshot: total number of patients, percent male 
+* and female, percent by ethnicity, and ages. Nothing is returned if the 
+* snapshot has not been created or patient data has changed since it was 
+* refreshed.
 *CALL getDemographics(?, ?);
 *1 = clinic_id
-*2 = string
-*3 = proc_success
+*2 = proc_success
 */
 DELIMITER //
 CREATE PROCEDURE getDemographics
-	(IN clinic_id_in INT, IN string_in VARCHAR(64), OUT proc_success TINYINT(1))
+	(IN clinic_id_in INT, OUT proc_success TINYINT(1))
 BEGIN
-	DECLARE total_patients INT DEFAULT 0;
-	DECLARE male_number INT DEFAULT 0;
-	DECLARE female_number INT DEFAULT 0;
-	DECLARE white_number INT DEFAULT 0;
-	DECLARE african_american_number INT DEFAULT 0;
-	DECLARE asian_number INT DEFAULT 0;
-	DECLARE indian_number INT DEFAULT 0;
-	DECLARE hispanic_number INT DEFAULT 0;
-	DECLARE middle_eastern_number INT DEFAULT 0;
-	DECLARE other_number INT DEFAULT 0;
-	
+	DECLARE snapshot_count INT DEFAULT 0;
+
 	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
 	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
 
@@ -5077,92 +5392,35 @@ BEGIN
 
 	SET proc_success = 0;
 
-	/*Retrieving patient demographic information*/
-
-	SELECT COUNT(*) INTO total_patients   
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id;
-
-	SELECT COUNT(*) INTO male_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) LIKE 'male';
-
-	SELECT COUNT(*) INTO female_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) LIKE 'female';
-
-	SELECT COUNT(*) INTO white_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'WHITE';
-
-	SELECT COUNT(*) INTO african_american_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'AFRICAN AMERICAN';
-
-	SELECT COUNT(*) INTO asian_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'ASIAN/PACIFIC ISLANDER';
+	SELECT COUNT(*) INTO snapshot_count 
+		FROM StatisticsSnapshot 
+		WHERE clinic_id = clinic_id_in 
+		AND change_count = refreshed_change_count;
 
-	SELECT COUNT(*) INTO indian_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'AMERICAN INDIAN/ALASKA NATIVE';
+	IF snapshot_count > 0 THEN
 
-	SELECT COUNT(*) INTO hispanic_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'HISPANIC';
+		CALL selectStatisticsSnapshotValues(clinic_id_in, 'demographics', 1, @success);
 
-	SELECT COUNT(*) INTO middle_eastern_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'MIDDLE EASTERN';
+		SELECT CAST(result AS SIGNED) AS 'age' 
+			FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'demographics' 
+			AND result_set = 2;
 
-	SELECT COUNT(*) INTO other_number 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id 
-		AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'OTHER';	
-
-	SELECT total_patients AS 'number of patients', 
-		male_number/total_patients AS 'percent male', 
-		female_number/total_patients AS 'percent female', 
-		white_number/total_patients AS 'percent white', 
-		african_american_number/total_patients AS 'percent african american', 
-		asian_number/total_patients AS 'percent asian', 
-		indian_number/total_patients AS 'percent indian', 
-		hispanic_number/total_patients AS 'percent hispanic', 
-		middle_eastern_number/total_patients AS 'percent middle eastern', 
-		other_number/total_patients AS 'percent other'; 
-
-	SELECT FLOOR(DATEDIFF(DATE(NOW()), (CAST(AES_DECRYPT(p.birth_date, string_in) AS DATE)))/365) AS 'age' 
-		FROM Patient p, PatientClinic pc 
-		WHERE pc.clinic_id = clinic_id_in 
-		AND p.patient_id = pc.patient_id;
+		SET proc_success = 1;
 
-SET proc_success = 1;
+	END IF;
 
 COMMIT;
 END ; //
 DELIMITER ;
 
 /**
-*USAGE: to retrieve clinic population glycemic control information:
-* avg a1c results, avg change in a1c, percent at target
+*USAGE: to retrieve clinic population glycemic control information
+* from the statistics snapshot: avg a1c results, percent at target, and 
+* the last a1c with the classes attended and treatment class of each 
+* patient. Nothing is returned if the snapshot has not been created or 
+* patient data has changed since it was refreshed.
 *CALL getGlycemicControl(?, ?);
 *1 = clinic_id
 *2 = proc_success
@@ -5171,9 +5429,8 @@ DELIMITER //
 CREATE PROCEDURE getGlycemicControl
 	(IN clinic_id_in INT, OUT proc_success TINYINT(1))
 BEGIN
-	DECLARE total_patients INT DEFAULT 0;
-	DECLARE target_count INT DEFAULT 0;
-	
+	DECLARE snapshot_count INT DEFAULT 0;
+
 	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
 	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
 
@@ -5181,54 +5438,31 @@ BEGIN
 
 	SET proc_success = 0;
 
-	
-	SELECT COUNT(*) INTO total_patients   
-		FROM Patient p, A1C a 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id;
+	SELECT COUNT(*) INTO snapshot_count 
+		FROM StatisticsSnapshot 
+		WHERE clinic_id = clinic_id_in 
+		AND change_count = refreshed_change_count;
 
-	SELECT COUNT(*) INTO target_count 
-	FROM HealthyTargetStatus hts, A1C a, Patient p 
-	WHERE a.clinic_id = clinic_id_in 
-	AND hts.patient_id = p.patient_id 
-	AND a.patient_id = p.patient_id 
-	AND hts.measurement = 'a1c' 
-	AND hts.out_of_target = 0;
+	IF snapshot_count > 0 THEN
 
-	SELECT AVG(a.result) AS 'average A1C' 
-		FROM A1C a 
-		WHERE a.clinic_id = clinic_id_in;
-	
-	SELECT target_count/total_patients AS 'percent at A1C target';
-
-
-/*last A1C and number of classes attended for each patient*/
-	SELECT a.result AS 'last A1C', count(c.patient_id) AS 'classes attended' 
-	FROM A1C a, LastClass c 
-	WHERE a.clinic_id = clinic_id_in 
-	AND a.patient_id = c.patient_id 
-	AND a.date_recorded = (
-	SELECT max(b.date_recorded) 
-	FROM A1C b 
-	WHERE b.patient_id = a.patient_id) 
-	GROUP BY c.patient_id;
-
-/*last A1C and treatment class attended for each patient*/
-	SELECT a.result AS 'last A1C', c.rx_class AS 'treatment class'
-		FROM A1C a, PatientRx c 
-		WHERE a.patient_id = c.patient_id 
-		AND a.clinic_id = clinic_id_in 
-		AND a.date_recorded = (
-		SELECT max(b.date_recorded) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND c.date_recorded = (
-		SELECT max(d.date_recorded) 
-		FROM PatientRx d 
-		WHERE d.patient_id = a.patient_id)
-		GROUP BY c.patient_id;
+		CALL selectStatisticsSnapshotValues(clinic_id_in, 'glycemicControl', 1, @success);
+		CALL selectStatisticsSnapshotValues(clinic_id_in, 'glycemicControl', 2, @success);
 
-SET proc_success = 1;
+		SELECT result AS 'last A1C', CAST(category AS SIGNED) AS 'classes attended' 
+			FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'glycemicControl' 
+			AND result_set = 3;
+
+		SELECT result AS 'last A1C', category AS 'treatment class' 
+			FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'glycemicControl' 
+			AND result_set = 4;
+
+		SET proc_success = 1;
+
+	END IF;
 
 COMMIT;
 END ; //
@@ -5366,6 +5600,12 @@ BEGIN
 				WHERE patient_id = patient_id_in;
 			END IF;
 		END IF;
+
+		/*mark the statistics snapshot outdated*/
+		UPDATE StatisticsSnapshot ss, PatientClinic pc 
+			SET ss.change_count = ss.change_count + 1 
+			WHERE pc.patient_id = patient_id_in 
+			AND ss.clinic_id = pc.clinic_id;
 	
 	SET proc_success = 1;
 
@@ -5425,6 +5665,211 @@ COMMIT;
 END ; //
 DELIMITER ;
 
+/**
+*USAGE: to retrieve the encrypted demographic information for all patients, 
+*which is decrypted by the application
+*CALL getAllPatientsEncrypted(?, ?);
+*1 = clinic_id
+*2 = proc_success
+*/
+DELIMITER //
+CREATE PROCEDURE getAllPatientsEncrypted
+	(IN clinic_id_in INT, OUT proc_success TINYINT(1))
+BEGIN
+		
+	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
+	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
+
+	START TRANSACTION;
+
+	SET proc_success = 0;
+
+/*Retrieving the encrypted information for all patients*/
+
+	SELECT p.patient_id AS 'patient id', 
+		CAST(p.first_name AS BINARY) AS 'first name', 
+		CAST(p.last_name AS BINARY) AS 'last name', 
+		CAST(p.birth_date AS BINARY) AS 'birth date', 
+		CAST(pa.address AS BINARY) AS 'address', 
+		CAST(p.contact_number AS BINARY) AS 'contact number', 
+		CAST(p.gender AS BINARY) AS 'gender', 
+		CAST(p.race AS BINARY) AS 'race', 
+		CAST(pea.email_address AS BINARY) AS 'email', 
+		pl.language AS 'language', 
+		ip.reason AS 'reason', 
+		CAST(p.start_date AS BINARY) AS 'start date' 
+		FROM Patient p INNER JOIN PatientClinic pc 
+		ON p.patient_id = pc.patient_id
+		LEFT JOIN PatientAddress pa 
+		ON p.patient_id = pa.patient_id   
+		LEFT JOIN PatientEmailAddress pea 
+		ON p.patient_id = pea.patient_id 
+		LEFT JOIN PatientLanguage pl 
+		ON p.patient_id = pl.patient_id 
+		LEFT JOIN InactivePatient ip 
+		ON p.patient_id = ip.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		ORDER BY p.patient_id;
+	
+SET proc_success = 1;
+
+COMMIT;
+END ; //
+DELIMITER ;
+
+/**
+*USAGE: to export the patients of a clinic. The export procedures have no 
+*output parameter and no transaction, so the driver can stream their rows 
+*and errors are returned to the caller.
+*CALL exportPatients(?, ?);
+*1 = clinic_id
+*2 = string
+*/
+DELIMITER //
+CREATE PROCEDURE exportPatients
+	(IN clinic_id_in INT, IN string_in VARCHAR(64))
+BEGIN
+
+	SELECT p.patient_id AS 'patient id', 
+		CAST(AES_DECRYPT(p.first_name, string_in) AS CHAR(50)) AS 'first name', 
+		CAST(AES_DECRYPT(p.last_name, string_in) AS CHAR(50)) AS 'last name', 
+		CAST(AES_DECRYPT(p.birth_date, string_in) AS DATE) AS 'birth date', 
+		CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50)) AS 'gender', 
+		CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50)) AS 'race', 
+		pl.language AS 'language', 
+		CAST(AES_DECRYPT(p.start_date, string_in) AS DATE) AS 'start date', 
+		ip.reason AS 'reason for inactivity' 
+		FROM Patient p INNER JOIN PatientClinic pc 
+		ON p.patient_id = pc.patient_id
+		LEFT JOIN PatientLanguage pl 
+		ON p.patient_id = pl.patient_id 
+		LEFT JOIN InactivePatient ip 
+		ON p.patient_id = ip.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		ORDER BY p.patient_id;
+
+END ; //
+DELIMITER ;
+
+/**
+*USAGE: to export the laboratory results of all patients of a clinic
+*CALL exportLabResults(?);
+*1 = clinic_id
+*/
+DELIMITER //
+CREATE PROCEDURE exportLabResults
+	(IN clinic_id_in INT)
+BEGIN
+
+	SELECT lab.patient_id AS 'patient id', lab.test AS 'test', 
+		lab.date_recorded AS 'date recorded', lab.result AS 'result' 
+		FROM (
+		SELECT r.patient_id, 'A1C' AS test, r.date_recorded, r.result 
+		FROM A1C r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'Glucose' AS test, r.date_recorded, r.result 
+		FROM Glucose r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'LDL' AS test, r.date_recorded, r.result 
+		FROM LDL r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'HDL' AS test, r.date_recorded, r.result 
+		FROM HDL r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'Triglycerides' AS test, r.date_recorded, r.result 
+		FROM Triglycerides r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'TSH' AS test, r.date_recorded, r.result 
+		FROM TSH r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'T4' AS test, r.date_recorded, r.result 
+		FROM T4 r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'UACR' AS test, r.date_recorded, r.result 
+		FROM UACR r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'eGFR' AS test, r.date_recorded, r.result 
+		FROM EGFR r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'Creatinine' AS test, r.date_recorded, r.result 
+		FROM Creatinine r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'AST' AS test, r.date_recorded, r.result 
+		FROM AST r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'ALT' AS test, r.date_recorded, r.result 
+		FROM ALT r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		UNION ALL 
+		SELECT r.patient_id, 'PSA' AS test, r.date_recorded, r.result 
+		FROM PSA r INNER JOIN PatientClinic pc 
+		ON r.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		) AS lab 
+		ORDER BY lab.patient_id, lab.test, lab.date_recorded DESC;
+
+END ; //
+DELIMITER ;
+
+/**
+*USAGE: to export the progress notes of all patients of a clinic
+*CALL exportProgressNotes(?, ?);
+*1 = clinic_id
+*2 = string
+*/
+DELIMITER //
+CREATE PROCEDURE exportProgressNotes
+	(IN clinic_id_in INT, IN string_in VARCHAR(64))
+BEGIN
+
+	SELECT pn.progress_note_id AS 'progress note id', 
+		pn.patient_id AS 'patient id', pn.date_created AS 'date created', 
+		pn.medical_insurance AS 'medical insurance', 
+		pn.shoe_size AS 'shoe size', 
+		pn.allergic_to_medications AS 'allergic to medications', 
+		pn.allergies AS 'allergies', pn.weight AS 'weight', 
+		pn.height_feet AS 'height feet', pn.height_inches AS 'height inches', 
+		pn.weight_reduction_goal AS 'weight reduction goal', 
+		pn.pulse AS 'pulse', pn.respirations AS 'respirations', 
+		pn.temperature AS 'temperature', pn.foot_screening AS 'foot screening', 
+		pn.medications AS 'medications', pn.a1c AS 'a1c', pn.glucose AS 'glucose', 
+		CAST(AES_DECRYPT(pn.nurse_or_dietitian_note, string_in) AS CHAR(1000)) 
+		AS 'nurse or dietitian note', 
+		CAST(AES_DECRYPT(pn.subjective, string_in) AS CHAR(1000)) AS 'subjective', 
+		CAST(AES_DECRYPT(pn.objective, string_in) AS CHAR(1000)) AS 'objective', 
+		CAST(AES_DECRYPT(pn.assessment, string_in) AS CHAR(1000)) AS 'assessment', 
+		CAST(AES_DECRYPT(pn.plan, string_in) AS CHAR(1000)) AS 'plan' 
+		FROM ProgressNote pn INNER JOIN PatientClinic pc 
+		ON pn.patient_id = pc.patient_id 
+		WHERE pc.clinic_id = clinic_id_in 
+		ORDER BY pn.patient_id, pn.date_created;
+
+END ; //
+DELIMITER ;
+
 /**
 *USAGE: To retrieve all psychological screening references
 * CALL getPHQ9(?)
@@ -6455,18 +6900,22 @@ END ; //
 DELIMITER ;
 
 /**
-*USAGE: to retrieve clinic population treatment class information:
-* 
+*USAGE: to retrieve clinic population treatment class information
+* from the statistics snapshot: avg change in a1c and patient counts by 
+* treatment class, gender and ethnicity, each as its own result set. 
+* Nothing is returned if the snapshot has not been created or patient 
+* data has changed since it was refreshed.
 *CALL getTreatmentStatistics(?, ?);
 *1 = clinic_id
-*2 = string
-*3 = proc_success
+*2 = proc_success
 */
 DELIMITER //
 CREATE PROCEDURE getTreatmentStatistics
-	(IN clinic_id_in INT, IN string_in VARCHAR(64), 
-	OUT proc_success TINYINT(1))
+	(IN clinic_id_in INT, OUT proc_success TINYINT(1))
 BEGIN
+	DECLARE snapshot_count INT DEFAULT 0;
+	DECLARE result_set_count INT DEFAULT 0;
+	DECLARE result_set_number INT DEFAULT 1;
 
 	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
 	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
@@ -6475,1086 +6924,1608 @@ BEGIN
 
 	SET proc_success = 0;
 
-/*A1C averages by treatment class*/
+	SELECT COUNT(*) INTO snapshot_count 
+		FROM StatisticsSnapshot 
+		WHERE clinic_id = clinic_id_in 
+		AND change_count = refreshed_change_count;
 
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'total avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a 
-		WHERE a.clinic_id = clinic_id_in 
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a 
-		WHERE a.clinic_id = clinic_id_in 
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class zero avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = '0'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = '0'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class one avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'I'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'I'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class two avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'II'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'II'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class three avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'III'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'III'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class four avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'IV'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'IV'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class five avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'V'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
-		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'V'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-	SELECT AVG(SecondTable.result - FirstTable.result) AS 'class unknown avg change'
-	FROM (SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r
+	IF snapshot_count > 0 THEN
+
+		SELECT MAX(result_set) INTO result_set_count 
+			FROM StatisticsSnapshotValue 
+			WHERE clinic_id = clinic_id_in 
+			AND statistic = 'treatment';
+
+		WHILE result_set_number <= result_set_count DO
+			CALL selectStatisticsSnapshotValues(clinic_id_in, 'treatment', result_set_number, @success);
+			SET result_set_number = result_set_number + 1;
+		END WHILE;
+
+		SET proc_success = 1;
+
+	END IF;
+
+COMMIT;
+END ; //
+DELIMITER ;
+
+/**
+*USAGE: to recompute the clinic population statistics held in the 
+* statistics snapshot tables. The snapshot is left unchanged if it was 
+* refreshed less than the given number of seconds ago and no patient data 
+* has changed since.
+*CALL refreshStatisticsSnapshot(?, ?, ?, ?);
+*1 = clinic_id
+*2 = maximum age in seconds
+*3 = string
+*4 = proc_success
+*/
+DELIMITER //
+CREATE PROCEDURE refreshStatisticsSnapshot
+	(IN clinic_id_in INT, IN max_age_in INT, IN string_in VARCHAR(64), 
+	OUT proc_success TINYINT(1))
+BEGIN
+	DECLARE snapshot_age INT DEFAULT NULL;
+	DECLARE snapshot_changes INT DEFAULT 0;
+	DECLARE refreshed_changes INT DEFAULT 0;
+	DECLARE total_patients INT DEFAULT 0;
+	DECLARE male_number INT DEFAULT 0;
+	DECLARE female_number INT DEFAULT 0;
+	DECLARE white_number INT DEFAULT 0;
+	DECLARE african_american_number INT DEFAULT 0;
+	DECLARE asian_number INT DEFAULT 0;
+	DECLARE indian_number INT DEFAULT 0;
+	DECLARE hispanic_number INT DEFAULT 0;
+	DECLARE middle_eastern_number INT DEFAULT 0;
+	DECLARE other_number INT DEFAULT 0;
+	DECLARE a1c_patients INT DEFAULT 0;
+	DECLARE a1c_target_count INT DEFAULT 0;
+	DECLARE bmi_avg_m DECIMAL(7, 2) DEFAULT 0;
+	DECLARE bmi_avg_f DECIMAL(7, 2) DEFAULT 0;
+
+	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
+	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
+
+	/*read without locking the result tables while the snapshot is computed*/
+	SET TRANSACTION ISOLATION LEVEL READ COMMITTED;
+	START TRANSACTION;
+
+	SET proc_success = 0;
+
+	SELECT TIMESTAMPDIFF(SECOND, MAX(refreshed_at), NOW()), 
+		IFNULL(MAX(change_count), 0), IFNULL(MAX(refreshed_change_count), 0) 
+		INTO snapshot_age, snapshot_changes, refreshed_changes 
+		FROM StatisticsSnapshot 
+		WHERE clinic_id = clinic_id_in;
+
+	IF (snapshot_age IS NULL) OR (snapshot_age >= max_age_in) 
+		OR (snapshot_changes <> refreshed_changes) THEN
+
+		DELETE FROM StatisticsSnapshotValue 
+			WHERE clinic_id = clinic_id_in;
+		DELETE FROM StatisticsSnapshotRow 
+			WHERE clinic_id = clinic_id_in;
+
+	/*demographic data*/
+
+		SELECT COUNT(*) INTO total_patients   
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id;
+
+		SELECT COUNT(*) INTO male_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) LIKE 'male';
+
+		SELECT COUNT(*) INTO female_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) LIKE 'female';
+
+		SELECT COUNT(*) INTO white_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'WHITE';
+
+		SELECT COUNT(*) INTO african_american_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'AFRICAN AMERICAN';
+
+		SELECT COUNT(*) INTO asian_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'ASIAN/PACIFIC ISLANDER';
+
+		SELECT COUNT(*) INTO indian_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'AMERICAN INDIAN/ALASKA NATIVE';
+
+		SELECT COUNT(*) INTO hispanic_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'HISPANIC';
+
+		SELECT COUNT(*) INTO middle_eastern_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'MIDDLE EASTERN';
+
+		SELECT COUNT(*) INTO other_number 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id 
+			AND UPPER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) LIKE 'OTHER';	
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		VALUES
+			(clinic_id_in, 'demographics', 1, 1, 'number of patients', 
+			total_patients),
+			(clinic_id_in, 'demographics', 1, 2, 'percent male', 
+			male_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 3, 'percent female', 
+			female_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 4, 'percent white', 
+			white_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 5, 'percent african american', 
+			african_american_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 6, 'percent asian', 
+			asian_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 7, 'percent indian', 
+			indian_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 8, 'percent hispanic', 
+			hispanic_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 9, 'percent middle eastern', 
+			middle_eastern_number/NULLIF(total_patients, 0)),
+			(clinic_id_in, 'demographics', 1, 10, 'percent other', 
+			other_number/NULLIF(total_patients, 0));
+
+		INSERT INTO StatisticsSnapshotRow 
+			(clinic_id, statistic, result_set, result, category) 
+		SELECT clinic_id_in, 'demographics', 2, 
+			FLOOR(DATEDIFF(DATE(NOW()), (CAST(AES_DECRYPT(p.birth_date, string_in) AS DATE)))/365), NULL 
+			FROM Patient p, PatientClinic pc 
+			WHERE pc.clinic_id = clinic_id_in 
+			AND p.patient_id = pc.patient_id;
+
+	/*glycemic control*/
+
+		SELECT COUNT(*) INTO a1c_patients   
+			FROM Patient p, A1C a 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id;
+
+		SELECT COUNT(*) INTO a1c_target_count 
+		FROM HealthyTargetStatus hts, A1C a, Patient p 
 		WHERE a.clinic_id = clinic_id_in 
+		AND hts.patient_id = p.patient_id 
 		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'U'
-		AND 1 < (SELECT COUNT(b.patient_id) 
-		FROM A1C b 
-		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MIN(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS FirstTable, 
-	(SELECT a.patient_id, a.result 
-		FROM A1C a, Patient p, PatientRx r 
+		AND hts.measurement = 'a1c' 
+		AND hts.out_of_target = 0;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'glycemicControl', 1, 1, 'average A1C', AVG(a.result) 
+			FROM A1C a 
+			WHERE a.clinic_id = clinic_id_in;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		VALUES (clinic_id_in, 'glycemicControl', 2, 1, 'percent at A1C target', 
+			a1c_target_count/NULLIF(a1c_patients, 0));
+
+	/*last A1C and number of classes attended for each patient*/
+		INSERT INTO StatisticsSnapshotRow 
+			(clinic_id, statistic, result_set, result, category) 
+		SELECT clinic_id_in, 'glycemicControl', 3, a.result, count(c.patient_id) 
+		FROM A1C a, LastClass c 
 		WHERE a.clinic_id = clinic_id_in 
-		AND a.patient_id = p.patient_id 
-		AND p.patient_id = r.patient_id 
-		AND r.rx_class = 'U'
-		AND 1 < (SELECT COUNT(b.patient_id) 
+		AND a.patient_id = c.patient_id 
+		AND a.date_recorded = (
+		SELECT max(b.date_recorded) 
 		FROM A1C b 
 		WHERE b.patient_id = a.patient_id) 
-		AND a.date_recorded IN 
-		(SELECT MAX(c.date_recorded) 
-		FROM A1C c 
-		WHERE c.patient_id = a.patient_id)) AS SecondTable
-	WHERE FirstTable.patient_id = SecondTable.patient_id;
-
-/*treatment class counts*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class zero count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class one count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class two count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class three count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class four count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class five count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'class unknown count' 
-		FROM PatientRx pr
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for males*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'males class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for females*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'females class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for whites*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'whites class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for African Americans*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'african americans class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for Asians/Pacific Islanders*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'asian/pacific islander class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for American Indians/Alaska Natives*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'american indian/alaska native class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
-			= 'american indian/alaska native' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for Hispanics*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'hispanics class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for Middle Easterners*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'middle eastern class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-/*treatment class counts for other ethnicities*/
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class zero count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = '0' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class one count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'I' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class two count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'II' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class three count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'III' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class four count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'IV' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class five count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'V' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
-
-	SELECT COUNT(DISTINCT pr.patient_id) AS 'other class unknown count' 
-		FROM PatientRx pr, Patient p
-		WHERE pr.clinic_id = clinic_id_in 
-		AND pr.rx_class = 'U' 
-		AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
-		AND pr.patient_id = p.patient_id 
-		AND pr.date_recorded IN 
-		(SELECT MAX(pra.date_recorded) 
-		FROM PatientRx pra 
-		WHERE pra.clinic_id = clinic_id_in 
-		AND pra.patient_id = pr.patient_id);
+		GROUP BY c.patient_id;
+
+	/*last A1C and treatment class attended for each patient*/
+		INSERT INTO StatisticsSnapshotRow 
+			(clinic_id, statistic, result_set, result, category) 
+		SELECT clinic_id_in, 'glycemicControl', 4, a.result, c.rx_class 
+			FROM A1C a, PatientRx c 
+			WHERE a.patient_id = c.patient_id 
+			AND a.clinic_id = clinic_id_in 
+			AND a.date_recorded = (
+			SELECT max(b.date_recorded) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND c.date_recorded = (
+			SELECT max(d.date_recorded) 
+			FROM PatientRx d 
+			WHERE d.patient_id = a.patient_id)
+			GROUP BY c.patient_id;
+
+	/*body mass statistics*/
+
+		SELECT TRUNCATE(AVG(b.result), 2) INTO bmi_avg_m 
+		FROM BMI b, Patient p 
+		WHERE b.clinic_id = clinic_id_in 
+		AND b.patient_id = p.patient_id 
+		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male';
+		SELECT TRUNCATE(AVG(b.result), 2) INTO bmi_avg_f 
+		FROM BMI b, Patient p 
+		WHERE b.clinic_id = clinic_id_in 
+		AND b.patient_id = p.patient_id 
+		AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female';
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		VALUES (clinic_id_in, 'bodyMass', 1, 1, 'avg male', bmi_avg_m), 
+			(clinic_id_in, 'bodyMass', 1, 2, 'avg female', bmi_avg_f);
+
+	/*last BMI males and females by classes attended*/
+		INSERT INTO StatisticsSnapshotRow 
+			(clinic_id, statistic, result_set, result, category) 
+		SELECT clinic_id_in, 'bodyMass', 2, a.result, count(c.patient_id) 
+			FROM BMI a, LastClass c, Patient p 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = c.patient_id 
+			AND c.patient_id = p.patient_id 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND a.date_recorded = (
+			SELECT max(b.date_recorded) 
+			FROM BMI b 
+			WHERE b.patient_id = a.patient_id) 
+			GROUP BY c.patient_id;
+		INSERT INTO StatisticsSnapshotRow 
+			(clinic_id, statistic, result_set, result, category) 
+		SELECT clinic_id_in, 'bodyMass', 3, a.result, count(c.patient_id) 
+			FROM BMI a, LastClass c, Patient p 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = c.patient_id 
+			AND c.patient_id = p.patient_id 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND a.date_recorded = (
+			SELECT max(b.date_recorded) 
+			FROM BMI b 
+			WHERE b.patient_id = a.patient_id) 
+			GROUP BY c.patient_id;
+
+	/*treatment statistics*/
+
+	/*A1C averages by treatment class*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 1, 1, 'total avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a 
+			WHERE a.clinic_id = clinic_id_in 
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a 
+			WHERE a.clinic_id = clinic_id_in 
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 2, 1, 'class zero avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = '0'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = '0'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 3, 1, 'class one avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'I'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'I'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 4, 1, 'class two avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'II'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'II'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 5, 1, 'class three avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'III'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'III'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 6, 1, 'class four avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'IV'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'IV'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 7, 1, 'class five avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'V'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'V'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 8, 1, 'class unknown avg change', 
+			AVG(SecondTable.result - FirstTable.result) 
+		FROM (SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'U'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MIN(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS FirstTable, 
+		(SELECT a.patient_id, a.result 
+			FROM A1C a, Patient p, PatientRx r 
+			WHERE a.clinic_id = clinic_id_in 
+			AND a.patient_id = p.patient_id 
+			AND p.patient_id = r.patient_id 
+			AND r.rx_class = 'U'
+			AND 1 < (SELECT COUNT(b.patient_id) 
+			FROM A1C b 
+			WHERE b.patient_id = a.patient_id) 
+			AND a.date_recorded IN 
+			(SELECT MAX(c.date_recorded) 
+			FROM A1C c 
+			WHERE c.patient_id = a.patient_id)) AS SecondTable
+		WHERE FirstTable.patient_id = SecondTable.patient_id;
+
+	/*treatment class counts*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 9, 1, 'class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 10, 1, 'class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 11, 1, 'class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 12, 1, 'class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 13, 1, 'class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 14, 1, 'class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 15, 1, 'class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for males*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 16, 1, 'males class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 17, 1, 'males class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 18, 1, 'males class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 19, 1, 'males class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 20, 1, 'males class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 21, 1, 'males class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 22, 1, 'males class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'male' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for females*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 23, 1, 'females class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 24, 1, 'females class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 25, 1, 'females class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 26, 1, 'females class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 27, 1, 'females class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 28, 1, 'females class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 29, 1, 'females class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.gender, string_in) AS CHAR(50))) = 'female' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for whites*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 30, 1, 'whites class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 31, 1, 'whites class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 32, 1, 'whites class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 33, 1, 'whites class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 34, 1, 'whites class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 35, 1, 'whites class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 36, 1, 'whites class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'white' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for African Americans*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 37, 1, 'african americans class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 38, 1, 'african americans class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 39, 1, 'african americans class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 40, 1, 'african americans class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 41, 1, 'african americans class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 42, 1, 'african americans class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 43, 1, 'african americans class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'african american' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for Asians/Pacific Islanders*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 44, 1, 'asian/pacific islander class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 45, 1, 'asian/pacific islander class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 46, 1, 'asian/pacific islander class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 47, 1, 'asian/pacific islander class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 48, 1, 'asian/pacific islander class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 49, 1, 'asian/pacific islander class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 50, 1, 'asian/pacific islander class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'asian/pacific islander' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for American Indians/Alaska Natives*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 51, 1, 'american indian/alaska native class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 52, 1, 'american indian/alaska native class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 53, 1, 'american indian/alaska native class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 54, 1, 'american indian/alaska native class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 55, 1, 'american indian/alaska native class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 56, 1, 'american indian/alaska native class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 57, 1, 'american indian/alaska native class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) 
+				= 'american indian/alaska native' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for Hispanics*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 58, 1, 'hispanics class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 59, 1, 'hispanics class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 60, 1, 'hispanics class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 61, 1, 'hispanics class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 62, 1, 'hispanics class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 63, 1, 'hispanics class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 64, 1, 'hispanics class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'hispanic' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for Middle Easterners*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 65, 1, 'middle eastern class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 66, 1, 'middle eastern class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 67, 1, 'middle eastern class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 68, 1, 'middle eastern class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 69, 1, 'middle eastern class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 70, 1, 'middle eastern class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 71, 1, 'middle eastern class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'middle eastern' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+	/*treatment class counts for other ethnicities*/
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 72, 1, 'other class zero count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = '0' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 73, 1, 'other class one count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'I' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 74, 1, 'other class two count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'II' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 75, 1, 'other class three count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'III' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 76, 1, 'other class four count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'IV' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 77, 1, 'other class five count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'V' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		INSERT INTO StatisticsSnapshotValue 
+			(clinic_id, statistic, result_set, column_number, label, result) 
+		SELECT clinic_id_in, 'treatment', 78, 1, 'other class unknown count', 
+			COUNT(DISTINCT pr.patient_id) 
+			FROM PatientRx pr, Patient p
+			WHERE pr.clinic_id = clinic_id_in 
+			AND pr.rx_class = 'U' 
+			AND LOWER(CAST(AES_DECRYPT(p.race, string_in) AS CHAR(50))) = 'other' 
+			AND pr.patient_id = p.patient_id 
+			AND pr.date_recorded IN 
+			(SELECT MAX(pra.date_recorded) 
+			FROM PatientRx pra 
+			WHERE pra.clinic_id = clinic_id_in 
+			AND pra.patient_id = pr.patient_id);
+
+		/*changes committed after the count was read are left for the next refresh*/
+		INSERT INTO StatisticsSnapshot 
+			(clinic_id, refreshed_at, change_count, refreshed_change_count) 
+			VALUES (clinic_id_in, NOW(), snapshot_changes, snapshot_changes) 
+			ON DUPLICATE KEY UPDATE refreshed_at = NOW(), 
+			refreshed_change_count = snapshot_changes;
+
+	END IF;
 
 SET proc_success = 1;
 
@@ -7562,6 +8533,43 @@ COMMIT;
 END ; //
 DELIMITER ;
 
+/**
+*USAGE: to return one row of single values from the statistics snapshot 
+* as a result set, with each value labeled as it was stored. Called by 
+* the procedures reading the snapshot.
+*CALL selectStatisticsSnapshotValues(?, ?, ?, ?);
+*1 = clinic_id
+*2 = statistic
+*3 = result set number
+*4 = proc_success
+*/
+DELIMITER //
+CREATE PROCEDURE selectStatisticsSnapshotValues
+	(IN clinic_id_in INT, IN statistic_in VARCHAR(32), 
+	IN result_set_in SMALLINT, OUT proc_success TINYINT(1))
+BEGIN
+	DECLARE select_list VARCHAR(4096) DEFAULT NULL;
+
+	SET proc_success = 0;
+
+	SELECT GROUP_CONCAT(CONCAT(IFNULL(result, 'NULL'), ' AS `', label, '`') 
+		ORDER BY column_number SEPARATOR ', ') INTO select_list 
+		FROM StatisticsSnapshotValue 
+		WHERE clinic_id = clinic_id_in 
+		AND statistic = statistic_in 
+		AND result_set = result_set_in;
+
+	IF select_list IS NOT NULL THEN
+		SET @snapshot_query = CONCAT('SELECT ', select_list);
+		PREPARE snapshot_statement FROM @snapshot_query;
+		EXECUTE snapshot_statement;
+		DEALLOCATE PREPARE snapshot_statement;
+		SET proc_success = 1;
+	END IF;
+
+END ; //
+DELIMITER ;
+
 /**
 *USAGE: to retrieve the dates and items of the most recent quality 
 * checklist items for a patient 
@@ -8393,6 +9401,68 @@ COMMIT;
 END ; //
 DELIMITER ;
 
+/**
+*USAGE: to save the progress of a reminder email job, removing 
+*completed jobs older than 30 days
+*CALL saveEmailJob(?, ?, ?, ?, ?, ?, ?, ?, ?);
+*1 = job_id
+*2 = clinic_id
+*3 = total
+*4 = sent_count
+*5 = failed_count
+*6 = skipped_count
+*7 = authentication_failed
+*8 = complete
+*9 = proc_success
+*/
+DELIMITER //
+CREATE PROCEDURE saveEmailJob
+	(IN job_id_in CHAR(36), IN clinic_id_in INT, IN total_in INT, 
+	IN sent_count_in INT, IN failed_count_in INT, IN skipped_count_in INT, 
+	IN authentication_failed_in TINYINT(1), IN complete_in TINYINT(1), 
+	OUT proc_success TINYINT(1))
+BEGIN
+	DECLARE EXIT HANDLER FOR SQLEXCEPTION ROLLBACK;
+	DECLARE EXIT HANDLER FOR SQLWARNING ROLLBACK;
+
+	START TRANSACTION;
+    
+    SET proc_success = 0;
+
+	INSERT INTO EmailJob VALUES (job_id_in, clinic_id_in, total_in, 
+		sent_count_in, failed_count_in, skipped_count_in, 
+		authentication_failed_in, complete_in, NOW()) 
+	ON DUPLICATE KEY UPDATE sent_count = sent_count_in, 
+		failed_count = failed_count_in, skipped_count = skipped_count_in, 
+		authentication_failed = authentication_failed_in, 
+		complete = complete_in, updated_at = NOW();
+
+	DELETE FROM EmailJob 
+	WHERE complete = 1 
+	AND updated_at < DATE_SUB(NOW(), INTERVAL 30 DAY);
+    
+    SET proc_success = 1;
+
+COMMIT;
+END ; //
+DELIMITER ;
+
+/**
+*USAGE: to find and return the progress of a reminder email job
+*CALL getEmailJob(?);
+*1 = job_id
+*/
+DELIMITER //
+CREATE PROCEDURE getEmailJob
+	(IN job_id_in CHAR(36))
+BEGIN
+	SELECT ej.job_id, ej.clinic_id, ej.total, ej.sent_count, ej.failed_count, 
+	ej.skipped_count, ej.authentication_failed, ej.complete 
+	FROM EmailJob ej 
+	WHERE ej.job_id = job_id_in;
+END ; //
+DELIMITER ;
+
 /**
 *USAGE: to find and return all quality reference configurations, 
 *including active or inactive status
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Random;
+import registry.NoteAuthor;
+import registry.Patient;
+import registry.ProgressNote;
+
+/**
+ * This class creates the patient data used by the benchmarks. The data is
+ * generated from a fixed seed, so every run measures the same input.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class BenchmarkData {
+
+    /**
+     * The seed of the random data
+     */
+    public static final long SEED = 20170403L;
+
+    /**
+     * The last names used for generated patients
+     */
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams",
+        "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+        "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson",
+        "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson"};
+
+    /**
+     * The first names used for generated patients
+     */
+    private static final String[] FIRST_NAMES = {"Maria", "James", "Linda",
+        "Robert", "Patricia", "John", "Jennifer", "Michael", "Elizabeth",
+        "David", "Barbara", "William", "Susan", "Richard", "Jessica", "Joseph"};
+
+    /**
+     * The milliseconds in a day
+     */
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * This method creates a list of patients with varied names and last
+     * measurement dates. About one patient in ten has no last measurement.
+     *
+     * @param count the number of patients
+     * @return the patients
+     */
+    static ArrayList<Patient> createPatients(int count) {
+        Random random = new Random(SEED);
+        long today = Date.valueOf("2017-04-03").getTime();
+        ArrayList<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                    + (char) ('a' + random.nextInt(26));
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            Date birthDate = new Date(today - (6570 + random.nextInt(25000)) * DAY);
+            Date startDate = new Date(today - random.nextInt(3650) * DAY);
+            Date lastMeasurement = (random.nextInt(10) == 0) ? null
+                    : new Date(today - random.nextInt(730) * DAY);
+            patients.add(new Patient(i + 1, firstName, lastName, birthDate,
+                    "555-01" + (10 + random.nextInt(90)),
+                    random.nextBoolean() ? "female" : "male", "Hispanic",
+                    firstName.toLowerCase() + (i + 1) + "@example.com",
+                    random.nextInt(3) == 0 ? "Spanish" : "English", null,
+                    startDate, lastMeasurement));
+        }
+        return patients;
+    }
+
+    /**
+     * This method creates a progress note with every section filled in for the
+     * first generated patient.
+     *
+     * @return the progress note
+     */
+    static ProgressNote createProgressNote() {
+        Patient patient = createPatients(1).get(0);
+        patient.setAddress("1234 Main Street, Springfield, IL 62701");
+        ArrayList<NoteAuthor> authors = new ArrayList<>();
+        authors.add(new NoteAuthor("Jane", "Smith", "Registered Nurse",
+                Timestamp.valueOf("2017-03-01 09:15:00")));
+        authors.add(new NoteAuthor("Robert", "Jones", "Dietitian",
+                Timestamp.valueOf("2017-03-01 10:40:00")));
+        ProgressNote note = new ProgressNote(patient, new Date(SEED),
+                "10", "Penicillin", new BigDecimal("201.5"), 5, 10,
+                new BigDecimal("5.0"), 72, 16, new BigDecimal("98.6"),
+                "Metformin 500 mg twice daily", new BigDecimal("7.2"),
+                new BigDecimal("142"), new BigDecimal("38.5"), 128, 82,
+                new BigDecimal("28.9"), new Date(SEED), "Normal",
+                "Moderate risk", 4, 3, Boolean.FALSE, new BigDecimal("0.9"),
+                "Discussed carbohydrate counting and portion sizes.",
+                "Patient reports feeling well and checking glucose daily.",
+                "No acute distress. Feet without lesions.",
+                "Type 2 diabetes with A1C above goal.",
+                "Continue current medications and follow up in three months.",
+                authors);
+        note.setMedicalInsurance(true);
+        note.setAllergicToMedications(true);
+        note.setFootScreening(true);
+        note.setAceOrArb(true);
+        return note;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.Patient;
+import utility.CallListUtility.SortType;
+
+/**
+ * This benchmark measures the selection sort formerly used by the
+ * CallListUtility, as the baseline for the CallListSortBenchmark. Each
+ * operation sorts a fresh copy of the unsorted list. The sort is quadratic, so
+ * it is timed with single shots on the smaller list only.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallListSelectionSortBenchmark {
+
+    /**
+     * The number of patients in the call list
+     */
+    @Param({"10000"})
+    public int size;
+
+    /**
+     * The unsorted call list
+     */
+    private ArrayList<Patient> patients;
+
+    /**
+     * This method creates the call list.
+     */
+    @Setup
+    public void setUp() {
+        patients = BenchmarkData.createPatients(size);
+    }
+
+    /**
+     * Measures the former selection sort by last name
+     *
+     * @return the sorted list
+     */
+    @Benchmark
+    public ArrayList<Patient> selectionSortByLastName() {
+        ArrayList<Patient> callList = new ArrayList<>(patients);
+        selectionSort(callList, SortType.LAST_NAME);
+        return callList;
+    }
+
+    /**
+     * Measures the former selection sort by last measurement date
+     *
+     * @return the sorted list
+     */
+    @Benchmark
+    public ArrayList<Patient> selectionSortByLastMeasurementDate() {
+        ArrayList<Patient> callList = new ArrayList<>(patients);
+        selectionSort(callList, SortType.LAST_MEASUREMENT_DATE);
+        return callList;
+    }
+
+    /**
+     * This method sorts the patients in ascending order with the selection
+     * sort formerly used by the CallListUtility.
+     *
+     * @param callList the list of patients
+     * @param sortBy the indicator of sort type
+     */
+    private static void selectionSort(ArrayList<Patient> callList, SortType sortBy) {
+        int numberOfPatients = callList.size();
+        for (int index = 0; index < numberOfPatients - 1; index++) {
+            Patient earliestPatient = callList.get(index);
+            int indexOfMin = index;
+            for (int i = index + 1; i < numberOfPatients; i++) {
+                Patient p = callList.get(i);
+                boolean earlier;
+                if (sortBy == SortType.LAST_NAME) {
+                    earlier = p.getLastName()
+                            .compareTo(earliestPatient.getLastName()) < 0;
+                } else {
+                    earlier = (p.getDateOfLastMeasurement() == null)
+                            || ((earliestPatient.getDateOfLastMeasurement() != null)
+                            && (p.getDateOfLastMeasurement()
+                            .compareTo(earliestPatient.getDateOfLastMeasurement()) < 0));
+                }
+                if (earlier) {
+                    earliestPatient = p;
+                    indexOfMin = i;
+                }
+            }
+            Patient temporary = callList.get(index);
+            callList.set(index, callList.get(indexOfMin));
+            callList.set(indexOfMin, temporary);
+        }
+    }
+}
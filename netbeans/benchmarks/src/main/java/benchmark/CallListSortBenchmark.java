@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.Patient;
+import utility.CallListUtility;
+import utility.CallListUtility.SortType;
+
+/**
+ * This benchmark measures sorting call lists with the comparators of the
+ * CallListUtility. Each operation sorts a fresh copy of the unsorted list. The
+ * selection sort formerly used is measured by the
+ * CallListSelectionSortBenchmark.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallListSortBenchmark {
+
+    /**
+     * The number of patients in the call list
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    /**
+     * The unsorted call list
+     */
+    private ArrayList<Patient> patients;
+
+    /**
+     * This method creates the call list.
+     */
+    @Setup
+    public void setUp() {
+        patients = BenchmarkData.createPatients(size);
+    }
+
+    /**
+     * Measures sorting by last name
+     *
+     * @return the sorted list
+     */
+    @Benchmark
+    public ArrayList<Patient> sortByLastName() {
+        ArrayList<Patient> callList = new ArrayList<>(patients);
+        CallListUtility.sortPatients(callList, SortType.LAST_NAME);
+        return callList;
+    }
+
+    /**
+     * Measures sorting by last measurement date
+     *
+     * @return the sorted list
+     */
+    @Benchmark
+    public ArrayList<Patient> sortByLastMeasurementDate() {
+        ArrayList<Patient> callList = new ArrayList<>(patients);
+        CallListUtility.sortPatients(callList, SortType.LAST_MEASUREMENT_DATE);
+        return callList;
+    }
+
+    /**
+     * Measures sorting by last measurement date in descending order
+     *
+     * @return the sorted list
+     */
+    @Benchmark
+    public ArrayList<Patient> reverseSortByLastMeasurementDate() {
+        ArrayList<Patient> callList = new ArrayList<>(patients);
+        CallListUtility.reverseSortPatients(callList, SortType.LAST_MEASUREMENT_DATE);
+        return callList;
+    }
+}
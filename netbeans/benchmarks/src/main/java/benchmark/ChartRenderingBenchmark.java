@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPositions;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.A1cResult;
+import registry.ContinuousSeries;
+
+/**
+ * This benchmark measures drawing the A1C history chart as a PNG image. The
+ * chart is built with the same JFreeChart calls as the A1C case of the
+ * ChartAndGraphServlet, which reads its data from the session and so cannot
+ * be called directly.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+public class ChartRenderingBenchmark {
+
+    /**
+     * The width of the chart
+     */
+    private static final int CHART_WIDTH = 640;
+
+    /**
+     * The height of the chart
+     */
+    private static final int CHART_HEIGHT = 450;
+
+    /**
+     * The number of A1C results in the history
+     */
+    @Param({"12", "60"})
+    public int points;
+
+    /**
+     * The A1C history
+     */
+    private ContinuousSeries a1cHistory;
+
+    /**
+     * This method creates the A1C history, one result every three months.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        long today = Date.valueOf("2017-04-03").getTime();
+        long quarter = 91L * 24 * 60 * 60 * 1000;
+        ArrayList<A1cResult> results = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            BigDecimal value = BigDecimal.valueOf(550 + random.nextInt(600), 2);
+            results.add(new A1cResult(new Date(today - i * quarter), value,
+                    random.nextBoolean()));
+        }
+        a1cHistory = ContinuousSeries.fromA1cResults(results);
+    }
+
+    /**
+     * Measures building the chart and encoding it as a PNG image
+     *
+     * @return the image
+     * @throws IOException if the image cannot be written
+     */
+    @Benchmark
+    public byte[] drawA1cHistory() throws IOException {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int i = a1cHistory.size() - 1; i > -1; i--) {
+            dataset.addValue(a1cHistory.getValue(i), "A1C", a1cHistory.getDate(i));
+        }
+
+        JFreeChart chart = ChartFactory.createLineChart("A1C History",
+                "dates", "A1C", dataset, PlotOrientation.VERTICAL, true,
+                false, false);
+        CategoryPlot plot = chart.getCategoryPlot();
+        CategoryAxis xAxis = (CategoryAxis) plot.getDomainAxis();
+        xAxis.setCategoryLabelPositions(CategoryLabelPositions.UP_45);
+        chart.setBorderPaint(Color.GREEN);
+        chart.setBorderStroke(new BasicStroke(5.0f));
+        chart.setBorderVisible(true);
+
+        ValueMarker upper = new ValueMarker(7.0);
+        upper.setPaint(Color.YELLOW);
+        plot.addRangeMarker(upper);
+        ValueMarker lower = new ValueMarker(4.0);
+        lower.setPaint(Color.YELLOW);
+        plot.addRangeMarker(lower);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChartUtilities.writeChartAsPNG(outputStream, chart, CHART_WIDTH, CHART_HEIGHT);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utility.HashAndSaltUtility;
+
+/**
+ * This benchmark measures the password hashing done at every sign in and
+ * password change.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashAndSaltBenchmark {
+
+    /**
+     * The password
+     */
+    private String password;
+
+    /**
+     * The salt
+     */
+    private String salt;
+
+    /**
+     * This method creates the password and salt.
+     */
+    @Setup
+    public void setUp() {
+        password = "Test1234?!";
+        salt = HashAndSaltUtility.getSalt();
+    }
+
+    /**
+     * Measures hashing a password with its salt
+     *
+     * @return the hash
+     * @throws NoSuchAlgorithmException if SHA-256 is not available
+     */
+    @Benchmark
+    public String hashWithSalt() throws NoSuchAlgorithmException {
+        return HashAndSaltUtility.hashWithSalt(password, salt);
+    }
+
+    /**
+     * Measures creating a salt for a new password
+     *
+     * @return the salt
+     */
+    @Benchmark
+    public String getSalt() {
+        return HashAndSaltUtility.getSalt();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.HealthyTargetStatus;
+
+/**
+ * This benchmark measures building the healthy target status of a patient
+ * dashboard from the rows of the HealthyTargetStatus table and reading it
+ * back the way the dashboard page does.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthyTargetStatusBenchmark {
+
+    /**
+     * The measurement names of the HealthyTargetStatus table
+     */
+    private static final String[] MEASUREMENTS = {"a1c", "glucoseac",
+        "glucosepc", "ldl", "ldlpostmi", "hdlmale", "hdlfemale", "triglycerides",
+        "tsh", "t4", "uacr", "egfr", "creatinine", "bmi", "waistmale",
+        "waistfemale", "bloodpressuresystole", "bloodpressurediastole", "class",
+        "eye", "foot", "psychologicalscreening", "physicalactivity",
+        "influenzavaccine", "pcv13", "ppsv23", "hepatitisb", "tdap", "zoster",
+        "smoking", "telephonefollowup", "ast", "alt", "psa", "hospitalization"};
+
+    /**
+     * The measurement names of the rows, as new strings like those read from
+     * a result set
+     */
+    private String[] rowMeasurements;
+
+    /**
+     * The out-of-target indications of the rows
+     */
+    private boolean[] rowOutOfTarget;
+
+    /**
+     * This method creates the rows of one patient.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        rowMeasurements = new String[MEASUREMENTS.length];
+        rowOutOfTarget = new boolean[MEASUREMENTS.length];
+        for (int i = 0; i < MEASUREMENTS.length; i++) {
+            rowMeasurements[i] = new String(MEASUREMENTS[i].toCharArray());
+            rowOutOfTarget[i] = random.nextBoolean();
+        }
+    }
+
+    /**
+     * Measures setting the status from the rows and counting the
+     * out-of-target measurements
+     *
+     * @return the number of out-of-target measurements
+     */
+    @Benchmark
+    public int evaluate() {
+        HealthyTargetStatus hts = new HealthyTargetStatus();
+        for (int i = 0; i < rowMeasurements.length; i++) {
+            hts.setOutOfTarget(rowMeasurements[i], rowOutOfTarget[i]);
+        }
+        return count(hts);
+    }
+
+    /**
+     * This method counts the out-of-target measurements of the status.
+     *
+     * @param hts the status
+     * @return the number of out-of-target measurements
+     */
+    private static int count(HealthyTargetStatus hts) {
+        boolean[] values = {hts.getA1cOutOfTarget(), hts.getGlucoseacOutOfTarget(),
+            hts.getGlucosepcOutOfTarget(), hts.getLdlOutOfTarget(),
+            hts.getLdlPostMiOutOfTarget(), hts.getHdlMaleOutOfTarget(),
+            hts.getHdlFemaleOutOfTarget(), hts.getTriglyceridesOutOfTarget(),
+            hts.getTshOutOfTarget(), hts.getT4OutOfTarget(),
+            hts.getUacrOutOfTarget(), hts.getEgfrOutOfTarget(),
+            hts.getCreatinineOutOfTarget(), hts.getBmiOutOfTarget(),
+            hts.getWaistMaleOutOfTarget(), hts.getWaistFemaleOutOfTarget(),
+            hts.getSystolicBloodPressureOutOfTarget(),
+            hts.getDiastolicBloodPressureOutOfTarget(),
+            hts.getClassAttendanceOutOfTarget(), hts.getEyeScreeningOutOfTarget(),
+            hts.getFootScreeningOutOfTarget(),
+            hts.getPsychologicalScreeningOutOfTarget(),
+            hts.getPhysicalActivityOutOfTarget(),
+            hts.getInfluenzaVaccineOutOfTarget(), hts.getPcv13VaccineOutOfTarget(),
+            hts.getPpsv23VaccineOutOfTarget(), hts.getHepatitisBVaccineOutOfTarget(),
+            hts.getTdapVaccineOutOfTarget(), hts.getZosterVaccineOutOfTarget(),
+            hts.getSmokingStatusOutOfTarget(), hts.getTelephoneFollowUpOutOfTarget(),
+            hts.getAstOutOfTarget(), hts.getAltOutOfTarget(),
+            hts.getPsaOutOfTarget(), hts.getHospitalizationOutOfTarget()};
+        int count = 0;
+        for (boolean value : values) {
+            if (value) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import controller.PDFServlet;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.pdfbox.exceptions.COSVisitorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.ProgressNote;
+
+/**
+ * This benchmark measures drawing a progress note as the PDF document sent by
+ * the PDF servlet. The note's subjective section is repeated to measure notes
+ * that run over several pages.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfRenderingBenchmark {
+
+    /**
+     * The number of paragraphs in the subjective section
+     */
+    @Param({"1", "40"})
+    private int paragraphs;
+
+    /**
+     * The progress note
+     */
+    private ProgressNote note;
+
+    /**
+     * This method creates the progress note.
+     */
+    @Setup
+    public void setUp() {
+        note = BenchmarkData.createProgressNote();
+        StringBuilder subjective = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            subjective.append("Patient reports feeling well and checking glucose ")
+                    .append("daily. Fasting readings have ranged from 110 to 140 ")
+                    .append("and the patient has walked thirty minutes most days.\n");
+        }
+        note.setSubjective(subjective.toString());
+    }
+
+    /**
+     * Measures drawing and saving the PDF document
+     *
+     * @return the document bytes
+     * @throws IOException if the document cannot be written
+     * @throws COSVisitorException if the document cannot be saved
+     */
+    @Benchmark
+    public byte[] createDocument() throws IOException, COSVisitorException {
+        return PDFServlet.createDocument(note);
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.NoteAuthor;
+import registry.Patient;
+import registry.ProgressNote;
+import registry.User;
+
+/**
+ * This benchmark measures writing and reading the registry objects held in a
+ * session, a patient, a progress note with two authors and a user, as done
+ * when the session is replicated or persisted. The compact serialized form of
+ * the registry classes is compared to default serialization of mirror classes
+ * having the same fields. The serialized sizes are printed at setup.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionSerializationBenchmark {
+
+    /**
+     * The mirror classes by registry class
+     */
+    private static final HashMap<Class<?>, Class<?>> MIRROR_CLASSES
+            = new HashMap<>();
+
+    static {
+        MIRROR_CLASSES.put(Patient.class, PatientMirror.class);
+        MIRROR_CLASSES.put(ProgressNote.class, ProgressNoteMirror.class);
+        MIRROR_CLASSES.put(NoteAuthor.class, NoteAuthorMirror.class);
+        MIRROR_CLASSES.put(User.class, UserMirror.class);
+    }
+
+    /**
+     * The session attributes holding the registry objects
+     */
+    private LinkedHashMap<String, Object> session;
+
+    /**
+     * The session attributes holding the mirror objects
+     */
+    private LinkedHashMap<String, Object> defaultSession;
+
+    /**
+     * This method creates the session attributes and prints their serialized
+     * sizes.
+     *
+     * @throws Exception if the session cannot be serialized
+     */
+    @Setup
+    public void setUp() throws Exception {
+        ProgressNote note = BenchmarkData.createProgressNote();
+        Patient patient = note.getPatient();
+        User user = new User("jsmith", "Jane", "Smith", "Registered Nurse",
+                false, true, Timestamp.valueOf("2016-06-01 08:00:00"),
+                Timestamp.valueOf("2017-03-01 08:55:00"), "jsmith@example.com");
+
+        session = new LinkedHashMap<>();
+        session.put("patient", patient);
+        session.put("progressNote", note);
+        session.put("user", user);
+        defaultSession = new LinkedHashMap<>();
+        IdentityHashMap<Object, Object> mirrors = new IdentityHashMap<>();
+        for (String name : session.keySet()) {
+            defaultSession.put(name, mirror(session.get(name), mirrors));
+        }
+
+        System.out.println("Compact serialized size: " + write(session).length
+                + " bytes, default serialized size: "
+                + write(defaultSession).length + " bytes");
+    }
+
+    /**
+     * Measures writing and reading the session with the compact form
+     *
+     * @return the session read
+     * @throws Exception if the session cannot be serialized
+     */
+    @Benchmark
+    public Object roundTripCompact() throws Exception {
+        return read(write(session));
+    }
+
+    /**
+     * Measures writing and reading the session with default serialization
+     *
+     * @return the session read
+     * @throws Exception if the session cannot be serialized
+     */
+    @Benchmark
+    public Object roundTripDefault() throws Exception {
+        return read(write(defaultSession));
+    }
+
+    /**
+     * Writes the given object to bytes
+     *
+     * @param object the object
+     * @return the serialized bytes
+     * @throws IOException if the object cannot be written
+     */
+    private static byte[] write(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads an object from the given bytes
+     *
+     * @param bytes the serialized bytes
+     * @return the object
+     * @throws IOException if the object cannot be read
+     * @throws ClassNotFoundException if the class of the object is not found
+     */
+    private static Object read(byte[] bytes) throws IOException,
+            ClassNotFoundException {
+        try (ObjectInputStream in
+                = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * Returns the mirror of the given value, copying the fields of registry
+     * objects into their mirror classes. Shared objects have a shared mirror.
+     *
+     * @param value the value
+     * @param mirrors the mirrors already created
+     * @return the mirror or the value itself if it is not a registry object
+     * @throws ReflectiveOperationException if a field cannot be copied
+     */
+    private static Object mirror(Object value,
+            IdentityHashMap<Object, Object> mirrors)
+            throws ReflectiveOperationException {
+        if (value instanceof ArrayList) {
+            ArrayList<Object> list = new ArrayList<>();
+            for (Object element : (ArrayList<?>) value) {
+                list.add(mirror(element, mirrors));
+            }
+            return list;
+        }
+        if ((value == null) || !MIRROR_CLASSES.containsKey(value.getClass())) {
+            return value;
+        }
+        Object copy = mirrors.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> mirrorClass = MIRROR_CLASSES.get(value.getClass());
+        copy = mirrorClass.newInstance();
+        mirrors.put(value, copy);
+        for (Field field : value.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            Field mirrorField = mirrorClass.getDeclaredField(field.getName());
+            mirrorField.setAccessible(true);
+            mirrorField.set(copy, mirror(field.get(value), mirrors));
+        }
+        return copy;
+    }
+
+    /**
+     * The fields of a patient with default serialization
+     */
+    public static class PatientMirror implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private int patientId;
+        private String firstName;
+        private String lastName;
+        private Date birthDate;
+        private String address;
+        private String contactNumber;
+        private String gender;
+        private String race;
+        private String emailAddress;
+        private String language;
+        private String reasonForInactivity;
+        private Date startDate;
+        private Date dateOfLastMeasurement;
+    }
+
+    /**
+     * The fields of a progress note with default serialization
+     */
+    public static class ProgressNoteMirror implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private PatientMirror patient;
+        private Date dateCreated;
+        private boolean medicalInsurance;
+        private String shoeSize;
+        private boolean allergicToMedications;
+        private String allergies;
+        private BigDecimal weight;
+        private Integer heightFeet;
+        private Integer heightInches;
+        private BigDecimal weightReductionGoal;
+        private Integer pulse;
+        private Integer respirations;
+        private BigDecimal temperature;
+        private boolean footScreening;
+        private String medications;
+        private BigDecimal a1c;
+        private BigDecimal glucose;
+        private BigDecimal waist;
+        private Integer bloodPressureSystole;
+        private Integer bloodPressureDiastole;
+        private boolean aceOrArb;
+        private BigDecimal bmi;
+        private Date lastClassDate;
+        private String eyeScreeningCategory;
+        private String footScreeningCategory;
+        private Integer psychologicalScreening;
+        private Integer physicalActivity;
+        private Boolean smoking;
+        private BigDecimal compliance;
+        private Date hospitalizationDate;
+        private String nurseOrDietitianNote;
+        private String subjective;
+        private String objective;
+        private String assessment;
+        private String plan;
+        private ArrayList<NoteAuthorMirror> updatedBy;
+    }
+
+    /**
+     * The fields of a note author with default serialization
+     */
+    public static class NoteAuthorMirror implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private String firstName;
+        private String lastName;
+        private String jobTitle;
+        private Timestamp timeStamp;
+    }
+
+    /**
+     * The fields of a user with default serialization
+     */
+    public static class UserMirror implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private String userName;
+        private String firstName;
+        private String lastName;
+        private String jobTitle;
+        private boolean administrator;
+        private boolean active;
+        private Timestamp dateJoined;
+        private Timestamp lastLogin;
+        private String emailAddress;
+    }
+}
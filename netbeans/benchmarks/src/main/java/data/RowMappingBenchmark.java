@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import benchmark.BenchmarkData;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import registry.A1cResult;
+
+/**
+ * This benchmark measures mapping the rows of a getA1C result set with a row
+ * mapper through the procedure executor against reading each column by its
+ * label, as the data access classes did before. The rows are held in a JDK
+ * cached row set, so no database is needed. This class is in the data
+ * package so it can reach the package-private executor.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    /**
+     * The mapper for A1C results
+     */
+    private static final RowMapper<A1cResult> A1C_MAPPER = new A1cMapper();
+
+    /**
+     * The milliseconds in a day
+     */
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * The number of rows in the result set
+     */
+    @Param({"10", "1000"})
+    private int rows;
+
+    /**
+     * The result set of A1C rows
+     */
+    private CachedRowSet resultSet;
+
+    /**
+     * This method creates a result set with the columns of the getA1C
+     * procedure.
+     *
+     * @throws SQLException if the row set cannot be built
+     */
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(3);
+        metaData.setColumnLabel(1, "date recorded");
+        metaData.setColumnName(1, "date recorded");
+        metaData.setColumnType(1, Types.DATE);
+        metaData.setColumnLabel(2, "result");
+        metaData.setColumnName(2, "result");
+        metaData.setColumnType(2, Types.DECIMAL);
+        metaData.setColumnLabel(3, "poc");
+        metaData.setColumnName(3, "poc");
+        metaData.setColumnType(3, Types.BOOLEAN);
+
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        Random random = new Random(BenchmarkData.SEED);
+        long today = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            resultSet.moveToInsertRow();
+            resultSet.updateDate(1, new Date(today - i * 90 * DAY));
+            resultSet.updateBigDecimal(2, BigDecimal.valueOf(50 + random.nextInt(80), 1));
+            resultSet.updateBoolean(3, random.nextBoolean());
+            resultSet.insertRow();
+        }
+        resultSet.moveToCurrentRow();
+    }
+
+    /**
+     * Measures mapping the rows with the row mapper, which locates the columns
+     * once per result set
+     *
+     * @return the mapped results
+     * @throws SQLException if the rows cannot be read
+     */
+    @Benchmark
+    public ArrayList<A1cResult> rowMapper() throws SQLException {
+        resultSet.beforeFirst();
+        return ProcedureExecutor.mapRows(resultSet, A1C_MAPPER);
+    }
+
+    /**
+     * Measures mapping the rows by looking up each column label on every row
+     *
+     * @return the mapped results
+     * @throws SQLException if the rows cannot be read
+     */
+    @Benchmark
+    public ArrayList<A1cResult> labelLookup() throws SQLException {
+        resultSet.beforeFirst();
+        ArrayList<A1cResult> results = new ArrayList<>();
+        while (resultSet.next()) {
+            A1cResult r = new A1cResult();
+            r.setDate(resultSet.getDate("date recorded"));
+            r.setValue(resultSet.getBigDecimal("result"));
+            r.setPoc(resultSet.getBoolean("poc"));
+            results.add(r);
+        }
+        return results;
+    }
+
+    /**
+     * This class maps rows of A1C results as the patient history data access
+     * class does.
+     */
+    private static class A1cMapper extends RowMapper<A1cResult> {
+
+        /**
+         * Default constructor
+         */
+        private A1cMapper() {
+            super("date recorded", "result", "poc");
+        }
+
+        @Override
+        protected A1cResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            A1cResult r = new A1cResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBigDecimal(columns[1]));
+            r.setPoc(rs.getBoolean(columns[2]));
+            return r;
+        }
+    }
+}
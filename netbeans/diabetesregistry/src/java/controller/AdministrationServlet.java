@@ -16,7 +16,7 @@
 package controller;
 
 import data.AdministrationDataAccess;
-import data.ReferencesDataAccess;
+import data.ReferenceSnapshot;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.sql.Date;
@@ -35,6 +35,7 @@ import registry.administration.EmailMessageConfiguration;
 import registry.administration.EmailMessageConfigurationContainer;
 import registry.administration.PasswordResetRequest;
 import registry.administration.QualityReferenceConfiguration;
+import utility.ConnectionPool;
 import utility.EmailUtility;
 import utility.HashAndSaltUtility;
 import utility.SessionObjectUtility;
@@ -273,8 +274,8 @@ public class AdministrationServlet extends HttpServlet {
                     message = "The password for " + userName + " has been reset.";
 
                     /* clinic email */
-                    String adminEmail = ((ReferenceContainer) session.getServletContext()
-                            .getAttribute("references")).getClinic().getEmailAddress();
+                    String adminEmail = ReferenceSnapshot.getReferences()
+                            .getClinic().getEmailAddress();
 
                     sendResetPasswordEmail(adminEmail, adminEmailPassword, temporaryPassword,
                             userName, detailedUser.getFirstName(), detailedUser.getLastName(),
@@ -378,8 +379,8 @@ public class AdministrationServlet extends HttpServlet {
                         message = "The new user has been successfully added to the registry.";
 
                         /* clinic email */
-                        String adminEmail = ((ReferenceContainer) session.getServletContext()
-                                .getAttribute("references")).getClinic().getEmailAddress();
+                        String adminEmail = ReferenceSnapshot.getReferences()
+                                .getClinic().getEmailAddress();
 
                         sendNewUserEmail(adminEmail, adminEmailPassword, temporaryPassword, userName,
                                 firstName, lastName, request, userEmail);
@@ -543,6 +544,21 @@ public class AdministrationServlet extends HttpServlet {
                 }
                 break;
             }
+            case "showconnectionpool":
+                url = "/admin/connectionpool.jsp";
+                request.setAttribute("connectionPoolMetrics",
+                        ConnectionPool.getInstance().getMetrics());
+                break;
+            case "resetconnectionpoolmetrics":
+                url = "/admin/connectionpool.jsp";
+                ConnectionPool.getInstance().getMetrics().reset();
+                request.setAttribute("connectionPoolMetrics",
+                        ConnectionPool.getInstance().getMetrics());
+                request.setAttribute("message", "The connection pool metrics have been reset.");
+                break;
+            case "showexport":
+                url = "/admin/export.jsp";
+                break;
             case "manageemailconfigurations":
                 url = "/admin/manageemailreminders.jsp";
                 setEmailMessageConfigurations(clinicId, session);
@@ -1049,14 +1065,13 @@ public class AdministrationServlet extends HttpServlet {
 
     /**
      * This method retrieves updated values for the references in the
-     * application and sets the references attribute of the ServletContext. The
-     * 'setAttribute' method of the ServletContext is thread-safe, so this is
-     * the preferred method for updating this application-scoped object.
+     * application. The new reference container replaces the previous one as a
+     * whole, so requests in progress continue to use a complete container. If
+     * the references cannot be retrieved, the previous container is kept.
      *
      * @param session the HttpSession object
      */
     private void refreshReferences(HttpSession session) {
-        ReferenceContainer rc = ReferencesDataAccess.getReferenceContainer();
-        session.getServletContext().setAttribute("references", rc);
+        ReferenceSnapshot.reload();
     }
 }
@@ -16,6 +16,8 @@
 package controller;
 
 import data.CallListDataAccess;
+import data.EmailJobDataAccess;
+import data.ReferenceSnapshot;
 import java.io.IOException;
 import java.util.ArrayList;
 import javax.servlet.ServletException;
@@ -24,12 +26,17 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import registry.Clinic;
+import registry.EmailJobStatus;
 import registry.EmailMessage;
 import registry.Patient;
 import registry.ReferenceContainer;
 import utility.CallListUtility;
+import utility.ConfigurationManager;
+import utility.EmailDispatcher;
+import utility.EmailJob;
 import utility.EmailUtility;
 import utility.SessionObjectUtility;
+import utility.WorkingSetStore;
 
 /**
  * This HttpServlet class coordinates the functions of the call lists page.
@@ -60,7 +67,7 @@ public class CallListServlet extends HttpServlet {
         HttpSession session = request.getSession();
         String url = "/calllists/index.jsp";
         ArrayList<Patient> callListPatients
-                = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                = (ArrayList<Patient>) WorkingSetStore.get(session, SessionObjectUtility.CALL_LIST_PATIENTS);
         if (callListPatients == null) {
             getServletContext().getRequestDispatcher(url).forward(request, response);
         } else {
@@ -126,7 +133,7 @@ public class CallListServlet extends HttpServlet {
                                 break;
                         }
                     }
-                    session.setAttribute(SessionObjectUtility.CALL_LIST_PATIENTS, callListPatients);
+                    WorkingSetStore.put(session, SessionObjectUtility.CALL_LIST_PATIENTS, callListPatients);
                     session.setAttribute(SessionObjectUtility.CALL_LIST_SUBJECT, subject);
                     session.setAttribute(SessionObjectUtility.MEASUREMENT_DATE_TYPE_HEADER, measurementDateTypeHeader);
                     request.setAttribute("callListDateSort", 1);
@@ -134,36 +141,43 @@ public class CallListServlet extends HttpServlet {
                 break;
             }
             case "sortByLastName": {
-                ArrayList<Patient> callListPatients
-                        = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                ArrayList<Patient> callListPatients = getCallListPatients(request);
+                if (callListPatients == null) {
+                    break;
+                }
                 CallListUtility.sortPatients(callListPatients, CallListUtility.SortType.LAST_NAME);
                 request.setAttribute("callListNameSort", 1);
                 break;
             }
             case "sortByDate": {
-                ArrayList<Patient> callListPatients
-                        = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                ArrayList<Patient> callListPatients = getCallListPatients(request);
+                if (callListPatients == null) {
+                    break;
+                }
                 CallListUtility.sortPatients(callListPatients, CallListUtility.SortType.LAST_MEASUREMENT_DATE);
                 request.setAttribute("callListDateSort", 1);
                 break;
             }
             case "reverseSortByLastName": {
-                ArrayList<Patient> callListPatients
-                        = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                ArrayList<Patient> callListPatients = getCallListPatients(request);
+                if (callListPatients == null) {
+                    break;
+                }
                 CallListUtility.reverseSortPatients(callListPatients, CallListUtility.SortType.LAST_NAME);
                 break;
             }
             case "reverseSortByDate": {
-                ArrayList<Patient> callListPatients
-                        = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                ArrayList<Patient> callListPatients = getCallListPatients(request);
+                if (callListPatients == null) {
+                    break;
+                }
                 CallListUtility.reverseSortPatients(callListPatients, CallListUtility.SortType.LAST_MEASUREMENT_DATE);
                 break;
             }
             case "sendEmails": {
 
                 /* clinic email */
-                ReferenceContainer rc = (ReferenceContainer) session.getServletContext()
-                        .getAttribute("references");
+                ReferenceContainer rc = ReferenceSnapshot.getReferences();
                 Clinic clinic = rc.getClinic();
                 String adminEmail = clinic.getEmailAddress();
 
@@ -185,8 +199,10 @@ public class CallListServlet extends HttpServlet {
                 }
 
                 /* gathering patients and messages */
-                ArrayList<Patient> callListPatients
-                        = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.CALL_LIST_PATIENTS);
+                ArrayList<Patient> callListPatients = getCallListPatients(request);
+                if (callListPatients == null) {
+                    break;
+                }
                 String subject = (String) session.getAttribute(SessionObjectUtility.CALL_LIST_SUBJECT);
                 ArrayList<Patient> emailPatients = new ArrayList<>();
                 String[] checkBoxes = request.getParameterValues("emailList");
@@ -214,15 +230,44 @@ public class CallListServlet extends HttpServlet {
                 }
                 break;
             }
+            case "showEmailProgress":
+                break;
             default:
                 break;
         }
+        request.setAttribute("emailJob", getEmailJobStatus(
+                (String) session.getAttribute(SessionObjectUtility.EMAIL_JOB_ID)));
+
+        /* the call list is kept outside the session */
+        request.setAttribute(SessionObjectUtility.CALL_LIST_PATIENTS,
+                WorkingSetStore.get(session, SessionObjectUtility.CALL_LIST_PATIENTS));
         getServletContext().getRequestDispatcher(url)
                 .forward(request, response);
     }
 
     /**
-     * This method sends reminder email messages to a list of patients.
+     * This method returns the call list held for the session. When the call
+     * list has been removed from the working set store, such as after a long
+     * absence or on another server, a message asks the user to select the
+     * call list again.
+     *
+     * @param request the request object
+     * @return the call list or null if it is no longer available
+     */
+    private ArrayList<Patient> getCallListPatients(HttpServletRequest request) {
+        ArrayList<Patient> callListPatients = (ArrayList<Patient>) WorkingSetStore
+                .get(request.getSession(), SessionObjectUtility.CALL_LIST_PATIENTS);
+        if (callListPatients == null) {
+            request.setAttribute("errorMessage", "The call list is no longer "
+                    + "available.  Please select the call list again.");
+        }
+        return callListPatients;
+    }
+
+    /**
+     * This method queues reminder email messages to a list of patients for
+     * sending in the background. The ID of the queued job is stored in the
+     * session so that its progress can be shown.
      *
      * @param emailPatients the list of patients to be sent messages
      * @param adminEmail the administrator email address
@@ -235,15 +280,42 @@ public class CallListServlet extends HttpServlet {
             HttpServletRequest request) {
         String from = adminEmail;
         boolean isBodyHTML = false;
-        boolean sent = utility.EmailUtility.sendBatchMail(emailPatients, from,
-                messages, isBodyHTML, emailPassword, request);
-        if (!sent) {
+        String host = ConfigurationManager.getMailHost(request.getServletContext());
+        EmailJob job = null;
+        if (host != null) {
+            job = EmailDispatcher.submit(emailPatients, from, messages,
+                    isBodyHTML, emailPassword, host, ReferenceContainer.CLINIC_ID,
+                    ConfigurationManager.getEmailsPerMinute(
+                            request.getServletContext()));
+        }
+        if (job == null) {
             EmailUtility.logEmailError(null, null, null, "CallListServlet", true);
             request.setAttribute("errorMessage", "The email function encountered "
                     + "a problem.  See the server logs for additional details.");
         } else {
-            String message = "The patient reminders were sent successfully.";
+            request.getSession().setAttribute(SessionObjectUtility.EMAIL_JOB_ID,
+                    job.getId());
+            String message = "The patient reminders are being sent.";
             request.setAttribute("message", message);
         }
     }
+
+    /**
+     * This method returns the progress of a reminder email job. A job not
+     * held by this server, such as one submitted before a restart or on
+     * another server, is read from the database.
+     *
+     * @param jobId the job ID
+     * @return the progress of the job or null if the job is not found
+     */
+    private EmailJobStatus getEmailJobStatus(String jobId) {
+        if (jobId == null) {
+            return null;
+        }
+        EmailJob job = EmailDispatcher.getJob(jobId);
+        if (job != null) {
+            return job.getStatus();
+        }
+        return EmailJobDataAccess.getEmailJob(jobId);
+    }
 }
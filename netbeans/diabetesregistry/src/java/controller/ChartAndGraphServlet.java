@@ -15,8 +15,10 @@
  */
 package controller;
 
+import data.ReferenceSnapshot;
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
@@ -51,19 +53,18 @@ import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.statistics.BoxAndWhiskerCalculator;
 import org.jfree.data.statistics.DefaultBoxAndWhiskerCategoryDataset;
 import org.jfree.data.statistics.HistogramDataset;
-import registry.A1cResult;
-import registry.BloodPressureResult;
 import registry.CategoricalValue;
-import registry.ContinuousResult;
+import registry.ContinuousSeries;
 import registry.DemographicData;
 import registry.DiscreteResult;
 import registry.HealthyTargetReference;
-import registry.LdlResult;
 import registry.PsychologicalScreeningResult;
 import registry.ReferenceContainer;
 import registry.Stats;
 import registry.TshResult;
+import utility.ChartCache;
 import utility.SessionObjectUtility;
+import utility.WorkingSetStore;
 
 /**
  * This HttpServlet class handles the responsibility of drawing charts and
@@ -80,6 +81,56 @@ public class ChartAndGraphServlet extends HttpServlet {
      */
     private static final long serialVersionUID = 8202673312068649922L;
 
+    /**
+     * The default width of a chart
+     */
+    private static final int CHART_WIDTH = 640;
+
+    /**
+     * The default height of a chart
+     */
+    private static final int CHART_HEIGHT = 450;
+
+    /**
+     * The session attribute keys holding the data for each chart type
+     */
+    private static final HashMap<String, String> CHART_DATA_KEYS = new HashMap<>();
+
+    static {
+        CHART_DATA_KEYS.put("a1c", SessionObjectUtility.A1C_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("psa", SessionObjectUtility.PSA_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("alt", SessionObjectUtility.ALT_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("ast", SessionObjectUtility.AST_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("bp", SessionObjectUtility.BP_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("bmi", SessionObjectUtility.BMI_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("creatinine", SessionObjectUtility.CREATININE_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("egfr", SessionObjectUtility.EGFR_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("glucose", SessionObjectUtility.GLUCOSE_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("hdl", SessionObjectUtility.HDL_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("ldl", SessionObjectUtility.LDL_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("compliance", SessionObjectUtility.COMPLIANCE_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("physicalActivity", SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("psychological", SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("t4", SessionObjectUtility.T4_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("triglycerides", SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("tsh", SessionObjectUtility.TSH_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("uacr", SessionObjectUtility.UACR_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("waist", SessionObjectUtility.WAIST_GRAPH_POINTS);
+        CHART_DATA_KEYS.put("agedemographics", SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA);
+        CHART_DATA_KEYS.put("genderdemographics", SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA);
+        CHART_DATA_KEYS.put("racedemographics", SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA);
+        CHART_DATA_KEYS.put("lasta1c", SessionObjectUtility.LAST_A1C_DATA);
+        CHART_DATA_KEYS.put("lasta1cbyclassattendance", SessionObjectUtility.LAST_A1C_BY_CLASS_DATA);
+        CHART_DATA_KEYS.put("lastbmimales", SessionObjectUtility.LAST_BMI_MALES_DATA);
+        CHART_DATA_KEYS.put("lastbmifemales", SessionObjectUtility.LAST_BMI_FEMALES_DATA);
+        CHART_DATA_KEYS.put("lastbmimalesbyclassattendance", SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA);
+        CHART_DATA_KEYS.put("lastbmifemalesbyclassattendance", SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA);
+        CHART_DATA_KEYS.put("lasta1cbytreatment", SessionObjectUtility.LAST_A1C_BY_TREATMENT);
+        CHART_DATA_KEYS.put("treatmentclasscounts", SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS);
+        CHART_DATA_KEYS.put("treatmentgenderclasscounts", SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS);
+        CHART_DATA_KEYS.put("treatmentraceclasscounts", SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS);
+    }
+
     /**
      * Handles the HTTP <code>GET</code> method. This method invokes the
      * getChart method to draw the appropriate chart.
@@ -99,10 +150,14 @@ public class ChartAndGraphServlet extends HttpServlet {
     }
 
     /**
-     * Creates the appropriate chart for the patient history page or the
-     * statistics page. Line charts are created to display a longitudinal view
-     * of patient results on the history page. The statistics page includes pie
-     * charts, bar charts, histograms, and box and whisker charts.
+     * Returns the appropriate chart for the patient history page or the
+     * statistics page. The chart is identified by its type, its dimensions,
+     * and a hash of the data drawn, which is also sent as the entity tag. A
+     * chart previously rendered for the same data, by any session, is served
+     * from the chart cache instead of being drawn again, and a request
+     * carrying a matching If-None-Match header is answered with a Not
+     * Modified status. A request made after the chart data was released is
+     * answered with a Not Found status.
      *
      * @param request servlet request
      * @param response servlet response
@@ -111,33 +166,141 @@ public class ChartAndGraphServlet extends HttpServlet {
     public void getChart(HttpServletRequest request,
             HttpServletResponse response) throws IOException {
         HttpSession session = request.getSession();
+        String action = request.getParameter("action");
+        String dataKey = CHART_DATA_KEYS.get(action);
+        Object chartData = (dataKey == null) ? null : WorkingSetStore.get(session, dataKey);
+        String ifNoneMatch = request.getHeader("If-None-Match");
+
+        if (chartData == null) {
+
+            /*
+             * the chart URL is the same for every patient, so without the data
+             * there is no way to tell which chart the browser holds
+             */
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        ReferenceContainer rc = ReferenceSnapshot.getReferences();
+        String chartKey = ChartCache.createKey(action, CHART_WIDTH, CHART_HEIGHT,
+                chartData, rc.getHealthyTargets());
+        byte[] png = (chartKey == null) ? null : ChartCache.getChart(chartKey);
+
+        if (png == null) {
+            ByteArrayOutputStream pngStream = new ByteArrayOutputStream();
+            drawChart(session, action, pngStream);
+            png = pngStream.toByteArray();
+            if (png.length > 0) {
+                ChartCache.putChart(chartKey, png);
+            }
+        } else {
+
+            /* remove reference as drawing the chart would */
+            WorkingSetStore.remove(session, dataKey);
+        }
+
+        if (png.length == 0) {
+            response.setContentType("image/png");
+            return;
+        }
+        if (chartKey != null) {
+            setCacheHeaders(response, chartKey);
+            if (matchesEntityTag(ifNoneMatch, chartKey)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
         response.setContentType("image/png");
+        response.setContentLength(png.length);
         OutputStream outputStream = response.getOutputStream();
+        outputStream.write(png);
+    }
+
+    /**
+     * This method sets the headers allowing the browser to keep a private
+     * copy of the chart and revalidate it using the entity tag.
+     *
+     * @param response servlet response
+     * @param chartKey the chart key
+     */
+    private void setCacheHeaders(HttpServletResponse response, String chartKey) {
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("ETag", "\"" + chartKey + "\"");
+    }
+
+    /**
+     * Returns true if the If-None-Match header value matches the chart key.
+     *
+     * @param ifNoneMatch the If-None-Match header value
+     * @param chartKey the chart key
+     * @return true if the chart key matches, false otherwise
+     */
+    private boolean matchesEntityTag(String ifNoneMatch, String chartKey) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String key = stripEntityTag(tag);
+            if (key.equals("*") || key.equals(chartKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method removes the weak indicator and quotes from an entity tag.
+     *
+     * @param tag the entity tag
+     * @return the tag value
+     */
+    private String stripEntityTag(String tag) {
+        String value = tag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if ((value.length() > 1) && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Draws the appropriate chart for the patient history page or the
+     * statistics page. Line charts are created to display a longitudinal view
+     * of patient results on the history page. The statistics page includes pie
+     * charts, bar charts, histograms, and box and whisker charts.
+     *
+     * @param session the HttpSession object
+     * @param action the chart type
+     * @param outputStream the stream receiving the PNG image
+     * @throws IOException
+     */
+    private void drawChart(HttpSession session, String action,
+            OutputStream outputStream) throws IOException {
         final int widthIncreaseThreshold = 18;
         final int incrementalIncreaseThreshold = 22;
         final int incrementalIncreaseInPixels = 45;
         final int treatmentClassUnknownIndex = 6;
-        int width = 640;
-        int height = 450;
+        int width = CHART_WIDTH;
+        int height = CHART_HEIGHT;
         int bigWidth = 780;
-        ReferenceContainer rc
-                = (ReferenceContainer) session.getServletContext().getAttribute("references");
+        ReferenceContainer rc = ReferenceSnapshot.getReferences();
         HealthyTargetReference htr = rc.getHealthyTargets();
-        String action = request.getParameter("action");
 
         switch (action) {
             case "a1c": {
-                ArrayList<A1cResult> a1cHistory
-                        = (ArrayList<A1cResult>) session.getAttribute(SessionObjectUtility.A1C_GRAPH_POINTS);
+                ContinuousSeries a1cHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.A1C_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = a1cHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(a1cHistory.get(i).getValue(), "A1C",
-                            a1cHistory.get(i).getDate());
+                    dataset.addValue(a1cHistory.getValue(i), "A1C",
+                            a1cHistory.getDate(i));
                 }
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.A1C_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.A1C_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -184,18 +347,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "psa": {
-                ArrayList<ContinuousResult> psaHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.PSA_GRAPH_POINTS);
+                ContinuousSeries psaHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.PSA_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = psaHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(psaHistory.get(i).getValue(), "PSA",
-                            psaHistory.get(i).getDate());
+                    dataset.addValue(psaHistory.getValue(i), "PSA",
+                            psaHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.PSA_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.PSA_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -242,18 +405,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "alt": {
-                ArrayList<ContinuousResult> altHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.ALT_GRAPH_POINTS);
+                ContinuousSeries altHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.ALT_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = altHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(altHistory.get(i).getValue(), "ALT",
-                            altHistory.get(i).getDate());
+                    dataset.addValue(altHistory.getValue(i), "ALT",
+                            altHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.ALT_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.ALT_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -300,18 +463,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "ast": {
-                ArrayList<ContinuousResult> astHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.AST_GRAPH_POINTS);
+                ContinuousSeries astHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.AST_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = astHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(astHistory.get(i).getValue(), "AST",
-                            astHistory.get(i).getDate());
+                    dataset.addValue(astHistory.getValue(i), "AST",
+                            astHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.AST_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.AST_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -358,20 +521,20 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "bp": {
-                ArrayList<BloodPressureResult> bpHistory
-                        = (ArrayList<BloodPressureResult>) session.getAttribute(SessionObjectUtility.BP_GRAPH_POINTS);
+                ContinuousSeries bpHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.BP_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = bpHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(bpHistory.get(i).getSystolicValue(), "systolic",
-                            bpHistory.get(i).getDate());
-                    dataset.addValue(bpHistory.get(i).getDiastolicValue(), "diastolic",
-                            bpHistory.get(i).getDate());
+                    dataset.addValue(bpHistory.getValue(i), "systolic",
+                            bpHistory.getDate(i));
+                    dataset.addValue(bpHistory.getSecondValue(i), "diastolic",
+                            bpHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.BP_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.BP_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -418,18 +581,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "bmi": {
-                ArrayList<ContinuousResult> bmiHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.BMI_GRAPH_POINTS);
+                ContinuousSeries bmiHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.BMI_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = bmiHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(bmiHistory.get(i).getValue(), "BMI",
-                            bmiHistory.get(i).getDate());
+                    dataset.addValue(bmiHistory.getValue(i), "BMI",
+                            bmiHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.BMI_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.BMI_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -476,18 +639,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "creatinine": {
-                ArrayList<ContinuousResult> creatinineHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.CREATININE_GRAPH_POINTS);
+                ContinuousSeries creatinineHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.CREATININE_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = creatinineHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(creatinineHistory.get(i).getValue(), "creatinine",
-                            creatinineHistory.get(i).getDate());
+                    dataset.addValue(creatinineHistory.getValue(i), "creatinine",
+                            creatinineHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.CREATININE_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.CREATININE_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -534,18 +697,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "egfr": {
-                ArrayList<ContinuousResult> egfrHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.EGFR_GRAPH_POINTS);
+                ContinuousSeries egfrHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.EGFR_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = egfrHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(egfrHistory.get(i).getValue(), "eGFR",
-                            egfrHistory.get(i).getDate());
+                    dataset.addValue(egfrHistory.getValue(i), "eGFR",
+                            egfrHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.EGFR_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.EGFR_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -592,18 +755,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "glucose": {
-                ArrayList<ContinuousResult> glucoseHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.GLUCOSE_GRAPH_POINTS);
+                ContinuousSeries glucoseHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.GLUCOSE_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = glucoseHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(glucoseHistory.get(i).getValue(), "glucose",
-                            glucoseHistory.get(i).getDate());
+                    dataset.addValue(glucoseHistory.getValue(i), "glucose",
+                            glucoseHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.GLUCOSE_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.GLUCOSE_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -650,18 +813,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "hdl": {
-                ArrayList<ContinuousResult> hdlHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.HDL_GRAPH_POINTS);
+                ContinuousSeries hdlHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.HDL_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = hdlHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(hdlHistory.get(i).getValue(), "HDL",
-                            hdlHistory.get(i).getDate());
+                    dataset.addValue(hdlHistory.getValue(i), "HDL",
+                            hdlHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.HDL_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.HDL_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -720,18 +883,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "ldl": {
-                ArrayList<LdlResult> ldlHistory
-                        = (ArrayList<LdlResult>) session.getAttribute(SessionObjectUtility.LDL_GRAPH_POINTS);
+                ContinuousSeries ldlHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.LDL_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = ldlHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(ldlHistory.get(i).getValue(), "LDL",
-                            ldlHistory.get(i).getDate());
+                    dataset.addValue(ldlHistory.getValue(i), "LDL",
+                            ldlHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.LDL_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.LDL_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -778,18 +941,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "compliance": {
-                ArrayList<ContinuousResult> complianceHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.COMPLIANCE_GRAPH_POINTS);
+                ContinuousSeries complianceHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.COMPLIANCE_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = complianceHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(complianceHistory.get(i).getValue(), "compliance",
-                            complianceHistory.get(i).getDate());
+                    dataset.addValue(complianceHistory.getValue(i), "compliance",
+                            complianceHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.COMPLIANCE_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.COMPLIANCE_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -823,7 +986,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "physicalActivity": {
                 ArrayList<DiscreteResult> physicalActivityHistory
-                        = (ArrayList<DiscreteResult>) session.getAttribute(SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS);
+                        = (ArrayList<DiscreteResult>) WorkingSetStore.get(session, SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
@@ -833,7 +996,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -881,7 +1044,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "psychological": {
                 ArrayList<PsychologicalScreeningResult> psychologicalHistory
-                        = (ArrayList<PsychologicalScreeningResult>) session.getAttribute(SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS);
+                        = (ArrayList<PsychologicalScreeningResult>) WorkingSetStore.get(session, SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
@@ -891,7 +1054,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -924,18 +1087,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "t4": {
-                ArrayList<ContinuousResult> t4History
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.T4_GRAPH_POINTS);
+                ContinuousSeries t4History
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.T4_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = t4History.size() - 1; i > -1; i--) {
-                    dataset.addValue(t4History.get(i).getValue(), "T4",
-                            t4History.get(i).getDate());
+                    dataset.addValue(t4History.getValue(i), "T4",
+                            t4History.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.T4_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.T4_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -982,18 +1145,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "triglycerides": {
-                ArrayList<ContinuousResult> triglyceridesHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS);
+                ContinuousSeries triglyceridesHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = triglyceridesHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(triglyceridesHistory.get(i).getValue(), "triglycerides",
-                            triglyceridesHistory.get(i).getDate());
+                    dataset.addValue(triglyceridesHistory.getValue(i), "triglycerides",
+                            triglyceridesHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1041,7 +1204,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "tsh": {
                 ArrayList<TshResult> tshHistory
-                        = (ArrayList<TshResult>) session.getAttribute(SessionObjectUtility.TSH_GRAPH_POINTS);
+                        = (ArrayList<TshResult>) WorkingSetStore.get(session, SessionObjectUtility.TSH_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
@@ -1051,7 +1214,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.TSH_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.TSH_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1098,18 +1261,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "uacr": {
-                ArrayList<ContinuousResult> uacrHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.UACR_GRAPH_POINTS);
+                ContinuousSeries uacrHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.UACR_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = uacrHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(uacrHistory.get(i).getValue(), "UACR",
-                            uacrHistory.get(i).getDate());
+                    dataset.addValue(uacrHistory.getValue(i), "UACR",
+                            uacrHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.UACR_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.UACR_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1156,18 +1319,18 @@ public class ChartAndGraphServlet extends HttpServlet {
                 break;
             }
             case "waist": {
-                ArrayList<ContinuousResult> waistHistory
-                        = (ArrayList<ContinuousResult>) session.getAttribute(SessionObjectUtility.WAIST_GRAPH_POINTS);
+                ContinuousSeries waistHistory
+                        = (ContinuousSeries) WorkingSetStore.get(session, SessionObjectUtility.WAIST_GRAPH_POINTS);
                 DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
                 /* add the data */
                 for (int i = waistHistory.size() - 1; i > -1; i--) {
-                    dataset.addValue(waistHistory.get(i).getValue(), "waist",
-                            waistHistory.get(i).getDate());
+                    dataset.addValue(waistHistory.getValue(i), "waist",
+                            waistHistory.getDate(i));
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.WAIST_GRAPH_POINTS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.WAIST_GRAPH_POINTS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1227,7 +1390,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "agedemographics": {
                 DemographicData demographicData
-                        = (DemographicData) session.getAttribute(SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA);
+                        = (DemographicData) WorkingSetStore.get(session, SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA);
                 HistogramDataset dataset = new HistogramDataset();
                 ArrayList<Integer> ages = demographicData.getAges();
                 if (ages.size() > 0) {
@@ -1241,7 +1404,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                     dataset.addSeries("number of patients", vector, 10);
 
                     /* remove reference */
-                    session.setAttribute(SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA, null);
+                    WorkingSetStore.remove(session, SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA);
 
                     boolean legend = true;
                     boolean tooltips = false;
@@ -1271,7 +1434,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "genderdemographics": {
                 DemographicData demographicData
-                        = (DemographicData) session.getAttribute(SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA);
+                        = (DemographicData) WorkingSetStore.get(session, SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA);
                 DefaultPieDataset dataset = new DefaultPieDataset();
 
                 /* add the data */
@@ -1279,7 +1442,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 dataset.setValue("male", demographicData.getPercentMale());
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1307,7 +1470,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "racedemographics": {
                 DemographicData demographicData
-                        = (DemographicData) session.getAttribute(SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA);
+                        = (DemographicData) WorkingSetStore.get(session, SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA);
                 DefaultPieDataset dataset = new DefaultPieDataset();
 
                 /* add the data */
@@ -1320,7 +1483,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 dataset.setValue("Other", demographicData.getPercentOther());
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1348,7 +1511,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "lasta1c": {
                 Stats glycemicStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_A1C_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_A1C_DATA);
                 HistogramDataset dataset = new HistogramDataset();
                 ArrayList<CategoricalValue> lastA1cValues = new ArrayList<>();
 
@@ -1371,7 +1534,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                     dataset.addSeries("number of patients", vector, 15);
 
                     /* remove reference */
-                    session.setAttribute(SessionObjectUtility.LAST_A1C_DATA, null);
+                    WorkingSetStore.remove(session, SessionObjectUtility.LAST_A1C_DATA);
 
                     boolean legend = true;
                     boolean tooltips = false;
@@ -1403,7 +1566,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             case "lasta1cbyclassattendance": {
                 final int topGroupIndex = 4;
                 Stats glycemicStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_A1C_BY_CLASS_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_A1C_BY_CLASS_DATA);
 
                 DefaultBoxAndWhiskerCategoryDataset dataset = new DefaultBoxAndWhiskerCategoryDataset();
 
@@ -1427,7 +1590,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.LAST_A1C_BY_CLASS_DATA, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.LAST_A1C_BY_CLASS_DATA);
 
                 CategoryAxis domainAxis = new CategoryAxis("number of classes attended");
                 NumberAxis rangeAxis = new NumberAxis("last A1C(%)");
@@ -1447,7 +1610,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "lastbmimales": {
                 Stats bmiMalesStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_BMI_MALES_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_BMI_MALES_DATA);
                 HistogramDataset dataset = new HistogramDataset();
                 ArrayList<CategoricalValue> lastBmiMalesValues = new ArrayList<>();
                 if ((bmiMalesStats.getGroups() != null)
@@ -1469,7 +1632,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                     dataset.addSeries("number of patients", vector, 15);
 
                     /* remove reference */
-                    session.setAttribute(SessionObjectUtility.LAST_BMI_MALES_DATA, null);
+                    WorkingSetStore.remove(session, SessionObjectUtility.LAST_BMI_MALES_DATA);
 
                     boolean legend = true;
                     boolean tooltips = false;
@@ -1500,7 +1663,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             }
             case "lastbmifemales": {
                 Stats bmiFemalesStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_BMI_FEMALES_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_BMI_FEMALES_DATA);
                 HistogramDataset dataset = new HistogramDataset();
                 ArrayList<CategoricalValue> lastBmiFemalesValues = new ArrayList<>();
                 if ((bmiFemalesStats.getGroups() != null)
@@ -1522,7 +1685,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                     dataset.addSeries("number of patients", vector, 15);
 
                     /* remove reference */
-                    session.setAttribute(SessionObjectUtility.LAST_BMI_FEMALES_DATA, null);
+                    WorkingSetStore.remove(session, SessionObjectUtility.LAST_BMI_FEMALES_DATA);
 
                     boolean legend = true;
                     boolean tooltips = false;
@@ -1554,7 +1717,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             case "lastbmimalesbyclassattendance": {
                 final int topGroupIndex = 4;
                 Stats bmiMalesStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA);
 
                 DefaultBoxAndWhiskerCategoryDataset dataset = new DefaultBoxAndWhiskerCategoryDataset();
 
@@ -1578,7 +1741,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA);
 
                 CategoryAxis domainAxis = new CategoryAxis("number of classes attended");
                 NumberAxis rangeAxis = new NumberAxis("last BMI (males)");
@@ -1599,7 +1762,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             case "lastbmifemalesbyclassattendance": {
                 final int topGroupIndex = 4;
                 Stats bmiFemalesStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA);
 
                 DefaultBoxAndWhiskerCategoryDataset dataset = new DefaultBoxAndWhiskerCategoryDataset();
 
@@ -1623,7 +1786,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA);
 
                 CategoryAxis domainAxis = new CategoryAxis("number of classes attended");
                 NumberAxis rangeAxis = new NumberAxis("last BMI (females)");
@@ -1644,7 +1807,7 @@ public class ChartAndGraphServlet extends HttpServlet {
             case "lasta1cbytreatment": {
                 final int firstIndex = 0;
                 Stats glycemicStats
-                        = (Stats) session.getAttribute(SessionObjectUtility.LAST_A1C_BY_TREATMENT);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.LAST_A1C_BY_TREATMENT);
 
                 DefaultBoxAndWhiskerCategoryDataset dataset = new DefaultBoxAndWhiskerCategoryDataset();
 
@@ -1666,7 +1829,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.LAST_A1C_BY_TREATMENT, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.LAST_A1C_BY_TREATMENT);
 
                 CategoryAxis domainAxis = new CategoryAxis("treatment class");
                 NumberAxis rangeAxis = new NumberAxis("last A1C(%)");
@@ -1688,7 +1851,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 int treatmentClassCountsIndex = 1;
 
                 Stats treatmentData
-                        = (Stats) session.getAttribute(SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS);
                 DefaultPieDataset dataset = new DefaultPieDataset();
 
                 /* add the treatment data to the dataset */
@@ -1698,7 +1861,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1729,7 +1892,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 int femaleClassCountsIndex = 3;
 
                 Stats treatmentData
-                        = (Stats) session.getAttribute(SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS);
                 final DefaultCategoryDataset dataset
                         = new DefaultCategoryDataset();
 
@@ -1746,7 +1909,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS);
 
                 boolean legend = true;
                 boolean tooltips = false;
@@ -1787,7 +1950,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 int otherClassCountsIndex = 10;
 
                 Stats treatmentData
-                        = (Stats) session.getAttribute(SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS);
+                        = (Stats) WorkingSetStore.get(session, SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS);
                 final DefaultCategoryDataset dataset
                         = new DefaultCategoryDataset();
 
@@ -1809,7 +1972,7 @@ public class ChartAndGraphServlet extends HttpServlet {
                 }
 
                 /* remove reference */
-                session.setAttribute(SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS, null);
+                WorkingSetStore.remove(session, SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS);
 
                 boolean legend = true;
                 boolean tooltips = false;
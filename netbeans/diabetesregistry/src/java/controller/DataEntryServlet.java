@@ -16,18 +16,23 @@
 package controller;
 
 import data.DataEntryDataAccess;
-import data.PatientDataAccess;
+import data.LabResultImporter;
+import data.PatientRoster;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
-import java.util.ArrayList;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import javax.servlet.http.Part;
 import registry.DataEntryContainer;
+import registry.LabImportReport;
 import registry.Patient;
 import registry.ReferenceContainer;
 import registry.User;
@@ -85,7 +90,6 @@ public class DataEntryServlet extends HttpServlet {
         String url = "/dataentry/index.jsp";
         int clinicId = ReferenceContainer.CLINIC_ID;
         User user = (User) session.getAttribute(SessionObjectUtility.USER);
-        ArrayList<Patient> patients;
         String message;
         String action = request.getParameter("action");
 
@@ -95,25 +99,17 @@ public class DataEntryServlet extends HttpServlet {
 
         switch (action) {
             case "get list":
-                patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                if (patients == null) {
-                    patients = PatientDataAccess.getPatients(clinicId,
-                            session.getServletContext()
-                            .getAttribute("referenceCharacters"));
-                    session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                }
                 break;
             case "getPatient":
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     int patientId = Integer.parseInt(patientSelect);
-                    patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
                     }
                 } catch (NumberFormatException nfe) {
                     message = "patient id invalid";
@@ -662,9 +658,41 @@ public class DataEntryServlet extends HttpServlet {
                     }
                 }
                 break;
+            case "importResults":
+                Part labFile = null;
+                try {
+                    labFile = request.getPart("labfile");
+                } catch (IllegalStateException ise) {
+                    message = "The lab file is too large.";
+                    request.setAttribute("errorMessage", message);
+                }
+                if ((labFile == null) || (labFile.getSize() == 0)) {
+                    if (request.getAttribute("errorMessage") == null) {
+                        message = "A lab file must be selected.";
+                        request.setAttribute("errorMessage", message);
+                    }
+                    break;
+                }
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(labFile.getInputStream(),
+                                StandardCharsets.UTF_8))) {
+                    LabImportReport report = LabResultImporter.importResults(reader,
+                            clinicId, user.getUserName(), session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    request.setAttribute("labImportReport", report);
+                    if (report.getErrors().isEmpty()) {
+                        message = "The lab file was imported successfully!";
+                        request.setAttribute("message", message);
+                    }
+                }
+                break;
             default:
                 break;
         }
+        /* the list of patients is shared by all sessions */
+        request.setAttribute(SessionObjectUtility.PATIENTS,
+                PatientRoster.getPatients(clinicId, session.getServletContext()
+                .getAttribute("referenceCharacters")));
         getServletContext().getRequestDispatcher(url)
                 .forward(request, response);
     }
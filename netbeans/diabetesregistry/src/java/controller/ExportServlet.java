@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package controller;
+
+import data.ExportDataAccess;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import registry.ReferenceContainer;
+import utility.CsvWriter;
+
+/**
+ * This HttpServlet class writes clinic registry data as CSV files for download
+ * from the administration page.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ExportServlet extends HttpServlet {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 4129360584775326167L;
+
+    /**
+     * Handles the HTTP <code>GET</code> method. The export type is read from
+     * the request and the selected data is streamed to the response as it is
+     * read from the database. If the export fails after the response is
+     * committed, an error row is written and an exception is thrown so the
+     * container aborts the connection instead of completing a truncated file.
+     *
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        int clinicId = ReferenceContainer.CLINIC_ID;
+        Object referenceCharacters = getServletContext()
+                .getAttribute("referenceCharacters");
+        String type = request.getParameter("type");
+
+        if (type == null) {
+            type = "";
+        }
+
+        String fileName;
+        switch (type) {
+            case "patients":
+                fileName = "patients.csv";
+                break;
+            case "labs":
+                fileName = "labresults.csv";
+                break;
+            case "notes":
+                fileName = "progressnotes.csv";
+                break;
+            default:
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+        }
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\""
+                + fileName + "\"");
+        PrintWriter writer = response.getWriter();
+        CsvWriter csv = new CsvWriter(writer);
+
+        boolean success;
+        if (type.equals("patients")) {
+            success = ExportDataAccess.writePatients(clinicId,
+                    referenceCharacters, csv);
+        } else if (type.equals("labs")) {
+            success = ExportDataAccess.writeLabResults(clinicId, csv);
+        } else {
+            success = ExportDataAccess.writeProgressNotes(clinicId,
+                    referenceCharacters, csv);
+        }
+
+        /* the response writer reports a dropped connection only by its error flag */
+        if (success && !writer.checkError()) {
+            return;
+        }
+        int rowsWritten = Math.max(csv.getRowCount() - 1, 0);
+        Logger.getLogger(ExportServlet.class.getName()).log(Level.SEVERE,
+                "The export of {0} failed after {1} rows in the doGet method.",
+                new Object[]{fileName, rowsWritten});
+
+        /* an incomplete file is replaced by an error if nothing has been sent */
+        if (!response.isCommitted()) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        /* a sent file is marked incomplete and the connection is aborted */
+        csv.writeRow("ERROR: export incomplete after " + rowsWritten + " rows");
+        csv.flush();
+        throw new IOException("The export of " + fileName + " failed after "
+                + rowsWritten + " rows.");
+    }
+}
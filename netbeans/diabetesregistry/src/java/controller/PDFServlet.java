@@ -104,8 +104,35 @@ public class PDFServlet extends HttpServlet {
         HttpSession session = request.getSession();
         ProgressNote progressNote
                 = (ProgressNote) session.getAttribute(SessionObjectUtility.PROGRESS_NOTE);
-        Patient patient = progressNote.getPatient();
         response.setContentType("text/html;charset=UTF-8");
+        try {
+            byte[] document = createDocument(progressNote);
+            String pdfFileName = "pdf-test.pdf";
+            response.setContentType("application/pdf");
+            response.addHeader("Content-Type", "application/force-download");
+            response.addHeader("Content-Disposition", "attachment; filename="
+                    + pdfFileName);
+
+            response.getOutputStream().write(document);
+
+        } catch (IOException | COSVisitorException e) {
+            Logger.getLogger(PDFServlet.class.getName()).log(Level.SEVERE,
+                    "An exception occurred when creating the PDF document.", e);
+        }
+    }
+
+    /**
+     * This method draws the given progress note as a PDF document and returns
+     * the saved document.
+     *
+     * @param progressNote the progress note
+     * @return the bytes of the PDF document
+     * @throws IOException if the document cannot be written
+     * @throws COSVisitorException if the document cannot be saved
+     */
+    public static byte[] createDocument(ProgressNote progressNote)
+            throws IOException, COSVisitorException {
+        Patient patient = progressNote.getPatient();
         int yPosition = 705;
         int xPosition = 70;
         int lineCount;
@@ -601,18 +628,8 @@ public class PDFServlet extends HttpServlet {
             doc.addPage(page);
             doc.save(output);
             doc.close();
-            String pdfFileName = "pdf-test.pdf";
-            response.setContentType("application/pdf");
-            response.addHeader("Content-Type", "application/force-download");
-            response.addHeader("Content-Disposition", "attachment; filename="
-                    + pdfFileName);
-
-            response.getOutputStream().write(output.toByteArray());
-
-        } catch (IOException | COSVisitorException e) {
-            Logger.getLogger(PDFServlet.class.getName()).log(Level.SEVERE,
-                    "An exception occurred when creating the PDF document.", e);
         }
+        return output.toByteArray();
     }
 
     /**
@@ -622,7 +639,7 @@ public class PDFServlet extends HttpServlet {
      * @param objectToCheck the object to check
      * @return the object to be used in the document
      */
-    private Object nullCheck(Object objectToCheck) {
+    private static Object nullCheck(Object objectToCheck) {
         return (objectToCheck != null) ? objectToCheck : "";
     }
 
@@ -635,7 +652,7 @@ public class PDFServlet extends HttpServlet {
      * @param maxLength the maximum length
      * @return the array of strings
      */
-    private String[] getNoteLines(String noteInput, int maxLength) {
+    private static String[] getNoteLines(String noteInput, int maxLength) {
 
         String[] noteInputStrings = noteInput.split("\n");
         StringBuilder sb = new StringBuilder();
@@ -15,9 +15,8 @@
  */
 package controller;
 
-import data.PatientDataAccess;
 import data.PatientHistoryDataAccess;
-import data.PatientTreatmentDataAccess;
+import data.PatientRoster;
 import data.QualityDataAccess;
 import java.io.IOException;
 import java.sql.Date;
@@ -32,8 +31,10 @@ import registry.BloodPressureResult;
 import registry.BooleanResult;
 import registry.CategoricalResult;
 import registry.ContinuousResult;
+import registry.ContinuousSeries;
 import registry.Dashboard;
 import registry.DiscreteResult;
+import registry.HistoryContainer;
 import registry.LdlResult;
 import registry.Patient;
 import registry.PsychologicalScreeningResult;
@@ -43,6 +44,7 @@ import registry.TreatmentHistory;
 import registry.TshResult;
 import utility.SessionObjectUtility;
 import utility.StringUtility;
+import utility.WorkingSetStore;
 
 /**
  * This HttpServlet class coordinates the retrieval of patient information on
@@ -95,7 +97,6 @@ public class PatientHistoryServlet extends HttpServlet {
                 .getAttribute("referenceCharacters");
         int patientId;
         String message;
-        ArrayList<Patient> patients;
         String action = request.getParameter("action");
 
         if (action == null) {
@@ -104,12 +105,6 @@ public class PatientHistoryServlet extends HttpServlet {
 
         switch (action) {
             case "get list":
-                patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                if (patients == null) {
-                    patients = PatientDataAccess.getPatients(clinicId,
-                            referenceCharacters);
-                    session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                }
                 if (patient != null) {
                     Dashboard dashboard
                             = PatientHistoryDataAccess.getPatientDashboard(patient.getPatientId(),
@@ -122,18 +117,16 @@ public class PatientHistoryServlet extends HttpServlet {
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     patientId = Integer.parseInt(patientSelect);
-                    patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            Dashboard dashboard
-                                    = PatientHistoryDataAccess.getPatientDashboard(patientId,
-                                            referenceCharacters);
-                            request.setAttribute("dashboard", dashboard);
-                            request.setAttribute("statuslist", dashboard.getHts());
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            referenceCharacters);
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
+                        Dashboard dashboard
+                                = PatientHistoryDataAccess.getPatientDashboard(patientId,
+                                        referenceCharacters);
+                        request.setAttribute("dashboard", dashboard);
+                        request.setAttribute("statuslist", dashboard.getHts());
                     }
                 } catch (NumberFormatException nfe) {
                     message = "patient id invalid";
@@ -141,38 +134,38 @@ public class PatientHistoryServlet extends HttpServlet {
                 }
                 break;
             case "historyOption":
-                String a1cTopic = "A1C";
-                String glucoseTopic = "Glucose";
-                String ldlTopic = "LDL";
-                String hdlTopic = "HDL";
-                String trigTopic = "Triglycerides";
-                String tshTopic = "TSH";
-                String t4Topic = "T4";
-                String uacrTopic = "UACR";
-                String egfrTopic = "eGFR";
-                String creatinineTopic = "Creatinine";
-                String bmiTopic = "BMI";
-                String waistTopic = "Waist";
-                String bpTopic = "Blood Pressure";
-                String classTopic = "Class";
-                String eyeTopic = "Eye Screening";
-                String footTopic = "Foot Screening";
-                String psycTopic = "Psychological Screening";
-                String physicalTopic = "Physical Activity";
-                String fluTopic = "Influenza Vaccine";
-                String pcv13Topic = "PCV-13 Vaccine";
-                String ppsv23Topic = "PPSV-23 Vaccine";
-                String hepbTopic = "Hepatitis B Vaccine";
-                String tdapTopic = "TDAP Vaccine";
-                String zosterTopic = "Zoster Vaccine";
-                String smokingTopic = "Smoking";
-                String telephoneTopic = "Telephone Follow Up";
-                String astTopic = "AST";
-                String altTopic = "ALT";
-                String psaTopic = "PSA";
-                String complianceTopic = "Compliance";
-                String erTopic = "Hospitalization";
-                String treatmentTopic = "Treatment";
+                String a1cTopic = PatientHistoryDataAccess.A1C_TOPIC;
+                String glucoseTopic = PatientHistoryDataAccess.GLUCOSE_TOPIC;
+                String ldlTopic = PatientHistoryDataAccess.LDL_TOPIC;
+                String hdlTopic = PatientHistoryDataAccess.HDL_TOPIC;
+                String trigTopic = PatientHistoryDataAccess.TRIGLYCERIDES_TOPIC;
+                String tshTopic = PatientHistoryDataAccess.TSH_TOPIC;
+                String t4Topic = PatientHistoryDataAccess.T4_TOPIC;
+                String uacrTopic = PatientHistoryDataAccess.UACR_TOPIC;
+                String egfrTopic = PatientHistoryDataAccess.EGFR_TOPIC;
+                String creatinineTopic = PatientHistoryDataAccess.CREATININE_TOPIC;
+                String bmiTopic = PatientHistoryDataAccess.BMI_TOPIC;
+                String waistTopic = PatientHistoryDataAccess.WAIST_TOPIC;
+                String bpTopic = PatientHistoryDataAccess.BLOOD_PRESSURE_TOPIC;
+                String classTopic = PatientHistoryDataAccess.CLASS_TOPIC;
+                String eyeTopic = PatientHistoryDataAccess.EYE_TOPIC;
+                String footTopic = PatientHistoryDataAccess.FOOT_TOPIC;
+                String psycTopic = PatientHistoryDataAccess.PSYCHOLOGICAL_TOPIC;
+                String physicalTopic = PatientHistoryDataAccess.PHYSICAL_ACTIVITY_TOPIC;
+                String fluTopic = PatientHistoryDataAccess.INFLUENZA_TOPIC;
+                String pcv13Topic = PatientHistoryDataAccess.PCV13_TOPIC;
+                String ppsv23Topic = PatientHistoryDataAccess.PPSV23_TOPIC;
+                String hepbTopic = PatientHistoryDataAccess.HEPATITIS_B_TOPIC;
+                String tdapTopic = PatientHistoryDataAccess.TDAP_TOPIC;
+                String zosterTopic = PatientHistoryDataAccess.ZOSTER_TOPIC;
+                String smokingTopic = PatientHistoryDataAccess.SMOKING_TOPIC;
+                String telephoneTopic = PatientHistoryDataAccess.TELEPHONE_TOPIC;
+                String astTopic = PatientHistoryDataAccess.AST_TOPIC;
+                String altTopic = PatientHistoryDataAccess.ALT_TOPIC;
+                String psaTopic = PatientHistoryDataAccess.PSA_TOPIC;
+                String complianceTopic = PatientHistoryDataAccess.COMPLIANCE_TOPIC;
+                String erTopic = PatientHistoryDataAccess.HOSPITALIZATION_TOPIC;
+                String treatmentTopic = PatientHistoryDataAccess.TREATMENT_TOPIC;
 
                 patient = (Patient) session.getAttribute(SessionObjectUtility.PATIENT);
                 patientId = patient.getPatientId();
@@ -187,17 +180,18 @@ public class PatientHistoryServlet extends HttpServlet {
 
                         break;
                     case "a1c": {
-                        ArrayList<A1cResult> a1cHistory
-                                = PatientHistoryDataAccess.getA1c(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, a1cTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, a1cTopic,
                                         referenceCharacters);
+                        ArrayList<A1cResult> a1cHistory
+                                = histories.getResults(a1cTopic, A1cResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(a1cTopic);
                         request.setAttribute("notes", notes);
                         if (a1cHistory != null) {
                             request.setAttribute("a1cHistory", a1cHistory);
 
                             if (a1cHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.A1C_GRAPH_POINTS, a1cHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.A1C_GRAPH_POINTS, ContinuousSeries.fromA1cResults(a1cHistory));
                             }
                         }
                         if ((a1cHistory == null) && (notes == null)) {
@@ -207,17 +201,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "psa": {
-                        ArrayList<ContinuousResult> psaHistory
-                                = PatientHistoryDataAccess.getPsa(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, psaTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, psaTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> psaHistory
+                                = histories.getResults(psaTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(psaTopic);
                         request.setAttribute("notes", notes);
                         if (psaHistory != null) {
                             request.setAttribute("psaHistory", psaHistory);
 
                             if (psaHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.PSA_GRAPH_POINTS, psaHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.PSA_GRAPH_POINTS, ContinuousSeries.fromResults(psaHistory));
                             }
                         }
                         if ((psaHistory == null) && (notes == null)) {
@@ -227,17 +222,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "alt": {
-                        ArrayList<ContinuousResult> altHistory
-                                = PatientHistoryDataAccess.getAlt(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, altTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, altTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> altHistory
+                                = histories.getResults(altTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(altTopic);
                         request.setAttribute("notes", notes);
                         if (altHistory != null) {
                             request.setAttribute("altHistory", altHistory);
 
                             if (altHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.ALT_GRAPH_POINTS, altHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.ALT_GRAPH_POINTS, ContinuousSeries.fromResults(altHistory));
                             }
                         }
                         if ((altHistory == null) && (notes == null)) {
@@ -247,17 +243,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "ast": {
-                        ArrayList<ContinuousResult> astHistory
-                                = PatientHistoryDataAccess.getAst(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, astTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, astTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> astHistory
+                                = histories.getResults(astTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(astTopic);
                         request.setAttribute("notes", notes);
                         if (astHistory != null) {
                             request.setAttribute("astHistory", astHistory);
 
                             if (astHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.AST_GRAPH_POINTS, astHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.AST_GRAPH_POINTS, ContinuousSeries.fromResults(astHistory));
                             }
                         }
                         if ((astHistory == null) && (notes == null)) {
@@ -267,17 +264,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "bloodPressure": {
-                        ArrayList<BloodPressureResult> bpHistory
-                                = PatientHistoryDataAccess.getBP(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, bpTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, bpTopic,
                                         referenceCharacters);
+                        ArrayList<BloodPressureResult> bpHistory
+                                = histories.getResults(bpTopic, BloodPressureResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(bpTopic);
                         request.setAttribute("notes", notes);
                         if (bpHistory != null) {
                             request.setAttribute("bpHistory", bpHistory);
 
                             if (bpHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.BP_GRAPH_POINTS, bpHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.BP_GRAPH_POINTS, ContinuousSeries.fromBloodPressureResults(bpHistory));
                             }
                         }
                         if ((bpHistory == null) && (notes == null)) {
@@ -287,17 +285,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "BMI": {
-                        ArrayList<ContinuousResult> bmiHistory
-                                = PatientHistoryDataAccess.getBmi(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, bmiTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, bmiTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> bmiHistory
+                                = histories.getResults(bmiTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(bmiTopic);
                         request.setAttribute("notes", notes);
                         if (bmiHistory != null) {
                             request.setAttribute("bmiHistory", bmiHistory);
 
                             if (bmiHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.BMI_GRAPH_POINTS, bmiHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.BMI_GRAPH_POINTS, ContinuousSeries.fromResults(bmiHistory));
                             }
                         }
                         if ((bmiHistory == null) && (notes == null)) {
@@ -319,11 +318,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "class": {
-                        ArrayList<Date> classHistory
-                                = PatientHistoryDataAccess.getClass(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, classTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, classTopic,
                                         referenceCharacters);
+                        ArrayList<Date> classHistory
+                                = histories.getResults(classTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(classTopic);
                         request.setAttribute("notes", notes);
                         if (classHistory != null) {
                             request.setAttribute("classHistory", classHistory);
@@ -336,18 +336,19 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "creatinine": {
-                        ArrayList<ContinuousResult> creatinineHistory
-                                = PatientHistoryDataAccess.getCreatinine(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, creatinineTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, creatinineTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> creatinineHistory
+                                = histories.getResults(creatinineTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(creatinineTopic);
                         request.setAttribute("notes", notes);
                         if (creatinineHistory != null) {
                             request.setAttribute("creatinineHistory", creatinineHistory);
 
                             if (creatinineHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.CREATININE_GRAPH_POINTS,
-                                        creatinineHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.CREATININE_GRAPH_POINTS,
+                                        ContinuousSeries.fromResults(creatinineHistory));
                             }
                         }
                         if ((creatinineHistory == null) && (notes == null)) {
@@ -357,17 +358,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "eGFR": {
-                        ArrayList<ContinuousResult> egfrHistory
-                                = PatientHistoryDataAccess.getEgfr(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, egfrTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, egfrTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> egfrHistory
+                                = histories.getResults(egfrTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(egfrTopic);
                         request.setAttribute("notes", notes);
                         if (egfrHistory != null) {
                             request.setAttribute("egfrHistory", egfrHistory);
 
                             if (egfrHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.EGFR_GRAPH_POINTS, egfrHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.EGFR_GRAPH_POINTS, ContinuousSeries.fromResults(egfrHistory));
                             }
                         }
                         if ((egfrHistory == null) && (notes == null)) {
@@ -377,11 +379,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "eye": {
-                        ArrayList<CategoricalResult> eyeHistory
-                                = PatientHistoryDataAccess.getEye(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, eyeTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, eyeTopic,
                                         referenceCharacters);
+                        ArrayList<CategoricalResult> eyeHistory
+                                = histories.getResults(eyeTopic, CategoricalResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(eyeTopic);
                         request.setAttribute("notes", notes);
                         if (eyeHistory != null) {
                             request.setAttribute("eyeHistory", eyeHistory);
@@ -394,11 +397,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "foot": {
-                        ArrayList<CategoricalResult> footHistory
-                                = PatientHistoryDataAccess.getFoot(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, footTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, footTopic,
                                         referenceCharacters);
+                        ArrayList<CategoricalResult> footHistory
+                                = histories.getResults(footTopic, CategoricalResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(footTopic);
                         request.setAttribute("notes", notes);
                         if (footHistory != null) {
                             request.setAttribute("footHistory", footHistory);
@@ -411,17 +415,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "glucose": {
-                        ArrayList<ContinuousResult> glucoseHistory
-                                = PatientHistoryDataAccess.getGlucose(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, glucoseTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, glucoseTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> glucoseHistory
+                                = histories.getResults(glucoseTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(glucoseTopic);
                         request.setAttribute("notes", notes);
                         if (glucoseHistory != null) {
                             request.setAttribute("glucoseHistory", glucoseHistory);
 
                             if (glucoseHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.GLUCOSE_GRAPH_POINTS, glucoseHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.GLUCOSE_GRAPH_POINTS, ContinuousSeries.fromResults(glucoseHistory));
                             }
                         }
                         if ((glucoseHistory == null) && (notes == null)) {
@@ -431,17 +436,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "HDL": {
-                        ArrayList<ContinuousResult> hdlHistory
-                                = PatientHistoryDataAccess.getHdl(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, hdlTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, hdlTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> hdlHistory
+                                = histories.getResults(hdlTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(hdlTopic);
                         request.setAttribute("notes", notes);
                         if (hdlHistory != null) {
                             request.setAttribute("hdlHistory", hdlHistory);
 
                             if (hdlHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.HDL_GRAPH_POINTS, hdlHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.HDL_GRAPH_POINTS, ContinuousSeries.fromResults(hdlHistory));
                             }
                         }
                         if ((hdlHistory == null) && (notes == null)) {
@@ -451,11 +457,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "hepb": {
-                        ArrayList<Date> hepBHistory
-                                = PatientHistoryDataAccess.getHepB(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, hepbTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, hepbTopic,
                                         referenceCharacters);
+                        ArrayList<Date> hepBHistory
+                                = histories.getResults(hepbTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(hepbTopic);
                         request.setAttribute("notes", notes);
                         if (hepBHistory != null) {
                             request.setAttribute("hepBHistory", hepBHistory);
@@ -468,11 +475,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "hospitalization": {
-                        ArrayList<Date> hospitalizationHistory
-                                = PatientHistoryDataAccess.getER(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, erTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, erTopic,
                                         referenceCharacters);
+                        ArrayList<Date> hospitalizationHistory
+                                = histories.getResults(erTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(erTopic);
                         request.setAttribute("notes", notes);
                         if (hospitalizationHistory != null) {
                             request.setAttribute("hospitalizationHistory", hospitalizationHistory);
@@ -485,11 +493,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "influenza": {
-                        ArrayList<Date> influenzaHistory
-                                = PatientHistoryDataAccess.getInfluenza(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, fluTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, fluTopic,
                                         referenceCharacters);
+                        ArrayList<Date> influenzaHistory
+                                = histories.getResults(fluTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(fluTopic);
                         request.setAttribute("notes", notes);
                         if (influenzaHistory != null) {
                             request.setAttribute("influenzaHistory", influenzaHistory);
@@ -502,17 +511,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "LDL": {
-                        ArrayList<LdlResult> ldlHistory
-                                = PatientHistoryDataAccess.getLdl(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, ldlTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, ldlTopic,
                                         referenceCharacters);
+                        ArrayList<LdlResult> ldlHistory
+                                = histories.getResults(ldlTopic, LdlResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(ldlTopic);
                         request.setAttribute("notes", notes);
                         if (ldlHistory != null) {
                             request.setAttribute("ldlHistory", ldlHistory);
 
                             if (ldlHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.LDL_GRAPH_POINTS, ldlHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.LDL_GRAPH_POINTS, ContinuousSeries.fromLdlResults(ldlHistory));
                             }
                         }
                         if ((ldlHistory == null) && (notes == null)) {
@@ -534,17 +544,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "compliance": {
-                        ArrayList<ContinuousResult> complianceHistory
-                                = PatientHistoryDataAccess.getCompliance(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, complianceTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, complianceTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> complianceHistory
+                                = histories.getResults(complianceTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(complianceTopic);
                         request.setAttribute("notes", notes);
                         if (complianceHistory != null) {
                             request.setAttribute("complianceHistory", complianceHistory);
 
                             if (complianceHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.COMPLIANCE_GRAPH_POINTS, complianceHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.COMPLIANCE_GRAPH_POINTS, ContinuousSeries.fromResults(complianceHistory));
                             }
                         }
                         if ((complianceHistory == null) && (notes == null)) {
@@ -554,11 +565,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "PCV-13": {
-                        ArrayList<Date> pcv13History
-                                = PatientHistoryDataAccess.getPcv13(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, pcv13Topic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, pcv13Topic,
                                         referenceCharacters);
+                        ArrayList<Date> pcv13History
+                                = histories.getResults(pcv13Topic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(pcv13Topic);
                         request.setAttribute("notes", notes);
                         if (pcv13History != null) {
                             request.setAttribute("pcv13History", pcv13History);
@@ -571,18 +583,19 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "physicalActivity": {
-                        ArrayList<DiscreteResult> physicalActivityHistory
-                                = PatientHistoryDataAccess.getPhysical(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, physicalTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, physicalTopic,
                                         referenceCharacters);
+                        ArrayList<DiscreteResult> physicalActivityHistory
+                                = histories.getResults(physicalTopic, DiscreteResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(physicalTopic);
                         request.setAttribute("notes", notes);
                         if (physicalActivityHistory != null) {
                             request.setAttribute("physicalActivityHistory",
                                     physicalActivityHistory);
 
                             if (physicalActivityHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS,
+                                WorkingSetStore.put(session, SessionObjectUtility.PHYSICAL_ACTIVITY_GRAPH_POINTS,
                                         physicalActivityHistory);
                             }
                         }
@@ -593,11 +606,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "PPSV-23": {
-                        ArrayList<Date> ppsv23History
-                                = PatientHistoryDataAccess.getPpsv23(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, ppsv23Topic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, ppsv23Topic,
                                         referenceCharacters);
+                        ArrayList<Date> ppsv23History
+                                = histories.getResults(ppsv23Topic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(ppsv23Topic);
                         request.setAttribute("notes", notes);
                         if (ppsv23History != null) {
                             request.setAttribute("ppsv23History", ppsv23History);
@@ -610,17 +624,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "psychological": {
-                        ArrayList<PsychologicalScreeningResult> psychologicalHistory
-                                = PatientHistoryDataAccess.getPsychological(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, psycTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, psycTopic,
                                         referenceCharacters);
+                        ArrayList<PsychologicalScreeningResult> psychologicalHistory
+                                = histories.getResults(psycTopic, PsychologicalScreeningResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(psycTopic);
                         request.setAttribute("notes", notes);
                         if (psychologicalHistory != null) {
                             request.setAttribute("psychologicalHistory", psychologicalHistory);
 
                             if (psychologicalHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS,
+                                WorkingSetStore.put(session, SessionObjectUtility.PSYCHOLOGICAL_GRAPH_POINTS,
                                         psychologicalHistory);
                             }
                         }
@@ -631,11 +646,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "smoking": {
-                        ArrayList<BooleanResult> smokingHistory
-                                = PatientHistoryDataAccess.getSmoking(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, smokingTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, smokingTopic,
                                         referenceCharacters);
+                        ArrayList<BooleanResult> smokingHistory
+                                = histories.getResults(smokingTopic, BooleanResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(smokingTopic);
                         request.setAttribute("notes", notes);
                         if (smokingHistory != null) {
                             request.setAttribute("smokingHistory", smokingHistory);
@@ -648,18 +664,19 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "T4": {
-                        ArrayList<ContinuousResult> t4History
-                                = PatientHistoryDataAccess.getT4(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, t4Topic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, t4Topic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> t4History
+                                = histories.getResults(t4Topic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(t4Topic);
                         request.setAttribute("notes", notes);
                         if (t4History != null) {
                             request.setAttribute("t4History", t4History);
 
                             if (t4History.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.T4_GRAPH_POINTS,
-                                        t4History);
+                                WorkingSetStore.put(session, SessionObjectUtility.T4_GRAPH_POINTS,
+                                        ContinuousSeries.fromResults(t4History));
                             }
                         }
                         if ((t4History == null) && (notes == null)) {
@@ -669,11 +686,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "TDAP": {
-                        ArrayList<Date> tdapHistory
-                                = PatientHistoryDataAccess.getTdap(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, tdapTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, tdapTopic,
                                         referenceCharacters);
+                        ArrayList<Date> tdapHistory
+                                = histories.getResults(tdapTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(tdapTopic);
                         request.setAttribute("notes", notes);
                         if (tdapHistory != null) {
                             request.setAttribute("tdapHistory", tdapHistory);
@@ -686,11 +704,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "telephone": {
-                        ArrayList<CategoricalResult> telephoneHistory
-                                = PatientHistoryDataAccess.getTelephone(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, telephoneTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, telephoneTopic,
                                         referenceCharacters);
+                        ArrayList<CategoricalResult> telephoneHistory
+                                = histories.getResults(telephoneTopic, CategoricalResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(telephoneTopic);
                         request.setAttribute("notes", notes);
                         if (telephoneHistory != null) {
                             request.setAttribute("telephoneHistory", telephoneHistory);
@@ -703,11 +722,11 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "treatment": {
-                        TreatmentHistory treatmentHistory
-                                = PatientTreatmentDataAccess.getTreatments(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, treatmentTopic,
-                                        referenceCharacters);
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId,
+                                        treatmentTopic, referenceCharacters);
+                        TreatmentHistory treatmentHistory = histories.getTreatmentHistory();
+                        ArrayList<CategoricalResult> notes = histories.getNotes(treatmentTopic);
                         request.setAttribute("notes", notes);
                         if ((treatmentHistory != null)
                                 && (treatmentHistory.getTherapies() == null)
@@ -722,19 +741,20 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "triglycerides": {
-                        ArrayList<ContinuousResult> triglyceridesHistory
-                                = PatientHistoryDataAccess.getTriglycerides(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, trigTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, trigTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> triglyceridesHistory
+                                = histories.getResults(trigTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(trigTopic);
                         request.setAttribute("notes", notes);
                         if (triglyceridesHistory != null) {
                             request.setAttribute("triglyceridesHistory",
                                     triglyceridesHistory);
 
                             if (triglyceridesHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS,
-                                        triglyceridesHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.TRIGLYCERIDES_GRAPH_POINTS,
+                                        ContinuousSeries.fromResults(triglyceridesHistory));
                             }
                         }
                         if ((triglyceridesHistory == null) && (notes == null)) {
@@ -744,17 +764,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "TSH": {
-                        ArrayList<TshResult> tshHistory
-                                = PatientHistoryDataAccess.getTsh(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, tshTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, tshTopic,
                                         referenceCharacters);
+                        ArrayList<TshResult> tshHistory
+                                = histories.getResults(tshTopic, TshResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(tshTopic);
                         request.setAttribute("notes", notes);
                         if (tshHistory != null) {
                             request.setAttribute("tshHistory", tshHistory);
 
                             if (tshHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.TSH_GRAPH_POINTS,
+                                WorkingSetStore.put(session, SessionObjectUtility.TSH_GRAPH_POINTS,
                                         tshHistory);
                             }
                         }
@@ -765,17 +786,18 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "UACR": {
-                        ArrayList<ContinuousResult> uacrHistory
-                                = PatientHistoryDataAccess.getUacr(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, uacrTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, uacrTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> uacrHistory
+                                = histories.getResults(uacrTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(uacrTopic);
                         request.setAttribute("notes", notes);
                         if (uacrHistory != null) {
                             request.setAttribute("uacrHistory", uacrHistory);
 
                             if (uacrHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.UACR_GRAPH_POINTS, uacrHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.UACR_GRAPH_POINTS, ContinuousSeries.fromResults(uacrHistory));
                             }
                         }
                         if ((uacrHistory == null) && (notes == null)) {
@@ -785,18 +807,19 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "waist": {
-                        ArrayList<ContinuousResult> waistHistory
-                                = PatientHistoryDataAccess.getWaist(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, waistTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, waistTopic,
                                         referenceCharacters);
+                        ArrayList<ContinuousResult> waistHistory
+                                = histories.getResults(waistTopic, ContinuousResult.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(waistTopic);
                         request.setAttribute("notes", notes);
                         if (waistHistory != null) {
                             request.setAttribute("waistHistory", waistHistory);
 
                             if (waistHistory.size() > 1) {
-                                session.setAttribute(SessionObjectUtility.WAIST_GRAPH_POINTS,
-                                        waistHistory);
+                                WorkingSetStore.put(session, SessionObjectUtility.WAIST_GRAPH_POINTS,
+                                        ContinuousSeries.fromResults(waistHistory));
                             }
                         }
                         if ((waistHistory == null) && (notes == null)) {
@@ -806,11 +829,12 @@ public class PatientHistoryServlet extends HttpServlet {
                         break;
                     }
                     case "zoster": {
-                        ArrayList<Date> zosterHistory
-                                = PatientHistoryDataAccess.getZoster(patientId);
-                        ArrayList<CategoricalResult> notes
-                                = PatientHistoryDataAccess.getNotes(patientId, zosterTopic,
+                        HistoryContainer histories
+                                = PatientHistoryDataAccess.getHistory(patientId, zosterTopic,
                                         referenceCharacters);
+                        ArrayList<Date> zosterHistory
+                                = histories.getResults(zosterTopic, Date.class);
+                        ArrayList<CategoricalResult> notes = histories.getNotes(zosterTopic);
                         request.setAttribute("notes", notes);
                         if (zosterHistory != null) {
                             request.setAttribute("zosterHistory", zosterHistory);
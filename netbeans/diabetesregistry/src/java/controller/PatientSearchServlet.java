@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package controller;
+
+import data.PatientRoster;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import registry.Patient;
+import registry.PatientPage;
+import registry.ReferenceContainer;
+
+/**
+ * This HttpServlet class answers patient searches from the patient pickers
+ * with one page of matching patients in JSON format. When no patient begins
+ * with the search terms, the patients with the closest names are returned.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class PatientSearchServlet extends HttpServlet {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 7362018459174302685L;
+
+    /**
+     * The number of patients on a page when no limit is requested
+     */
+    private static final int DEFAULT_LIMIT = 25;
+
+    /**
+     * The largest number of patients on a page
+     */
+    private static final int MAXIMUM_LIMIT = 100;
+
+    /**
+     * Handles the HTTP <code>GET</code> method. The search terms, the cursor
+     * and the page size are read from the request and the page of patients is
+     * written to the response. A cursor naming a patient no longer in the
+     * results, such as one removed since the previous page, is answered with
+     * a bad request status so the client starts again from the first page.
+     *
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        int clinicId = ReferenceContainer.CLINIC_ID;
+        Object referenceCharacters = getServletContext()
+                .getAttribute("referenceCharacters");
+        String query = request.getParameter("q");
+        String cursor = request.getParameter("cursor");
+
+        int limit = DEFAULT_LIMIT;
+        String limitParameter = request.getParameter("limit");
+        if ((limitParameter != null) && !limitParameter.isEmpty()) {
+            try {
+                limit = Integer.parseInt(limitParameter);
+            } catch (NumberFormatException ex) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            limit = Math.max(1, Math.min(limit, MAXIMUM_LIMIT));
+        }
+
+        PatientPage page = PatientRoster.searchPatients(clinicId,
+                referenceCharacters, query, cursor, limit);
+        if (page == null) {
+            response.sendError((cursor == null) || cursor.isEmpty()
+                    ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                    : HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        /* a misspelled name finds the closest names when nothing begins with it */
+        boolean firstPage = (cursor == null) || cursor.isEmpty();
+        if (firstPage && page.getPatients().isEmpty() && (query != null)
+                && !query.trim().isEmpty()) {
+            ArrayList<Patient> closest = PatientRoster.findPatientsByName(clinicId,
+                    referenceCharacters, query, limit);
+            if (closest != null) {
+                page.setPatients(closest);
+            }
+        }
+
+        response.setContentType("application/json;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.write("{\"patients\":[");
+        boolean first = true;
+        for (Patient p : page.getPatients()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write("{\"id\":");
+            out.write(Integer.toString(p.getPatientId()));
+            out.write(",\"firstName\":");
+            writeString(out, p.getFirstName());
+            out.write(",\"lastName\":");
+            writeString(out, p.getLastName());
+            out.write(",\"birthDate\":");
+            writeString(out, (p.getBirthDate() == null) ? null
+                    : p.getBirthDate().toString());
+            out.write('}');
+        }
+        out.write("],\"nextCursor\":");
+        writeString(out, page.getNextCursor());
+        out.write('}');
+    }
+
+    /**
+     * This method writes a value as a JSON string, escaping the characters
+     * that may not appear in a string literal.
+     *
+     * @param out the response writer
+     * @param value the value or null
+     */
+    private void writeString(PrintWriter out, String value) {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if ((c < 0x20) || (c == '<') || (c == '>') || (c == '&')
+                            || (c == '\u2028') || (c == '\u2029')) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
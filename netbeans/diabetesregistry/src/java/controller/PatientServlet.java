@@ -16,9 +16,9 @@
 package controller;
 
 import data.PatientDataAccess;
+import data.PatientRoster;
 import java.io.IOException;
 import java.sql.Date;
-import java.util.ArrayList;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -87,15 +87,6 @@ public class PatientServlet extends HttpServlet {
                 String requestURI = request.getRequestURI();
                 if (requestURI.contains("/newpatient")) {
                     url = "/newpatient/index.jsp";
-                } else if (requestURI.contains("/updatepatient")) {
-                    ArrayList<Patient> patients
-                            = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    if (patients == null) {
-                        patients = PatientDataAccess.getPatients(clinicId,
-                                session.getServletContext()
-                                .getAttribute("referenceCharacters"));
-                        session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                    }
                 }
                 break;
             case "add": {
@@ -233,11 +224,6 @@ public class PatientServlet extends HttpServlet {
 
                     if (successfulAdd) {
                         message = "Patient was added successfully!";
-                        ArrayList<Patient> patients
-                                = PatientDataAccess.getPatients(clinicId,
-                                        session.getServletContext()
-                                        .getAttribute("referenceCharacters"));
-                        session.setAttribute(SessionObjectUtility.PATIENTS, patients);
                         SessionObjectUtility.resetClinicObjects(session);
 
                         request.setAttribute("message", message);
@@ -252,14 +238,12 @@ public class PatientServlet extends HttpServlet {
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     int patientId = Integer.parseInt(patientSelect);
-                    ArrayList<Patient> patients
-                            = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
                     }
                 } catch (NumberFormatException nfe) {
                     message = "patient id invalid";
@@ -411,17 +395,12 @@ public class PatientServlet extends HttpServlet {
 
                     if (successfulUpdate) {
                         message = "Patient was updated successfully!";
-                        ArrayList<Patient> patients
-                                = PatientDataAccess.getPatients(clinicId,
-                                        session.getServletContext()
-                                        .getAttribute("referenceCharacters"));
-                        session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                        for (Patient p : patients) {
-                            if (p.getPatientId() == patientId) {
-                                session.setAttribute(SessionObjectUtility.PATIENT, p);
-                                SessionObjectUtility.resetPatientObjects(session);
-                                break;
-                            }
+                        Patient p = PatientRoster.getPatient(clinicId, patientId,
+                                session.getServletContext()
+                                .getAttribute("referenceCharacters"));
+                        if (p != null) {
+                            session.setAttribute(SessionObjectUtility.PATIENT, p);
+                            SessionObjectUtility.resetPatientObjects(session);
                         }
                         request.setAttribute("message", message);
                     } else {
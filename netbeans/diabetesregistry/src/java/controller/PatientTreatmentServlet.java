@@ -15,11 +15,11 @@
  */
 package controller;
 
-import data.PatientDataAccess;
+import data.PatientRoster;
 import data.PatientTreatmentDataAccess;
+import data.ReferenceSnapshot;
 import java.io.IOException;
 import java.sql.Date;
-import java.util.ArrayList;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -77,7 +77,6 @@ public class PatientTreatmentServlet extends HttpServlet {
         String url = "/treatment/index.jsp";
         int clinicId = ReferenceContainer.CLINIC_ID;
         User user = (User) session.getAttribute(SessionObjectUtility.USER);
-        ArrayList<Patient> patients;
         String message;
         String action = request.getParameter("action");
 
@@ -87,25 +86,17 @@ public class PatientTreatmentServlet extends HttpServlet {
 
         switch (action) {
             case "get list":
-                patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                if (patients == null) {
-                    patients = PatientDataAccess.getPatients(clinicId,
-                            session.getServletContext()
-                            .getAttribute("referenceCharacters"));
-                    session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                }
                 break;
             case "getPatient":
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     int patientId = Integer.parseInt(patientSelect);
-                    patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
                     }
                 } catch (NumberFormatException nfe) {
                     message = "patient id invalid";
@@ -146,6 +137,23 @@ public class PatientTreatmentServlet extends HttpServlet {
                         request.setAttribute("errorMessage", message);
                         validData = false;
                     }
+
+                    /* the values must be current references */
+                    ReferenceContainer rc = ReferenceSnapshot.getReferences();
+                    if (validData && (rc != null)) {
+                        if (rc.getTherapy(rxClass) == null) {
+                            message = "The prescription class is not recognized.";
+                            request.setAttribute("errorMessage", message);
+                            validData = false;
+                        }
+                        for (String s : medications) {
+                            if (rc.getMedication(s) == null) {
+                                message = "The medication is not recognized.";
+                                request.setAttribute("errorMessage", message);
+                                validData = false;
+                            }
+                        }
+                    }
                 }
 
                 /* validating date reviewed */
@@ -181,6 +189,10 @@ public class PatientTreatmentServlet extends HttpServlet {
             default:
                 break;
         }
+        /* the list of patients is shared by all sessions */
+        request.setAttribute(SessionObjectUtility.PATIENTS,
+                PatientRoster.getPatients(clinicId, session.getServletContext()
+                .getAttribute("referenceCharacters")));
         getServletContext().getRequestDispatcher(url)
                 .forward(request, response);
     }
@@ -15,7 +15,7 @@
  */
 package controller;
 
-import data.PopulationStatisticsDataAccess;
+import data.PopulationStatisticsSnapshot;
 import java.io.IOException;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -26,6 +26,7 @@ import registry.DemographicData;
 import registry.ReferenceContainer;
 import registry.Stats;
 import utility.SessionObjectUtility;
+import utility.WorkingSetStore;
 
 /**
  * This HttpServlet class coordinates the statistics data retrieval process for
@@ -87,26 +88,29 @@ public class PopulationStatisticsServlet extends HttpServlet {
                 switch (selection) {
                     case "demographics": {
                         DemographicData demographicData
-                                = PopulationStatisticsDataAccess
+                                = PopulationStatisticsSnapshot
                                 .getDemographicData(clinicId,
                                         session.getServletContext()
                                         .getAttribute("referenceCharacters"));
                         request.setAttribute("demographics", demographicData);
-                        session.setAttribute(SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA, demographicData);
-                        session.setAttribute(SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA, demographicData);
-                        session.setAttribute(SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA, demographicData);
+                        WorkingSetStore.put(session, SessionObjectUtility.GENDER_DEMOGRAPHICS_GRAPH_DATA, demographicData);
+                        WorkingSetStore.put(session, SessionObjectUtility.RACE_DEMOGRAPHICS_GRAPH_DATA, demographicData);
+                        WorkingSetStore.put(session, SessionObjectUtility.AGE_DEMOGRAPHICS_GRAPH_DATA, demographicData);
                         break;
                     }
                     case "glycemicControl": {
                         int classesIndex = 0;
                         int treatmentIndex = 1;
                         Stats[] glycemicStats
-                                = PopulationStatisticsDataAccess.getGlycemicControl(clinicId);
+                                = PopulationStatisticsSnapshot
+                                .getGlycemicControl(clinicId,
+                                        session.getServletContext()
+                                        .getAttribute("referenceCharacters"));
                         if (glycemicStats != null) {
                             request.setAttribute("glycemicStats", glycemicStats[classesIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_A1C_DATA, glycemicStats[classesIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_A1C_BY_CLASS_DATA, glycemicStats[classesIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_A1C_BY_TREATMENT, glycemicStats[treatmentIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_A1C_DATA, glycemicStats[classesIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_A1C_BY_CLASS_DATA, glycemicStats[classesIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_A1C_BY_TREATMENT, glycemicStats[treatmentIndex]);
                         }
                         break;
                     }
@@ -114,16 +118,16 @@ public class PopulationStatisticsServlet extends HttpServlet {
                         int maleIndex = 0;
                         int femaleIndex = 1;
                         Stats[] bmiStats
-                                = PopulationStatisticsDataAccess
+                                = PopulationStatisticsSnapshot
                                 .getBodyMassStatistics(clinicId,
                                         session.getServletContext()
                                         .getAttribute("referenceCharacters"));
                         request.setAttribute("bmiStats", bmiStats);
                         if (bmiStats != null) {
-                            session.setAttribute(SessionObjectUtility.LAST_BMI_MALES_DATA, bmiStats[maleIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_BMI_FEMALES_DATA, bmiStats[femaleIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA, bmiStats[maleIndex]);
-                            session.setAttribute(SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA, bmiStats[femaleIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_BMI_MALES_DATA, bmiStats[maleIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_BMI_FEMALES_DATA, bmiStats[femaleIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_BMI_MALES_BY_CLASS_DATA, bmiStats[maleIndex]);
+                            WorkingSetStore.put(session, SessionObjectUtility.LAST_BMI_FEMALES_BY_CLASS_DATA, bmiStats[femaleIndex]);
                         }
                         break;
                     }
@@ -131,7 +135,7 @@ public class PopulationStatisticsServlet extends HttpServlet {
                         int avgA1cChangeIndex = 0;
 
                         Stats treatmentStats
-                                = PopulationStatisticsDataAccess
+                                = PopulationStatisticsSnapshot
                                 .getTreatmentStatistics(clinicId,
                                         session.getServletContext()
                                         .getAttribute("referenceCharacters"));
@@ -139,9 +143,9 @@ public class PopulationStatisticsServlet extends HttpServlet {
                             request.setAttribute("treatmentStats",
                                     treatmentStats.getGroups().get(avgA1cChangeIndex));
                         }
-                        session.setAttribute(SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
-                        session.setAttribute(SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
-                        session.setAttribute(SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
+                        WorkingSetStore.put(session, SessionObjectUtility.CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
+                        WorkingSetStore.put(session, SessionObjectUtility.GENDER_CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
+                        WorkingSetStore.put(session, SessionObjectUtility.RACE_CLASS_COUNTS_TREATMENT_STATS, treatmentStats);
                         break;
                     }
                     default:
@@ -15,7 +15,7 @@
  */
 package controller;
 
-import data.PatientDataAccess;
+import data.PatientRoster;
 import data.ProgressNoteDataAccess;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -86,7 +86,6 @@ public class ProgressNoteServlet extends HttpServlet {
         int clinicId = ReferenceContainer.CLINIC_ID;
         boolean validData = true;
         User user = (User) session.getAttribute(SessionObjectUtility.USER);
-        ArrayList<Patient> patients;
         Patient patient;
         ArrayList<Date> progressDates;
         String message;
@@ -98,13 +97,6 @@ public class ProgressNoteServlet extends HttpServlet {
 
         switch (action) {
             case "get list":
-                patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                if (patients == null) {
-                    patients = PatientDataAccess.getPatients(clinicId,
-                            session.getServletContext()
-                            .getAttribute("referenceCharacters"));
-                    session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                }
                 patient = (Patient) session.getAttribute(SessionObjectUtility.PATIENT);
                 progressDates
                         = (ArrayList<Date>) session.getAttribute(SessionObjectUtility.PROGRESS_DATES);
@@ -118,13 +110,12 @@ public class ProgressNoteServlet extends HttpServlet {
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     int patientId = Integer.parseInt(patientSelect);
-                    patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
                     }
                     progressDates
                             = ProgressNoteDataAccess.getProgressDates(patientId);
@@ -698,16 +689,13 @@ public class ProgressNoteServlet extends HttpServlet {
                          * pulling patient data from the database as patient status 
                          * may have changed
                          */
-                        patients = PatientDataAccess.getPatients(clinicId,
+                        Patient p = PatientRoster.getPatient(clinicId,
+                                noteToSave.getPatient().getPatientId(),
                                 session.getServletContext()
                                 .getAttribute("referenceCharacters"));
-                        session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                        for (Patient p : patients) {
-                            if (p.getPatientId() == noteToSave.getPatient().getPatientId()) {
-                                session.setAttribute(SessionObjectUtility.PATIENT, p);
-                                SessionObjectUtility.resetPatientObjects(session);
-                                break;
-                            }
+                        if (p != null) {
+                            session.setAttribute(SessionObjectUtility.PATIENT, p);
+                            SessionObjectUtility.resetPatientObjects(session);
                         }
 
                         /* keeping the latest progress note data on the page */
@@ -15,7 +15,7 @@
  */
 package controller;
 
-import data.PatientDataAccess;
+import data.PatientRoster;
 import data.QualityDataAccess;
 import java.io.IOException;
 import java.sql.Date;
@@ -78,7 +78,6 @@ public class QualityServlet extends HttpServlet {
         String url = "/quality/index.jsp";
         int clinicId = ReferenceContainer.CLINIC_ID;
         User user = (User) session.getAttribute(SessionObjectUtility.USER);
-        ArrayList<Patient> patients;
         String message;
         String action = request.getParameter("action");
 
@@ -88,25 +87,17 @@ public class QualityServlet extends HttpServlet {
 
         switch (action) {
             case "get list":
-                patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                if (patients == null) {
-                    patients = PatientDataAccess.getPatients(clinicId,
-                            session.getServletContext()
-                            .getAttribute("referenceCharacters"));
-                    session.setAttribute(SessionObjectUtility.PATIENTS, patients);
-                }
                 break;
             case "getPatient":
                 String patientSelect = request.getParameter("patientselect");
                 try {
                     int patientId = Integer.parseInt(patientSelect);
-                    patients = (ArrayList<Patient>) session.getAttribute(SessionObjectUtility.PATIENTS);
-                    for (Patient p : patients) {
-                        if (p.getPatientId() == patientId) {
-                            session.setAttribute(SessionObjectUtility.PATIENT, p);
-                            SessionObjectUtility.resetPatientObjects(session);
-                            break;
-                        }
+                    Patient p = PatientRoster.getPatient(clinicId, patientId,
+                            session.getServletContext()
+                            .getAttribute("referenceCharacters"));
+                    if (p != null) {
+                        session.setAttribute(SessionObjectUtility.PATIENT, p);
+                        SessionObjectUtility.resetPatientObjects(session);
                     }
                 } catch (NumberFormatException nfe) {
                     message = "patient id invalid";
@@ -172,6 +163,10 @@ public class QualityServlet extends HttpServlet {
             }
         }
 
+        /* the list of patients is shared by all sessions */
+        request.setAttribute(SessionObjectUtility.PATIENTS,
+                PatientRoster.getPatients(clinicId, session.getServletContext()
+                .getAttribute("referenceCharacters")));
         getServletContext().getRequestDispatcher(url)
                 .forward(request, response);
     }
@@ -15,20 +15,17 @@
  */
 package data;
 
-import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import registry.EmailMessage;
 import registry.Patient;
 import utility.ConnectionPool;
-import utility.DatabaseUtility;
 
 /**
  * This data-access class retrieves patient call lists and email messages.
@@ -84,135 +81,126 @@ public class CallListDataAccess {
     public static ArrayList<Patient> getCallList(int clinicId, String subject,
             LastMeasurementDateType[] dateType, Object referenceCharacters) {
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-        ArrayList<Patient> callListPatients = new ArrayList<>();
+        Connection connection = pool.getReadConnection();
+        try {
+            return ProcedureExecutor.getList(connection,
+                    "{CALL getCallList(?, ?, ?, ?)}", new CallListMapper(dateType),
+                    "getCallList", clinicId, subject, referenceCharacters);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
 
+    /**
+     * This method uses the getEmailMessages procedure in the database to find
+     * and return the list of email messages to be sent to selected patients in
+     * the call list.
+     *
+     * @param clinicId the clinic ID
+     * @param subject the call list subject
+     * @return the list of email messages or null if no messages are found
+     */
+    public static ArrayList<EmailMessage> getEmailMessages(int clinicId, String subject) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getCallList(?, ?, ?, ?)}");
-            cs.setInt(1, clinicId);
-            cs.setString(2, subject);
-            cs.setString(3, (String) referenceCharacters);
-            cs.registerOutParameter(4, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
+            return ProcedureExecutor.getList(connection,
+                    "{CALL getEmailMessages(?, ?, ?)}", new EmailMessageMapper(subject),
+                    "getEmailMessages", clinicId, subject);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
+
+    /**
+     * This class maps rows of call list patients. The last measurement date
+     * column is optional and its type is reported when the columns are found.
+     */
+    private static class CallListMapper extends RowMapper<Patient> {
+
+        /**
+         * The last measurement date type determined from the result set
+         */
+        private final LastMeasurementDateType[] dateType;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param dateType the array receiving the last measurement date type
+         */
+        private CallListMapper(LastMeasurementDateType[] dateType) {
+            super("patient id", "first name", "last name", "birth date",
+                    "contact number", "email", "language");
+            this.dateType = dateType;
+        }
 
-            rs = cs.getResultSet();
+        @Override
+        int[] findColumns(ResultSet rs) throws SQLException {
+            int[] labelled = super.findColumns(rs);
+            int[] columns = Arrays.copyOf(labelled, labelled.length + 1);
 
             /* retrieving the column labels to determine if last measurement date will be set */
             ResultSetMetaData metaData = rs.getMetaData();
-            Set<String> columnLabels = new HashSet();
-            String dateOfLastMeasurementLabel = "";
+            Set<String> columnLabels = new HashSet<>();
             for (int i = 1; i < metaData.getColumnCount() + 1; i++) {
-                String columnLabel = metaData.getColumnLabel(i);
-                if (!columnLabels.contains(columnLabel)) {
-                    columnLabels.add(columnLabel);
-                }
+                columnLabels.add(metaData.getColumnLabel(i));
             }
             if (columnLabels.contains(BP_DATE_LABEL)) {
-                dateOfLastMeasurementLabel = BP_DATE_LABEL;
+                columns[labelled.length] = rs.findColumn(BP_DATE_LABEL);
                 dateType[0] = CallListDataAccess.LastMeasurementDateType.BP;
             } else if (columnLabels.contains(A1C_DATE_LABEL)) {
-                dateOfLastMeasurementLabel = A1C_DATE_LABEL;
+                columns[labelled.length] = rs.findColumn(A1C_DATE_LABEL);
                 dateType[0] = CallListDataAccess.LastMeasurementDateType.A1C;
             } else {
                 dateType[0] = CallListDataAccess.LastMeasurementDateType.NONE;
             }
-
-            while (rs.next()) {
-                Patient p = new Patient();
-                p.setPatientId(rs.getInt("patient id"));
-                p.setFirstName(rs.getString("first name"));
-                p.setLastName(rs.getString("last name"));
-                p.setBirthDate(rs.getDate("birth date"));
-                p.setContactNumber(rs.getString("contact number"));
-                p.setEmailAddress(rs.getString("email"));
-                p.setLanguage(rs.getString("language"));
-
-                switch (dateOfLastMeasurementLabel) {
-                    case BP_DATE_LABEL:
-                        p.setDateOfLastMeasurement(rs.getDate(BP_DATE_LABEL));
-                        break;
-                    case A1C_DATE_LABEL:
-                        p.setDateOfLastMeasurement(rs.getDate(A1C_DATE_LABEL));
-                        break;
-                    default:
-                        break;
-                }
-                callListPatients.add(p);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(CallListDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getCallList method.", ex);
-        } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
+            return columns;
         }
 
-        if (callListPatients.size() > 0) {
-            return callListPatients;
-        } else {
-            return null;
+        @Override
+        protected Patient mapRow(ResultSet rs, int[] columns) throws SQLException {
+            Patient p = new Patient();
+            p.setPatientId(rs.getInt(columns[0]));
+            p.setFirstName(rs.getString(columns[1]));
+            p.setLastName(rs.getString(columns[2]));
+            p.setBirthDate(rs.getDate(columns[3]));
+            p.setContactNumber(rs.getString(columns[4]));
+            p.setEmailAddress(rs.getString(columns[5]));
+            p.setLanguage(rs.getString(columns[6]));
+            if (columns[7] > 0) {
+                p.setDateOfLastMeasurement(rs.getDate(columns[7]));
+            }
+            return p;
         }
     }
 
     /**
-     * This method uses the getEmailMessages procedure in the database to find
-     * and return the list of email messages to be sent to selected patients in
-     * the call list.
-     *
-     * @param clinicId the clinic ID
-     * @param subject the call list subject
-     * @return the list of email messages or null if no messages are found
+     * This class maps rows of email messages for a call list subject.
      */
-    public static ArrayList<EmailMessage> getEmailMessages(int clinicId, String subject) {
-        ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-        ArrayList<EmailMessage> emailMessages = new ArrayList<>();
-
-        try {
-            cs = connection.prepareCall("{CALL getEmailMessages(?, ?, ?)}");
-            cs.setInt(1, clinicId);
-            cs.setString(2, subject);
-            cs.registerOutParameter(3, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
+    private static class EmailMessageMapper extends RowMapper<EmailMessage> {
 
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                EmailMessage em = new EmailMessage();
-                em.setSubject(subject);
-                em.setLanguage(rs.getString("language"));
-                em.setMessage(rs.getString("message"));
-                emailMessages.add(em);
-            }
+        /**
+         * The call list subject
+         */
+        private final String subject;
 
-        } catch (SQLException ex) {
-            Logger.getLogger(CallListDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception ocurred during the getEmailMessages method.", ex);
-        } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
+        /**
+         * Parameterized constructor
+         *
+         * @param subject the call list subject
+         */
+        private EmailMessageMapper(String subject) {
+            super("language", "message");
+            this.subject = subject;
         }
 
-        if (emailMessages.size() > 0) {
-            return emailMessages;
-        } else {
-            return null;
+        @Override
+        protected EmailMessage mapRow(ResultSet rs, int[] columns) throws SQLException {
+            EmailMessage em = new EmailMessage();
+            em.setSubject(subject);
+            em.setLanguage(rs.getString(columns[0]));
+            em.setMessage(rs.getString(columns[1]));
+            return em;
         }
     }
 }
@@ -15,9 +15,11 @@
  */
 package data;
 
+import java.math.BigDecimal;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import registry.DataEntryContainer;
@@ -33,6 +35,42 @@ import utility.DatabaseUtility;
  */
 public class DataEntryDataAccess {
 
+    /**
+     * The call to the addResults stored procedure
+     */
+    private static final String ADD_RESULTS_CALL = "{CALL addResults(?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?)}";
+
+    /**
+     * The index of the out parameter of the addResults stored procedure
+     */
+    private static final int ADD_RESULTS_SUCCESS_INDEX = 46;
+
+    /**
+     * The call to the importLabResult stored procedure
+     */
+    private static final String IMPORT_LAB_RESULT_CALL
+            = "{CALL importLabResult(?, ?, ?, ?, ?, ?, ?)}";
+
+    /**
+     * The call to the setTargetStatus stored procedure
+     */
+    private static final String SET_TARGET_STATUS_CALL = "{CALL setTargetStatus("
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?)}";
+
+    /**
+     * The index of the out parameter of the setTargetStatus stored procedure
+     */
+    private static final int SET_TARGET_STATUS_SUCCESS_INDEX = 26;
+
+    /**
+     * The number of visits saved in each transaction of an import
+     */
+    private static final int IMPORT_CHUNK_SIZE = 200;
+
     /**
      * This method connects to the database to store lab measurements and other
      * results for a patient.
@@ -52,281 +90,521 @@ public class DataEntryDataAccess {
         CallableStatement cs = null;
 
         try {
-            cs = connection.prepareCall("{CALL addResults(?, ?, ?, ?, ?, ?, ?, "
-                    + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                    + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                    + "?, ?, ?, ?)}");
-
-            /* #1 patient ID */
-            cs.setInt(1, dec.getPatientId());
-
-            /* #2 A1C */
-            if (dec.getA1c() != null) {
-                cs.setBigDecimal(2, dec.getA1c());
-            } else {
-                cs.setNull(2, java.sql.Types.DECIMAL);
-            }
+            cs = connection.prepareCall(ADD_RESULTS_CALL);
 
-            /* #3 glucose AC */
-            if (dec.getGlucoseAc() != null) {
-                cs.setBigDecimal(3, dec.getGlucoseAc());
-            } else {
-                cs.setNull(3, java.sql.Types.DECIMAL);
+            boolean success = addResults(cs, dec, referenceCharacters);
+            if (!success) {
+                return false;
             }
+            PopulationStatisticsSnapshot.invalidate();
+        } catch (SQLException ex) {
+            Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the addResults method.", ex);
+            return false;
+        } finally {
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        return true;
+    }
 
-            /* #4 glucose PC */
-            if (dec.getGlucosePc() != null) {
-                cs.setBigDecimal(4, dec.getGlucosePc());
-            } else {
-                cs.setNull(4, java.sql.Types.DECIMAL);
-            }
+    /**
+     * This method connects to the database to store lab measurements for many
+     * patient visits, as read from an imported lab file. Each result is added
+     * to a JDBC batch of importLabResult calls, which have no transaction
+     * handling of their own, and the batch is committed every
+     * IMPORT_CHUNK_SIZE visits. If a chunk fails, it is rolled back and its
+     * visits are saved one at a time so that only the failing visits are
+     * rejected. The healthy target status of each saved visit is then set
+     * with the setTargetStatus procedure.
+     *
+     * @param containers the DataEntryContainer objects
+     * @param referenceCharacters the character string
+     * @return the array indicating which containers were saved or null if the
+     * import failed before any containers were committed
+     */
+    public static boolean[] addResults(List<DataEntryContainer> containers,
+            Object referenceCharacters) {
+        boolean[] saved = new boolean[containers.size()];
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        CallableStatement cs = null;
+        CallableStatement targetStatement = null;
+        int committed = 0;
 
-            /* #5 LDL */
-            if (dec.getLdl() != null) {
-                cs.setBigDecimal(5, dec.getLdl());
-            } else {
-                cs.setNull(5, java.sql.Types.DECIMAL);
+        try {
+            connection.setAutoCommit(false);
+            cs = connection.prepareCall(IMPORT_LAB_RESULT_CALL);
+            targetStatement = connection.prepareCall(SET_TARGET_STATUS_CALL);
+
+            for (int start = 0; start < containers.size(); start += IMPORT_CHUNK_SIZE) {
+                int end = Math.min(start + IMPORT_CHUNK_SIZE, containers.size());
+                try {
+                    for (int i = start; i < end; i++) {
+                        addImportBatch(cs, containers.get(i));
+                    }
+                    cs.executeBatch();
+                    connection.commit();
+                    for (int i = start; i < end; i++) {
+                        saved[i] = true;
+                    }
+                } catch (SQLException ex) {
+                    cs.clearBatch();
+                    connection.rollback();
+                    Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.WARNING,
+                            "A chunk of imported results was rolled back and "
+                            + "will be saved one visit at a time.", ex);
+                    for (int i = start; i < end; i++) {
+                        try {
+                            addImportBatch(cs, containers.get(i));
+                            cs.executeBatch();
+                            connection.commit();
+                            saved[i] = true;
+                        } catch (SQLException e) {
+                            cs.clearBatch();
+                            connection.rollback();
+                            Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.SEVERE,
+                                    "An exception occurred while saving an imported visit.", e);
+                        }
+                    }
+                }
+                committed = end;
+
+                for (int i = start; i < end; i++) {
+                    if (saved[i] && !setTargetStatus(targetStatement,
+                            containers.get(i), referenceCharacters)) {
+                        Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.WARNING,
+                                "The target status of an imported visit was not set.");
+                    }
+                }
             }
 
-            /* #6 LDL Post MI */
-            if (dec.getLdlPostMi() != null) {
-                cs.setBigDecimal(6, dec.getLdlPostMi());
-            } else {
-                cs.setNull(6, java.sql.Types.DECIMAL);
+        } catch (SQLException ex) {
+            for (int i = committed; i < saved.length; i++) {
+                saved[i] = false;
             }
-
-            /* #7 LDL on statin */
-            if (dec.getOnStatin() != null) {
-                cs.setBoolean(7, dec.getOnStatin());
-            } else {
-                cs.setNull(7, java.sql.Types.TINYINT);
+            Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the addResults method.", ex);
+            if (committed == 0) {
+                saved = null;
             }
-
-            /* #8 HDL */
-            if (dec.getHdl() != null) {
-                cs.setBigDecimal(8, dec.getHdl());
-            } else {
-                cs.setNull(8, java.sql.Types.DECIMAL);
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.SEVERE,
+                        "An exception occurred while restoring auto-commit in the addResults method.", e);
             }
+            DatabaseUtility.closeCallableStatement(targetStatement);
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        if (committed > 0) {
+            PopulationStatisticsSnapshot.invalidate();
+        }
+        return saved;
+    }
 
-            /* #9 Triglycerides */
-            if (dec.getTriglycerides() != null) {
-                cs.setBigDecimal(9, dec.getTriglycerides());
-            } else {
-                cs.setNull(9, java.sql.Types.DECIMAL);
-            }
+    /**
+     * This method adds an importLabResult call to the batch for each lab
+     * result held in the container.
+     *
+     * @param cs the callable statement
+     * @param dec the DataEntryContainer object
+     * @throws SQLException if a call cannot be added to the batch
+     */
+    private static void addImportBatch(CallableStatement cs,
+            DataEntryContainer dec) throws SQLException {
+        addImportedResult(cs, dec, "A1C", dec.getA1c());
+        addImportedResult(cs, dec, "GLUCOSE AC", dec.getGlucoseAc());
+        addImportedResult(cs, dec, "GLUCOSE PC", dec.getGlucosePc());
+        addImportedResult(cs, dec, "LDL", dec.getLdl());
+        addImportedResult(cs, dec, "LDL POST MI", dec.getLdlPostMi());
+        addImportedResult(cs, dec, "HDL", dec.getHdl());
+        addImportedResult(cs, dec, "TRIGLYCERIDES", dec.getTriglycerides());
+        addImportedResult(cs, dec, "TSH", dec.getTsh());
+        addImportedResult(cs, dec, "T4", dec.getT4());
+        addImportedResult(cs, dec, "UACR", dec.getUacr());
+        addImportedResult(cs, dec, "EGFR", dec.getEgfr());
+        addImportedResult(cs, dec, "CREATININE", dec.getCreatinine());
+        addImportedResult(cs, dec, "AST", dec.getAst());
+        addImportedResult(cs, dec, "ALT", dec.getAlt());
+        addImportedResult(cs, dec, "PSA", dec.getPsa());
+    }
 
-            /* #10 TSH */
-            if (dec.getTsh() != null) {
-                cs.setBigDecimal(10, dec.getTsh());
-            } else {
-                cs.setNull(10, java.sql.Types.DECIMAL);
-            }
+    /**
+     * This method adds an importLabResult call for one lab result to the
+     * batch. Nothing is added if the result is null.
+     *
+     * @param cs the callable statement
+     * @param dec the DataEntryContainer object
+     * @param test the upper-case test name
+     * @param result the result value
+     * @throws SQLException if the call cannot be added to the batch
+     */
+    private static void addImportedResult(CallableStatement cs,
+            DataEntryContainer dec, String test, BigDecimal result)
+            throws SQLException {
+        if (result == null) {
+            return;
+        }
+        cs.setInt(1, dec.getPatientId());
+        cs.setString(2, test);
+        cs.setDate(3, dec.getDateEntered());
+        cs.setBigDecimal(4, result);
+        cs.setBoolean(5, dec.getPoc());
+        cs.setString(6, dec.getUserName());
+        cs.setInt(7, dec.getClinicId());
+        cs.addBatch();
+    }
 
-            /* #11 TSH on thyroid treatment */
-            if (dec.getOnThyroidTreatment() != null) {
-                cs.setBoolean(11, dec.getOnThyroidTreatment());
-            } else {
-                cs.setNull(11, java.sql.Types.TINYINT);
-            }
+    /**
+     * This method sets the healthy target status of the patient from the lab
+     * results of an imported visit.
+     *
+     * @param cs the callable statement
+     * @param dec the DataEntryContainer object
+     * @param referenceCharacters the character string
+     * @return the boolean indicating success or failure of the operation
+     * @throws SQLException if the procedure call fails
+     */
+    private static boolean setTargetStatus(CallableStatement cs,
+            DataEntryContainer dec, Object referenceCharacters) throws SQLException {
+        cs.setInt(1, dec.getPatientId());
+        setDecimal(cs, 2, dec.getA1c());
+        setDecimal(cs, 3, dec.getGlucoseAc());
+        setDecimal(cs, 4, dec.getGlucosePc());
+        setDecimal(cs, 5, dec.getLdl());
+        setDecimal(cs, 6, dec.getLdlPostMi());
+        setDecimal(cs, 7, dec.getHdl());
+        setDecimal(cs, 8, dec.getTriglycerides());
+        setDecimal(cs, 9, dec.getTsh());
+        setDecimal(cs, 10, dec.getT4());
+        setDecimal(cs, 11, dec.getUacr());
+        setDecimal(cs, 12, dec.getEgfr());
+        setDecimal(cs, 13, dec.getCreatinine());
+        cs.setNull(14, java.sql.Types.DECIMAL);
+        cs.setNull(15, java.sql.Types.DECIMAL);
+        cs.setNull(16, java.sql.Types.INTEGER);
+        cs.setNull(17, java.sql.Types.INTEGER);
+        cs.setNull(18, java.sql.Types.INTEGER);
+        cs.setNull(19, java.sql.Types.TINYINT);
+        cs.setNull(20, java.sql.Types.TINYINT);
+        setDecimal(cs, 21, dec.getAst());
+        setDecimal(cs, 22, dec.getAlt());
+        setDecimal(cs, 23, dec.getPsa());
+        cs.setDate(24, dec.getDateEntered());
+        cs.setString(25, (String) referenceCharacters);
+        cs.registerOutParameter(SET_TARGET_STATUS_SUCCESS_INDEX, java.sql.Types.TINYINT);
+
+        /* no result set to return */
+        cs.execute();
+
+        /* grab out parameter */
+        return cs.getBoolean(SET_TARGET_STATUS_SUCCESS_INDEX);
+    }
 
-            /* #12 T4 */
-            if (dec.getT4() != null) {
-                cs.setBigDecimal(12, dec.getT4());
-            } else {
-                cs.setNull(12, java.sql.Types.DECIMAL);
-            }
+    /**
+     * This method sets a decimal parameter, or null if the value is null.
+     *
+     * @param cs the callable statement
+     * @param index the parameter index
+     * @param value the value
+     * @throws SQLException if the parameter cannot be set
+     */
+    private static void setDecimal(CallableStatement cs, int index,
+            BigDecimal value) throws SQLException {
+        if (value != null) {
+            cs.setBigDecimal(index, value);
+        } else {
+            cs.setNull(index, java.sql.Types.DECIMAL);
+        }
+    }
 
-            /* #13 UACR */
-            if (dec.getUacr() != null) {
-                cs.setBigDecimal(13, dec.getUacr());
-            } else {
-                cs.setNull(13, java.sql.Types.DECIMAL);
-            }
+    /**
+     * This method executes the prepared addResults procedure call for one
+     * container.
+     *
+     * @param cs the callable statement
+     * @param dec the DataEntryContainer object
+     * @param referenceCharacters the character string
+     * @return the boolean indicating success or failure of the operation
+     * @throws SQLException if the procedure call fails
+     */
+    private static boolean addResults(CallableStatement cs,
+            DataEntryContainer dec, Object referenceCharacters) throws SQLException {
+        setResultParameters(cs, dec, referenceCharacters);
 
-            /* #14 eGFR */
-            if (dec.getEgfr() != null) {
-                cs.setBigDecimal(14, dec.getEgfr());
-            } else {
-                cs.setNull(14, java.sql.Types.DECIMAL);
-            }
+        /* no result set to return */
+        cs.execute();
 
-            /* #15 Creatinine */
-            if (dec.getCreatinine() != null) {
-                cs.setBigDecimal(15, dec.getCreatinine());
-            } else {
-                cs.setNull(15, java.sql.Types.DECIMAL);
-            }
+        /* grab out parameter */
+        return cs.getBoolean(ADD_RESULTS_SUCCESS_INDEX);
+    }
 
-            /* #16 BMI */
-            cs.setNull(16, java.sql.Types.DECIMAL);
+    /**
+     * This method sets the parameters of the addResults procedure call from
+     * the values of the DataEntryContainer object.
+     *
+     * @param cs the callable statement
+     * @param dec the DataEntryContainer object
+     * @param referenceCharacters the character string
+     * @throws SQLException if a parameter cannot be set
+     */
+    private static void setResultParameters(CallableStatement cs,
+            DataEntryContainer dec, Object referenceCharacters) throws SQLException {
+        /* #1 patient ID */
+        cs.setInt(1, dec.getPatientId());
+
+        /* #2 A1C */
+        if (dec.getA1c() != null) {
+            cs.setBigDecimal(2, dec.getA1c());
+        } else {
+            cs.setNull(2, java.sql.Types.DECIMAL);
+        }
 
-            /* #17 Waist */
-            cs.setNull(17, java.sql.Types.DECIMAL);
+        /* #3 glucose AC */
+        if (dec.getGlucoseAc() != null) {
+            cs.setBigDecimal(3, dec.getGlucoseAc());
+        } else {
+            cs.setNull(3, java.sql.Types.DECIMAL);
+        }
 
-            /* #18 BP systole */
-            cs.setNull(18, java.sql.Types.INTEGER);
+        /* #4 glucose PC */
+        if (dec.getGlucosePc() != null) {
+            cs.setBigDecimal(4, dec.getGlucosePc());
+        } else {
+            cs.setNull(4, java.sql.Types.DECIMAL);
+        }
 
-            /* #19 BP diastole */
-            cs.setNull(19, java.sql.Types.INTEGER);
+        /* #5 LDL */
+        if (dec.getLdl() != null) {
+            cs.setBigDecimal(5, dec.getLdl());
+        } else {
+            cs.setNull(5, java.sql.Types.DECIMAL);
+        }
 
-            /* #20 class date */
-            cs.setNull(20, java.sql.Types.DATE);
+        /* #6 LDL Post MI */
+        if (dec.getLdlPostMi() != null) {
+            cs.setBigDecimal(6, dec.getLdlPostMi());
+        } else {
+            cs.setNull(6, java.sql.Types.DECIMAL);
+        }
 
-            /* #21 eye */
-            cs.setNull(21, java.sql.Types.VARCHAR);
+        /* #7 LDL on statin */
+        if (dec.getOnStatin() != null) {
+            cs.setBoolean(7, dec.getOnStatin());
+        } else {
+            cs.setNull(7, java.sql.Types.TINYINT);
+        }
 
-            /* #22 foot */
-            cs.setNull(22, java.sql.Types.VARCHAR);
+        /* #8 HDL */
+        if (dec.getHdl() != null) {
+            cs.setBigDecimal(8, dec.getHdl());
+        } else {
+            cs.setNull(8, java.sql.Types.DECIMAL);
+        }
 
-            /* #23 psychological screening */
-            cs.setNull(23, java.sql.Types.INTEGER);
+        /* #9 Triglycerides */
+        if (dec.getTriglycerides() != null) {
+            cs.setBigDecimal(9, dec.getTriglycerides());
+        } else {
+            cs.setNull(9, java.sql.Types.DECIMAL);
+        }
 
-            /* #24 physical activity */
-            cs.setNull(24, java.sql.Types.INTEGER);
+        /* #10 TSH */
+        if (dec.getTsh() != null) {
+            cs.setBigDecimal(10, dec.getTsh());
+        } else {
+            cs.setNull(10, java.sql.Types.DECIMAL);
+        }
 
-            /* #25 influenza vaccine date */
-            if (dec.getInfluenzaVaccineDate() != null) {
-                cs.setDate(25, dec.getInfluenzaVaccineDate());
-            } else {
-                cs.setNull(25, java.sql.Types.DATE);
-            }
+        /* #11 TSH on thyroid treatment */
+        if (dec.getOnThyroidTreatment() != null) {
+            cs.setBoolean(11, dec.getOnThyroidTreatment());
+        } else {
+            cs.setNull(11, java.sql.Types.TINYINT);
+        }
 
-            /* #26 PCV-13 vaccine date */
-            if (dec.getPcv13Date() != null) {
-                cs.setDate(26, dec.getPcv13Date());
-            } else {
-                cs.setNull(26, java.sql.Types.DATE);
-            }
+        /* #12 T4 */
+        if (dec.getT4() != null) {
+            cs.setBigDecimal(12, dec.getT4());
+        } else {
+            cs.setNull(12, java.sql.Types.DECIMAL);
+        }
 
-            /* #27 PPSV-23 date */
-            if (dec.getPpsv23Date() != null) {
-                cs.setDate(27, dec.getPpsv23Date());
-            } else {
-                cs.setNull(27, java.sql.Types.DATE);
-            }
+        /* #13 UACR */
+        if (dec.getUacr() != null) {
+            cs.setBigDecimal(13, dec.getUacr());
+        } else {
+            cs.setNull(13, java.sql.Types.DECIMAL);
+        }
 
-            /* #28 hepatitis B vaccine date */
-            if (dec.getHepatitisBDate() != null) {
-                cs.setDate(28, dec.getHepatitisBDate());
-            } else {
-                cs.setNull(28, java.sql.Types.DATE);
-            }
+        /* #14 eGFR */
+        if (dec.getEgfr() != null) {
+            cs.setBigDecimal(14, dec.getEgfr());
+        } else {
+            cs.setNull(14, java.sql.Types.DECIMAL);
+        }
 
-            /* #29 TDAP vaccine date */
-            if (dec.getTdapDate() != null) {
-                cs.setDate(29, dec.getTdapDate());
-            } else {
-                cs.setNull(29, java.sql.Types.DATE);
-            }
+        /* #15 Creatinine */
+        if (dec.getCreatinine() != null) {
+            cs.setBigDecimal(15, dec.getCreatinine());
+        } else {
+            cs.setNull(15, java.sql.Types.DECIMAL);
+        }
 
-            /* #30 zoster vaccine date */
-            if (dec.getZosterDate() != null) {
-                cs.setDate(30, dec.getZosterDate());
-            } else {
-                cs.setNull(30, java.sql.Types.DATE);
-            }
+        /* #16 BMI */
+        cs.setNull(16, java.sql.Types.DECIMAL);
 
-            /* #31 smoking status */
-            cs.setNull(31, java.sql.Types.TINYINT);
+        /* #17 Waist */
+        cs.setNull(17, java.sql.Types.DECIMAL);
 
-            /* #32 telephone follow-up */
-            if (dec.getTelephoneFollowUp() != null) {
-                cs.setString(32, dec.getTelephoneFollowUp());
-            } else {
-                cs.setNull(32, java.sql.Types.VARCHAR);
-            }
+        /* #18 BP systole */
+        cs.setNull(18, java.sql.Types.INTEGER);
 
-            /* #33 AST */
-            if (dec.getAst() != null) {
-                cs.setBigDecimal(33, dec.getAst());
-            } else {
-                cs.setNull(33, java.sql.Types.DECIMAL);
-            }
+        /* #19 BP diastole */
+        cs.setNull(19, java.sql.Types.INTEGER);
 
-            /* #34 ALT */
-            if (dec.getAlt() != null) {
-                cs.setBigDecimal(34, dec.getAlt());
-            } else {
-                cs.setNull(34, java.sql.Types.DECIMAL);
-            }
+        /* #20 class date */
+        cs.setNull(20, java.sql.Types.DATE);
 
-            /* #35 PSA */
-            if (dec.getPsa() != null) {
-                cs.setBigDecimal(35, dec.getPsa());
-            } else {
-                cs.setNull(35, java.sql.Types.DECIMAL);
-            }
+        /* #21 eye */
+        cs.setNull(21, java.sql.Types.VARCHAR);
 
-            /* #36 compliance */
-            cs.setNull(36, java.sql.Types.DECIMAL);
+        /* #22 foot */
+        cs.setNull(22, java.sql.Types.VARCHAR);
 
-            /* #37 ER date */
-            cs.setNull(37, java.sql.Types.DATE);
+        /* #23 psychological screening */
+        cs.setNull(23, java.sql.Types.INTEGER);
 
-            /* #38 note topic */
-            if (dec.getNoteTopic() != null) {
-                cs.setString(38, dec.getNoteTopic());
-            } else {
-                cs.setNull(38, java.sql.Types.VARCHAR);
-            }
+        /* #24 physical activity */
+        cs.setNull(24, java.sql.Types.INTEGER);
 
-            /* #39 note */
-            if (dec.getNote() != null) {
-                cs.setString(39, dec.getNote());
-            } else {
-                cs.setNull(39, java.sql.Types.VARCHAR);
-            }
+        /* #25 influenza vaccine date */
+        if (dec.getInfluenzaVaccineDate() != null) {
+            cs.setDate(25, dec.getInfluenzaVaccineDate());
+        } else {
+            cs.setNull(25, java.sql.Types.DATE);
+        }
 
-            /* #40 date entered */
-            if (dec.getDateEntered() != null) {
-                cs.setDate(40, dec.getDateEntered());
-            } else {
-                cs.setNull(40, java.sql.Types.DATE);
-            }
+        /* #26 PCV-13 vaccine date */
+        if (dec.getPcv13Date() != null) {
+            cs.setDate(26, dec.getPcv13Date());
+        } else {
+            cs.setNull(26, java.sql.Types.DATE);
+        }
 
-            /* #41 POC */
-            if (dec.getPoc() != null) {
-                cs.setBoolean(41, dec.getPoc());
-            } else {
-                cs.setNull(41, java.sql.Types.TINYINT);
-            }
+        /* #27 PPSV-23 date */
+        if (dec.getPpsv23Date() != null) {
+            cs.setDate(27, dec.getPpsv23Date());
+        } else {
+            cs.setNull(27, java.sql.Types.DATE);
+        }
 
-            /* #42 ACE or ARB */
-            cs.setNull(42, java.sql.Types.TINYINT);
+        /* #28 hepatitis B vaccine date */
+        if (dec.getHepatitisBDate() != null) {
+            cs.setDate(28, dec.getHepatitisBDate());
+        } else {
+            cs.setNull(28, java.sql.Types.DATE);
+        }
 
-            /* #43 user name */
-            if (dec.getUserName() != null) {
-                cs.setString(43, dec.getUserName());
-            } else {
-                cs.setNull(43, java.sql.Types.VARCHAR);
-            }
+        /* #29 TDAP vaccine date */
+        if (dec.getTdapDate() != null) {
+            cs.setDate(29, dec.getTdapDate());
+        } else {
+            cs.setNull(29, java.sql.Types.DATE);
+        }
 
-            /* #44 clinic ID */
-            if (dec.getClinicId() != null) {
-                cs.setInt(44, dec.getClinicId());
-            } else {
-                cs.setNull(44, java.sql.Types.INTEGER);
-            }
-            cs.setString(45, (String) referenceCharacters);
-            cs.registerOutParameter(46, java.sql.Types.TINYINT);
+        /* #30 zoster vaccine date */
+        if (dec.getZosterDate() != null) {
+            cs.setDate(30, dec.getZosterDate());
+        } else {
+            cs.setNull(30, java.sql.Types.DATE);
+        }
 
-            /* no result set to return */
-            cs.execute();
+        /* #31 smoking status */
+        cs.setNull(31, java.sql.Types.TINYINT);
 
-            /* grab out parameter */
-            boolean success = cs.getBoolean(46);
-            if (!success) {
-                return false;
-            }
-        } catch (SQLException ex) {
-            Logger.getLogger(DataEntryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the addResults method.", ex);
-            return false;
-        } finally {
-            DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
+        /* #32 telephone follow-up */
+        if (dec.getTelephoneFollowUp() != null) {
+            cs.setString(32, dec.getTelephoneFollowUp());
+        } else {
+            cs.setNull(32, java.sql.Types.VARCHAR);
         }
-        return true;
+
+        /* #33 AST */
+        if (dec.getAst() != null) {
+            cs.setBigDecimal(33, dec.getAst());
+        } else {
+            cs.setNull(33, java.sql.Types.DECIMAL);
+        }
+
+        /* #34 ALT */
+        if (dec.getAlt() != null) {
+            cs.setBigDecimal(34, dec.getAlt());
+        } else {
+            cs.setNull(34, java.sql.Types.DECIMAL);
+        }
+
+        /* #35 PSA */
+        if (dec.getPsa() != null) {
+            cs.setBigDecimal(35, dec.getPsa());
+        } else {
+            cs.setNull(35, java.sql.Types.DECIMAL);
+        }
+
+        /* #36 compliance */
+        cs.setNull(36, java.sql.Types.DECIMAL);
+
+        /* #37 ER date */
+        cs.setNull(37, java.sql.Types.DATE);
+
+        /* #38 note topic */
+        if (dec.getNoteTopic() != null) {
+            cs.setString(38, dec.getNoteTopic());
+        } else {
+            cs.setNull(38, java.sql.Types.VARCHAR);
+        }
+
+        /* #39 note */
+        if (dec.getNote() != null) {
+            cs.setString(39, dec.getNote());
+        } else {
+            cs.setNull(39, java.sql.Types.VARCHAR);
+        }
+
+        /* #40 date entered */
+        if (dec.getDateEntered() != null) {
+            cs.setDate(40, dec.getDateEntered());
+        } else {
+            cs.setNull(40, java.sql.Types.DATE);
+        }
+
+        /* #41 POC */
+        if (dec.getPoc() != null) {
+            cs.setBoolean(41, dec.getPoc());
+        } else {
+            cs.setNull(41, java.sql.Types.TINYINT);
+        }
+
+        /* #42 ACE or ARB */
+        cs.setNull(42, java.sql.Types.TINYINT);
+
+        /* #43 user name */
+        if (dec.getUserName() != null) {
+            cs.setString(43, dec.getUserName());
+        } else {
+            cs.setNull(43, java.sql.Types.VARCHAR);
+        }
+
+        /* #44 clinic ID */
+        if (dec.getClinicId() != null) {
+            cs.setInt(44, dec.getClinicId());
+        } else {
+            cs.setNull(44, java.sql.Types.INTEGER);
+        }
+        cs.setString(45, (String) referenceCharacters);
+        cs.registerOutParameter(ADD_RESULTS_SUCCESS_INDEX, java.sql.Types.TINYINT);
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import registry.EmailJobStatus;
+import utility.ConnectionPool;
+import utility.DatabaseUtility;
+
+/**
+ * This class accesses the database to record and retrieve the progress of
+ * reminder email jobs. The email password is never stored.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class EmailJobDataAccess {
+
+    /**
+     * This method stores the progress of a reminder email job.
+     *
+     * @param status the progress of the job
+     * @return the boolean indicating success or failure of the operation
+     */
+    public static boolean saveEmailJob(EmailJobStatus status) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        CallableStatement cs = null;
+        boolean success;
+
+        try {
+            cs = connection.prepareCall("{CALL saveEmailJob(?, ?, ?, ?, ?, ?, ?, ?, ?)}");
+            cs.setString(1, status.getId());
+            cs.setInt(2, status.getClinicId());
+            cs.setInt(3, status.getTotal());
+            cs.setInt(4, status.getSentCount());
+            cs.setInt(5, status.getFailedCount());
+            cs.setInt(6, status.getSkippedCount());
+            cs.setBoolean(7, status.isAuthenticationFailed());
+            cs.setBoolean(8, status.isComplete());
+            cs.registerOutParameter(9, java.sql.Types.TINYINT);
+
+            /* no result set to return */
+            cs.execute();
+
+            /* grab out parameter */
+            success = cs.getBoolean(9);
+        } catch (SQLException e) {
+            Logger.getLogger(EmailJobDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the saveEmailJob method.", e);
+            return false;
+        } finally {
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        return success;
+    }
+
+    /**
+     * This method retrieves the progress of a reminder email job.
+     *
+     * @param jobId the job ID
+     * @return the progress of the job or null if the job is not found
+     */
+    public static EmailJobStatus getEmailJob(String jobId) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        CallableStatement cs = null;
+        ResultSet rs = null;
+        EmailJobStatus status = null;
+
+        try {
+            cs = connection.prepareCall("{CALL getEmailJob(?)}");
+            cs.setString(1, jobId);
+
+            boolean success = cs.execute();
+            if (!success) {
+                return null;
+            }
+
+            rs = cs.getResultSet();
+            if (rs.next()) {
+                status = new EmailJobStatus(rs.getString("job_id"),
+                        rs.getInt("clinic_id"), rs.getInt("total"),
+                        rs.getInt("sent_count"), rs.getInt("failed_count"),
+                        rs.getInt("skipped_count"),
+                        rs.getBoolean("authentication_failed"),
+                        rs.getBoolean("complete"));
+            }
+        } catch (SQLException e) {
+            Logger.getLogger(EmailJobDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the getEmailJob method.", e);
+            return null;
+        } finally {
+            DatabaseUtility.closeResultSet(rs);
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.util.Arrays;
+
+/**
+ * This class holds a patient row as it is stored in the database, with the
+ * identity fields still encrypted.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+class EncryptedPatient {
+
+    /**
+     * The index of the encrypted first name
+     */
+    static final int FIRST_NAME = 0;
+
+    /**
+     * The index of the encrypted last name
+     */
+    static final int LAST_NAME = 1;
+
+    /**
+     * The index of the encrypted birth date
+     */
+    static final int BIRTH_DATE = 2;
+
+    /**
+     * The index of the encrypted address
+     */
+    static final int ADDRESS = 3;
+
+    /**
+     * The index of the encrypted contact number
+     */
+    static final int CONTACT_NUMBER = 4;
+
+    /**
+     * The index of the encrypted gender
+     */
+    static final int GENDER = 5;
+
+    /**
+     * The index of the encrypted race
+     */
+    static final int RACE = 6;
+
+    /**
+     * The index of the encrypted email address
+     */
+    static final int EMAIL_ADDRESS = 7;
+
+    /**
+     * The index of the encrypted start date
+     */
+    static final int START_DATE = 8;
+
+    /**
+     * The number of encrypted fields
+     */
+    static final int FIELD_COUNT = 9;
+
+    /**
+     * The patient ID
+     */
+    private final int patientId;
+
+    /**
+     * The encrypted identity fields in the order of the getAllPatientsEncrypted
+     * columns
+     */
+    private final byte[][] encryptedFields;
+
+    /**
+     * The language
+     */
+    private final String language;
+
+    /**
+     * The reason for inactivity
+     */
+    private final String reasonForInactivity;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param patientId the patient ID
+     * @param encryptedFields the encrypted identity fields
+     * @param language the language
+     * @param reasonForInactivity the reason for inactivity
+     */
+    EncryptedPatient(int patientId, byte[][] encryptedFields, String language,
+            String reasonForInactivity) {
+        this.patientId = patientId;
+        this.encryptedFields = encryptedFields;
+        this.language = language;
+        this.reasonForInactivity = reasonForInactivity;
+    }
+
+    /**
+     * Get the value of patientId
+     *
+     * @return the value of patientId
+     */
+    int getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Returns the encrypted identity field at the given index
+     *
+     * @param index the index of the field
+     * @return the encrypted field or null if the field is not set
+     */
+    byte[] getEncryptedField(int index) {
+        return encryptedFields[index];
+    }
+
+    /**
+     * Get the value of language
+     *
+     * @return the value of language
+     */
+    String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Get the value of reasonForInactivity
+     *
+     * @return the value of reasonForInactivity
+     */
+    String getReasonForInactivity() {
+        return reasonForInactivity;
+    }
+
+    /**
+     * Returns true if the given row holds the same stored values as this one
+     *
+     * @param other the other row
+     * @return true if the rows are the same, false otherwise
+     */
+    boolean sameAs(EncryptedPatient other) {
+        return (patientId == other.patientId)
+                && Arrays.deepEquals(encryptedFields, other.encryptedFields)
+                && equalValues(language, other.language)
+                && equalValues(reasonForInactivity, other.reasonForInactivity);
+    }
+
+    /**
+     * Returns true if both values are null or equal
+     *
+     * @param first the first value
+     * @param second the second value
+     * @return true if the values are equal, false otherwise
+     */
+    private static boolean equalValues(String first, String second) {
+        return (first == null) ? (second == null) : first.equals(second);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.io.IOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import utility.ConnectionPool;
+import utility.CsvWriter;
+import utility.DatabaseUtility;
+
+/**
+ * This class writes clinic registry data to a CSV stream. Each export is read
+ * with a single call to an export procedure whose rows are streamed by the
+ * driver and written as they are read, so the memory used does not grow with
+ * the size of the clinic. The export procedures have no output parameter,
+ * because the driver cannot read one while a streamed result set is open.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ExportDataAccess {
+
+    /**
+     * The fetch size instructing the MySQL driver to stream result set rows
+     * instead of reading the whole result set into memory
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * This method writes the patients of the clinic to the CSV stream.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @param csv the CSV stream
+     * @return the boolean indicating success or failure of the operation
+     */
+    public static boolean writePatients(int clinicId, Object referenceCharacters,
+            CsvWriter csv) {
+        return export("{CALL exportPatients(?, ?)}", "writePatients", csv,
+                clinicId, referenceCharacters);
+    }
+
+    /**
+     * This method writes the laboratory results of all patients in the clinic
+     * to the CSV stream.
+     *
+     * @param clinicId the clinic ID
+     * @param csv the CSV stream
+     * @return the boolean indicating success or failure of the operation
+     */
+    public static boolean writeLabResults(int clinicId, CsvWriter csv) {
+        return export("{CALL exportLabResults(?)}", "writeLabResults", csv,
+                clinicId);
+    }
+
+    /**
+     * This method writes the progress notes of all patients in the clinic to
+     * the CSV stream.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @param csv the CSV stream
+     * @return the boolean indicating success or failure of the operation
+     */
+    public static boolean writeProgressNotes(int clinicId,
+            Object referenceCharacters, CsvWriter csv) {
+        return export("{CALL exportProgressNotes(?, ?)}", "writeProgressNotes",
+                csv, clinicId, referenceCharacters);
+    }
+
+    /**
+     * This method calls an export procedure and writes its column labels and
+     * rows to the CSV stream.
+     *
+     * @param call the procedure call
+     * @param methodName the name of the calling method used in log messages
+     * @param csv the CSV stream
+     * @param parameters the procedure parameters
+     * @return the boolean indicating success or failure of the operation
+     */
+    private static boolean export(String call, String methodName, CsvWriter csv,
+            Object... parameters) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
+        CallableStatement cs = null;
+        ResultSet rs = null;
+
+        try {
+            cs = connection.prepareCall(call, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            cs.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < parameters.length; i++) {
+                cs.setObject(i + 1, parameters[i]);
+            }
+
+            /* reads true if result set exists */
+            boolean success = cs.execute();
+            if (!success) {
+                return false;
+            }
+
+            rs = cs.getResultSet();
+            ResultSetMetaData metaData = rs.getMetaData();
+            Object[] row = new Object[metaData.getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = metaData.getColumnLabel(i + 1);
+            }
+            csv.writeRow(row);
+            while (rs.next()) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                csv.writeRow(row);
+            }
+            csv.flush();
+
+        } catch (SQLException | IOException ex) {
+            Logger.getLogger(ExportDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the " + methodName + " method.", ex);
+            return false;
+        } finally {
+            DatabaseUtility.closeResultSet(rs);
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import registry.DataEntryContainer;
+import registry.LabImportReport;
+import utility.CsvReader;
+import utility.StringUtility;
+
+/**
+ * This class imports laboratory results from a lab file. The file is a CSV
+ * file with a header row naming the columns "patient id", "date", "test",
+ * "result" and, optionally, "poc". Each row is validated with the rules of
+ * the data entry page, and the valid rows are grouped into one container per
+ * patient visit so that a visit is saved or rejected as a whole.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class LabResultImporter {
+
+    /**
+     * The precision of result values
+     */
+    private static final MathContext RESULT_PRECISION = new MathContext(7);
+
+    /**
+     * The largest result value that can be stored
+     */
+    private static final BigDecimal MAXIMUM_RESULT = new BigDecimal("99999.99");
+
+    /**
+     * The names of the tests that may be imported, in upper case
+     */
+    private static final String[] TEST_NAMES = {"A1C", "GLUCOSE AC",
+        "GLUCOSE PC", "LDL", "LDL POST MI", "HDL", "TRIGLYCERIDES", "TSH", "T4",
+        "UACR", "EGFR", "CREATININE", "AST", "ALT", "PSA"};
+
+    /**
+     * This method reads, validates and saves the results in the lab file.
+     * Rows that fail validation are reported and skipped while the remaining
+     * rows are saved.
+     *
+     * @param reader the stream providing the lab file
+     * @param clinicId the clinic ID
+     * @param userName the name of the user importing the file
+     * @param referenceCharacters the character string
+     * @return the report of the import
+     */
+    public static LabImportReport importResults(Reader reader, int clinicId,
+            String userName, Object referenceCharacters) {
+        LabImportReport report = new LabImportReport();
+        LinkedHashMap<String, Visit> visits = new LinkedHashMap<>();
+        CsvReader csv = new CsvReader(reader);
+
+        try {
+            String[] header = csv.readRow();
+            if (header == null) {
+                report.getErrors().add("The file is empty.");
+                return report;
+            }
+            int patientColumn = findColumn(header, "patient id");
+            int dateColumn = findColumn(header, "date");
+            int testColumn = findColumn(header, "test");
+            int resultColumn = findColumn(header, "result");
+            int pocColumn = findColumn(header, "poc");
+            if ((patientColumn < 0) || (dateColumn < 0) || (testColumn < 0)
+                    || (resultColumn < 0)) {
+                report.getErrors().add("The header row must name the columns "
+                        + "patient id, date, test and result.");
+                return report;
+            }
+
+            String[] row;
+            while ((row = csv.readRow()) != null) {
+                int line = csv.getLineNumber();
+                report.setRowCount(report.getRowCount() + 1);
+
+                /* patient ID */
+                Integer patientId = null;
+                try {
+                    patientId = Integer.parseInt(getValue(row, patientColumn));
+                } catch (NumberFormatException nfe) {
+                    report.addError(line, "patient id invalid");
+                    continue;
+                }
+                if (PatientRoster.getPatient(clinicId, patientId,
+                        referenceCharacters) == null) {
+                    report.addError(line, "The patient " + patientId
+                            + " was not found.");
+                    continue;
+                }
+
+                /* date */
+                String dateString = getValue(row, dateColumn);
+                if (!StringUtility.dateCheck(dateString)) {
+                    report.addError(line, "The date does not conform to the "
+                            + "pattern, YYYY-MM-DD.");
+                    continue;
+                }
+
+                /* test */
+                String test = getValue(row, testColumn).toUpperCase();
+                if (!isTestName(test)) {
+                    report.addError(line, "The test " + getValue(row, testColumn)
+                            + " is not recognized.");
+                    continue;
+                }
+
+                /* result */
+                BigDecimal result;
+                try {
+                    result = new BigDecimal(getValue(row, resultColumn),
+                            RESULT_PRECISION);
+                } catch (NumberFormatException nfe) {
+                    report.addError(line, getValue(row, testColumn)
+                            + " value must be a number.");
+                    continue;
+                }
+                if (result.compareTo(MAXIMUM_RESULT) > 0) {
+                    report.addError(line, getValue(row, testColumn)
+                            + " value is too large.");
+                    continue;
+                }
+
+                /* point of care */
+                String poc = getValue(row, pocColumn);
+                boolean pointOfCare = poc.equalsIgnoreCase("true")
+                        || poc.equalsIgnoreCase("yes") || poc.equals("1");
+
+                String key = patientId + "|" + dateString + "|" + pointOfCare;
+                Visit visit = visits.get(key);
+                if (visit == null) {
+                    visit = new Visit(createContainer(patientId,
+                            Date.valueOf(dateString), pointOfCare, userName,
+                            clinicId));
+                    visits.put(key, visit);
+                }
+                Integer previousLine = visit.testLines.get(test);
+                if (previousLine != null) {
+                    report.addError(line, "A " + getValue(row, testColumn)
+                            + " result for this patient and date was given on line "
+                            + previousLine + ".");
+                    continue;
+                }
+                setResult(visit.container, test, result);
+                visit.testLines.put(test, line);
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(LabResultImporter.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the importResults method.", ex);
+            report.getErrors().add("The file could not be read.");
+            return report;
+        }
+
+        saveVisits(new ArrayList<>(visits.values()), referenceCharacters, report);
+        return report;
+    }
+
+    /**
+     * This method saves the grouped visits and records the outcome in the
+     * report.
+     *
+     * @param visits the visits
+     * @param referenceCharacters the character string
+     * @param report the report of the import
+     */
+    private static void saveVisits(ArrayList<Visit> visits,
+            Object referenceCharacters, LabImportReport report) {
+        if (visits.isEmpty()) {
+            return;
+        }
+        ArrayList<DataEntryContainer> containers = new ArrayList<>(visits.size());
+        for (Visit visit : visits) {
+            containers.add(visit.container);
+        }
+        boolean[] saved = DataEntryDataAccess.addResults(containers,
+                referenceCharacters);
+        for (int i = 0; i < visits.size(); i++) {
+            Visit visit = visits.get(i);
+            if ((saved != null) && saved[i]) {
+                report.setSavedVisitCount(report.getSavedVisitCount() + 1);
+                report.setSavedRowCount(report.getSavedRowCount()
+                        + visit.testLines.size());
+            } else {
+                for (Integer line : visit.testLines.values()) {
+                    report.addError(line, "The result could not be saved.");
+                }
+            }
+        }
+    }
+
+    /**
+     * This method creates the container for a patient visit.
+     *
+     * @param patientId the patient ID
+     * @param dateEntered the date of the results
+     * @param pointOfCare the indication of point-of-care testing
+     * @param userName the name of the user importing the file
+     * @param clinicId the clinic ID
+     * @return the container
+     */
+    private static DataEntryContainer createContainer(int patientId,
+            Date dateEntered, boolean pointOfCare, String userName, int clinicId) {
+        DataEntryContainer dec = new DataEntryContainer();
+        dec.setPatientId(patientId);
+        dec.setOnStatin(false);
+        dec.setOnThyroidTreatment(false);
+        dec.setDateEntered(dateEntered);
+        dec.setPoc(pointOfCare);
+        dec.setUserName(userName);
+        dec.setClinicId(clinicId);
+        return dec;
+    }
+
+    /**
+     * This method sets the result of the named test in the container.
+     *
+     * @param dec the container
+     * @param test the upper-case test name
+     * @param result the result value
+     */
+    private static void setResult(DataEntryContainer dec, String test,
+            BigDecimal result) {
+        switch (test) {
+            case "A1C":
+                dec.setA1c(result);
+                break;
+            case "GLUCOSE AC":
+                dec.setGlucoseAc(result);
+                break;
+            case "GLUCOSE PC":
+                dec.setGlucosePc(result);
+                break;
+            case "LDL":
+                dec.setLdl(result);
+                break;
+            case "LDL POST MI":
+                dec.setLdlPostMi(result);
+                break;
+            case "HDL":
+                dec.setHdl(result);
+                break;
+            case "TRIGLYCERIDES":
+                dec.setTriglycerides(result);
+                break;
+            case "TSH":
+                dec.setTsh(result);
+                break;
+            case "T4":
+                dec.setT4(result);
+                break;
+            case "UACR":
+                dec.setUacr(result);
+                break;
+            case "EGFR":
+                dec.setEgfr(result);
+                break;
+            case "CREATININE":
+                dec.setCreatinine(result);
+                break;
+            case "AST":
+                dec.setAst(result);
+                break;
+            case "ALT":
+                dec.setAlt(result);
+                break;
+            case "PSA":
+                dec.setPsa(result);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns true if the name is the name of a test that may be imported
+     *
+     * @param test the upper-case test name
+     * @return true if the test may be imported, false otherwise
+     */
+    private static boolean isTestName(String test) {
+        for (String name : TEST_NAMES) {
+            if (name.equals(test)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method returns the index of the named column in the header row.
+     *
+     * @param header the header row
+     * @param name the column name
+     * @return the column index or -1 if the column is missing
+     */
+    private static int findColumn(String[] header, String name) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method returns the trimmed value of a column, or an empty string if
+     * the row has no such column.
+     *
+     * @param row the row
+     * @param column the column index
+     * @return the value
+     */
+    private static String getValue(String[] row, int column) {
+        if ((column < 0) || (column >= row.length)) {
+            return "";
+        }
+        return row[column].trim();
+    }
+
+    /**
+     * This class holds the container of a patient visit and the lines of the
+     * file providing each of its results.
+     */
+    private static class Visit {
+
+        /**
+         * The container holding the results of the visit
+         */
+        private final DataEntryContainer container;
+
+        /**
+         * The line numbers by test name
+         */
+        private final HashMap<String, Integer> testLines = new HashMap<>();
+
+        /**
+         * Parameterized constructor
+         *
+         * @param container the container holding the results of the visit
+         */
+        private Visit(DataEntryContainer container) {
+            this.container = container;
+        }
+    }
+}
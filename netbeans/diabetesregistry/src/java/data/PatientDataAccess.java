@@ -36,6 +36,17 @@ import utility.DatabaseUtility;
  */
 public class PatientDataAccess {
 
+    /**
+     * The mapper for patients
+     */
+    private static final RowMapper<Patient> PATIENT_MAPPER = new PatientMapper();
+
+    /**
+     * The mapper for patients with encrypted identity fields
+     */
+    private static final RowMapper<EncryptedPatient> ENCRYPTED_PATIENT_MAPPER
+            = new EncryptedPatientMapper();
+
     /**
      * This method returns the list of patients.
      *
@@ -45,52 +56,34 @@ public class PatientDataAccess {
      */
     public static ArrayList<Patient> getPatients(int clinicId,
             Object referenceCharacters) {
-        ArrayList<Patient> patients = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
         try {
-            cs = connection.prepareCall("{CALL getAllPatients(?, ?, ?)}");
-            cs.setInt(1, clinicId);
-            cs.setString(2, (String) referenceCharacters);
-            cs.registerOutParameter(3, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Patient p = new Patient();
-                p.setPatientId(rs.getInt("patient id"));
-                p.setFirstName(rs.getString("first name"));
-                p.setLastName(rs.getString("last name"));
-                p.setBirthDate(rs.getDate("birth date"));
-                p.setAddress(rs.getString("address"));
-                p.setContactNumber(rs.getString("contact number"));
-                p.setGender(rs.getString("gender"));
-                p.setRace(rs.getString("race"));
-                p.setEmailAddress(rs.getString("email"));
-                p.setLanguage(rs.getString("language"));
-                p.setReasonForInactivity(rs.getString("reason"));
-                p.setStartDate(rs.getDate("start date"));
-                patients.add(p);
-            }
+            return ProcedureExecutor.getRows(connection,
+                    "{CALL getAllPatients(?, ?, ?)}", PATIENT_MAPPER, "getPatients",
+                    clinicId, referenceCharacters);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
 
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred in the getPatients method.", ex);
-            return null;
+    /**
+     * This method returns the list of patients with their identity fields still
+     * encrypted, so they can be decrypted in the application.
+     *
+     * @param clinicId the clinic ID
+     * @return the list of encrypted patients or null if results are missing
+     */
+    static ArrayList<EncryptedPatient> getEncryptedPatients(int clinicId) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        try {
+            return ProcedureExecutor.getRows(connection,
+                    "{CALL getAllPatientsEncrypted(?, ?)}", ENCRYPTED_PATIENT_MAPPER,
+                    "getEncryptedPatients", clinicId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-        return patients;
     }
 
     /**
@@ -167,6 +160,15 @@ public class PatientDataAccess {
                 return false;
             }
 
+            /* the shared roster holds the values as stored */
+            Patient updatedPatient = new Patient(patientId, firstName, lastName,
+                    birthDate, emptyToNull(contactNumber), gender, race,
+                    emptyToNull(email), emptyToNull(language),
+                    emptyToNull(reasonForInactivity), startDate, null);
+            updatedPatient.setAddress(emptyToNull(address));
+            PatientRoster.updatePatient(updatedPatient);
+            PopulationStatisticsSnapshot.invalidate();
+
         } catch (SQLException ex) {
             Logger.getLogger(PatientDataAccess.class.getName()).log(Level.SEVERE,
                     "An exception occurred during the updatePatient method.", ex);
@@ -205,7 +207,7 @@ public class PatientDataAccess {
 
         try {
             cs = connection.prepareCall("{CALL addPatient(?, ?, ?, ?, ?, ?, "
-                    + "?, ?, ?, ?, ?, ?, ?)}");
+                    + "?, ?, ?, ?, ?, ?, ?, ?)}");
             cs.setString(1, firstName);
             cs.setString(2, lastName);
             cs.setDate(3, birthDate);
@@ -234,17 +236,27 @@ public class PatientDataAccess {
             cs.setDate(10, startDate);
             cs.setInt(11, clinicId);
             cs.setString(12, (String) referenceCharacters);
-            cs.registerOutParameter(13, java.sql.Types.TINYINT);
+            cs.registerOutParameter(13, java.sql.Types.INTEGER);
+            cs.registerOutParameter(14, java.sql.Types.TINYINT);
 
             /* no result set to return */
             cs.execute();
 
             /* grab out parameter */
-            boolean success = cs.getBoolean(13);
+            boolean success = cs.getBoolean(14);
             if (!success) {
                 return false;
             }
 
+            /* the shared roster holds the values as stored */
+            Patient newPatient = new Patient(cs.getInt(13), firstName, lastName,
+                    birthDate, emptyToNull(contactNumber), gender, race,
+                    emptyToNull(email), emptyToNull(language), null, startDate,
+                    null);
+            newPatient.setAddress(emptyToNull(address));
+            PatientRoster.addPatient(clinicId, newPatient);
+            PopulationStatisticsSnapshot.invalidate();
+
         } catch (SQLException ex) {
             Logger.getLogger(PatientDataAccess.class.getName()).log(Level.SEVERE,
                     "An exception occurred during the addPatient method.", ex);
@@ -254,4 +266,82 @@ public class PatientDataAccess {
         }
         return true;
     }
+
+    /**
+     * This method returns null for values that are stored as null because they
+     * are empty.
+     *
+     * @param value the value
+     * @return the value or null if the value is empty
+     */
+    private static String emptyToNull(String value) {
+        if ((value != null) && (value.trim().length() != 0)) {
+            return value;
+        }
+        return null;
+    }
+
+    /**
+     * This class maps rows of patients.
+     */
+    private static class PatientMapper extends RowMapper<Patient> {
+
+        /**
+         * Default constructor
+         */
+        private PatientMapper() {
+            super("patient id", "first name", "last name", "birth date", "address",
+                    "contact number", "gender", "race", "email", "language",
+                    "reason", "start date");
+        }
+
+        @Override
+        protected Patient mapRow(ResultSet rs, int[] columns) throws SQLException {
+            Patient p = new Patient();
+            p.setPatientId(rs.getInt(columns[0]));
+            p.setFirstName(rs.getString(columns[1]));
+            p.setLastName(rs.getString(columns[2]));
+            p.setBirthDate(rs.getDate(columns[3]));
+            p.setAddress(rs.getString(columns[4]));
+            p.setContactNumber(rs.getString(columns[5]));
+            p.setGender(rs.getString(columns[6]));
+            p.setRace(rs.getString(columns[7]));
+            p.setEmailAddress(rs.getString(columns[8]));
+            p.setLanguage(rs.getString(columns[9]));
+            p.setReasonForInactivity(rs.getString(columns[10]));
+            p.setStartDate(rs.getDate(columns[11]));
+            return p;
+        }
+    }
+
+    /**
+     * This class maps rows of patients with encrypted identity fields.
+     */
+    private static class EncryptedPatientMapper extends RowMapper<EncryptedPatient> {
+
+        /**
+         * Default constructor
+         */
+        private EncryptedPatientMapper() {
+            super("patient id", "first name", "last name", "birth date", "address",
+                    "contact number", "gender", "race", "email", "start date",
+                    "language", "reason");
+        }
+
+        @Override
+        protected EncryptedPatient mapRow(ResultSet rs, int[] columns) throws SQLException {
+            byte[][] fields = new byte[EncryptedPatient.FIELD_COUNT][];
+            fields[EncryptedPatient.FIRST_NAME] = rs.getBytes(columns[1]);
+            fields[EncryptedPatient.LAST_NAME] = rs.getBytes(columns[2]);
+            fields[EncryptedPatient.BIRTH_DATE] = rs.getBytes(columns[3]);
+            fields[EncryptedPatient.ADDRESS] = rs.getBytes(columns[4]);
+            fields[EncryptedPatient.CONTACT_NUMBER] = rs.getBytes(columns[5]);
+            fields[EncryptedPatient.GENDER] = rs.getBytes(columns[6]);
+            fields[EncryptedPatient.RACE] = rs.getBytes(columns[7]);
+            fields[EncryptedPatient.EMAIL_ADDRESS] = rs.getBytes(columns[8]);
+            fields[EncryptedPatient.START_DATE] = rs.getBytes(columns[9]);
+            return new EncryptedPatient(rs.getInt(columns[0]), fields,
+                    rs.getString(columns[10]), rs.getString(columns[11]));
+        }
+    }
 }
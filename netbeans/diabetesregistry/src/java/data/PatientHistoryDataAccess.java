@@ -22,6 +22,9 @@ import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import registry.A1cResult;
@@ -32,10 +35,12 @@ import registry.ContinuousResult;
 import registry.Dashboard;
 import registry.DiscreteResult;
 import registry.HealthyTargetStatus;
+import registry.HistoryContainer;
 import registry.LdlResult;
 import registry.Medication;
 import registry.PsychologicalScreeningResult;
 import registry.Therapy;
+import registry.TreatmentHistory;
 import registry.TshResult;
 import utility.ConnectionPool;
 import utility.DatabaseUtility;
@@ -49,6 +54,308 @@ import utility.DatabaseUtility;
  */
 public class PatientHistoryDataAccess {
 
+    /**
+     * The history topic for A1C
+     */
+    public static final String A1C_TOPIC = "A1C";
+
+    /**
+     * The history topic for glucose
+     */
+    public static final String GLUCOSE_TOPIC = "Glucose";
+
+    /**
+     * The history topic for LDL
+     */
+    public static final String LDL_TOPIC = "LDL";
+
+    /**
+     * The history topic for HDL
+     */
+    public static final String HDL_TOPIC = "HDL";
+
+    /**
+     * The history topic for triglycerides
+     */
+    public static final String TRIGLYCERIDES_TOPIC = "Triglycerides";
+
+    /**
+     * The history topic for TSH
+     */
+    public static final String TSH_TOPIC = "TSH";
+
+    /**
+     * The history topic for T4
+     */
+    public static final String T4_TOPIC = "T4";
+
+    /**
+     * The history topic for UACR
+     */
+    public static final String UACR_TOPIC = "UACR";
+
+    /**
+     * The history topic for eGFR
+     */
+    public static final String EGFR_TOPIC = "eGFR";
+
+    /**
+     * The history topic for creatinine
+     */
+    public static final String CREATININE_TOPIC = "Creatinine";
+
+    /**
+     * The history topic for BMI
+     */
+    public static final String BMI_TOPIC = "BMI";
+
+    /**
+     * The history topic for waist
+     */
+    public static final String WAIST_TOPIC = "Waist";
+
+    /**
+     * The history topic for blood pressure
+     */
+    public static final String BLOOD_PRESSURE_TOPIC = "Blood Pressure";
+
+    /**
+     * The history topic for class attendance
+     */
+    public static final String CLASS_TOPIC = "Class";
+
+    /**
+     * The history topic for eye screening
+     */
+    public static final String EYE_TOPIC = "Eye Screening";
+
+    /**
+     * The history topic for foot screening
+     */
+    public static final String FOOT_TOPIC = "Foot Screening";
+
+    /**
+     * The history topic for psychological screening
+     */
+    public static final String PSYCHOLOGICAL_TOPIC = "Psychological Screening";
+
+    /**
+     * The history topic for physical activity
+     */
+    public static final String PHYSICAL_ACTIVITY_TOPIC = "Physical Activity";
+
+    /**
+     * The history topic for influenza vaccine
+     */
+    public static final String INFLUENZA_TOPIC = "Influenza Vaccine";
+
+    /**
+     * The history topic for PCV-13 vaccine
+     */
+    public static final String PCV13_TOPIC = "PCV-13 Vaccine";
+
+    /**
+     * The history topic for PPSV-23 vaccine
+     */
+    public static final String PPSV23_TOPIC = "PPSV-23 Vaccine";
+
+    /**
+     * The history topic for hepatitis B vaccine
+     */
+    public static final String HEPATITIS_B_TOPIC = "Hepatitis B Vaccine";
+
+    /**
+     * The history topic for TDAP vaccine
+     */
+    public static final String TDAP_TOPIC = "TDAP Vaccine";
+
+    /**
+     * The history topic for zoster vaccine
+     */
+    public static final String ZOSTER_TOPIC = "Zoster Vaccine";
+
+    /**
+     * The history topic for smoking
+     */
+    public static final String SMOKING_TOPIC = "Smoking";
+
+    /**
+     * The history topic for telephone follow-up
+     */
+    public static final String TELEPHONE_TOPIC = "Telephone Follow Up";
+
+    /**
+     * The history topic for AST
+     */
+    public static final String AST_TOPIC = "AST";
+
+    /**
+     * The history topic for ALT
+     */
+    public static final String ALT_TOPIC = "ALT";
+
+    /**
+     * The history topic for PSA
+     */
+    public static final String PSA_TOPIC = "PSA";
+
+    /**
+     * The history topic for compliance
+     */
+    public static final String COMPLIANCE_TOPIC = "Compliance";
+
+    /**
+     * The history topic for hospitalization
+     */
+    public static final String HOSPITALIZATION_TOPIC = "Hospitalization";
+
+    /**
+     * The history topic for treatment
+     */
+    public static final String TREATMENT_TOPIC = "Treatment";
+
+    /**
+     * The mapper for A1C results
+     */
+    private static final RowMapper<A1cResult> A1C_MAPPER = new A1cMapper();
+
+    /**
+     * The mapper for results holding a date and a decimal value
+     */
+    private static final RowMapper<ContinuousResult> CONTINUOUS_MAPPER
+            = new ContinuousResultMapper();
+
+    /**
+     * The mapper for blood pressure results
+     */
+    private static final RowMapper<BloodPressureResult> BLOOD_PRESSURE_MAPPER
+            = new BloodPressureMapper();
+
+    /**
+     * The mapper for class attendance dates
+     */
+    private static final RowMapper<Date> CLASS_DATE_MAPPER
+            = new DateMapper("date attended");
+
+    /**
+     * The mapper for recorded dates
+     */
+    private static final RowMapper<Date> DATE_RECORDED_MAPPER
+            = new DateMapper("date recorded");
+
+    /**
+     * The mapper for eye screening results
+     */
+    private static final RowMapper<CategoricalResult> EYE_MAPPER
+            = new CategoricalResultMapper("eye exam code");
+
+    /**
+     * The mapper for foot screening results
+     */
+    private static final RowMapper<CategoricalResult> FOOT_MAPPER
+            = new CategoricalResultMapper("risk category");
+
+    /**
+     * The mapper for telephone follow-up results
+     */
+    private static final RowMapper<CategoricalResult> TELEPHONE_MAPPER
+            = new CategoricalResultMapper("follow up code");
+
+    /**
+     * The mapper for LDL results
+     */
+    private static final RowMapper<LdlResult> LDL_MAPPER = new LdlMapper();
+
+    /**
+     * The mapper for physical activity results
+     */
+    private static final RowMapper<DiscreteResult> PHYSICAL_ACTIVITY_MAPPER
+            = new PhysicalActivityMapper();
+
+    /**
+     * The mapper for psychological screening results
+     */
+    private static final RowMapper<PsychologicalScreeningResult> PSYCHOLOGICAL_MAPPER
+            = new PsychologicalScreeningMapper();
+
+    /**
+     * The mapper for smoking results
+     */
+    private static final RowMapper<BooleanResult> SMOKING_MAPPER
+            = new SmokingMapper();
+
+    /**
+     * The mapper for TSH results
+     */
+    private static final RowMapper<TshResult> TSH_MAPPER = new TshMapper();
+
+    /**
+     * The mapper for topic-specific notes
+     */
+    private static final RowMapper<CategoricalResult> NOTE_MAPPER
+            = new NoteMapper();
+
+    /**
+     * The mapper for notes of all topics
+     */
+    private static final RowMapper<CategoricalResult> ALL_NOTES_MAPPER
+            = new AllNotesMapper();
+
+    /**
+     * The history topics in the order their results are returned by the
+     * getHistories procedure
+     */
+    private static final String[] HISTORY_TOPICS = {A1C_TOPIC, GLUCOSE_TOPIC,
+        LDL_TOPIC, HDL_TOPIC, TRIGLYCERIDES_TOPIC, TSH_TOPIC, T4_TOPIC,
+        UACR_TOPIC, EGFR_TOPIC, CREATININE_TOPIC, BMI_TOPIC, WAIST_TOPIC,
+        BLOOD_PRESSURE_TOPIC, CLASS_TOPIC, EYE_TOPIC, FOOT_TOPIC,
+        PSYCHOLOGICAL_TOPIC, PHYSICAL_ACTIVITY_TOPIC, INFLUENZA_TOPIC,
+        PCV13_TOPIC, PPSV23_TOPIC, HEPATITIS_B_TOPIC, TDAP_TOPIC, ZOSTER_TOPIC,
+        SMOKING_TOPIC, TELEPHONE_TOPIC, AST_TOPIC, ALT_TOPIC, PSA_TOPIC,
+        COMPLIANCE_TOPIC, HOSPITALIZATION_TOPIC, TREATMENT_TOPIC};
+
+    /**
+     * The mappers for the results of each history topic. The treatment topic
+     * has no mapper because its results are not returned by the getHistories
+     * procedure.
+     */
+    private static final HashMap<String, RowMapper<?>> RESULT_MAPPERS
+            = new HashMap<>();
+
+    static {
+        RESULT_MAPPERS.put(A1C_TOPIC, A1C_MAPPER);
+        RESULT_MAPPERS.put(GLUCOSE_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(LDL_TOPIC, LDL_MAPPER);
+        RESULT_MAPPERS.put(HDL_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(TRIGLYCERIDES_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(TSH_TOPIC, TSH_MAPPER);
+        RESULT_MAPPERS.put(T4_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(UACR_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(EGFR_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(CREATININE_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(BMI_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(WAIST_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(BLOOD_PRESSURE_TOPIC, BLOOD_PRESSURE_MAPPER);
+        RESULT_MAPPERS.put(CLASS_TOPIC, CLASS_DATE_MAPPER);
+        RESULT_MAPPERS.put(EYE_TOPIC, EYE_MAPPER);
+        RESULT_MAPPERS.put(FOOT_TOPIC, FOOT_MAPPER);
+        RESULT_MAPPERS.put(PSYCHOLOGICAL_TOPIC, PSYCHOLOGICAL_MAPPER);
+        RESULT_MAPPERS.put(PHYSICAL_ACTIVITY_TOPIC, PHYSICAL_ACTIVITY_MAPPER);
+        RESULT_MAPPERS.put(INFLUENZA_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(PCV13_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(PPSV23_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(HEPATITIS_B_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(TDAP_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(ZOSTER_TOPIC, DATE_RECORDED_MAPPER);
+        RESULT_MAPPERS.put(SMOKING_TOPIC, SMOKING_MAPPER);
+        RESULT_MAPPERS.put(TELEPHONE_TOPIC, TELEPHONE_MAPPER);
+        RESULT_MAPPERS.put(AST_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(ALT_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(PSA_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(COMPLIANCE_TOPIC, CONTINUOUS_MAPPER);
+        RESULT_MAPPERS.put(HOSPITALIZATION_TOPIC, DATE_RECORDED_MAPPER);
+    }
+
     /**
      * This method returns the list of A1C results for a patient.
      *
@@ -56,48 +363,27 @@ public class PatientHistoryDataAccess {
      * @return the list of A1C results or null if results are missing
      */
     public static ArrayList<A1cResult> getA1c(Integer patientId) {
-        ArrayList<A1cResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getA1C(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                A1cResult r = new A1cResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                r.setPoc(rs.getBoolean("poc"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getA1c method.", ex);
-            return null;
+            return getA1c(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of A1C results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of A1C results or null if results are missing
+     */
+    private static ArrayList<A1cResult> getA1c(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getA1C(?, ?)}",
+                A1C_MAPPER, "getA1c", patientId);
     }
 
     /**
@@ -107,47 +393,27 @@ public class PatientHistoryDataAccess {
      * @return the list of PSA results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getPsa(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getPsa(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getPsa method.", ex);
-            return null;
+            return getPsa(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of PSA results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of PSA results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getPsa(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getPsa(?, ?)}",
+                CONTINUOUS_MAPPER, "getPsa", patientId);
     }
 
     /**
@@ -157,47 +423,27 @@ public class PatientHistoryDataAccess {
      * @return the list of ALT results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getAlt(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getAlt(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getAlt method.", ex);
-            return null;
+            return getAlt(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of ALT results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of ALT results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getAlt(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getAlt(?, ?)}",
+                CONTINUOUS_MAPPER, "getAlt", patientId);
     }
 
     /**
@@ -207,47 +453,27 @@ public class PatientHistoryDataAccess {
      * @return the list of AST results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getAst(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getAst(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getAst method.", ex);
-            return null;
+            return getAst(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of AST results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of AST results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getAst(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getAst(?, ?)}",
+                CONTINUOUS_MAPPER, "getAst", patientId);
     }
 
     /**
@@ -257,49 +483,27 @@ public class PatientHistoryDataAccess {
      * @return the list of blood pressure results or null if results are missing
      */
     public static ArrayList<BloodPressureResult> getBP(Integer patientId) {
-        ArrayList<BloodPressureResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getBP(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                BloodPressureResult r = new BloodPressureResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setSystolicValue(rs.getInt("systole"));
-                r.setDiastolicValue(rs.getInt("diastole"));
-                r.setAceOrArb(rs.getBoolean("ace or arb"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getBP method.", ex);
-            return null;
+            return getBP(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of blood pressure results for a patient
+     * using the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of blood pressure results or null if results are missing
+     */
+    private static ArrayList<BloodPressureResult> getBP(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getBP(?, ?)}",
+                BLOOD_PRESSURE_MAPPER, "getBP", patientId);
     }
 
     /**
@@ -309,47 +513,27 @@ public class PatientHistoryDataAccess {
      * @return the list of BMI results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getBmi(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getBMI(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getBmi method.", ex);
-            return null;
+            return getBmi(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of BMI results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of BMI results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getBmi(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getBMI(?, ?)}",
+                CONTINUOUS_MAPPER, "getBmi", patientId);
     }
 
     /**
@@ -359,45 +543,27 @@ public class PatientHistoryDataAccess {
      * @return the list of class attendance dates or null if results are missing
      */
     public static ArrayList<Date> getClass(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getClass(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date attended");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getClass method.", ex);
-            return null;
+            return getClass(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of class attendance dates for a patient
+     * using the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of class attendance dates or null if results are missing
+     */
+    private static ArrayList<Date> getClass(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getClass(?, ?)}",
+                CLASS_DATE_MAPPER, "getClass", patientId);
     }
 
     /**
@@ -407,47 +573,27 @@ public class PatientHistoryDataAccess {
      * @return the list of creatinine results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getCreatinine(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getCreatinine(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getCreatinine method.", ex);
-            return null;
+            return getCreatinine(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of creatinine results for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of creatinine results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getCreatinine(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getCreatinine(?, ?)}",
+                CONTINUOUS_MAPPER, "getCreatinine", patientId);
     }
 
     /**
@@ -457,47 +603,27 @@ public class PatientHistoryDataAccess {
      * @return the list of eGFR results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getEgfr(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getEGFR(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getEgfr method.", ex);
-            return null;
+            return getEgfr(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of eGFR results for a patient using the
+     * given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of eGFR results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getEgfr(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getEGFR(?, ?)}",
+                CONTINUOUS_MAPPER, "getEgfr", patientId);
     }
 
     /**
@@ -507,48 +633,27 @@ public class PatientHistoryDataAccess {
      * @return the list of eye screening results or null if results are missing
      */
     public static ArrayList<CategoricalResult> getEye(Integer patientId) {
-        ArrayList<CategoricalResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getEye(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult r = new CategoricalResult();
-                r.setDateRecorded(rs.getDate("date recorded"));
-                r.setCategory(rs.getString("eye exam code"));
-                r.setDefinition(rs.getString("definition"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getEye method.", ex);
-            return null;
+            return getEye(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of eye screening results for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of eye screening results or null if results are missing
+     */
+    private static ArrayList<CategoricalResult> getEye(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getEye(?, ?)}",
+                EYE_MAPPER, "getEye", patientId);
     }
 
     /**
@@ -558,98 +663,57 @@ public class PatientHistoryDataAccess {
      * @return the list of foot screening results or null if results are missing
      */
     public static ArrayList<CategoricalResult> getFoot(Integer patientId) {
-        ArrayList<CategoricalResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getFoot(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult r = new CategoricalResult();
-                r.setDateRecorded(rs.getDate("date recorded"));
-                r.setCategory(rs.getString("risk category"));
-                r.setDefinition(rs.getString("definition"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getFoot method.", ex);
-            return null;
+            return getFoot(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
     }
 
     /**
-     * This method returns the list of glucose results for a patient.
+     * This method returns the list of foot screening results for a patient
+     * using the given connection. The connection is not freed by this method.
      *
+     * @param connection the connection
      * @param patientId the patient ID
-     * @return the list of glucose results or null if results are missing
+     * @return the list of foot screening results or null if results are missing
      */
-    public static ArrayList<ContinuousResult> getGlucose(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
-        ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
-        try {
-            cs = connection.prepareCall("{CALL getGlucose(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
+    private static ArrayList<CategoricalResult> getFoot(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getFoot(?, ?)}",
+                FOOT_MAPPER, "getFoot", patientId);
+    }
 
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getGlucose method.", ex);
-            return null;
+    /**
+     * This method returns the list of glucose results for a patient.
+     *
+     * @param patientId the patient ID
+     * @return the list of glucose results or null if results are missing
+     */
+    public static ArrayList<ContinuousResult> getGlucose(Integer patientId) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
+        try {
+            return getGlucose(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of glucose results for a patient using the
+     * given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of glucose results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getGlucose(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getGlucose(?, ?)}",
+                CONTINUOUS_MAPPER, "getGlucose", patientId);
     }
 
     /**
@@ -659,47 +723,27 @@ public class PatientHistoryDataAccess {
      * @return the list of HDL results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getHdl(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getHDL(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getHdl method.", ex);
-            return null;
+            return getHdl(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of HDL results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of HDL results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getHdl(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getHDL(?, ?)}",
+                CONTINUOUS_MAPPER, "getHdl", patientId);
     }
 
     /**
@@ -711,45 +755,29 @@ public class PatientHistoryDataAccess {
      * missing
      */
     public static ArrayList<Date> getHepB(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getHepB(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getHepB method.", ex);
-            return null;
+            return getHepB(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of hepatitis B vaccination dates for a
+     * patient using the given connection. The connection is not freed by this
+     * method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of hepatitis B vaccination dates or null if results are
+     * missing
+     */
+    private static ArrayList<Date> getHepB(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getHepB(?, ?)}",
+                DATE_RECORDED_MAPPER, "getHepB", patientId);
     }
 
     /**
@@ -759,45 +787,27 @@ public class PatientHistoryDataAccess {
      * @return the list of hospitalization dates or null if results are missing
      */
     public static ArrayList<Date> getER(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getER(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getER method.", ex);
-            return null;
+            return getER(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of hospitalization dates for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of hospitalization dates or null if results are missing
+     */
+    private static ArrayList<Date> getER(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getER(?, ?)}",
+                DATE_RECORDED_MAPPER, "getER", patientId);
     }
 
     /**
@@ -809,45 +819,28 @@ public class PatientHistoryDataAccess {
      * missing
      */
     public static ArrayList<Date> getInfluenza(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getInfluenza(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getInfluenza method.", ex);
-            return null;
+            return getInfluenza(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of influenza vaccination dates for a patient
+     * using the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of influenza vaccination dates or null if results are
+     * missing
+     */
+    private static ArrayList<Date> getInfluenza(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getInfluenza(?, ?)}",
+                DATE_RECORDED_MAPPER, "getInfluenza", patientId);
     }
 
     /**
@@ -857,49 +850,27 @@ public class PatientHistoryDataAccess {
      * @return the list of LDL results or null if results are missing
      */
     public static ArrayList<LdlResult> getLdl(Integer patientId) {
-        ArrayList<LdlResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getLDL(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                LdlResult r = new LdlResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                r.setPostMi(rs.getBoolean("post mi"));
-                r.setOnStatin(rs.getBoolean("on statin"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getLdl method.", ex);
-            return null;
+            return getLdl(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of LDL results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of LDL results or null if results are missing
+     */
+    private static ArrayList<LdlResult> getLdl(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getLDL(?, ?)}",
+                LDL_MAPPER, "getLdl", patientId);
     }
 
     /**
@@ -911,49 +882,14 @@ public class PatientHistoryDataAccess {
      */
     public static ArrayList<CategoricalResult> getAllNotes(Integer patientId,
             Object referenceCharacters) {
-        ArrayList<CategoricalResult> allNotes
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getAllNotes(?, ?, ?)}");
-            cs.setInt(1, patientId);
-            cs.setString(2, (String) referenceCharacters);
-            cs.registerOutParameter(3, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult r = new CategoricalResult();
-                r.setDateRecorded(rs.getDate("date recorded"));
-                r.setCategory(rs.getString("topic"));
-                r.setDefinition(rs.getString("note"));
-                allNotes.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getAllNotes method.", ex);
-            return null;
+            return ProcedureExecutor.getList(connection, "{CALL getAllNotes(?, ?, ?)}",
+                    ALL_NOTES_MAPPER, "getAllNotes", patientId, referenceCharacters);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-
-        if (allNotes.isEmpty()) {
-            return null;
-        } else {
-            return allNotes;
-        }
     }
 
     /**
@@ -965,47 +901,29 @@ public class PatientHistoryDataAccess {
      * results are missing
      */
     public static ArrayList<ContinuousResult> getCompliance(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getCompliance(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getCompliance method.", ex);
-            return null;
+            return getCompliance(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of patient-reported compliance results for a
+     * patient using the given connection. The connection is not freed by this
+     * method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of patient-reported compliance results or null if
+     * results are missing
+     */
+    private static ArrayList<ContinuousResult> getCompliance(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getCompliance(?, ?)}",
+                CONTINUOUS_MAPPER, "getCompliance", patientId);
     }
 
     /**
@@ -1015,45 +933,27 @@ public class PatientHistoryDataAccess {
      * @return the list of PCV-13 vaccine dates or null if results are missing
      */
     public static ArrayList<Date> getPcv13(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getPCV13(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getPcv13 method.", ex);
-            return null;
+            return getPcv13(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of PCV-13 vaccine dates for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of PCV-13 vaccine dates or null if results are missing
+     */
+    private static ArrayList<Date> getPcv13(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getPCV13(?, ?)}",
+                DATE_RECORDED_MAPPER, "getPcv13", patientId);
     }
 
     /**
@@ -1065,47 +965,29 @@ public class PatientHistoryDataAccess {
      * results are missing
      */
     public static ArrayList<DiscreteResult> getPhysical(Integer patientId) {
-        ArrayList<DiscreteResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getPhysicalActivity(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                DiscreteResult r = new DiscreteResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getInt("min per week"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getPhysical method.", ex);
-            return null;
+            return getPhysical(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of weekly minutes of physical activity for a
+     * patient using the given connection. The connection is not freed by this
+     * method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of weekly minutes of physical activity or null if
+     * results are missing
+     */
+    private static ArrayList<DiscreteResult> getPhysical(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getPhysicalActivity(?, ?)}",
+                PHYSICAL_ACTIVITY_MAPPER, "getPhysical", patientId);
     }
 
     /**
@@ -1115,45 +997,27 @@ public class PatientHistoryDataAccess {
      * @return the list of PPSV-23 vaccine dates or null if results are missing
      */
     public static ArrayList<Date> getPpsv23(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getPPSV23(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getPpsv23 method.", ex);
-            return null;
+            return getPpsv23(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of PPSV-23 vaccine dates for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of PPSV-23 vaccine dates or null if results are missing
+     */
+    private static ArrayList<Date> getPpsv23(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getPPSV23(?, ?)}",
+                DATE_RECORDED_MAPPER, "getPpsv23", patientId);
     }
 
     /**
@@ -1165,50 +1029,29 @@ public class PatientHistoryDataAccess {
      * are missing
      */
     public static ArrayList<PsychologicalScreeningResult> getPsychological(Integer patientId) {
-        ArrayList<PsychologicalScreeningResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getPsychologicalScreening(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                PsychologicalScreeningResult r
-                        = new PsychologicalScreeningResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setScore(rs.getInt("phq score"));
-                r.setSeverity(rs.getString("severity"));
-                r.setProposedActions(rs.getString("proposed actions"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getPsychological method.", ex);
-            return null;
+            return getPsychological(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of psychological screening results for a
+     * patient using the given connection. The connection is not freed by this
+     * method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of psychological screening results or null if results
+     * are missing
+     */
+    private static ArrayList<PsychologicalScreeningResult> getPsychological(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getPsychologicalScreening(?, ?)}",
+                PSYCHOLOGICAL_MAPPER, "getPsychological", patientId);
     }
 
     /**
@@ -1218,47 +1061,27 @@ public class PatientHistoryDataAccess {
      * @return the list of smoking status values or null if results are missing
      */
     public static ArrayList<BooleanResult> getSmoking(Integer patientId) {
-        ArrayList<BooleanResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getSmoker(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                BooleanResult r = new BooleanResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBoolean("smoker"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getSmoking method.", ex);
-            return null;
+            return getSmoking(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of smoking status values for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of smoking status values or null if results are missing
+     */
+    private static ArrayList<BooleanResult> getSmoking(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getSmoker(?, ?)}",
+                SMOKING_MAPPER, "getSmoking", patientId);
     }
 
     /**
@@ -1268,47 +1091,27 @@ public class PatientHistoryDataAccess {
      * @return the list of T4 results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getT4(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getT4(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getT4 method.", ex);
-            return null;
+            return getT4(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of T4 results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of T4 results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getT4(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getT4(?, ?)}",
+                CONTINUOUS_MAPPER, "getT4", patientId);
     }
 
     /**
@@ -1318,45 +1121,27 @@ public class PatientHistoryDataAccess {
      * @return the list of TDAP vaccine dates or null if results are missing
      */
     public static ArrayList<Date> getTdap(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getTDAP(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getTdap method.", ex);
-            return null;
+            return getTdap(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of TDAP vaccine dates for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of TDAP vaccine dates or null if results are missing
+     */
+    private static ArrayList<Date> getTdap(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getTDAP(?, ?)}",
+                DATE_RECORDED_MAPPER, "getTdap", patientId);
     }
 
     /**
@@ -1368,48 +1153,28 @@ public class PatientHistoryDataAccess {
      * missing
      */
     public static ArrayList<CategoricalResult> getTelephone(Integer patientId) {
-        ArrayList<CategoricalResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getTelephoneFollowUp(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult r = new CategoricalResult();
-                r.setDateRecorded(rs.getDate("date recorded"));
-                r.setCategory(rs.getString("follow up code"));
-                r.setDefinition(rs.getString("definition"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getTelephone method.", ex);
-            return null;
+            return getTelephone(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of telephone follow-up results for a patient
+     * using the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of telephone follow-up results or null if results are
+     * missing
+     */
+    private static ArrayList<CategoricalResult> getTelephone(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getTelephoneFollowUp(?, ?)}",
+                TELEPHONE_MAPPER, "getTelephone", patientId);
     }
 
     /**
@@ -1419,98 +1184,57 @@ public class PatientHistoryDataAccess {
      * @return the list of triglycerides results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getTriglycerides(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getTriglycerides(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getTriglycerides method.", ex);
-            return null;
+            return getTriglycerides(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
     }
 
     /**
-     * This method returns the list of TSH results for a patient.
+     * This method returns the list of triglycerides results for a patient using
+     * the given connection. The connection is not freed by this method.
      *
-     * @param patientId the patient ID
-     * @return the list of TSH results or null if results are missing
-     */
-    public static ArrayList<TshResult> getTsh(Integer patientId) {
-        ArrayList<TshResult> results
-                = new ArrayList<>();
-        ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
-        try {
-            cs = connection.prepareCall("{CALL getTSH(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                TshResult r = new TshResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                r.setOnThyroidTreatment(rs.getBoolean("on thyroid treatment"));
-                results.add(r);
-            }
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of triglycerides results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getTriglycerides(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getTriglycerides(?, ?)}",
+                CONTINUOUS_MAPPER, "getTriglycerides", patientId);
+    }
 
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getTsh method.", ex);
-            return null;
+    /**
+     * This method returns the list of TSH results for a patient.
+     *
+     * @param patientId the patient ID
+     * @return the list of TSH results or null if results are missing
+     */
+    public static ArrayList<TshResult> getTsh(Integer patientId) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
+        try {
+            return getTsh(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of TSH results for a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of TSH results or null if results are missing
+     */
+    private static ArrayList<TshResult> getTsh(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getTSH(?, ?)}",
+                TSH_MAPPER, "getTsh", patientId);
     }
 
     /**
@@ -1520,47 +1244,27 @@ public class PatientHistoryDataAccess {
      * @return the list of UACR results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getUacr(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getUACR(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getUacr method.", ex);
-            return null;
+            return getUacr(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of UACR results for a patient using the
+     * given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of UACR results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getUacr(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getUACR(?, ?)}",
+                CONTINUOUS_MAPPER, "getUacr", patientId);
     }
 
     /**
@@ -1570,47 +1274,27 @@ public class PatientHistoryDataAccess {
      * @return the list of waist results or null if results are missing
      */
     public static ArrayList<ContinuousResult> getWaist(Integer patientId) {
-        ArrayList<ContinuousResult> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getWaist(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                ContinuousResult r = new ContinuousResult();
-                r.setDate(rs.getDate("date recorded"));
-                r.setValue(rs.getBigDecimal("result"));
-                results.add(r);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getWaist method.", ex);
-            return null;
+            return getWaist(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of waist measurement results for a patient
+     * using the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of waist results or null if results are missing
+     */
+    private static ArrayList<ContinuousResult> getWaist(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getWaist(?, ?)}",
+                CONTINUOUS_MAPPER, "getWaist", patientId);
     }
 
     /**
@@ -1620,49 +1304,33 @@ public class PatientHistoryDataAccess {
      * @return the list of zoster vaccine dates or null if results are missing
      */
     public static ArrayList<Date> getZoster(Integer patientId) {
-        ArrayList<Date> results
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
+        Connection connection = pool.getReadConnection();
         try {
-            cs = connection.prepareCall("{CALL getZoster(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date recorded");
-                results.add(d);
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getZoster method.", ex);
-            return null;
+            return getZoster(connection, patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+    }
 
-        if (results.isEmpty()) {
-            return null;
-        } else {
-            return results;
-        }
+    /**
+     * This method returns the list of zoster vaccine dates for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @return the list of zoster vaccine dates or null if results are missing
+     */
+    private static ArrayList<Date> getZoster(Connection connection,
+            Integer patientId) {
+        return ProcedureExecutor.getList(connection, "{CALL getZoster(?, ?)}",
+                DATE_RECORDED_MAPPER, "getZoster", patientId);
     }
 
     /**
-     * This method returns the patient dashboard data for a patient.
+     * This method returns the patient dashboard data for a patient. The
+     * getPatientDashboard procedure records the healthy target status of the
+     * patient, so it runs on the primary data source.
      *
      * @param patientId the patient ID
      * @param referenceCharacters the character string
@@ -2216,116 +1884,8 @@ public class PatientHistoryDataAccess {
 
             HealthyTargetStatus hts = new HealthyTargetStatus();
             while (rs.next()) {
-                String measurement = rs.getString("measurement");
-                switch (measurement) {
-                    case "a1c":
-                        hts.setA1cOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "glucoseac":
-                        hts.setGlucoseacOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "glucosepc":
-                        hts.setGlucosepcOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "ldl":
-                        hts.setLdlOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "ldlpostmi":
-                        hts.setLdlPostMiOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "hdlmale":
-                        hts.setHdlMaleOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "hdlfemale":
-                        hts.setHdlFemaleOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "triglycerides":
-                        hts.setTriglyceridesOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "tsh":
-                        hts.setTshOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "t4":
-                        hts.setT4OutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "uacr":
-                        hts.setUacrOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "egfr":
-                        hts.setEgfrOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "creatinine":
-                        hts.setCreatinineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "bmi":
-                        hts.setBmiOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "waistmale":
-                        hts.setWaistMaleOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "waistfemale":
-                        hts.setWaistFemaleOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "bloodpressuresystole":
-                        hts.setSystolicBloodPressureOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "bloodpressurediastole":
-                        hts.setDiastolicBloodPressureOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "class":
-                        hts.setClassAttendanceOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "eye":
-                        hts.setEyeScreeningOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "foot":
-                        hts.setFootScreeningOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "psychologicalscreening":
-                        hts.setPsychologicalScreeningOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "physicalactivity":
-                        hts.setPhysicalActivityOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "influenzavaccine":
-                        hts.setInfluenzaVaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "pcv13":
-                        hts.setPcv13VaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "ppsv23":
-                        hts.setPpsv23VaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "hepatitisb":
-                        hts.setHepatitisBVaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "tdap":
-                        hts.setTdapVaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "zoster":
-                        hts.setZosterVaccineOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "smoking":
-                        hts.setSmokingStatusOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "telephonefollowup":
-                        hts.setTelephoneFollowUpOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "ast":
-                        hts.setAstOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "alt":
-                        hts.setAltOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "psa":
-                        hts.setPsaOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    case "hospitalization":
-                        hts.setHospitalizationOutOfTarget(rs.getBoolean("out of target"));
-                        break;
-                    default:
-                        break;
-                }
+                hts.setOutOfTarget(rs.getString("measurement"),
+                        rs.getBoolean("out of target"));
             }
 
             DatabaseUtility.closeResultSet(rs);
@@ -2406,48 +1966,402 @@ public class PatientHistoryDataAccess {
      */
     public static ArrayList<CategoricalResult> getNotes(Integer patientId,
             String topic, Object referenceCharacters) {
-        ArrayList<CategoricalResult> notes
-                = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
+        Connection connection = pool.getReadConnection();
+        try {
+            return getNotes(connection, patientId, topic, referenceCharacters);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
+
+    /**
+     * This method returns the list of topic-specific notes for a patient using
+     * the given connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient ID
+     * @param topic the topic
+     * @param referenceCharacters the character string
+     * @return the list of topic-specific notes or null if results are missing
+     */
+    private static ArrayList<CategoricalResult> getNotes(Connection connection,
+            Integer patientId, String topic, Object referenceCharacters) {
+        return ProcedureExecutor.getList(connection, "{CALL getNotes(?, ?, ?, ?)}",
+                NOTE_MAPPER, "getNotes", patientId, topic, referenceCharacters);
+    }
+
+    /**
+     * This method returns the measurement history and notes of a single topic
+     * for a patient. The results and notes are retrieved with one call to the
+     * getHistories procedure, and the treatment history and notes of the
+     * treatment topic are retrieved using one connection.
+     *
+     * @param patientId the patient ID
+     * @param topic the history topic
+     * @param referenceCharacters the character string
+     * @return the container of results and notes for the topic
+     */
+    public static HistoryContainer getHistory(Integer patientId, String topic,
+            Object referenceCharacters) {
+        if (!TREATMENT_TOPIC.equals(topic)) {
+            HistoryContainer histories = getHistories(patientId,
+                    Collections.singletonList(topic), referenceCharacters);
+            if (histories == null) {
+                return new HistoryContainer(patientId);
+            }
+            return histories;
+        }
+        HistoryContainer history = new HistoryContainer(patientId);
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
+        try {
+            history.setNotes(topic, getNotes(connection, patientId, topic,
+                    referenceCharacters));
+            history.setTreatmentHistory(PatientTreatmentDataAccess.getTreatments(
+                    connection, patientId));
+        } finally {
+            pool.freeConnection(connection);
+        }
+        return history;
+    }
+
+    /**
+     * This method returns the measurement histories and notes of the given
+     * topics for a patient. All topics are retrieved with a single call to the
+     * getHistories procedure, which returns the results and then the notes of
+     * each requested topic as consecutive result sets. Topics without results
+     * or notes are stored as null in the returned container. The treatment
+     * history is not retrieved by this method.
+     *
+     * @param patientId the patient ID
+     * @param topics the history topics
+     * @param referenceCharacters the character string
+     * @return the container of results and notes by topic or null if results
+     * are missing
+     */
+    public static HistoryContainer getHistories(Integer patientId,
+            Collection<String> topics, Object referenceCharacters) {
+        HistoryContainer histories = new HistoryContainer(patientId);
+        ArrayList<String> requestedTopics = new ArrayList<>();
+        StringBuilder topicList = new StringBuilder();
+        for (String topic : HISTORY_TOPICS) {
+            if (topics.contains(topic)) {
+                requestedTopics.add(topic);
+                if (topicList.length() > 0) {
+                    topicList.append(',');
+                }
+                topicList.append(topic);
+            }
+        }
+        if (requestedTopics.isEmpty()) {
+            return histories;
+        }
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getReadConnection();
         CallableStatement cs = null;
-        ResultSet rs = null;
 
         try {
-            cs = connection.prepareCall("{CALL getNotes(?, ?, ?, ?)}");
+            cs = connection.prepareCall("{CALL getHistories(?, ?, ?, ?)}");
             cs.setInt(1, patientId);
-            cs.setString(2, topic);
+            cs.setString(2, topicList.toString());
             cs.setString(3, (String) referenceCharacters);
             cs.registerOutParameter(4, java.sql.Types.TINYINT);
 
             /* reads true if result set exists */
             boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult r = new CategoricalResult();
-                r.setDateRecorded(rs.getDate("date recorded"));
-                r.setDefinition(rs.getString("note"));
-                notes.add(r);
+            for (String topic : requestedTopics) {
+                RowMapper<?> mapper = RESULT_MAPPERS.get(topic);
+                if (mapper != null) {
+                    if (!success) {
+                        return null;
+                    }
+                    histories.setResults(topic,
+                            ProcedureExecutor.mapRows(cs.getResultSet(), mapper));
+                    success = cs.getMoreResults();
+                }
+                if (!success) {
+                    return null;
+                }
+                histories.setNotes(topic,
+                        ProcedureExecutor.mapRows(cs.getResultSet(), NOTE_MAPPER));
+                success = cs.getMoreResults();
             }
 
         } catch (SQLException ex) {
             Logger.getLogger(PatientHistoryDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getNotes method.", ex);
+                    "An exception occurred during the getHistories method.", ex);
             return null;
         } finally {
-            DatabaseUtility.closeResultSet(rs);
             DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
 
-        if (notes.isEmpty()) {
-            return null;
-        } else {
-            return notes;
+        return histories;
+    }
+
+    /**
+     * This class maps rows of A1C results.
+     */
+    private static class A1cMapper extends RowMapper<A1cResult> {
+
+        /**
+         * Default constructor
+         */
+        private A1cMapper() {
+            super("date recorded", "result", "poc");
+        }
+
+        @Override
+        protected A1cResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            A1cResult r = new A1cResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBigDecimal(columns[1]));
+            r.setPoc(rs.getBoolean(columns[2]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of results holding a date and a decimal value.
+     */
+    private static class ContinuousResultMapper extends RowMapper<ContinuousResult> {
+
+        /**
+         * Default constructor
+         */
+        private ContinuousResultMapper() {
+            super("date recorded", "result");
+        }
+
+        @Override
+        protected ContinuousResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            ContinuousResult r = new ContinuousResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBigDecimal(columns[1]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of blood pressure results.
+     */
+    private static class BloodPressureMapper extends RowMapper<BloodPressureResult> {
+
+        /**
+         * Default constructor
+         */
+        private BloodPressureMapper() {
+            super("date recorded", "systole", "diastole", "ace or arb");
+        }
+
+        @Override
+        protected BloodPressureResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            BloodPressureResult r = new BloodPressureResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setSystolicValue(rs.getInt(columns[1]));
+            r.setDiastolicValue(rs.getInt(columns[2]));
+            r.setAceOrArb(rs.getBoolean(columns[3]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows holding a single date.
+     */
+    private static class DateMapper extends RowMapper<Date> {
+
+        /**
+         * Parameterized constructor
+         *
+         * @param dateColumn the label of the date column
+         */
+        private DateMapper(String dateColumn) {
+            super(dateColumn);
+        }
+
+        @Override
+        protected Date mapRow(ResultSet rs, int[] columns) throws SQLException {
+            return rs.getDate(columns[0]);
+        }
+    }
+
+    /**
+     * This class maps rows of coded screening results.
+     */
+    private static class CategoricalResultMapper extends RowMapper<CategoricalResult> {
+
+        /**
+         * Parameterized constructor
+         *
+         * @param categoryColumn the label of the category column
+         */
+        private CategoricalResultMapper(String categoryColumn) {
+            super("date recorded", categoryColumn, "definition");
+        }
+
+        @Override
+        protected CategoricalResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            CategoricalResult r = new CategoricalResult();
+            r.setDateRecorded(rs.getDate(columns[0]));
+            r.setCategory(rs.getString(columns[1]));
+            r.setDefinition(rs.getString(columns[2]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of LDL results.
+     */
+    private static class LdlMapper extends RowMapper<LdlResult> {
+
+        /**
+         * Default constructor
+         */
+        private LdlMapper() {
+            super("date recorded", "result", "post mi", "on statin");
+        }
+
+        @Override
+        protected LdlResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            LdlResult r = new LdlResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBigDecimal(columns[1]));
+            r.setPostMi(rs.getBoolean(columns[2]));
+            r.setOnStatin(rs.getBoolean(columns[3]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of physical activity results.
+     */
+    private static class PhysicalActivityMapper extends RowMapper<DiscreteResult> {
+
+        /**
+         * Default constructor
+         */
+        private PhysicalActivityMapper() {
+            super("date recorded", "min per week");
+        }
+
+        @Override
+        protected DiscreteResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            DiscreteResult r = new DiscreteResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getInt(columns[1]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of psychological screening results.
+     */
+    private static class PsychologicalScreeningMapper
+            extends RowMapper<PsychologicalScreeningResult> {
+
+        /**
+         * Default constructor
+         */
+        private PsychologicalScreeningMapper() {
+            super("date recorded", "phq score", "severity", "proposed actions");
+        }
+
+        @Override
+        protected PsychologicalScreeningResult mapRow(ResultSet rs, int[] columns)
+                throws SQLException {
+            PsychologicalScreeningResult r = new PsychologicalScreeningResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setScore(rs.getInt(columns[1]));
+            r.setSeverity(rs.getString(columns[2]));
+            r.setProposedActions(rs.getString(columns[3]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of smoking results.
+     */
+    private static class SmokingMapper extends RowMapper<BooleanResult> {
+
+        /**
+         * Default constructor
+         */
+        private SmokingMapper() {
+            super("date recorded", "smoker");
+        }
+
+        @Override
+        protected BooleanResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            BooleanResult r = new BooleanResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBoolean(columns[1]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of TSH results.
+     */
+    private static class TshMapper extends RowMapper<TshResult> {
+
+        /**
+         * Default constructor
+         */
+        private TshMapper() {
+            super("date recorded", "result", "on thyroid treatment");
+        }
+
+        @Override
+        protected TshResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            TshResult r = new TshResult();
+            r.setDate(rs.getDate(columns[0]));
+            r.setValue(rs.getBigDecimal(columns[1]));
+            r.setOnThyroidTreatment(rs.getBoolean(columns[2]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of topic-specific notes.
+     */
+    private static class NoteMapper extends RowMapper<CategoricalResult> {
+
+        /**
+         * Default constructor
+         */
+        private NoteMapper() {
+            super("date recorded", "note");
+        }
+
+        @Override
+        protected CategoricalResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            CategoricalResult r = new CategoricalResult();
+            r.setDateRecorded(rs.getDate(columns[0]));
+            r.setDefinition(rs.getString(columns[1]));
+            return r;
+        }
+    }
+
+    /**
+     * This class maps rows of notes of all topics.
+     */
+    private static class AllNotesMapper extends RowMapper<CategoricalResult> {
+
+        /**
+         * Default constructor
+         */
+        private AllNotesMapper() {
+            super("date recorded", "topic", "note");
+        }
+
+        @Override
+        protected CategoricalResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            CategoricalResult r = new CategoricalResult();
+            r.setDateRecorded(rs.getDate(columns[0]));
+            r.setCategory(rs.getString(columns[1]));
+            r.setDefinition(rs.getString(columns[2]));
+            return r;
         }
     }
 }
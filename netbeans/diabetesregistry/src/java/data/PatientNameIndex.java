@@ -0,0 +1,296 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import registry.Patient;
+
+/**
+ * This class indexes the decrypted names of patients by trigram for lookups
+ * that tolerate misspelling. Each word of a name is padded with two spaces
+ * before and one after and split into overlapping three-character trigrams.
+ * A patient matches a query when enough of the query trigrams appear in the
+ * patient's name, so a mistyped letter removes only a few trigrams from the
+ * match. Patients are held in numbered slots and the posting list of each
+ * trigram is an array of slot numbers, so the index holds no objects per
+ * patient entry. The index is updated in place when a patient changes.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+class PatientNameIndex {
+
+    /**
+     * The smallest fraction of the query trigrams a name must contain to
+     * match the query
+     */
+    private static final double MINIMUM_SIMILARITY = 0.34;
+
+    /**
+     * The largest number of shared trigrams distinguished in the ranking
+     */
+    private static final int MAXIMUM_RANKED_COUNT = 0x3ff;
+
+    /**
+     * The posting lists of slot numbers by trigram
+     */
+    private final HashMap<Long, IntList> postings = new HashMap<>();
+
+    /**
+     * The slot numbers by patient ID
+     */
+    private final HashMap<Integer, Integer> slotsByPatientId = new HashMap<>();
+
+    /**
+     * The patient ID held in each slot
+     */
+    private int[] patientIds;
+
+    /**
+     * The distinct trigrams of the name held in each slot or null for empty
+     * slots
+     */
+    private long[][] slotTrigrams;
+
+    /**
+     * The number of slots in use or freed
+     */
+    private int slotCount;
+
+    /**
+     * The freed slots available for reuse
+     */
+    private final IntList freeSlots = new IntList();
+
+    /**
+     * Parameterized constructor
+     *
+     * @param patients the patients to index
+     */
+    PatientNameIndex(List<Patient> patients) {
+        int capacity = Math.max(16, patients.size());
+        patientIds = new int[capacity];
+        slotTrigrams = new long[capacity][];
+        for (Patient p : patients) {
+            add(p);
+        }
+    }
+
+    /**
+     * This method replaces the indexed name of a patient with the patient's
+     * current name, adding the patient if it is not indexed.
+     *
+     * @param patient the patient
+     */
+    synchronized void update(Patient patient) {
+        remove(patient.getPatientId());
+        add(patient);
+    }
+
+    /**
+     * This method removes a patient from the index.
+     *
+     * @param patientId the patient ID
+     */
+    synchronized void remove(int patientId) {
+        Integer slot = slotsByPatientId.remove(patientId);
+        if (slot == null) {
+            return;
+        }
+        for (long trigram : slotTrigrams[slot]) {
+            IntList list = postings.get(trigram);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        slotTrigrams[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    /**
+     * This method finds the patients whose names best match the query. The
+     * patients sharing the most trigrams with the query are returned first,
+     * with shorter names first among patients sharing the same number.
+     *
+     * @param query the name or part of the name
+     * @param limit the largest number of patients returned
+     * @return the IDs of the matching patients in ranked order
+     */
+    synchronized int[] search(String query, int limit) {
+        long[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            return new int[0];
+        }
+
+        /* count the query trigrams found in each slot */
+        int[] counts = new int[slotCount];
+        IntList touched = new IntList();
+        for (long trigram : queryTrigrams) {
+            IntList list = postings.get(trigram);
+            if (list != null) {
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.values[i];
+                    if (counts[slot]++ == 0) {
+                        touched.add(slot);
+                    }
+                }
+            }
+        }
+
+        /* rank by count, then name length, then slot in a single sort key */
+        int minimum = Math.max(1,
+                (int) Math.ceil(queryTrigrams.length * MINIMUM_SIMILARITY));
+        long[] ranked = new long[touched.size];
+        int rankedCount = 0;
+        for (int i = 0; i < touched.size; i++) {
+            int slot = touched.values[i];
+            int count = counts[slot];
+            if (count >= minimum) {
+                long missing = MAXIMUM_RANKED_COUNT
+                        - Math.min(count, MAXIMUM_RANKED_COUNT);
+                long length = Math.min(slotTrigrams[slot].length, 0x1fffff);
+                ranked[rankedCount++] = (missing << 53) | (length << 32) | slot;
+            }
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        int[] result = new int[Math.min(limit, rankedCount)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = patientIds[(int) ranked[i]];
+        }
+        return result;
+    }
+
+    /**
+     * This method adds a patient to the index in a free slot.
+     *
+     * @param patient the patient
+     */
+    private void add(Patient patient) {
+        int slot;
+        if (freeSlots.size > 0) {
+            slot = freeSlots.values[--freeSlots.size];
+        } else {
+            if (slotCount == patientIds.length) {
+                patientIds = Arrays.copyOf(patientIds, slotCount * 2);
+                slotTrigrams = Arrays.copyOf(slotTrigrams, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        long[] nameTrigrams = trigrams(patient.getLastName() + " "
+                + patient.getFirstName());
+        patientIds[slot] = patient.getPatientId();
+        slotTrigrams[slot] = nameTrigrams;
+        slotsByPatientId.put(patient.getPatientId(), slot);
+        for (long trigram : nameTrigrams) {
+            IntList list = postings.get(trigram);
+            if (list == null) {
+                list = new IntList();
+                postings.put(trigram, list);
+            }
+            list.add(slot);
+        }
+    }
+
+    /**
+     * This method returns the distinct trigrams of the words of a name.
+     * Letters and digits are compared ignoring case and all other characters
+     * separate words.
+     *
+     * @param name the name
+     * @return the distinct trigrams, each packed into a long value
+     */
+    private static long[] trigrams(String name) {
+        if (name == null) {
+            return new long[0];
+        }
+        String normalized = name.toLowerCase(Locale.ROOT);
+        long[] result = new long[normalized.length() * 2 + 2];
+        int count = 0;
+        char first = ' ';
+        char second = ' ';
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = (i < normalized.length()) ? normalized.charAt(i) : ' ';
+            if (!Character.isLetterOrDigit(c)) {
+                c = ' ';
+            }
+            if ((c != ' ') || (second != ' ')) {
+                result[count++] = ((long) first << 32) | ((long) second << 16) | c;
+            }
+            if (c == ' ') {
+                first = ' ';
+                second = ' ';
+            } else {
+                first = second;
+                second = c;
+            }
+        }
+        Arrays.sort(result, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if ((distinct == 0) || (result[i] != result[distinct - 1])) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * This class holds a growable list of int values.
+     */
+    private static class IntList {
+
+        /**
+         * The values
+         */
+        private int[] values = new int[4];
+
+        /**
+         * The number of values
+         */
+        private int size = 0;
+
+        /**
+         * Appends a value
+         *
+         * @param value the value
+         */
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Removes a value, replacing it with the last value
+         *
+         * @param value the value
+         */
+        private void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import registry.Patient;
+import registry.PatientPage;
+import utility.AesDecryptor;
+
+/**
+ * This class holds the clinic-wide list of decrypted patients shared by all
+ * sessions. The list is loaded from the database once and then reused until
+ * a progress note reactivates an inactive patient. The published list is
+ * never modified, so readers may iterate over it without locking. Added and
+ * changed patients are placed into an updated copy of the list.
+ *
+ * The patients are loaded with their identity fields encrypted and decrypted
+ * in the application. The decrypted patients are cached by patient ID along
+ * with the encrypted row, so a reload decrypts only the patients that were
+ * added or changed since the last load.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class PatientRoster {
+
+    /**
+     * The current roster or null if the roster must be loaded
+     */
+    private static volatile Roster roster = null;
+
+    /**
+     * The order of patients by last name and then first name
+     */
+    private static final Comparator<Patient> NAME_ORDER = new NameComparator();
+
+    /**
+     * The decrypted patients by patient ID, guarded by the class lock
+     */
+    private static HashMap<Integer, DecryptedPatient> decryptedPatients
+            = new HashMap<>();
+
+    /**
+     * This method returns the shared list of patients, loading it from the
+     * database if necessary. The returned list must not be modified.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the list of patients or null if results are missing
+     */
+    public static ArrayList<Patient> getPatients(int clinicId,
+            Object referenceCharacters) {
+        Roster current = getRoster(clinicId, referenceCharacters);
+        if (current == null) {
+            return null;
+        }
+        return current.patients;
+    }
+
+    /**
+     * This method returns the patient with the given ID from the shared list of
+     * patients.
+     *
+     * @param clinicId the clinic ID
+     * @param patientId the patient ID
+     * @param referenceCharacters the character string
+     * @return the patient or null if the patient is not found
+     */
+    public static Patient getPatient(int clinicId, int patientId,
+            Object referenceCharacters) {
+        Roster current = getRoster(clinicId, referenceCharacters);
+        if (current == null) {
+            return null;
+        }
+        return current.patientsById.get(patientId);
+    }
+
+    /**
+     * This method returns a page of the patients matching a search query. Each
+     * term of the query must begin the last name, first name, birth date
+     * (yyyy-mm-dd) or ID of a matching patient. Results are in name order and
+     * the cursor of a page is the ID of its last patient, so paging is stable
+     * and no patient information appears in the cursor.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @param query the search terms or null for all patients
+     * @param cursor the cursor of the page or null for the first page
+     * @param limit the largest number of patients on the page
+     * @return the page of patients or null if results are missing or the
+     * cursor is not valid
+     */
+    public static PatientPage searchPatients(int clinicId,
+            Object referenceCharacters, String query, String cursor, int limit) {
+        Roster current = getRoster(clinicId, referenceCharacters);
+        if (current == null) {
+            return null;
+        }
+        Integer cursorPatientId = null;
+        if ((cursor != null) && !cursor.isEmpty()) {
+            try {
+                cursorPatientId = Integer.parseInt(cursor);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        ArrayList<Patient> patients = current.getSearchIndex()
+                .search(query, cursorPatientId, limit);
+        if (patients == null) {
+            return null;
+        }
+        PatientPage page = new PatientPage();
+        if (patients.size() > limit) {
+            patients.remove(limit);
+            page.setNextCursor(Integer.toString(
+                    patients.get(limit - 1).getPatientId()));
+        }
+        page.setPatients(patients);
+        return page;
+    }
+
+    /**
+     * This method returns the patients whose names most closely match the
+     * given name, allowing for misspelling. The name may be a last name, a
+     * first name or both in either order.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @param name the name to match
+     * @param limit the largest number of patients returned
+     * @return the matching patients, closest first, or null if results are
+     * missing
+     */
+    public static ArrayList<Patient> findPatientsByName(int clinicId,
+            Object referenceCharacters, String name, int limit) {
+        Roster current = getRoster(clinicId, referenceCharacters);
+        if (current == null) {
+            return null;
+        }
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (int patientId : current.getNameIndex().search(name, limit)) {
+            Patient p = current.patientsById.get(patientId);
+            if (p != null) {
+                patients.add(p);
+            }
+        }
+        return patients;
+    }
+
+    /**
+     * This method replaces a patient in the shared list with the updated
+     * patient. If the patient's name has changed, the updated patient is moved
+     * to its place in name order. The cached decryption of the patient is
+     * removed, so the patient is decrypted again on the next load.
+     *
+     * @param updatedPatient the updated patient
+     */
+    static synchronized void updatePatient(Patient updatedPatient) {
+        decryptedPatients.remove(updatedPatient.getPatientId());
+        Roster current = roster;
+        if (current == null) {
+            return;
+        }
+        Patient existing = current.patientsById.get(updatedPatient.getPatientId());
+        if (existing == null) {
+            roster = null;
+            return;
+        }
+        boolean nameChanged
+                = !equalValues(existing.getFirstName(), updatedPatient.getFirstName())
+                || !equalValues(existing.getLastName(), updatedPatient.getLastName());
+        ArrayList<Patient> patients = new ArrayList<>(current.patients.size());
+        for (Patient p : current.patients) {
+            if (p.getPatientId() == updatedPatient.getPatientId()) {
+                if (!nameChanged) {
+                    patients.add(updatedPatient);
+                }
+            } else {
+                patients.add(p);
+            }
+        }
+        if (nameChanged) {
+            int index = Collections.binarySearch(patients, updatedPatient, NAME_ORDER);
+            patients.add((index < 0) ? -(index + 1) : index, updatedPatient);
+        }
+
+        /* the name index is updated in place rather than rebuilt */
+        PatientNameIndex nameIndex = current.nameIndex;
+        if (nameIndex != null) {
+            nameIndex.update(updatedPatient);
+        }
+        roster = new Roster(current.clinicId, patients, nameIndex);
+    }
+
+    /**
+     * This method inserts a new patient into the shared list in name order and
+     * adds the patient to the name index, so the list is not reloaded.
+     *
+     * @param clinicId the clinic ID
+     * @param newPatient the new patient
+     */
+    static synchronized void addPatient(int clinicId, Patient newPatient) {
+        Roster current = roster;
+        if ((current == null) || (current.clinicId != clinicId)) {
+            return;
+        }
+        if (current.patientsById.containsKey(newPatient.getPatientId())) {
+            roster = null;
+            return;
+        }
+        ArrayList<Patient> patients = new ArrayList<>(current.patients.size() + 1);
+        patients.addAll(current.patients);
+        int index = Collections.binarySearch(patients, newPatient, NAME_ORDER);
+        patients.add((index < 0) ? -(index + 1) : index, newPatient);
+
+        /* the name index is updated in place rather than rebuilt */
+        PatientNameIndex nameIndex = current.nameIndex;
+        if (nameIndex != null) {
+            nameIndex.update(newPatient);
+        }
+        roster = new Roster(current.clinicId, patients, nameIndex);
+    }
+
+    /**
+     * This method invalidates the shared list of patients if the given patient
+     * is inactive, since saving a new progress note reactivates the patient in
+     * the database. The list is kept for active patients, whose roster fields
+     * a progress note does not change. The cached decryptions are kept.
+     *
+     * @param patientId the patient ID
+     */
+    static synchronized void refreshIfInactive(int patientId) {
+        Roster current = roster;
+        if (current == null) {
+            return;
+        }
+        Patient existing = current.patientsById.get(patientId);
+        if ((existing == null) || (existing.getReasonForInactivity() != null)) {
+            roster = null;
+        }
+    }
+
+    /**
+     * This method returns the current roster, loading it if it has not been
+     * loaded or was invalidated.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the roster or null if the patients could not be retrieved
+     */
+    private static Roster getRoster(int clinicId, Object referenceCharacters) {
+        Roster current = roster;
+        if ((current != null) && (current.clinicId == clinicId)) {
+            return current;
+        }
+        synchronized (PatientRoster.class) {
+            current = roster;
+            if ((current == null) || (current.clinicId != clinicId)) {
+                ArrayList<EncryptedPatient> rows
+                        = PatientDataAccess.getEncryptedPatients(clinicId);
+                if (rows == null) {
+                    return null;
+                }
+                ArrayList<Patient> patients
+                        = decryptPatients(rows, (String) referenceCharacters);
+                Collections.sort(patients, NAME_ORDER);
+                current = new Roster(clinicId, patients, null);
+                roster = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * This method decrypts the given rows, reusing the cached decryption of
+     * each row that has not changed since it was last decrypted. The cache is
+     * replaced so that it holds only the given rows.
+     *
+     * @param rows the encrypted rows
+     * @param keyString the character string
+     * @return the decrypted patients
+     */
+    private static ArrayList<Patient> decryptPatients(
+            ArrayList<EncryptedPatient> rows, String keyString) {
+        HashMap<Integer, DecryptedPatient> decrypted = new HashMap<>();
+        ArrayList<Patient> patients = new ArrayList<>(rows.size());
+        for (EncryptedPatient row : rows) {
+            DecryptedPatient cached = decryptedPatients.get(row.getPatientId());
+            if ((cached == null) || !cached.row.sameAs(row)) {
+                cached = new DecryptedPatient(row, decrypt(row, keyString));
+            }
+            decrypted.put(row.getPatientId(), cached);
+            patients.add(cached.patient);
+        }
+        decryptedPatients = decrypted;
+        return patients;
+    }
+
+    /**
+     * Returns the patient decrypted from the given row
+     *
+     * @param row the encrypted row
+     * @param keyString the character string
+     * @return the decrypted patient
+     */
+    private static Patient decrypt(EncryptedPatient row, String keyString) {
+        Patient p = new Patient();
+        p.setPatientId(row.getPatientId());
+        p.setFirstName(decryptField(row, EncryptedPatient.FIRST_NAME, keyString));
+        p.setLastName(decryptField(row, EncryptedPatient.LAST_NAME, keyString));
+        p.setBirthDate(toDate(decryptField(row, EncryptedPatient.BIRTH_DATE,
+                keyString)));
+        p.setAddress(decryptField(row, EncryptedPatient.ADDRESS, keyString));
+        p.setContactNumber(decryptField(row, EncryptedPatient.CONTACT_NUMBER,
+                keyString));
+        p.setGender(decryptField(row, EncryptedPatient.GENDER, keyString));
+        p.setRace(decryptField(row, EncryptedPatient.RACE, keyString));
+        p.setEmailAddress(decryptField(row, EncryptedPatient.EMAIL_ADDRESS,
+                keyString));
+        p.setLanguage(row.getLanguage());
+        p.setReasonForInactivity(row.getReasonForInactivity());
+        p.setStartDate(toDate(decryptField(row, EncryptedPatient.START_DATE,
+                keyString)));
+        return p;
+    }
+
+    /**
+     * Returns the decrypted value of a field
+     *
+     * @param row the encrypted row
+     * @param index the index of the field
+     * @param keyString the character string
+     * @return the decrypted value or null if the field is not set
+     */
+    private static String decryptField(EncryptedPatient row, int index,
+            String keyString) {
+        return AesDecryptor.decrypt(row.getEncryptedField(index), keyString);
+    }
+
+    /**
+     * Returns the date for a decrypted yyyy-mm-dd value
+     *
+     * @param value the decrypted value
+     * @return the date or null if the value is not a date
+     */
+    private static Date toDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if both values are null or equal
+     *
+     * @param first the first value
+     * @param second the second value
+     * @return true if the values are equal, false otherwise
+     */
+    private static boolean equalValues(String first, String second) {
+        return (first == null) ? (second == null) : first.equals(second);
+    }
+
+    /**
+     * This class holds a patient decrypted from an encrypted row.
+     */
+    private static class DecryptedPatient {
+
+        /**
+         * The encrypted row
+         */
+        private final EncryptedPatient row;
+
+        /**
+         * The decrypted patient
+         */
+        private final Patient patient;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param row the encrypted row
+         * @param patient the decrypted patient
+         */
+        private DecryptedPatient(EncryptedPatient row, Patient patient) {
+            this.row = row;
+            this.patient = patient;
+        }
+    }
+
+    /**
+     * This class holds a loaded list of patients and the index of patients by
+     * ID.
+     */
+    private static class Roster {
+
+        /**
+         * The clinic ID
+         */
+        private final int clinicId;
+
+        /**
+         * The list of patients
+         */
+        private final ArrayList<Patient> patients;
+
+        /**
+         * The patients by ID
+         */
+        private final HashMap<Integer, Patient> patientsById;
+
+        /**
+         * The search index, built when the roster is first searched
+         */
+        private volatile PatientSearchIndex searchIndex;
+
+        /**
+         * The name index, built when names are first matched and carried over
+         * to the rosters replacing this one
+         */
+        private volatile PatientNameIndex nameIndex;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param clinicId the clinic ID
+         * @param patients the list of patients
+         * @param nameIndex the name index of the patients or null to build it
+         * when needed
+         */
+        private Roster(int clinicId, ArrayList<Patient> patients,
+                PatientNameIndex nameIndex) {
+            this.clinicId = clinicId;
+            this.patients = patients;
+            this.nameIndex = nameIndex;
+            patientsById = new HashMap<>();
+            for (Patient p : patients) {
+                patientsById.put(p.getPatientId(), p);
+            }
+        }
+
+        /**
+         * Returns the search index of the roster, building it if necessary
+         *
+         * @return the search index
+         */
+        private PatientSearchIndex getSearchIndex() {
+            PatientSearchIndex index = searchIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = searchIndex;
+                    if (index == null) {
+                        index = new PatientSearchIndex(patients, NAME_ORDER);
+                        searchIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Returns the name index of the roster, building it if necessary
+         *
+         * @return the name index
+         */
+        private PatientNameIndex getNameIndex() {
+            PatientNameIndex index = nameIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = nameIndex;
+                    if (index == null) {
+                        index = new PatientNameIndex(patients);
+                        nameIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * This comparator orders patients by last name and then first name,
+     * ignoring case.
+     */
+    private static class NameComparator implements Comparator<Patient> {
+
+        @Override
+        public int compare(Patient first, Patient second) {
+            int result = compareNames(first.getLastName(), second.getLastName());
+            if (result == 0) {
+                result = compareNames(first.getFirstName(), second.getFirstName());
+            }
+            return result;
+        }
+
+        /**
+         * Compares two names ignoring case, with missing names first
+         *
+         * @param first the first name
+         * @param second the second name
+         * @return the comparison result
+         */
+        private int compareNames(String first, String second) {
+            if (first == null) {
+                return (second == null) ? 0 : -1;
+            }
+            if (second == null) {
+                return 1;
+            }
+            return first.compareToIgnoreCase(second);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import registry.Patient;
+
+/**
+ * This class indexes a list of patients for prefix search on last name, first
+ * name, birth date and patient ID. The patients are held in a fixed order, by
+ * name and then ID, and each search term is matched by binary search over the
+ * sorted keys, so a search examines only the patients whose keys share the
+ * prefix. Pages of results are taken in the fixed order after a cursor
+ * patient.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+class PatientSearchIndex {
+
+    /**
+     * The patients in search result order
+     */
+    private final Patient[] ordered;
+
+    /**
+     * The positions of the patients in the result order by patient ID
+     */
+    private final HashMap<Integer, Integer> positionsById;
+
+    /**
+     * The sorted search keys
+     */
+    private final String[] keys;
+
+    /**
+     * The result order position of the patient for each key
+     */
+    private final int[] keyPositions;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param patients the list of patients
+     * @param nameOrder the order of patients by name
+     */
+    PatientSearchIndex(ArrayList<Patient> patients, Comparator<Patient> nameOrder) {
+        ordered = patients.toArray(new Patient[patients.size()]);
+        Arrays.sort(ordered, new ResultComparator(nameOrder));
+        positionsById = new HashMap<>();
+        ArrayList<Key> entries = new ArrayList<>(ordered.length * 4);
+        for (int i = 0; i < ordered.length; i++) {
+            Patient p = ordered[i];
+            positionsById.put(p.getPatientId(), i);
+            addKey(entries, p.getLastName(), i);
+            addKey(entries, p.getFirstName(), i);
+            if (p.getBirthDate() != null) {
+                addKey(entries, p.getBirthDate().toString(), i);
+            }
+            addKey(entries, Integer.toString(p.getPatientId()), i);
+        }
+        Key[] sorted = entries.toArray(new Key[entries.size()]);
+        Arrays.sort(sorted, new KeyComparator());
+        keys = new String[sorted.length];
+        keyPositions = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key;
+            keyPositions[i] = sorted[i].position;
+        }
+    }
+
+    /**
+     * This method returns a page of patients matching every term of the
+     * query. A term matches a patient if it begins the patient's last name,
+     * first name, birth date or ID, ignoring case. An empty query matches all
+     * patients.
+     *
+     * @param query the search terms separated by spaces or commas
+     * @param cursorPatientId the ID of the last patient of the previous page
+     * or null for the first page
+     * @param limit the largest number of patients returned
+     * @return the patients of the page in result order, with one more patient
+     * than the limit if further pages exist, or null if the cursor patient is
+     * not in the index
+     */
+    ArrayList<Patient> search(String query, Integer cursorPatientId, int limit) {
+        int start = 0;
+        if (cursorPatientId != null) {
+            Integer cursorPosition = positionsById.get(cursorPatientId);
+            if (cursorPosition == null) {
+                return null;
+            }
+            start = cursorPosition + 1;
+        }
+
+        ArrayList<Patient> page = new ArrayList<>(limit + 1);
+        String[] terms = splitTerms(query);
+        if (terms.length == 0) {
+            for (int i = start; (i < ordered.length) && (page.size() <= limit); i++) {
+                page.add(ordered[i]);
+            }
+            return page;
+        }
+
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = match(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+        }
+        for (int i = matches.nextSetBit(start); (i >= 0) && (page.size() <= limit);
+                i = matches.nextSetBit(i + 1)) {
+            page.add(ordered[i]);
+        }
+        return page;
+    }
+
+    /**
+     * This method finds the patients with a key beginning with the term.
+     *
+     * @param term the lower-case search term
+     * @return the result order positions of the matching patients
+     */
+    private BitSet match(String term) {
+        BitSet matches = new BitSet(ordered.length);
+        int i = Arrays.binarySearch(keys, term);
+        if (i < 0) {
+            i = -(i + 1);
+        }
+        while ((i < keys.length) && keys[i].startsWith(term)) {
+            matches.set(keyPositions[i]);
+            i++;
+        }
+        return matches;
+    }
+
+    /**
+     * This method splits a query into lower-case terms.
+     *
+     * @param query the query
+     * @return the terms
+     */
+    private static String[] splitTerms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        String trimmed = query.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.isEmpty()) {
+            return new String[0];
+        }
+        return trimmed.split("[\\s,]+");
+    }
+
+    /**
+     * This method adds a search key for a patient.
+     *
+     * @param entries the keys
+     * @param value the value to be searched
+     * @param position the result order position of the patient
+     */
+    private static void addKey(ArrayList<Key> entries, String value, int position) {
+        if ((value != null) && !value.isEmpty()) {
+            entries.add(new Key(value.toLowerCase(Locale.ROOT), position));
+        }
+    }
+
+    /**
+     * This class holds a search key and the position of its patient.
+     */
+    private static class Key {
+
+        /**
+         * The lower-case key
+         */
+        private final String key;
+
+        /**
+         * The result order position of the patient
+         */
+        private final int position;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param key the lower-case key
+         * @param position the result order position of the patient
+         */
+        private Key(String key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    /**
+     * This comparator orders search keys alphabetically.
+     */
+    private static class KeyComparator implements Comparator<Key> {
+
+        @Override
+        public int compare(Key first, Key second) {
+            return first.key.compareTo(second.key);
+        }
+    }
+
+    /**
+     * This comparator orders patients by name and then by ID so that every
+     * patient has a fixed place in the search results.
+     */
+    private static class ResultComparator implements Comparator<Patient> {
+
+        /**
+         * The order of patients by name
+         */
+        private final Comparator<Patient> nameOrder;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param nameOrder the order of patients by name
+         */
+        private ResultComparator(Comparator<Patient> nameOrder) {
+            this.nameOrder = nameOrder;
+        }
+
+        @Override
+        public int compare(Patient first, Patient second) {
+            int result = nameOrder.compare(first, second);
+            if (result == 0) {
+                result = Integer.compare(first.getPatientId(), second.getPatientId());
+            }
+            return result;
+        }
+    }
+}
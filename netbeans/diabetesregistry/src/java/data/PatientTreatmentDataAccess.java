@@ -74,6 +74,7 @@ public class PatientTreatmentDataAccess {
             cs.executeBatch();
             connection.commit();
             connection.setAutoCommit(true);
+            PopulationStatisticsSnapshot.invalidate();
 
         } catch (SQLException ex) {
             try {
@@ -102,11 +103,29 @@ public class PatientTreatmentDataAccess {
      * missing
      */
     public static TreatmentHistory getTreatments(Integer patientId) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        try {
+            return getTreatments(connection, patientId);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
+
+    /**
+     * This method gets the treatment history of a patient using the given
+     * connection. The connection is not freed by this method.
+     *
+     * @param connection the connection
+     * @param patientId the patient id
+     * @return the treatment history of the patient or null if results are
+     * missing
+     */
+    static TreatmentHistory getTreatments(Connection connection,
+            Integer patientId) {
         TreatmentHistory treatments = new TreatmentHistory();
         ArrayList<Therapy> therapies = new ArrayList<>();
         ArrayList<Medication> medications = new ArrayList<>();
-        ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
         CallableStatement cs = null;
         ResultSet rs = null;
 
@@ -166,7 +185,6 @@ public class PatientTreatmentDataAccess {
         } finally {
             DatabaseUtility.closeResultSet(rs);
             DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
         }
         return treatments;
     }
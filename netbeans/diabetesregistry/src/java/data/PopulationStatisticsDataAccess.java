@@ -31,7 +31,8 @@ import utility.DatabaseUtility;
 
 /**
  * This class connects to the database to retrieve patient population
- * statistics.
+ * statistics. The statistics are read from the statistics snapshot tables,
+ * which are recomputed by the refreshStatisticsSnapshot method.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
@@ -43,22 +44,19 @@ public class PopulationStatisticsDataAccess {
      * of the clinic population.
      *
      * @param clinicId the clinic ID
-     * @param referenceCharacters the character string
      * @return the demographic statistics or null if results are missing
      */
-    public static DemographicData getDemographicData(int clinicId,
-            Object referenceCharacters) {
+    public static DemographicData getDemographicData(int clinicId) {
         DemographicData demographicData = new DemographicData();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
+        Connection connection = pool.getReadConnection();
         CallableStatement cs = null;
         ResultSet rs = null;
 
         try {
-            cs = connection.prepareCall("{CALL getDemographics(?, ?, ?)}");
+            cs = connection.prepareCall("{CALL getDemographics(?, ?)}");
             cs.setInt(1, clinicId);
-            cs.setString(2, (String) referenceCharacters);
-            cs.registerOutParameter(3, java.sql.Types.TINYINT);
+            cs.registerOutParameter(2, java.sql.Types.TINYINT);
 
             /* number of patients and demographic percentages */
             boolean success = cs.execute();
@@ -121,7 +119,7 @@ public class PopulationStatisticsDataAccess {
         Stats glycemicStatsByClass = new Stats();
         Stats glycemicStatsByTreatment = new Stats();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
+        Connection connection = pool.getReadConnection();
         CallableStatement cs = null;
         ResultSet rs = null;
 
@@ -295,24 +293,21 @@ public class PopulationStatisticsDataAccess {
      * contains BMI data for females.
      *
      * @param clinicId the clinic ID
-     * @param referenceCharacters the character string
      * @return the body mass statistics or null if results are missing
      */
-    public static Stats[] getBodyMassStatistics(int clinicId,
-            Object referenceCharacters) {
+    public static Stats[] getBodyMassStatistics(int clinicId) {
         Stats[] bmiStats = new Stats[2];
         Stats maleBmi = new Stats();
         Stats femaleBmi = new Stats();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
+        Connection connection = pool.getReadConnection();
         CallableStatement cs = null;
         ResultSet rs = null;
 
         try {
-            cs = connection.prepareCall("{CALL getBodyMassStatistics(?, ?, ?)}");
+            cs = connection.prepareCall("{CALL getBodyMassStatistics(?, ?)}");
             cs.setInt(1, clinicId);
-            cs.setString(2, (String) referenceCharacters);
-            cs.registerOutParameter(3, java.sql.Types.TINYINT);
+            cs.registerOutParameter(2, java.sql.Types.TINYINT);
 
             /* BMI averages */
             boolean success = cs.execute();
@@ -463,23 +458,20 @@ public class PopulationStatisticsDataAccess {
      * category.
      *
      * @param clinicId the clinic ID
-     * @param referenceCharacters the character string
      * @return the treatment statistics or null if results are missing
      */
-    public static Stats getTreatmentStatistics(int clinicId,
-            Object referenceCharacters) {
+    public static Stats getTreatmentStatistics(int clinicId) {
         Stats treatmentStats = new Stats();
         ArrayList<ArrayList<CategoricalValue>> groups = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
-        Connection connection = pool.getConnection();
+        Connection connection = pool.getReadConnection();
         CallableStatement cs = null;
         ResultSet rs = null;
 
         try {
-            cs = connection.prepareCall("{CALL getTreatmentStatistics(?, ?, ?)}");
+            cs = connection.prepareCall("{CALL getTreatmentStatistics(?, ?)}");
             cs.setInt(1, clinicId);
-            cs.setString(2, (String) referenceCharacters);
-            cs.registerOutParameter(3, java.sql.Types.TINYINT);
+            cs.registerOutParameter(2, java.sql.Types.TINYINT);
 
             /* average change in A1C by treatment class */
             ArrayList<CategoricalValue> a1cChanges = new ArrayList<>();
@@ -1708,4 +1700,47 @@ public class PopulationStatisticsDataAccess {
 
         return treatmentStats;
     }
+
+    /**
+     * This method recomputes the statistics snapshot of the clinic population.
+     * The snapshot is left unchanged if it was refreshed less than the given
+     * number of seconds ago.
+     *
+     * @param clinicId the clinic ID
+     * @param maximumAge the maximum age in seconds of a snapshot to keep
+     * @param referenceCharacters the character string
+     * @return the boolean indicating refresh success or failure
+     */
+    public static boolean refreshStatisticsSnapshot(int clinicId, int maximumAge,
+            Object referenceCharacters) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.getConnection();
+        CallableStatement cs = null;
+
+        try {
+            cs = connection.prepareCall("{CALL refreshStatisticsSnapshot(?, ?, ?, ?)}");
+            cs.setInt(1, clinicId);
+            cs.setInt(2, maximumAge);
+            cs.setString(3, (String) referenceCharacters);
+            cs.registerOutParameter(4, java.sql.Types.TINYINT);
+
+            /* no result set to return */
+            cs.execute();
+
+            /* grab out parameter */
+            boolean success = cs.getBoolean(4);
+            if (!success) {
+                return false;
+            }
+
+        } catch (SQLException ex) {
+            Logger.getLogger(PopulationStatisticsDataAccess.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the refreshStatisticsSnapshot method.", ex);
+            return false;
+        } finally {
+            DatabaseUtility.closeCallableStatement(cs);
+            pool.freeConnection(connection);
+        }
+        return true;
+    }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import registry.DemographicData;
+import registry.Stats;
+
+/**
+ * This class serves the clinic population statistics from the statistics
+ * snapshot held in the database, so the statistics page does not recompute
+ * over the full clinic on every request. The snapshot is created by the first
+ * request finding none, and is recomputed in the background when patient data
+ * changes or the snapshot grows old. Because the snapshot is stored in the
+ * database, every server running the application reads the same values.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class PopulationStatisticsSnapshot {
+
+    /**
+     * The maximum age in seconds of a snapshot before it is recomputed
+     */
+    private static final int MAXIMUM_AGE = 15 * 60;
+
+    /**
+     * The delay in seconds between a change to patient data and the refresh
+     * of the snapshot
+     */
+    private static final long REFRESH_DELAY = 5;
+
+    /**
+     * The lock preventing concurrent creation of a missing snapshot
+     */
+    private static final Object CREATE_LOCK = new Object();
+
+    /**
+     * The clinic ID of the last statistics request
+     */
+    private static Integer snapshotClinicId = null;
+
+    /**
+     * The character string of the last statistics request
+     */
+    private static Object snapshotReferenceCharacters = null;
+
+    /**
+     * The time in milliseconds this server last refreshed the snapshot
+     */
+    private static long lastRefreshTime = 0;
+
+    /**
+     * Indicates whether a refresh of the snapshot is scheduled
+     */
+    private static boolean refreshScheduled = false;
+
+    /**
+     * Indicates whether the scheduled refresh must recompute a snapshot that
+     * has not reached the maximum age
+     */
+    private static boolean refreshForced = false;
+
+    /**
+     * The executor running the snapshot refreshes
+     */
+    private static ScheduledExecutorService refreshExecutor = null;
+
+    /**
+     * This method returns the demographic data of the clinic population from
+     * the snapshot, creating the snapshot if necessary.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the demographic statistics or null if results are missing
+     */
+    public static DemographicData getDemographicData(int clinicId,
+            Object referenceCharacters) {
+        checkAge(clinicId, referenceCharacters);
+        DemographicData demographicData
+                = PopulationStatisticsDataAccess.getDemographicData(clinicId);
+        if ((demographicData == null)
+                && createSnapshot(clinicId, referenceCharacters)) {
+            demographicData
+                    = PopulationStatisticsDataAccess.getDemographicData(clinicId);
+        }
+        return demographicData;
+    }
+
+    /**
+     * This method returns the glycemic control statistics from the snapshot,
+     * creating the snapshot if necessary.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the glycemic control statistics or null if results are missing
+     */
+    public static Stats[] getGlycemicControl(int clinicId,
+            Object referenceCharacters) {
+        checkAge(clinicId, referenceCharacters);
+        Stats[] glycemicStats
+                = PopulationStatisticsDataAccess.getGlycemicControl(clinicId);
+        if ((glycemicStats == null)
+                && createSnapshot(clinicId, referenceCharacters)) {
+            glycemicStats
+                    = PopulationStatisticsDataAccess.getGlycemicControl(clinicId);
+        }
+        return glycemicStats;
+    }
+
+    /**
+     * This method returns the body mass statistics from the snapshot, creating
+     * the snapshot if necessary.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the body mass statistics or null if results are missing
+     */
+    public static Stats[] getBodyMassStatistics(int clinicId,
+            Object referenceCharacters) {
+        checkAge(clinicId, referenceCharacters);
+        Stats[] bmiStats
+                = PopulationStatisticsDataAccess.getBodyMassStatistics(clinicId);
+        if ((bmiStats == null)
+                && createSnapshot(clinicId, referenceCharacters)) {
+            bmiStats = PopulationStatisticsDataAccess.getBodyMassStatistics(clinicId);
+        }
+        return bmiStats;
+    }
+
+    /**
+     * This method returns the treatment statistics from the snapshot, creating
+     * the snapshot if necessary.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return the treatment statistics or null if results are missing
+     */
+    public static Stats getTreatmentStatistics(int clinicId,
+            Object referenceCharacters) {
+        checkAge(clinicId, referenceCharacters);
+        Stats treatmentStats
+                = PopulationStatisticsDataAccess.getTreatmentStatistics(clinicId);
+        if ((treatmentStats == null)
+                && createSnapshot(clinicId, referenceCharacters)) {
+            treatmentStats
+                    = PopulationStatisticsDataAccess.getTreatmentStatistics(clinicId);
+        }
+        return treatmentStats;
+    }
+
+    /**
+     * This method schedules a refresh of the snapshot after patient data has
+     * changed, so changes made in quick succession are combined into a single
+     * recomputation. The data entry procedures mark the snapshot outdated in
+     * the database, and a request reaching any server before the refresh has
+     * run creates the snapshot again.
+     */
+    static synchronized void invalidate() {
+        refreshForced = true;
+        scheduleRefresh();
+    }
+
+    /**
+     * This method stops the refresh thread. It is called when the application
+     * is shut down.
+     */
+    public static synchronized void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+        refreshScheduled = false;
+        refreshForced = false;
+    }
+
+    /**
+     * This method records the clinic and character string used to refresh the
+     * snapshot and schedules a refresh if this server has not refreshed the
+     * snapshot within the maximum age. A snapshot refreshed more recently by
+     * another server is kept.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     */
+    private static synchronized void checkAge(int clinicId,
+            Object referenceCharacters) {
+        snapshotClinicId = clinicId;
+        snapshotReferenceCharacters = referenceCharacters;
+        if (System.currentTimeMillis() - lastRefreshTime > MAXIMUM_AGE * 1000L) {
+            lastRefreshTime = System.currentTimeMillis();
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * This method creates the snapshot when none was found. Concurrent
+     * requests wait for a single computation, and a snapshot created while a
+     * request was waiting is kept.
+     *
+     * @param clinicId the clinic ID
+     * @param referenceCharacters the character string
+     * @return true if the snapshot exists after the call
+     */
+    private static boolean createSnapshot(int clinicId, Object referenceCharacters) {
+        synchronized (CREATE_LOCK) {
+            synchronized (PopulationStatisticsSnapshot.class) {
+                lastRefreshTime = System.currentTimeMillis();
+            }
+            return PopulationStatisticsDataAccess.refreshStatisticsSnapshot(
+                    clinicId, MAXIMUM_AGE, referenceCharacters);
+        }
+    }
+
+    /**
+     * This method schedules a refresh on the refresh thread unless one is
+     * already scheduled or no statistics have been requested.
+     */
+    private static synchronized void scheduleRefresh() {
+        if (refreshScheduled || (snapshotClinicId == null)) {
+            return;
+        }
+        refreshScheduled = true;
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new RefreshThreadFactory());
+        }
+        refreshExecutor.schedule(new Refresh(), REFRESH_DELAY, TimeUnit.SECONDS);
+    }
+
+    /**
+     * This method recomputes the snapshot. It runs on the refresh thread.
+     */
+    private static void refresh() {
+        int clinicId;
+        Object referenceCharacters;
+        int maximumAge;
+        synchronized (PopulationStatisticsSnapshot.class) {
+            refreshScheduled = false;
+            clinicId = snapshotClinicId;
+            referenceCharacters = snapshotReferenceCharacters;
+            maximumAge = refreshForced ? 0 : MAXIMUM_AGE;
+            refreshForced = false;
+            lastRefreshTime = System.currentTimeMillis();
+        }
+        PopulationStatisticsDataAccess.refreshStatisticsSnapshot(clinicId,
+                maximumAge, referenceCharacters);
+    }
+
+    /**
+     * This task refreshes the snapshot.
+     */
+    private static class Refresh implements Runnable {
+
+        @Override
+        public void run() {
+            refresh();
+        }
+    }
+
+    /**
+     * This factory creates the daemon thread that refreshes the snapshot.
+     */
+    private static class RefreshThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "population-statistics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
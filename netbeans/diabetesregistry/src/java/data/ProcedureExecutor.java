@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import utility.DatabaseUtility;
+
+/**
+ * This class executes stored procedures and maps their result sets using row
+ * mappers. It performs the statement preparation, parameter binding, row
+ * iteration and cleanup shared by the data access classes. It serves the
+ * procedures that return a single result set and report success by returning
+ * it. Procedures returning several result sets, reporting success through the
+ * out parameter, or writing data are still called directly by their data
+ * access classes.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+class ProcedureExecutor {
+
+    /**
+     * This method calls a stored procedure returning a single result set and
+     * maps each row to an object. The procedure's parameters are bound in the
+     * given order and are followed by a TINYINT out parameter. The connection
+     * is not freed by this method.
+     *
+     * @param <T> the type of object created from each row
+     * @param connection the connection
+     * @param procedureCall the escaped procedure call
+     * @param mapper the row mapper
+     * @param methodName the name of the calling method used in log messages
+     * @param parameters the procedure parameters
+     * @return the list of mapped rows or null if results are missing
+     */
+    static <T> ArrayList<T> getList(Connection connection, String procedureCall,
+            RowMapper<T> mapper, String methodName, Object... parameters) {
+        ArrayList<T> results = getRows(connection, procedureCall, mapper,
+                methodName, parameters);
+        if (results == null || results.isEmpty()) {
+            return null;
+        } else {
+            return results;
+        }
+    }
+
+    /**
+     * This method calls a stored procedure returning a single result set and
+     * maps its last row to an object. The procedure's parameters are bound as
+     * in the getList method. The connection is not freed by this method.
+     *
+     * @param <T> the type of object created from the row
+     * @param connection the connection
+     * @param procedureCall the escaped procedure call
+     * @param mapper the row mapper
+     * @param methodName the name of the calling method used in log messages
+     * @param parameters the procedure parameters
+     * @return the object mapped from the last row or null if results are
+     * missing
+     */
+    static <T> T getObject(Connection connection, String procedureCall,
+            RowMapper<T> mapper, String methodName, Object... parameters) {
+        ArrayList<T> results = getRows(connection, procedureCall, mapper,
+                methodName, parameters);
+        if (results == null || results.isEmpty()) {
+            return null;
+        } else {
+            return results.get(results.size() - 1);
+        }
+    }
+
+    /**
+     * This method calls a stored procedure returning a single result set and
+     * maps each row to an object. Unlike the getList method, an empty result
+     * set produces an empty list. The connection is not freed by this method.
+     *
+     * @param <T> the type of object created from each row
+     * @param connection the connection
+     * @param procedureCall the escaped procedure call
+     * @param mapper the row mapper
+     * @param methodName the name of the calling method used in log messages
+     * @param parameters the procedure parameters
+     * @return the list of mapped rows or null if the procedure fails
+     */
+    static <T> ArrayList<T> getRows(Connection connection, String procedureCall,
+            RowMapper<T> mapper, String methodName, Object... parameters) {
+        ArrayList<T> results;
+        CallableStatement cs = null;
+        ResultSet rs = null;
+
+        try {
+            cs = connection.prepareCall(procedureCall);
+            for (int i = 0; i < parameters.length; i++) {
+                cs.setObject(i + 1, parameters[i]);
+            }
+            cs.registerOutParameter(parameters.length + 1, java.sql.Types.TINYINT);
+
+            /* reads true if result set exists */
+            boolean success = cs.execute();
+            if (!success) {
+                return null;
+            }
+
+            rs = cs.getResultSet();
+            results = readRows(rs, mapper);
+
+        } catch (SQLException ex) {
+            Logger.getLogger(ProcedureExecutor.class.getName()).log(Level.SEVERE,
+                    "An exception occurred during the " + methodName + " method.", ex);
+            return null;
+        } finally {
+            DatabaseUtility.closeResultSet(rs);
+            DatabaseUtility.closeCallableStatement(cs);
+        }
+
+        return results;
+    }
+
+    /**
+     * This method maps each row of a result set to an object. The result set
+     * is not closed by this method.
+     *
+     * @param <T> the type of object created from each row
+     * @param rs the result set
+     * @param mapper the row mapper
+     * @return the list of mapped rows or null if the result set is empty
+     * @throws SQLException if the rows cannot be read
+     */
+    static <T> ArrayList<T> mapRows(ResultSet rs, RowMapper<T> mapper)
+            throws SQLException {
+        ArrayList<T> results = readRows(rs, mapper);
+        if (results.isEmpty()) {
+            return null;
+        } else {
+            return results;
+        }
+    }
+
+    /**
+     * This method maps each row of a result set to an object, locating the
+     * mapper's columns once before the first row.
+     *
+     * @param <T> the type of object created from each row
+     * @param rs the result set
+     * @param mapper the row mapper
+     * @return the list of mapped rows, empty if the result set is empty
+     * @throws SQLException if the rows cannot be read
+     */
+    private static <T> ArrayList<T> readRows(ResultSet rs, RowMapper<T> mapper)
+            throws SQLException {
+        ArrayList<T> results = new ArrayList<>();
+        int[] columns = mapper.findColumns(rs);
+        while (rs.next()) {
+            results.add(mapper.mapRow(rs, columns));
+        }
+        return results;
+    }
+}
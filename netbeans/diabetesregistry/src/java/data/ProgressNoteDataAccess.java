@@ -38,6 +38,12 @@ import utility.DatabaseUtility;
  */
 public class ProgressNoteDataAccess {
 
+    /**
+     * The mapper for progress note dates
+     */
+    private static final RowMapper<Date> PROGRESS_DATE_MAPPER
+            = new ProgressDateMapper();
+
     /**
      * This method returns the progress note of a given patient for a given
      * date.
@@ -452,6 +458,10 @@ public class ProgressNoteDataAccess {
             if (!success) {
                 return false;
             }
+
+            /* a new note reactivates an inactive patient */
+            PatientRoster.refreshIfInactive(noteToSave.getPatient().getPatientId());
+            PopulationStatisticsSnapshot.invalidate();
         } catch (SQLException ex) {
             Logger.getLogger(ProgressNoteDataAccess.class.getName()).log(Level.SEVERE,
                     "An exception occurred during the saveProgressNote method.", ex);
@@ -470,38 +480,32 @@ public class ProgressNoteDataAccess {
      * @return the list of progress note dates or null if results are missing
      */
     public static ArrayList<Date> getProgressDates(int patientId) {
-        ArrayList<Date> progressDates = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
         try {
-            cs = connection.prepareCall("{CALL getProgressDates(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.TINYINT);
+            return ProcedureExecutor.getRows(connection,
+                    "{CALL getProgressDates(?, ?)}", PROGRESS_DATE_MAPPER,
+                    "getProgressDates", patientId);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
 
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
+    /**
+     * This class maps rows of progress note dates.
+     */
+    private static class ProgressDateMapper extends RowMapper<Date> {
 
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date progressDate = rs.getDate("date created");
-                progressDates.add(progressDate);
-            }
+        /**
+         * Default constructor
+         */
+        private ProgressDateMapper() {
+            super("date created");
+        }
 
-        } catch (SQLException ex) {
-            Logger.getLogger(ProgressNoteDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getProgressDates method.", ex);
-            return null;
-        } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
+        @Override
+        protected Date mapRow(ResultSet rs, int[] columns) throws SQLException {
+            return rs.getDate(columns[0]);
         }
-        return progressDates;
     }
 }
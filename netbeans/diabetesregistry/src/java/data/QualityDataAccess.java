@@ -36,6 +36,24 @@ import utility.DatabaseUtility;
  */
 public class QualityDataAccess {
 
+    /**
+     * The mapper for checklist dates
+     */
+    private static final RowMapper<Date> CHECKLIST_DATE_MAPPER
+            = new ChecklistDateMapper();
+
+    /**
+     * The mapper for accomplished checklist items
+     */
+    private static final RowMapper<QualityReference> CHECKLIST_ITEM_MAPPER
+            = new ChecklistItemMapper();
+
+    /**
+     * The mapper for the most recent checklist items
+     */
+    private static final RowMapper<CategoricalResult> RECENT_CHECKLIST_ITEM_MAPPER
+            = new RecentChecklistItemMapper();
+
     /**
      * This method connects to the database to save accomplished checklist items
      * for a patient.
@@ -89,42 +107,15 @@ public class QualityDataAccess {
      * @return the list of checklist dates or null if results are missing
      */
     public static ArrayList<Date> getChecklistDates(int patientId) {
-        ArrayList<Date> checklistDates = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
         try {
-            cs = connection.prepareCall("{CALL getChecklistDates(?, ?)}");
-            cs.setInt(1, patientId);
-            cs.registerOutParameter(2, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                Date d = rs.getDate("date");
-                checklistDates.add(d);
-            }
-            if (checklistDates.isEmpty()) {
-                return null;
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(QualityDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getChecklistDates method.", ex);
-            return null;
+            return ProcedureExecutor.getList(connection,
+                    "{CALL getChecklistDates(?, ?)}", CHECKLIST_DATE_MAPPER,
+                    "getChecklistDates", patientId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-        return checklistDates;
     }
 
     /**
@@ -139,48 +130,15 @@ public class QualityDataAccess {
      */
     public static ArrayList<QualityReference> getChecklistItems(int patientId,
             Date date, int clinicId) {
-        ArrayList<QualityReference> checklistItems = new ArrayList<>();
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
         try {
-            cs = connection.prepareCall("{CALL getChecklistItems(?, ?, ?, ?)}");
-            cs.setInt(1, patientId);
-            cs.setDate(2, date);
-            cs.setInt(3, clinicId);
-            cs.registerOutParameter(4, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                QualityReference qr = new QualityReference();
-                String role = rs.getString("role");
-                String responsibility = rs.getString("responsibility");
-                qr.setRole(role);
-                qr.setResponsibility(responsibility);
-                checklistItems.add(qr);
-            }
-            if (checklistItems.isEmpty()) {
-                return null;
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(QualityDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getChecklistItems method.", ex);
-            return null;
+            return ProcedureExecutor.getList(connection,
+                    "{CALL getChecklistItems(?, ?, ?, ?)}", CHECKLIST_ITEM_MAPPER,
+                    "getChecklistItems", patientId, date, clinicId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-        return checklistItems;
     }
 
     /**
@@ -194,48 +152,87 @@ public class QualityDataAccess {
      */
     public static ArrayList<CategoricalResult> getMostRecentChecklistItems(int patientId,
             int clinicId) {
-        ArrayList<CategoricalResult> checklistItems = new ArrayList<>();
+        ArrayList<CategoricalResult> rows;
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-
         try {
-            cs = connection.prepareCall("{CALL getMostRecentChecklistItems(?, ?, ?)}");
-            cs.setInt(1, patientId);
-            cs.setInt(2, clinicId);
-            cs.registerOutParameter(3, java.sql.Types.INTEGER);
-
-            /* reads true if result set exists */
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
-
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                CategoricalResult cr = new CategoricalResult();
-                Date date = rs.getDate("date recorded");
-                String responsibility = rs.getString("responsibility");
-                cr.setDateRecorded(date);
-                cr.setCategory(responsibility);
-                if (!checklistItems.contains(cr)) {
-                    checklistItems.add(cr);
-                }
-            }
-            if (checklistItems.isEmpty()) {
-                return null;
-            }
-
-        } catch (SQLException ex) {
-            Logger.getLogger(QualityDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred during the getMostRecentChecklistItems method.", ex);
-            return null;
+            rows = ProcedureExecutor.getList(connection,
+                    "{CALL getMostRecentChecklistItems(?, ?, ?)}",
+                    RECENT_CHECKLIST_ITEM_MAPPER, "getMostRecentChecklistItems",
+                    patientId, clinicId);
         } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
+        if (rows == null) {
+            return null;
+        }
+
+        ArrayList<CategoricalResult> checklistItems = new ArrayList<>();
+        for (CategoricalResult cr : rows) {
+            if (!checklistItems.contains(cr)) {
+                checklistItems.add(cr);
+            }
+        }
         return checklistItems;
     }
+
+    /**
+     * This class maps rows of checklist dates.
+     */
+    private static class ChecklistDateMapper extends RowMapper<Date> {
+
+        /**
+         * Default constructor
+         */
+        private ChecklistDateMapper() {
+            super("date");
+        }
+
+        @Override
+        protected Date mapRow(ResultSet rs, int[] columns) throws SQLException {
+            return rs.getDate(columns[0]);
+        }
+    }
+
+    /**
+     * This class maps rows of accomplished checklist items.
+     */
+    private static class ChecklistItemMapper extends RowMapper<QualityReference> {
+
+        /**
+         * Default constructor
+         */
+        private ChecklistItemMapper() {
+            super("role", "responsibility");
+        }
+
+        @Override
+        protected QualityReference mapRow(ResultSet rs, int[] columns) throws SQLException {
+            QualityReference qr = new QualityReference();
+            qr.setRole(rs.getString(columns[0]));
+            qr.setResponsibility(rs.getString(columns[1]));
+            return qr;
+        }
+    }
+
+    /**
+     * This class maps rows of the most recent checklist items.
+     */
+    private static class RecentChecklistItemMapper extends RowMapper<CategoricalResult> {
+
+        /**
+         * Default constructor
+         */
+        private RecentChecklistItemMapper() {
+            super("date recorded", "responsibility");
+        }
+
+        @Override
+        protected CategoricalResult mapRow(ResultSet rs, int[] columns) throws SQLException {
+            CategoricalResult cr = new CategoricalResult();
+            cr.setDateRecorded(rs.getDate(columns[0]));
+            cr.setCategory(rs.getString(columns[1]));
+            return cr;
+        }
+    }
 }
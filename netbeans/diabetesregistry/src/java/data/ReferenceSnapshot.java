@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import registry.ReferenceContainer;
+
+/**
+ * This class holds the current reference container shared by all requests.
+ * Each reload builds a complete container with the next version number and
+ * then replaces the current one in a single step, so readers never lock and
+ * never see a partly loaded container. If a reload fails, the previous
+ * container remains current.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ReferenceSnapshot {
+
+    /**
+     * The current reference container or null if none has been loaded
+     */
+    private static volatile ReferenceContainer current = null;
+
+    /**
+     * The version of the most recently loaded reference container
+     */
+    private static long version = 0;
+
+    /**
+     * This method returns the current reference container, loading it if
+     * necessary. The returned container and the objects it holds must be
+     * treated as read-only. It is the only source of the references for
+     * servlets and pages.
+     *
+     * @return the reference container or null if the references could not be
+     * retrieved
+     */
+    public static ReferenceContainer getReferences() {
+        ReferenceContainer rc = current;
+        if (rc != null) {
+            return rc;
+        }
+        synchronized (ReferenceSnapshot.class) {
+            if (current == null) {
+                reload();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * This method loads the references from the database and replaces the
+     * current reference container. It is called after the references are
+     * changed by an administrator.
+     *
+     * @return the current reference container, which is the previous container
+     * or null if the references could not be retrieved
+     */
+    public static synchronized ReferenceContainer reload() {
+        ReferenceContainer rc = ReferencesDataAccess.getReferenceContainer(version + 1);
+        if (rc != null) {
+            version = rc.getVersion();
+            current = rc;
+        }
+        return current;
+    }
+}
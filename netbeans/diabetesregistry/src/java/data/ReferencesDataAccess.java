@@ -51,10 +51,10 @@ public class ReferencesDataAccess {
      * This method collects various references from the database and returns
      * them in a ReferenceContainer object.
      *
+     * @param version the version given to the reference container
      * @return the reference container or null if results are missing
      */
-    public static ReferenceContainer getReferenceContainer() {
-        ReferenceContainer rc = new ReferenceContainer();
+    public static ReferenceContainer getReferenceContainer(long version) {
         ArrayList<QualityReference> qualityReferences = new ArrayList<>();
         ArrayList<Therapy> therapies = new ArrayList<>();
         ArrayList<Medication> medications = new ArrayList<>();
@@ -70,6 +70,7 @@ public class ReferencesDataAccess {
         ArrayList<String> languages = new ArrayList<>();
         ArrayList<String> reasonsForInactivity = new ArrayList<>();
         ArrayList<String> emailMessageSubjects = new ArrayList<>();
+        HealthyTargetReference healthyTargets = new HealthyTargetReference();
         noteTopics.add("Patient");
         noteTopics.add("A1C");
         noteTopics.add("Glucose");
@@ -128,7 +129,6 @@ public class ReferencesDataAccess {
                 qr.setResponsibility(rs.getString("responsibility"));
                 qualityReferences.add(qr);
             }
-            rc.setQualityReferences(qualityReferences);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -145,7 +145,6 @@ public class ReferencesDataAccess {
                 th.setTherapyType(rs.getString("therapy type"));
                 therapies.add(th);
             }
-            rc.setTherapies(therapies);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -163,7 +162,6 @@ public class ReferencesDataAccess {
                 m.setMedicationClass(rs.getString("med class"));
                 medications.add(m);
             }
-            rc.setMedications(medications);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -181,7 +179,6 @@ public class ReferencesDataAccess {
                 psr.setProposedActions(rs.getString("proposed actions"));
                 psychologicalScreeningReferences.add(psr);
             }
-            rc.setPsychologicalScreeningReferences(psychologicalScreeningReferences);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -198,7 +195,6 @@ public class ReferencesDataAccess {
                 t.setDefinition(rs.getString("definition"));
                 telephoneFollowUpDefinitions.add(t);
             }
-            rc.setTelephoneFollowUpDefinitions(telephoneFollowUpDefinitions);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -215,7 +211,6 @@ public class ReferencesDataAccess {
                 th.setDefinition(rs.getString("definition"));
                 footExamRiskDefinitions.add(th);
             }
-            rc.setFootExamRiskDefinitions(footExamRiskDefinitions);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -232,7 +227,6 @@ public class ReferencesDataAccess {
                 e.setDefinition(rs.getString("definition"));
                 eyeExamDefinitions.add(e);
             }
-            rc.setEyeExamDefinitions(eyeExamDefinitions);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -250,7 +244,6 @@ public class ReferencesDataAccess {
                 clinic.setPhoneNumber(rs.getString("phone number"));
                 clinic.setEmailAddress(rs.getString("email"));
             }
-            rc.setClinic(clinic);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -268,7 +261,6 @@ public class ReferencesDataAccess {
                 }
             }
             StringUtility.sortStrings(noteTopics);
-            rc.setNoteTopics(noteTopics);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -285,7 +277,6 @@ public class ReferencesDataAccess {
                     languages.add(s);
                 }
             }
-            rc.setLanguages(languages);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -302,7 +293,6 @@ public class ReferencesDataAccess {
                     reasonsForInactivity.add(s);
                 }
             }
-            rc.setReasonsForInactivity(reasonsForInactivity);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -319,7 +309,6 @@ public class ReferencesDataAccess {
                     emailMessageSubjects.add(s);
                 }
             }
-            rc.setEmailMessageSubjects(emailMessageSubjects);
 
             DatabaseUtility.closeResultSet(rs);
 
@@ -329,7 +318,6 @@ public class ReferencesDataAccess {
                 return null;
             }
 
-            HealthyTargetReference healthyTargets = new HealthyTargetReference();
             BigDecimal outOfRange = new BigDecimal(10000);
             rs = cs.getResultSet();
             while (rs.next()) {
@@ -559,7 +547,6 @@ public class ReferencesDataAccess {
                         break;
                 }
             }
-            rc.setHealthyTargets(healthyTargets);
 
         } catch (SQLException ex) {
             Logger.getLogger(ReferencesDataAccess.class.getName()).log(Level.SEVERE,
@@ -570,6 +557,10 @@ public class ReferencesDataAccess {
             DatabaseUtility.closeCallableStatement(cs);
             pool.freeConnection(connection);
         }
-        return rc;
+        return new ReferenceContainer(version, qualityReferences, therapies,
+                medications, psychologicalScreeningReferences,
+                telephoneFollowUpDefinitions, footExamRiskDefinitions,
+                eyeExamDefinitions, clinic, noteTopics, languages,
+                reasonsForInactivity, emailMessageSubjects, healthyTargets);
     }
 }
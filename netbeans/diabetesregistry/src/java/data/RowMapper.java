@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class maps a row of a result set to an object. The columns read by the
+ * mapper are named when the mapper is created and are located once per result
+ * set, so each row is read by column index rather than by label. Mappers hold
+ * no state between rows and may be shared by all threads.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ * @param <T> the type of object created from each row
+ */
+public abstract class RowMapper<T> {
+
+    /**
+     * The labels of the columns read by this mapper
+     */
+    private final String[] columnLabels;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param columnLabels the labels of the columns read by this mapper in the
+     * order their indexes are passed to the mapRow method
+     */
+    protected RowMapper(String... columnLabels) {
+        this.columnLabels = columnLabels;
+    }
+
+    /**
+     * This method finds the indexes of the columns read by this mapper in the
+     * given result set.
+     *
+     * @param rs the result set
+     * @return the column indexes in the order of the column labels
+     * @throws SQLException if a column is not found
+     */
+    int[] findColumns(ResultSet rs) throws SQLException {
+        int[] columns = new int[columnLabels.length];
+        for (int i = 0; i < columnLabels.length; i++) {
+            columns[i] = rs.findColumn(columnLabels[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * This method creates an object from the current row of the result set.
+     *
+     * @param rs the result set positioned at the row
+     * @param columns the column indexes in the order of the column labels
+     * @return the object created from the row
+     * @throws SQLException if the row cannot be read
+     */
+    protected abstract T mapRow(ResultSet rs, int[] columns) throws SQLException;
+}
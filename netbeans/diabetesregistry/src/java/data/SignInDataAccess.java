@@ -154,39 +154,43 @@ public class SignInDataAccess {
     public static User getUser(String userName) {
         ConnectionPool pool = ConnectionPool.getInstance();
         Connection connection = pool.getConnection();
-        CallableStatement cs = null;
-        ResultSet rs = null;
-        User user = null;
-
         try {
-            cs = connection.prepareCall("{CALL getUser(?, ?)}");
-            cs.setString(1, userName);
-            cs.registerOutParameter(2, java.sql.Types.INTEGER);
+            return ProcedureExecutor.getObject(connection, "{CALL getUser(?, ?)}",
+                    new UserMapper(userName), "getUser", userName);
+        } finally {
+            pool.freeConnection(connection);
+        }
+    }
 
-            boolean success = cs.execute();
-            if (!success) {
-                return null;
-            }
+    /**
+     * This class maps rows of users signing in.
+     */
+    private static class UserMapper extends RowMapper<User> {
 
-            rs = cs.getResultSet();
-            while (rs.next()) {
-                user = new User();
-                user.setUserName(userName);
-                user.setFirstName(rs.getString("first name"));
-                user.setLastName(rs.getString("last name"));
-                user.setJobTitle(rs.getString("job title"));
-                user.setAdministrator(rs.getBoolean("administrator"));
-            }
+        /**
+         * The user name
+         */
+        private final String userName;
 
-        } catch (SQLException e) {
-            Logger.getLogger(SignInDataAccess.class.getName()).log(Level.SEVERE,
-                    "An exception occurred duing the getUser method.", e);
-            return null;
-        } finally {
-            DatabaseUtility.closeResultSet(rs);
-            DatabaseUtility.closeCallableStatement(cs);
-            pool.freeConnection(connection);
+        /**
+         * Parameterized constructor
+         *
+         * @param userName the user name
+         */
+        private UserMapper(String userName) {
+            super("first name", "last name", "job title", "administrator");
+            this.userName = userName;
+        }
+
+        @Override
+        protected User mapRow(ResultSet rs, int[] columns) throws SQLException {
+            User user = new User();
+            user.setUserName(userName);
+            user.setFirstName(rs.getString(columns[0]));
+            user.setLastName(rs.getString(columns[1]));
+            user.setJobTitle(rs.getString(columns[2]));
+            user.setAdministrator(rs.getBoolean(columns[3]));
+            return user;
         }
-        return user;
     }
 }
@@ -0,0 +1,581 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * This Filter implementation compresses text responses with gzip or deflate
+ * when the browser accepts it. Only character output written through the
+ * response writer, such as pages, JSON and CSV files, is compressed, so the
+ * charts and PDF documents written as bytes are sent unchanged. The first
+ * bytes of a response are held until the minimum size is reached, and the
+ * rest is compressed as it is written rather than after the whole page is
+ * buffered. Every response of a compressible type, compressed or not, is
+ * marked to vary by Accept-Encoding so that shared caches keep the variants
+ * apart.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class CompressionFilter implements Filter {
+
+    /**
+     * Debug status
+     */
+    private static final boolean debug = false;
+
+    /**
+     * The smallest response in bytes that is compressed
+     */
+    private static final int MINIMUM_SIZE = 1024;
+
+    /**
+     * The content types that are compressed
+     */
+    private static final String[] COMPRESSIBLE_TYPES = {"text/html",
+        "text/plain", "text/csv", "text/xml", "application/json",
+        "application/xml"};
+
+    /**
+     * The filter configuration object we are associated with. If this value is
+     * null, this filter instance is not currently configured.
+     */
+    private FilterConfig filterConfig = null;
+
+    /**
+     * Default constructor
+     */
+    public CompressionFilter() {
+    }
+
+    /**
+     * This filter method selects the encoding accepted by the browser and
+     * wraps the response so that its text is compressed. Responses to
+     * browsers accepting no encoding are wrapped as well, so they carry the
+     * Vary header.
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest hRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String encoding = selectEncoding(hRequest.getHeader("Accept-Encoding"));
+        CompressionResponse compressionResponse
+                = new CompressionResponse(httpResponse, encoding);
+        try {
+            chain.doFilter(request, compressionResponse);
+        } finally {
+            compressionResponse.finish();
+        }
+    }
+
+    /**
+     * This method selects gzip or deflate from an Accept-Encoding header,
+     * preferring the encoding with the higher quality value and gzip when the
+     * values are equal.
+     *
+     * @param acceptEncoding the header value
+     * @return the encoding or null if neither is accepted
+     */
+    private String selectEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzip = 0;
+        double deflate = 0;
+        double other = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (name) {
+                case "gzip":
+                    gzip = quality;
+                    break;
+                case "deflate":
+                    deflate = quality;
+                    break;
+                case "*":
+                    other = quality;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if ((gzip == 0) && (deflate == 0) && (other > 0)) {
+            gzip = other;
+        }
+        if ((gzip > 0) && (gzip >= deflate)) {
+            return "gzip";
+        }
+        return (deflate > 0) ? "deflate" : null;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    @Override
+    public void destroy() {
+        filterConfig = null;
+    }
+
+    /**
+     * Init method for this filter
+     *
+     * @param filterConfig the filter configuration object
+     */
+    @Override
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        if (filterConfig != null) {
+            if (debug) {
+                log("CompressionFilter:Initializing filter");
+            }
+        }
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("CompressionFilter()");
+        }
+        StringBuilder sb = new StringBuilder("CompressionFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+
+    /**
+     * The message logger method
+     *
+     * @param msg the message
+     */
+    public void log(String msg) {
+        filterConfig.getServletContext().log(msg);
+    }
+
+    /**
+     * This response wrapper passes the text written to its writer through a
+     * compression stream.
+     */
+    private static class CompressionResponse
+            extends HttpServletResponseWrapper {
+
+        /**
+         * The selected encoding or null if none is accepted
+         */
+        private final String encoding;
+
+        /**
+         * The compression stream or null if the writer has not been requested
+         */
+        private CompressionStream stream = null;
+
+        /**
+         * The writer or null if the writer has not been requested
+         */
+        private PrintWriter writer = null;
+
+        /**
+         * Indicates whether the byte output stream has been requested
+         */
+        private boolean outputStreamUsed = false;
+
+        /**
+         * The content length set by the application or -1 if none was set
+         */
+        private int contentLength = -1;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param response the response
+         * @param encoding the selected encoding or null if none is accepted
+         */
+        private CompressionResponse(HttpServletResponse response,
+                String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException(
+                        "getWriter() has already been called");
+            }
+            if (!outputStreamUsed) {
+                outputStreamUsed = true;
+                if (contentLength >= 0) {
+                    super.setContentLength(contentLength);
+                }
+            }
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStreamUsed) {
+                throw new IllegalStateException(
+                        "getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                stream = new CompressionStream(this);
+                writer = new PrintWriter(new OutputStreamWriter(stream,
+                        getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+            if (outputStreamUsed
+                    || ((stream != null) && stream.isUncompressed())) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+
+                /* the encoding headers are set before the flush commits them */
+                stream.decide();
+                stream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            if (stream != null) {
+                stream.discard();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (stream != null) {
+                stream.discard();
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            discardStream();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            discardStream();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            discardStream();
+            super.sendRedirect(location);
+        }
+
+        /**
+         * This method discards the text held by the compression stream and
+         * ignores any text written afterward.
+         */
+        private void discardStream() {
+            if (stream != null) {
+                stream.abandon();
+            }
+        }
+
+        /**
+         * This method writes the remaining text once the application has
+         * finished with the response.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.close();
+                stream.close();
+            }
+        }
+
+        /**
+         * This method adds Accept-Encoding to the Vary header unless it is
+         * already present.
+         */
+        private void addVary() {
+            String vary = getHeader("Vary");
+            if (vary == null) {
+                setHeader("Vary", "Accept-Encoding");
+            } else if (!vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+                addHeader("Vary", "Accept-Encoding");
+            }
+        }
+
+        /**
+         * This method determines whether the response may be compressed
+         * based on its content type and existing encoding.
+         *
+         * @return true if the response may be compressed, false otherwise
+         */
+        private boolean isCompressible() {
+            if (containsHeader("Content-Encoding")) {
+                return false;
+            }
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            contentType = contentType.toLowerCase(Locale.ROOT);
+            for (String type : COMPRESSIBLE_TYPES) {
+                if (contentType.startsWith(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * This output stream holds the first bytes of a response until it is
+     * known whether the response is large enough to compress and then writes
+     * the bytes through a compressor or directly to the response.
+     */
+    private static class CompressionStream extends OutputStream {
+
+        /**
+         * The response being written
+         */
+        private final CompressionResponse response;
+
+        /**
+         * The bytes held until the minimum size is reached
+         */
+        private final byte[] buffer = new byte[MINIMUM_SIZE];
+
+        /**
+         * The number of bytes held
+         */
+        private int count = 0;
+
+        /**
+         * The stream receiving the bytes once the decision is made, or null
+         * before it is made
+         */
+        private OutputStream target = null;
+
+        /**
+         * The deflater used for the deflate encoding
+         */
+        private Deflater deflater = null;
+
+        /**
+         * Indicates whether the response is written without compression
+         */
+        private boolean uncompressed = false;
+
+        /**
+         * Indicates whether the stream has been closed
+         */
+        private boolean closed = false;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param response the response being written
+         */
+        private CompressionStream(CompressionResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return;
+            }
+            if (target == null) {
+                if (count + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                start(true);
+            }
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            /* bytes below the minimum size stay held until the size is known */
+            if (!closed && (target != null)) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (target == null) {
+                    start(false);
+                }
+                if (target instanceof DeflaterOutputStream) {
+                    ((DeflaterOutputStream) target).finish();
+                }
+                target.flush();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+
+        /**
+         * Indicates whether the response is written without compression
+         *
+         * @return true if the response is uncompressed, false otherwise
+         */
+        private boolean isUncompressed() {
+            return uncompressed;
+        }
+
+        /**
+         * This method decides whether to compress the response before it is
+         * committed by an explicit flush. The final size is not yet known, so
+         * the response is treated as large.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        private void decide() throws IOException {
+            if (!closed && (target == null)) {
+                start(true);
+            }
+        }
+
+        /**
+         * This method discards the bytes held if the decision to compress
+         * has not been made.
+         */
+        private void discard() {
+            if (target == null) {
+                count = 0;
+            }
+        }
+
+        /**
+         * This method closes the stream without writing the bytes held, for
+         * responses replaced by an error or a redirect.
+         */
+        private void abandon() {
+            count = 0;
+            closed = true;
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+
+        /**
+         * This method decides whether to compress the response, sets the
+         * response headers accordingly and writes the bytes held.
+         *
+         * @param large true if the response is at least the minimum size
+         * @throws IOException if an I/O error occurs
+         */
+        private void start(boolean large) throws IOException {
+            OutputStream out = response.getResponse().getOutputStream();
+            boolean compressible = response.isCompressible();
+            if (compressible) {
+                response.addVary();
+            }
+            if (large && compressible && (response.encoding != null)) {
+                response.setHeader("Content-Encoding", response.encoding);
+                if (response.encoding.equals("gzip")) {
+                    target = new GZIPOutputStream(out, 8192, true);
+                } else {
+                    deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+                    target = new DeflaterOutputStream(out, deflater, 8192, true);
+                }
+            } else {
+                uncompressed = true;
+                if (response.contentLength >= 0) {
+                    response.getResponse()
+                            .setContentLength(response.contentLength);
+                } else if (!large) {
+                    response.getResponse().setContentLength(count);
+                }
+                target = out;
+            }
+            target.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -22,10 +22,13 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
- * This Filter implementation clears the browser cache.
+ * This Filter implementation clears the browser cache. Style sheets, scripts
+ * and images are left to the StaticAssetFilter because they hold no patient
+ * information.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
@@ -37,6 +40,11 @@ public class HeadersFilter implements Filter {
      */
     private static final boolean debug = false;
 
+    /**
+     * The directories of files cached by the StaticAssetFilter
+     */
+    private static final String[] STATIC_DIRECTORIES = {"/style/", "/script/"};
+
     /**
      * The filter configuration object we are associated with. If this value is
      * null, this filter instance is not currently configured.
@@ -65,6 +73,16 @@ public class HeadersFilter implements Filter {
             throws IOException, ServletException {
 
         HttpServletResponse httpResponse = (HttpServletResponse) response;
+        HttpServletRequest hRequest = (HttpServletRequest) request;
+
+        String path = hRequest.getRequestURI()
+                .substring(hRequest.getContextPath().length());
+        for (String directory : STATIC_DIRECTORIES) {
+            if (path.startsWith(directory)) {
+                chain.doFilter(request, response);
+                return;
+            }
+        }
 
         httpResponse.setHeader("Cache-Control", "no-cache, no-store, must-revalidate"); // HTTP 1.1.
         httpResponse.setHeader("Pragma", "no-cache"); // HTTP 1.0.
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package filter;
+
+import java.io.IOException;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import utility.StaticAssets;
+
+/**
+ * This Filter implementation serves the fingerprinted style sheets, scripts
+ * and images with long-lived caching and sets the other files under the
+ * style, script and image directories to be revalidated before reuse.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class StaticAssetFilter implements Filter {
+
+    /**
+     * Debug status
+     */
+    private static final boolean debug = false;
+
+    /**
+     * The caching policy of fingerprinted files, which never change
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * The caching policy of files that may change between deployments
+     */
+    private static final String REVALIDATE = "no-cache";
+
+    /**
+     * The filter configuration object we are associated with. If this value is
+     * null, this filter instance is not currently configured.
+     */
+    private FilterConfig filterConfig = null;
+
+    /**
+     * Default constructor
+     */
+    public StaticAssetFilter() {
+    }
+
+    /**
+     * This filter method writes a fingerprinted file from memory, compressed
+     * if the browser accepts gzip, or passes other files to the default
+     * servlet. Files that are already compressed are written unchanged.
+     *
+     * @param request The servlet request we are processing
+     * @param response The servlet response we are creating
+     * @param chain The filter chain we are processing
+     *
+     * @exception IOException if an input/output error occurs
+     * @exception ServletException if a servlet error occurs
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest hRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String path = hRequest.getRequestURI()
+                .substring(hRequest.getContextPath().length());
+        StaticAssets.Asset asset = StaticAssets.getAsset(path);
+        if (asset == null) {
+            httpResponse.setHeader("Cache-Control", REVALIDATE);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        httpResponse.setHeader("Cache-Control", IMMUTABLE);
+        httpResponse.setHeader("ETag", asset.getEntityTag());
+        httpResponse.setHeader("Vary", "Accept-Encoding");
+        if (asset.getEntityTag().equals(hRequest.getHeader("If-None-Match"))) {
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] content = asset.getContent();
+        if ((asset.getGzipContent() != null)
+                && acceptsGzip(hRequest.getHeader("Accept-Encoding"))) {
+            content = asset.getGzipContent();
+            httpResponse.setHeader("Content-Encoding", "gzip");
+        }
+        if (asset.getContentType() != null) {
+            httpResponse.setContentType(asset.getContentType());
+        }
+        httpResponse.setContentLength(content.length);
+        if (!"HEAD".equals(hRequest.getMethod())) {
+            httpResponse.getOutputStream().write(content);
+        }
+    }
+
+    /**
+     * This method determines whether an Accept-Encoding header permits gzip.
+     *
+     * @param acceptEncoding the header value
+     * @return true if gzip is accepted, false otherwise
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Destroy method for this filter
+     */
+    @Override
+    public void destroy() {
+        filterConfig = null;
+    }
+
+    /**
+     * Init method for this filter
+     *
+     * @param filterConfig the filter configuration object
+     */
+    @Override
+    public void init(FilterConfig filterConfig) {
+        this.filterConfig = filterConfig;
+        if (filterConfig != null) {
+            if (debug) {
+                log("StaticAssetFilter:Initializing filter");
+            }
+        }
+    }
+
+    /**
+     * Return a String representation of this object.
+     */
+    @Override
+    public String toString() {
+        if (filterConfig == null) {
+            return ("StaticAssetFilter()");
+        }
+        StringBuilder sb = new StringBuilder("StaticAssetFilter(");
+        sb.append(filterConfig);
+        sb.append(")");
+        return (sb.toString());
+    }
+
+    /**
+     * The message logger method
+     *
+     * @param msg the message
+     */
+    public void log(String msg) {
+        filterConfig.getServletContext().log(msg);
+    }
+}
@@ -15,32 +15,43 @@
  */
 package listener;
 
-import data.ReferencesDataAccess;
+import data.EmailJobDataAccess;
+import data.PopulationStatisticsSnapshot;
+import data.ReferenceSnapshot;
 import java.security.NoSuchAlgorithmException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
-import registry.ReferenceContainer;
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.ServletRequestListener;
+import registry.EmailJobStatus;
 import utility.ConfigurationManager;
+import utility.ConnectionPool;
+import utility.EmailDispatcher;
+import utility.EmailJobListener;
 import utility.HashAndSaltUtility;
+import utility.StaticAssets;
 
 /**
  * This web application life cycle listener is used to set values used
- * throughout the application.
+ * throughout the application and to give each request the current reference
+ * container.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class DiabetesRegistryListener implements ServletContextListener {
+public class DiabetesRegistryListener implements ServletContextListener,
+        ServletRequestListener {
 
     /**
-     * This method executes when the context is initialized to set the values
-     * for the ReferenceContainer object used throughout the application, set
+     * This method executes when the context is initialized to load the
+     * ReferenceContainer object used throughout the application, set
      * the value for the string of reference characters used in the application,
-     * and to set the value for the data source JNDI name used in the
-     * application.
+     * to set the value for the data source JNDI name used in the application,
+     * to fingerprint the style sheets and scripts and to record the progress
+     * of reminder email jobs in the database.
      *
      * @param sce the servlet context event
      */
@@ -48,26 +59,79 @@ public class DiabetesRegistryListener implements ServletContextListener {
     public void contextInitialized(ServletContextEvent sce) {
         ServletContext sc = sce.getServletContext();
 
-        // setting the data source JNDI name
+        // reading the configuration file and watching it for changes
+        ConfigurationManager.initialize(sc);
+
+        // setting the data source JNDI names
         ConfigurationManager.DATASOURCE_JNDI_NAME_MAP
                 .put(ConfigurationManager.DATASOURCE_JNDI_NAME_KEY, ConfigurationManager.getDataSource(sc));
+        ConfigurationManager.DATASOURCE_JNDI_NAME_MAP
+                .put(ConfigurationManager.READ_DATASOURCE_JNDI_NAME_KEY, ConfigurationManager.getReadDataSource(sc));
 
-        // setting an attribute to hold the ReferenceContainer object
-        ReferenceContainer rc = ReferencesDataAccess.getReferenceContainer();
-        sc.setAttribute("references", rc);
+        // loading the ReferenceContainer object
+        ReferenceSnapshot.getReferences();
 
         // setting an attribute to hold the clinic number
         String referenceCharacters = ConfigurationManager.getClinicNumber(sc);        
         sc.setAttribute("referenceCharacters", referenceCharacters);
+
+        // fingerprinting the style sheets and scripts for long-lived caching
+        StaticAssets.initialize(sc);
+
+        // recording the progress of reminder email jobs
+        EmailDispatcher.setJobListener(new EmailJobRecorder());
+
+        // exposing the connection pool metrics through JMX
+        ConnectionPool.getInstance().registerMetrics();
     }
 
     /**
-     * Executes when the context is destroyed
+     * Executes when the context is destroyed to stop the email senders, the
+     * configuration file checks and the background refresh of the population
+     * statistics and to remove the connection pool metrics from JMX.
      *
      * @param sce the servlet context event
      */
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
-        /* No cleanup */
+        EmailDispatcher.shutdown();
+        ConfigurationManager.shutdown();
+        PopulationStatisticsSnapshot.shutdown();
+        ConnectionPool.getInstance().unregisterMetrics();
+    }
+
+    /**
+     * This method executes when a request begins to set the references
+     * attribute of the request to the current reference container, so the
+     * pages read the same container as the servlets.
+     *
+     * @param sre the servlet request event
+     */
+    @Override
+    public void requestInitialized(ServletRequestEvent sre) {
+        sre.getServletRequest().setAttribute("references",
+                ReferenceSnapshot.getReferences());
+    }
+
+    /**
+     * Executes when a request ends.
+     *
+     * @param sre the servlet request event
+     */
+    @Override
+    public void requestDestroyed(ServletRequestEvent sre) {
+        /* the request attributes end with the request */
+    }
+
+    /**
+     * This listener stores the progress of reminder email jobs in the
+     * database.
+     */
+    private static class EmailJobRecorder implements EmailJobListener {
+
+        @Override
+        public void jobChanged(EmailJobStatus status) {
+            EmailJobDataAccess.saveEmailJob(status);
+        }
     }
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * This class holds a series of continuous measurements in columns. Dates are
+ * stored as epoch days and values as unscaled longs sharing one scale, so a
+ * series takes a small fraction of the memory of the equivalent list of
+ * result objects. Blood pressure series hold the diastolic value in a second
+ * value column, and the flags of A1C, LDL and blood pressure results are held
+ * as bits in a flag column. Points are kept in the order they were given.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ContinuousSeries implements Serializable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 4120577239865013874L;
+
+    /**
+     * The flag of an A1C measured at the point of care
+     */
+    public static final int POINT_OF_CARE = 1;
+
+    /**
+     * The flag of an LDL measured after a myocardial infarction
+     */
+    public static final int POST_MI = 2;
+
+    /**
+     * The flag of an LDL measured while on a statin
+     */
+    public static final int ON_STATIN = 4;
+
+    /**
+     * The flag of a blood pressure measured while on an ACE inhibitor or ARB
+     */
+    public static final int ACE_OR_ARB = 8;
+
+    /**
+     * The marker for a missing date
+     */
+    private static final int MISSING_DATE = Integer.MIN_VALUE;
+
+    /**
+     * The marker for a missing value
+     */
+    private static final long MISSING_VALUE = Long.MIN_VALUE;
+
+    /**
+     * The dates of the measurements as days since the epoch
+     */
+    private final int[] epochDays;
+
+    /**
+     * The unscaled values of the measurements
+     */
+    private final long[] unscaledValues;
+
+    /**
+     * The unscaled second values of the measurements or null if the series
+     * has one value per measurement
+     */
+    private final long[] unscaledSecondValues;
+
+    /**
+     * The scale shared by the values
+     */
+    private final int scale;
+
+    /**
+     * The flags of the measurements or null if the series has no flags
+     */
+    private final byte[] flags;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param epochDays the dates of the measurements as days since the epoch
+     * @param unscaledValues the unscaled values of the measurements
+     * @param unscaledSecondValues the unscaled second values or null
+     * @param scale the scale shared by the values
+     * @param flags the flags of the measurements or null
+     */
+    private ContinuousSeries(int[] epochDays, long[] unscaledValues,
+            long[] unscaledSecondValues, int scale, byte[] flags) {
+        this.epochDays = epochDays;
+        this.unscaledValues = unscaledValues;
+        this.unscaledSecondValues = unscaledSecondValues;
+        this.scale = scale;
+        this.flags = flags;
+    }
+
+    /**
+     * This method creates a series from a list of results.
+     *
+     * @param results the list of results
+     * @return the series holding the results in the same order
+     */
+    public static ContinuousSeries fromResults(ArrayList<ContinuousResult> results) {
+        int size = results.size();
+        Date[] dates = new Date[size];
+        BigDecimal[] values = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            ContinuousResult r = results.get(i);
+            dates[i] = r.getDate();
+            values[i] = r.getValue();
+        }
+        return create(dates, values, null, null);
+    }
+
+    /**
+     * This method creates a series from a list of A1C results, flagging the
+     * point of care results.
+     *
+     * @param results the list of results
+     * @return the series holding the results in the same order
+     */
+    public static ContinuousSeries fromA1cResults(ArrayList<A1cResult> results) {
+        int size = results.size();
+        Date[] dates = new Date[size];
+        BigDecimal[] values = new BigDecimal[size];
+        byte[] resultFlags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            A1cResult r = results.get(i);
+            dates[i] = r.getDate();
+            values[i] = r.getValue();
+            resultFlags[i] = (byte) (r.getPoc() ? POINT_OF_CARE : 0);
+        }
+        return create(dates, values, null, resultFlags);
+    }
+
+    /**
+     * This method creates a series from a list of LDL results, flagging the
+     * results measured after a myocardial infarction or on a statin.
+     *
+     * @param results the list of results
+     * @return the series holding the results in the same order
+     */
+    public static ContinuousSeries fromLdlResults(ArrayList<LdlResult> results) {
+        int size = results.size();
+        Date[] dates = new Date[size];
+        BigDecimal[] values = new BigDecimal[size];
+        byte[] resultFlags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            LdlResult r = results.get(i);
+            dates[i] = r.getDate();
+            values[i] = r.getValue();
+            resultFlags[i] = (byte) ((r.getPostMi() ? POST_MI : 0)
+                    | (r.getOnStatin() ? ON_STATIN : 0));
+        }
+        return create(dates, values, null, resultFlags);
+    }
+
+    /**
+     * This method creates a series from a list of blood pressure results. The
+     * systolic values are the values of the series and the diastolic values
+     * are its second values.
+     *
+     * @param results the list of results
+     * @return the series holding the results in the same order
+     */
+    public static ContinuousSeries fromBloodPressureResults(
+            ArrayList<BloodPressureResult> results) {
+        int size = results.size();
+        Date[] dates = new Date[size];
+        BigDecimal[] values = new BigDecimal[size];
+        BigDecimal[] secondValues = new BigDecimal[size];
+        byte[] resultFlags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            BloodPressureResult r = results.get(i);
+            dates[i] = r.getDate();
+            values[i] = BigDecimal.valueOf(r.getSystolicValue());
+            secondValues[i] = BigDecimal.valueOf(r.getDiastolicValue());
+            resultFlags[i] = (byte) (r.getAceOrArb() ? ACE_OR_ARB : 0);
+        }
+        return create(dates, values, secondValues, resultFlags);
+    }
+
+    /**
+     * This method creates a series from columns of boxed dates and values.
+     *
+     * @param dates the dates
+     * @param values the values
+     * @param secondValues the second values or null
+     * @param resultFlags the flags or null
+     * @return the series
+     */
+    private static ContinuousSeries create(Date[] dates, BigDecimal[] values,
+            BigDecimal[] secondValues, byte[] resultFlags) {
+        int seriesScale = Math.max(maximumScale(values), maximumScale(secondValues));
+        int[] days = new int[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            days[i] = (dates[i] == null) ? MISSING_DATE
+                    : (int) dates[i].toLocalDate().toEpochDay();
+        }
+        return new ContinuousSeries(days, unscale(values, seriesScale),
+                unscale(secondValues, seriesScale), seriesScale, resultFlags);
+    }
+
+    /**
+     * Returns the largest scale of the given values
+     *
+     * @param values the values or null
+     * @return the largest scale or 0 if there are no values
+     */
+    private static int maximumScale(BigDecimal[] values) {
+        int maximum = 0;
+        if (values != null) {
+            for (BigDecimal value : values) {
+                if ((value != null) && (value.scale() > maximum)) {
+                    maximum = value.scale();
+                }
+            }
+        }
+        return maximum;
+    }
+
+    /**
+     * Returns the unscaled values of the given values at the given scale
+     *
+     * @param values the values or null
+     * @param seriesScale the scale
+     * @return the unscaled values or null if the values are null
+     */
+    private static long[] unscale(BigDecimal[] values, int seriesScale) {
+        if (values == null) {
+            return null;
+        }
+        long[] unscaled = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            unscaled[i] = (values[i] == null) ? MISSING_VALUE
+                    : values[i].setScale(seriesScale).unscaledValue().longValue();
+        }
+        return unscaled;
+    }
+
+    /**
+     * Returns the number of measurements in the series
+     *
+     * @return the number of measurements
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Returns the date of a measurement
+     *
+     * @param index the index of the measurement
+     * @return the date or null if the date is missing
+     */
+    public Date getDate(int index) {
+        if (epochDays[index] == MISSING_DATE) {
+            return null;
+        }
+        return Date.valueOf(LocalDate.ofEpochDay(epochDays[index]));
+    }
+
+    /**
+     * Returns the value of a measurement
+     *
+     * @param index the index of the measurement
+     * @return the value or null if the value is missing
+     */
+    public BigDecimal getValue(int index) {
+        if (unscaledValues[index] == MISSING_VALUE) {
+            return null;
+        }
+        return BigDecimal.valueOf(unscaledValues[index], scale);
+    }
+
+    /**
+     * Returns the second value of a measurement, such as the diastolic value
+     * of a blood pressure
+     *
+     * @param index the index of the measurement
+     * @return the second value or null if the value is missing
+     */
+    public BigDecimal getSecondValue(int index) {
+        if ((unscaledSecondValues == null)
+                || (unscaledSecondValues[index] == MISSING_VALUE)) {
+            return null;
+        }
+        return BigDecimal.valueOf(unscaledSecondValues[index], scale);
+    }
+
+    /**
+     * Returns true if a measurement has the given flag
+     *
+     * @param index the index of the measurement
+     * @param flag the flag
+     * @return true if the measurement has the flag, false otherwise
+     */
+    public boolean hasFlag(int index, int flag) {
+        return (flags != null) && ((flags[index] & flag) != 0);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.Serializable;
+
+/**
+ * This class holds the progress of a batch of reminder email messages.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class EmailJobStatus implements Serializable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 4471093628150837261L;
+
+    /**
+     * The job ID
+     */
+    private String id;
+
+    /**
+     * The clinic ID
+     */
+    private int clinicId;
+
+    /**
+     * The number of patients in the batch
+     */
+    private int total;
+
+    /**
+     * The number of messages sent
+     */
+    private int sentCount;
+
+    /**
+     * The number of messages that could not be sent
+     */
+    private int failedCount;
+
+    /**
+     * The number of patients skipped because of an invalid address
+     */
+    private int skippedCount;
+
+    /**
+     * Indicates whether the mail server rejected the credentials
+     */
+    private boolean authenticationFailed;
+
+    /**
+     * Indicates whether all messages have been processed
+     */
+    private boolean complete;
+
+    /**
+     * Default constructor
+     */
+    public EmailJobStatus() {
+        id = null;
+    }
+
+    /**
+     * Parameterized constructor
+     *
+     * @param id the job ID
+     * @param clinicId the clinic ID
+     * @param total the number of patients in the batch
+     * @param sentCount the number of messages sent
+     * @param failedCount the number of messages that could not be sent
+     * @param skippedCount the number of patients skipped
+     * @param authenticationFailed the indication that the credentials were
+     * rejected
+     * @param complete the indication that the job is complete
+     */
+    public EmailJobStatus(String id, int clinicId, int total, int sentCount,
+            int failedCount, int skippedCount, boolean authenticationFailed,
+            boolean complete) {
+        this.id = id;
+        this.clinicId = clinicId;
+        this.total = total;
+        this.sentCount = sentCount;
+        this.failedCount = failedCount;
+        this.skippedCount = skippedCount;
+        this.authenticationFailed = authenticationFailed;
+        this.complete = complete;
+    }
+
+    /**
+     * Get the value of id
+     *
+     * @return the value of id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Set the value of id
+     *
+     * @param id new value of id
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the value of clinicId
+     *
+     * @return the value of clinicId
+     */
+    public int getClinicId() {
+        return clinicId;
+    }
+
+    /**
+     * Set the value of clinicId
+     *
+     * @param clinicId new value of clinicId
+     */
+    public void setClinicId(int clinicId) {
+        this.clinicId = clinicId;
+    }
+
+    /**
+     * Get the value of total
+     *
+     * @return the value of total
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Set the value of total
+     *
+     * @param total new value of total
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Get the value of sentCount
+     *
+     * @return the value of sentCount
+     */
+    public int getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Set the value of sentCount
+     *
+     * @param sentCount new value of sentCount
+     */
+    public void setSentCount(int sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    /**
+     * Get the value of failedCount
+     *
+     * @return the value of failedCount
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Set the value of failedCount
+     *
+     * @param failedCount new value of failedCount
+     */
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    /**
+     * Get the value of skippedCount
+     *
+     * @return the value of skippedCount
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Set the value of skippedCount
+     *
+     * @param skippedCount new value of skippedCount
+     */
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    /**
+     * Get the value of authenticationFailed
+     *
+     * @return the value of authenticationFailed
+     */
+    public boolean isAuthenticationFailed() {
+        return authenticationFailed;
+    }
+
+    /**
+     * Set the value of authenticationFailed
+     *
+     * @param authenticationFailed new value of authenticationFailed
+     */
+    public void setAuthenticationFailed(boolean authenticationFailed) {
+        this.authenticationFailed = authenticationFailed;
+    }
+
+    /**
+     * Get the value of complete
+     *
+     * @return the value of complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Set the value of complete
+     *
+     * @param complete new value of complete
+     */
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
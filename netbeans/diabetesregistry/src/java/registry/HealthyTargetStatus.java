@@ -979,4 +979,123 @@ public class HealthyTargetStatus implements Serializable {
         this.hospitalizationOutOfTarget = hospitalizationOutOfTarget;
     }
 
+    /**
+     * This method sets the out-of-target indication of the named measurement,
+     * as named in the HealthyTargetStatus table. Unknown measurements are
+     * ignored.
+     *
+     * @param measurement the measurement name
+     * @param outOfTarget the out-of-target indication
+     */
+    public void setOutOfTarget(String measurement, boolean outOfTarget) {
+        switch (measurement) {
+            case "a1c":
+                setA1cOutOfTarget(outOfTarget);
+                break;
+            case "glucoseac":
+                setGlucoseacOutOfTarget(outOfTarget);
+                break;
+            case "glucosepc":
+                setGlucosepcOutOfTarget(outOfTarget);
+                break;
+            case "ldl":
+                setLdlOutOfTarget(outOfTarget);
+                break;
+            case "ldlpostmi":
+                setLdlPostMiOutOfTarget(outOfTarget);
+                break;
+            case "hdlmale":
+                setHdlMaleOutOfTarget(outOfTarget);
+                break;
+            case "hdlfemale":
+                setHdlFemaleOutOfTarget(outOfTarget);
+                break;
+            case "triglycerides":
+                setTriglyceridesOutOfTarget(outOfTarget);
+                break;
+            case "tsh":
+                setTshOutOfTarget(outOfTarget);
+                break;
+            case "t4":
+                setT4OutOfTarget(outOfTarget);
+                break;
+            case "uacr":
+                setUacrOutOfTarget(outOfTarget);
+                break;
+            case "egfr":
+                setEgfrOutOfTarget(outOfTarget);
+                break;
+            case "creatinine":
+                setCreatinineOutOfTarget(outOfTarget);
+                break;
+            case "bmi":
+                setBmiOutOfTarget(outOfTarget);
+                break;
+            case "waistmale":
+                setWaistMaleOutOfTarget(outOfTarget);
+                break;
+            case "waistfemale":
+                setWaistFemaleOutOfTarget(outOfTarget);
+                break;
+            case "bloodpressuresystole":
+                setSystolicBloodPressureOutOfTarget(outOfTarget);
+                break;
+            case "bloodpressurediastole":
+                setDiastolicBloodPressureOutOfTarget(outOfTarget);
+                break;
+            case "class":
+                setClassAttendanceOutOfTarget(outOfTarget);
+                break;
+            case "eye":
+                setEyeScreeningOutOfTarget(outOfTarget);
+                break;
+            case "foot":
+                setFootScreeningOutOfTarget(outOfTarget);
+                break;
+            case "psychologicalscreening":
+                setPsychologicalScreeningOutOfTarget(outOfTarget);
+                break;
+            case "physicalactivity":
+                setPhysicalActivityOutOfTarget(outOfTarget);
+                break;
+            case "influenzavaccine":
+                setInfluenzaVaccineOutOfTarget(outOfTarget);
+                break;
+            case "pcv13":
+                setPcv13VaccineOutOfTarget(outOfTarget);
+                break;
+            case "ppsv23":
+                setPpsv23VaccineOutOfTarget(outOfTarget);
+                break;
+            case "hepatitisb":
+                setHepatitisBVaccineOutOfTarget(outOfTarget);
+                break;
+            case "tdap":
+                setTdapVaccineOutOfTarget(outOfTarget);
+                break;
+            case "zoster":
+                setZosterVaccineOutOfTarget(outOfTarget);
+                break;
+            case "smoking":
+                setSmokingStatusOutOfTarget(outOfTarget);
+                break;
+            case "telephonefollowup":
+                setTelephoneFollowUpOutOfTarget(outOfTarget);
+                break;
+            case "ast":
+                setAstOutOfTarget(outOfTarget);
+                break;
+            case "alt":
+                setAltOutOfTarget(outOfTarget);
+                break;
+            case "psa":
+                setPsaOutOfTarget(outOfTarget);
+                break;
+            case "hospitalization":
+                setHospitalizationOutOfTarget(outOfTarget);
+                break;
+            default:
+                break;
+        }
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class contains the measurement histories and notes retrieved for a
+ * patient in a single batch. Results and notes are stored by history topic.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class HistoryContainer implements Serializable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = -2837465019283746510L;
+
+    /**
+     * The ID of the patient
+     */
+    private Integer patientId;
+
+    /**
+     * The map of result lists by topic
+     */
+    private HashMap<String, ArrayList<?>> results;
+
+    /**
+     * The map of note lists by topic
+     */
+    private HashMap<String, ArrayList<CategoricalResult>> notes;
+
+    /**
+     * The treatment history of the patient
+     */
+    private TreatmentHistory treatmentHistory;
+
+    /**
+     * Default constructor
+     */
+    public HistoryContainer() {
+        patientId = null;
+        results = new HashMap<>();
+        notes = new HashMap<>();
+    }
+
+    /**
+     * Parameterized constructor
+     *
+     * @param patientId the patient ID
+     */
+    public HistoryContainer(Integer patientId) {
+        this.patientId = patientId;
+        results = new HashMap<>();
+        notes = new HashMap<>();
+    }
+
+    /**
+     * Get the value of patientId
+     *
+     * @return the value of patientId
+     */
+    public Integer getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Set the value of patientId
+     *
+     * @param patientId new value of patientId
+     */
+    public void setPatientId(Integer patientId) {
+        this.patientId = patientId;
+    }
+
+    /**
+     * Get the list of results for the given topic
+     *
+     * @param <T> the type of the results
+     * @param topic the topic
+     * @param type the class of the results
+     * @return the list of results or null if results are missing
+     * @throws ClassCastException if the results of the topic are not of the
+     * given type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ArrayList<T> getResults(String topic, Class<T> type) {
+        ArrayList<?> topicResults = results.get(topic);
+        if (topicResults != null) {
+            for (Object result : topicResults) {
+                if (!type.isInstance(result)) {
+                    throw new ClassCastException("The results of " + topic
+                            + " are not of type " + type.getName() + ".");
+                }
+            }
+        }
+        return (ArrayList<T>) topicResults;
+    }
+
+    /**
+     * Set the list of results for the given topic
+     *
+     * @param topic the topic
+     * @param topicResults the list of results
+     */
+    public void setResults(String topic, ArrayList<?> topicResults) {
+        results.put(topic, topicResults);
+    }
+
+    /**
+     * Get the list of notes for the given topic
+     *
+     * @param topic the topic
+     * @return the list of notes or null if notes are missing
+     */
+    public ArrayList<CategoricalResult> getNotes(String topic) {
+        return notes.get(topic);
+    }
+
+    /**
+     * Set the list of notes for the given topic
+     *
+     * @param topic the topic
+     * @param topicNotes the list of notes
+     */
+    public void setNotes(String topic, ArrayList<CategoricalResult> topicNotes) {
+        notes.put(topic, topicNotes);
+    }
+
+    /**
+     * Get the value of treatmentHistory
+     *
+     * @return the value of treatmentHistory
+     */
+    public TreatmentHistory getTreatmentHistory() {
+        return treatmentHistory;
+    }
+
+    /**
+     * Set the value of treatmentHistory
+     *
+     * @param treatmentHistory new value of treatmentHistory
+     */
+    public void setTreatmentHistory(TreatmentHistory treatmentHistory) {
+        this.treatmentHistory = treatmentHistory;
+    }
+
+    /**
+     * Returns true if this container holds results or notes for the given
+     * topic
+     *
+     * @param topic the topic
+     * @return true if results or notes exist for the topic, false otherwise
+     */
+    public boolean hasHistory(String topic) {
+        return (results.get(topic) != null) || (notes.get(topic) != null);
+    }
+}
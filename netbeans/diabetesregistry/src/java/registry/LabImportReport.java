@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * This class contains the outcome of a laboratory result file import: the
+ * number of rows read and saved and the errors reported for rejected rows.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class LabImportReport implements Serializable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 5310486273649105823L;
+
+    /**
+     * The number of result rows read from the file
+     */
+    private int rowCount;
+
+    /**
+     * The number of result rows saved
+     */
+    private int savedRowCount;
+
+    /**
+     * The number of patient visits saved
+     */
+    private int savedVisitCount;
+
+    /**
+     * The errors reported for rejected rows
+     */
+    private ArrayList<String> errors;
+
+    /**
+     * Default constructor
+     */
+    public LabImportReport() {
+        rowCount = 0;
+        savedRowCount = 0;
+        savedVisitCount = 0;
+        errors = new ArrayList<>();
+    }
+
+    /**
+     * Get the value of rowCount
+     *
+     * @return the value of rowCount
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Set the value of rowCount
+     *
+     * @param rowCount new value of rowCount
+     */
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Get the value of savedRowCount
+     *
+     * @return the value of savedRowCount
+     */
+    public int getSavedRowCount() {
+        return savedRowCount;
+    }
+
+    /**
+     * Set the value of savedRowCount
+     *
+     * @param savedRowCount new value of savedRowCount
+     */
+    public void setSavedRowCount(int savedRowCount) {
+        this.savedRowCount = savedRowCount;
+    }
+
+    /**
+     * Get the value of savedVisitCount
+     *
+     * @return the value of savedVisitCount
+     */
+    public int getSavedVisitCount() {
+        return savedVisitCount;
+    }
+
+    /**
+     * Set the value of savedVisitCount
+     *
+     * @param savedVisitCount new value of savedVisitCount
+     */
+    public void setSavedVisitCount(int savedVisitCount) {
+        this.savedVisitCount = savedVisitCount;
+    }
+
+    /**
+     * Get the value of errors
+     *
+     * @return the value of errors
+     */
+    public ArrayList<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Set the value of errors
+     *
+     * @param errors new value of errors
+     */
+    public void setErrors(ArrayList<String> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * This method records an error for a rejected row.
+     *
+     * @param lineNumber the line number of the row in the file
+     * @param message the error message
+     */
+    public void addError(int lineNumber, String message) {
+        errors.add("Line " + lineNumber + ": " + message);
+    }
+}
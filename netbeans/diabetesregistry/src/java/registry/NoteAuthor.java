@@ -15,7 +15,10 @@
  */
 package registry;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Timestamp;
 
 /**
@@ -25,13 +28,18 @@ import java.sql.Timestamp;
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class NoteAuthor implements Serializable {
+public class NoteAuthor implements Externalizable {
     
     /**
      * Serial version UID
      */
     private static final long serialVersionUID = 4766880128638157393L;
 
+    /**
+     * The version of the compact serialized form
+     */
+    private static final int FORMAT_VERSION = 1;
+
     /**
      * The user's first name
      */
@@ -149,4 +157,37 @@ public class NoteAuthor implements Serializable {
     public void setTimeStamp(Timestamp timeStamp) {
         this.timeStamp = timeStamp;
     }
+
+    /**
+     * This method writes the note author in the compact form preceded by the
+     * format version.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        SerializationUtility.writeString(out, firstName);
+        SerializationUtility.writeString(out, lastName);
+        SerializationUtility.writeString(out, jobTitle);
+        SerializationUtility.writeTimestamp(out, timeStamp);
+    }
+
+    /**
+     * This method reads the note author written by the writeExternal method.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs or the format version is not
+     * supported
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        SerializationUtility.checkVersion(NoteAuthor.class, in.readByte(),
+                FORMAT_VERSION);
+        firstName = SerializationUtility.readString(in);
+        lastName = SerializationUtility.readString(in);
+        jobTitle = SerializationUtility.readString(in);
+        timeStamp = SerializationUtility.readTimestamp(in);
+    }
 }
@@ -15,7 +15,10 @@
  */
 package registry;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Date;
 
 /**
@@ -24,13 +27,18 @@ import java.sql.Date;
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class Patient implements Serializable {
+public class Patient implements Externalizable {
     
     /**
      * Serial version UID
      */
     private static final long serialVersionUID = 7300687260564859513L;
 
+    /**
+     * The version of the compact serialized form
+     */
+    private static final int FORMAT_VERSION = 1;
+
     /**
      * The patient ID
      */
@@ -380,4 +388,55 @@ public class Patient implements Serializable {
     public void setDateOfLastMeasurement(Date dateOfLastMeasurement) {
         this.dateOfLastMeasurement = dateOfLastMeasurement;
     }
+
+    /**
+     * This method writes the patient in the compact form preceded by the
+     * format version.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(patientId);
+        SerializationUtility.writeString(out, firstName);
+        SerializationUtility.writeString(out, lastName);
+        SerializationUtility.writeDate(out, birthDate);
+        SerializationUtility.writeString(out, address);
+        SerializationUtility.writeString(out, contactNumber);
+        SerializationUtility.writeString(out, gender);
+        SerializationUtility.writeString(out, race);
+        SerializationUtility.writeString(out, emailAddress);
+        SerializationUtility.writeString(out, language);
+        SerializationUtility.writeString(out, reasonForInactivity);
+        SerializationUtility.writeDate(out, startDate);
+        SerializationUtility.writeDate(out, dateOfLastMeasurement);
+    }
+
+    /**
+     * This method reads the patient written by the writeExternal method.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs or the format version is not
+     * supported
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        SerializationUtility.checkVersion(Patient.class, in.readByte(),
+                FORMAT_VERSION);
+        patientId = in.readInt();
+        firstName = SerializationUtility.readString(in);
+        lastName = SerializationUtility.readString(in);
+        birthDate = SerializationUtility.readDate(in);
+        address = SerializationUtility.readString(in);
+        contactNumber = SerializationUtility.readString(in);
+        gender = SerializationUtility.readString(in);
+        race = SerializationUtility.readString(in);
+        emailAddress = SerializationUtility.readString(in);
+        language = SerializationUtility.readString(in);
+        reasonForInactivity = SerializationUtility.readString(in);
+        startDate = SerializationUtility.readDate(in);
+        dateOfLastMeasurement = SerializationUtility.readDate(in);
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * This class contains one page of patients from a patient search and the
+ * cursor identifying the next page.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class PatientPage implements Serializable {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 2841907365518240193L;
+
+    /**
+     * The patients of the page
+     */
+    private ArrayList<Patient> patients;
+
+    /**
+     * The cursor of the next page or null if this is the last page
+     */
+    private String nextCursor;
+
+    /**
+     * Default constructor
+     */
+    public PatientPage() {
+        patients = new ArrayList<>();
+        nextCursor = null;
+    }
+
+    /**
+     * Get the value of patients
+     *
+     * @return the value of patients
+     */
+    public ArrayList<Patient> getPatients() {
+        return patients;
+    }
+
+    /**
+     * Set the value of patients
+     *
+     * @param patients new value of patients
+     */
+    public void setPatients(ArrayList<Patient> patients) {
+        this.patients = patients;
+    }
+
+    /**
+     * Get the value of nextCursor
+     *
+     * @return the value of nextCursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Set the value of nextCursor
+     *
+     * @param nextCursor new value of nextCursor
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -15,7 +15,10 @@
  */
 package registry;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.ArrayList;
@@ -26,13 +29,18 @@ import java.util.ArrayList;
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class ProgressNote implements Serializable {
+public class ProgressNote implements Externalizable {
     
     /**
      * Serial version UID
      */
     private static final long serialVersionUID = 7306603801429619046L;
 
+    /**
+     * The version of the compact serialized form
+     */
+    private static final int FORMAT_VERSION = 1;
+
     /**
      * The patient
      */
@@ -974,4 +982,126 @@ public class ProgressNote implements Serializable {
     public void setUpdatedBy(ArrayList<NoteAuthor> updatedBy) {
         this.updatedBy = updatedBy;
     }
+
+    /**
+     * This method writes the progress note in the compact form preceded by the
+     * format version.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeBoolean(patient != null);
+        if (patient != null) {
+            patient.writeExternal(out);
+        }
+        SerializationUtility.writeDate(out, dateCreated);
+        out.writeBoolean(medicalInsurance);
+        SerializationUtility.writeString(out, shoeSize);
+        out.writeBoolean(allergicToMedications);
+        SerializationUtility.writeString(out, allergies);
+        SerializationUtility.writeDecimal(out, weight);
+        SerializationUtility.writeInteger(out, heightFeet);
+        SerializationUtility.writeInteger(out, heightInches);
+        SerializationUtility.writeDecimal(out, weightReductionGoal);
+        SerializationUtility.writeInteger(out, pulse);
+        SerializationUtility.writeInteger(out, respirations);
+        SerializationUtility.writeDecimal(out, temperature);
+        out.writeBoolean(footScreening);
+        SerializationUtility.writeString(out, medications);
+        SerializationUtility.writeDecimal(out, a1c);
+        SerializationUtility.writeDecimal(out, glucose);
+        SerializationUtility.writeDecimal(out, waist);
+        SerializationUtility.writeInteger(out, bloodPressureSystole);
+        SerializationUtility.writeInteger(out, bloodPressureDiastole);
+        out.writeBoolean(aceOrArb);
+        SerializationUtility.writeDecimal(out, bmi);
+        SerializationUtility.writeDate(out, lastClassDate);
+        SerializationUtility.writeString(out, eyeScreeningCategory);
+        SerializationUtility.writeString(out, footScreeningCategory);
+        SerializationUtility.writeInteger(out, psychologicalScreening);
+        SerializationUtility.writeInteger(out, physicalActivity);
+        SerializationUtility.writeBoolean(out, smoking);
+        SerializationUtility.writeDecimal(out, compliance);
+        SerializationUtility.writeDate(out, hospitalizationDate);
+        SerializationUtility.writeString(out, nurseOrDietitianNote);
+        SerializationUtility.writeString(out, subjective);
+        SerializationUtility.writeString(out, objective);
+        SerializationUtility.writeString(out, assessment);
+        SerializationUtility.writeString(out, plan);
+        if (updatedBy == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(updatedBy.size());
+            for (NoteAuthor author : updatedBy) {
+                author.writeExternal(out);
+            }
+        }
+    }
+
+    /**
+     * This method reads the progress note written by the writeExternal method.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs or the format version is not
+     * supported
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        SerializationUtility.checkVersion(ProgressNote.class, in.readByte(),
+                FORMAT_VERSION);
+        if (in.readBoolean()) {
+            patient = new Patient();
+            patient.readExternal(in);
+        } else {
+            patient = null;
+        }
+        dateCreated = SerializationUtility.readDate(in);
+        medicalInsurance = in.readBoolean();
+        shoeSize = SerializationUtility.readString(in);
+        allergicToMedications = in.readBoolean();
+        allergies = SerializationUtility.readString(in);
+        weight = SerializationUtility.readDecimal(in);
+        heightFeet = SerializationUtility.readInteger(in);
+        heightInches = SerializationUtility.readInteger(in);
+        weightReductionGoal = SerializationUtility.readDecimal(in);
+        pulse = SerializationUtility.readInteger(in);
+        respirations = SerializationUtility.readInteger(in);
+        temperature = SerializationUtility.readDecimal(in);
+        footScreening = in.readBoolean();
+        medications = SerializationUtility.readString(in);
+        a1c = SerializationUtility.readDecimal(in);
+        glucose = SerializationUtility.readDecimal(in);
+        waist = SerializationUtility.readDecimal(in);
+        bloodPressureSystole = SerializationUtility.readInteger(in);
+        bloodPressureDiastole = SerializationUtility.readInteger(in);
+        aceOrArb = in.readBoolean();
+        bmi = SerializationUtility.readDecimal(in);
+        lastClassDate = SerializationUtility.readDate(in);
+        eyeScreeningCategory = SerializationUtility.readString(in);
+        footScreeningCategory = SerializationUtility.readString(in);
+        psychologicalScreening = SerializationUtility.readInteger(in);
+        physicalActivity = SerializationUtility.readInteger(in);
+        smoking = SerializationUtility.readBoolean(in);
+        compliance = SerializationUtility.readDecimal(in);
+        hospitalizationDate = SerializationUtility.readDate(in);
+        nurseOrDietitianNote = SerializationUtility.readString(in);
+        subjective = SerializationUtility.readString(in);
+        objective = SerializationUtility.readString(in);
+        assessment = SerializationUtility.readString(in);
+        plan = SerializationUtility.readString(in);
+        int authorCount = in.readInt();
+        if (authorCount < 0) {
+            updatedBy = null;
+        } else {
+            updatedBy = new ArrayList<>(authorCount);
+            for (int i = 0; i < authorCount; i++) {
+                NoteAuthor author = new NoteAuthor();
+                author.readExternal(in);
+                updatedBy.add(author);
+            }
+        }
+    }
 }
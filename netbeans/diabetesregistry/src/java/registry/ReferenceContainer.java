@@ -17,112 +17,126 @@ package registry;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * This class contains the reference information used by the application.
+ * This class contains the reference information used by the application. A
+ * reference container is never modified after it is created, so it may be
+ * shared by all requests without locking. Changed references are published by
+ * replacing the container with a new one having a higher version. Only the
+ * container and its lists and maps are unmodifiable. The clinic, the healthy
+ * targets and the list elements, such as medications, therapies and quality
+ * references, still have setters and are shared by every request, so they
+ * must never be changed once the container is created.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
 public class ReferenceContainer implements Serializable {
-    
+
     /**
      * The ID of the clinic using the diabetes registry
      */
     public static final int CLINIC_ID = 1;
-    
+
     /**
      * Serial version UID
      */
     private static final long serialVersionUID = 2383310701287041265L;
 
+    /**
+     * The version of the references, increased each time they are reloaded
+     */
+    private final long version;
+
     /**
      * The list of quality references
      */
-    private ArrayList<QualityReference> qualityReferences;
+    private final List<QualityReference> qualityReferences;
 
     /**
      * The list of therapies
      */
-    private ArrayList<Therapy> therapies;
+    private final List<Therapy> therapies;
 
     /**
      * The list of medications
      */
-    private ArrayList<Medication> medications;
+    private final List<Medication> medications;
 
     /**
      * The list of psychological screening references
      */
-    private ArrayList<PsychologicalScreeningReference> psychologicalScreeningReferences;
+    private final List<PsychologicalScreeningReference> psychologicalScreeningReferences;
 
     /**
      * The list of telephone follow-up definitions
      */
-    private ArrayList<TelephoneFollowUpDefinition> telephoneFollowUpDefinitions;
+    private final List<TelephoneFollowUpDefinition> telephoneFollowUpDefinitions;
 
     /**
      * The list of risk definitions for foot exams
      */
-    private ArrayList<FootExamRiskDefinition> footExamRiskDefinitions;
+    private final List<FootExamRiskDefinition> footExamRiskDefinitions;
 
     /**
      * The list of eye exam definitions
      */
-    private ArrayList<EyeExamDefinition> eyeExamDefinitions;
+    private final List<EyeExamDefinition> eyeExamDefinitions;
 
     /**
      * The clinic
      */
-    private Clinic clinic;
+    private final Clinic clinic;
 
     /**
      * The list of note topics
      */
-    private ArrayList<String> noteTopics;
+    private final List<String> noteTopics;
 
     /**
      * The list of languages
      */
-    private ArrayList<String> languages;
+    private final List<String> languages;
 
     /**
      * The list of reasons for inactivity
      */
-    private ArrayList<String> reasonsForInactivity;
+    private final List<String> reasonsForInactivity;
 
     /**
      * The list of email message subjects
      */
-    private ArrayList<String> emailMessageSubjects;
+    private final List<String> emailMessageSubjects;
 
     /**
      * The references for healthy targets
      */
-    private HealthyTargetReference healthyTargets;
-
-    /**
-     * Default constructor
-     */
-    public ReferenceContainer() {
-        qualityReferences = null;
-        therapies = null;
-        medications = null;
-        psychologicalScreeningReferences = null;
-        telephoneFollowUpDefinitions = null;
-        footExamRiskDefinitions = null;
-        eyeExamDefinitions = null;
-        clinic = null;
-        noteTopics = null;
-        languages = null;
-        reasonsForInactivity = null;
-        emailMessageSubjects = null;
-        healthyTargets = null;
-    }
+    private final HealthyTargetReference healthyTargets;
+
+    /**
+     * The quality references by role
+     */
+    private final Map<String, QualityReference> qualityReferencesByRole;
+
+    /**
+     * The therapies by prescription class
+     */
+    private final Map<String, Therapy> therapiesByPrescriptionClass;
+
+    /**
+     * The medications by medication ID
+     */
+    private final Map<String, Medication> medicationsById;
 
     /**
-     * Parameterized constructor
+     * Parameterized constructor. The lists are copied, so later changes to the
+     * given lists do not affect the container.
      *
+     * @param version the version of the references
      * @param qualityReferences the quality references
      * @param therapies the therapies
      * @param medications the medications
@@ -138,7 +152,8 @@ public class ReferenceContainer implements Serializable {
      * @param emailMessageSubjects the subjects for email messages
      * @param healthyTargets the healthy target references
      */
-    public ReferenceContainer(ArrayList<QualityReference> qualityReferences,
+    public ReferenceContainer(long version,
+            ArrayList<QualityReference> qualityReferences,
             ArrayList<Therapy> therapies, ArrayList<Medication> medications,
             ArrayList<PsychologicalScreeningReference> psychologicalScreeningReferences,
             ArrayList<TelephoneFollowUpDefinition> telephoneFollowUpDefinitions,
@@ -147,37 +162,54 @@ public class ReferenceContainer implements Serializable {
             Clinic clinic, ArrayList<String> noteTopics,
             ArrayList<String> languages, ArrayList<String> reasonsForInactivity,
             ArrayList<String> emailMessageSubjects, HealthyTargetReference healthyTargets) {
-        this.qualityReferences = qualityReferences;
-        this.therapies = therapies;
-        this.medications = medications;
-        this.psychologicalScreeningReferences = psychologicalScreeningReferences;
-        this.telephoneFollowUpDefinitions = telephoneFollowUpDefinitions;
-        this.footExamRiskDefinitions = footExamRiskDefinitions;
-        this.eyeExamDefinitions = eyeExamDefinitions;
+        this.version = version;
+        this.qualityReferences = copy(qualityReferences);
+        this.therapies = copy(therapies);
+        this.medications = copy(medications);
+        this.psychologicalScreeningReferences = copy(psychologicalScreeningReferences);
+        this.telephoneFollowUpDefinitions = copy(telephoneFollowUpDefinitions);
+        this.footExamRiskDefinitions = copy(footExamRiskDefinitions);
+        this.eyeExamDefinitions = copy(eyeExamDefinitions);
         this.clinic = clinic;
-        this.noteTopics = noteTopics;
-        this.languages = languages;
-        this.reasonsForInactivity = reasonsForInactivity;
-        this.emailMessageSubjects = emailMessageSubjects;
+        this.noteTopics = copy(noteTopics);
+        this.languages = copy(languages);
+        this.reasonsForInactivity = copy(reasonsForInactivity);
+        this.emailMessageSubjects = copy(emailMessageSubjects);
         this.healthyTargets = healthyTargets;
+
+        HashMap<String, QualityReference> roles = new HashMap<>();
+        for (QualityReference qr : this.qualityReferences) {
+            roles.put(qr.getRole(), qr);
+        }
+        qualityReferencesByRole = Collections.unmodifiableMap(roles);
+        HashMap<String, Therapy> prescriptionClasses = new HashMap<>();
+        for (Therapy th : this.therapies) {
+            prescriptionClasses.put(th.getPrescriptionClass(), th);
+        }
+        therapiesByPrescriptionClass = Collections.unmodifiableMap(prescriptionClasses);
+        HashMap<String, Medication> medicationIds = new HashMap<>();
+        for (Medication m : this.medications) {
+            medicationIds.put(m.getMedicationId(), m);
+        }
+        medicationsById = Collections.unmodifiableMap(medicationIds);
     }
 
     /**
-     * Get the value of therapies
+     * Get the value of version
      *
-     * @return the value of therapies
+     * @return the value of version
      */
-    public ArrayList<Therapy> getTherapies() {
-        return therapies;
+    public long getVersion() {
+        return version;
     }
 
     /**
-     * Set the value of therapies
+     * Get the value of therapies
      *
-     * @param therapies new value of therapies
+     * @return the value of therapies
      */
-    public void setTherapies(ArrayList<Therapy> therapies) {
-        this.therapies = therapies;
+    public List<Therapy> getTherapies() {
+        return therapies;
     }
 
     /**
@@ -185,111 +217,55 @@ public class ReferenceContainer implements Serializable {
      *
      * @return the value of medications
      */
-    public ArrayList<Medication> getMedications() {
+    public List<Medication> getMedications() {
         return medications;
     }
 
-    /**
-     * Set the value of medications
-     *
-     * @param medications new value of medications
-     */
-    public void setMedications(ArrayList<Medication> medications) {
-        this.medications = medications;
-    }
-
     /**
      * Get the value of psychologicalScreeningReferences
      *
      * @return the value of psychologicalScreeningReferences
      */
-    public ArrayList<PsychologicalScreeningReference> getPsychologicalScreeningReferences() {
+    public List<PsychologicalScreeningReference> getPsychologicalScreeningReferences() {
         return psychologicalScreeningReferences;
     }
 
-    /**
-     * Set the value of psychologicalScreeningReferences
-     *
-     * @param psychologicalScreeningReferences new value of
-     * psychologicalScreeningReferences
-     */
-    public void setPsychologicalScreeningReferences(ArrayList<PsychologicalScreeningReference> psychologicalScreeningReferences) {
-        this.psychologicalScreeningReferences = psychologicalScreeningReferences;
-    }
-
     /**
      * Get the value of telephoneFollowUpDefinitions
      *
      * @return the value of telephoneFollowUpDefinitions
      */
-    public ArrayList<TelephoneFollowUpDefinition> getTelephoneFollowUpDefinitions() {
+    public List<TelephoneFollowUpDefinition> getTelephoneFollowUpDefinitions() {
         return telephoneFollowUpDefinitions;
     }
 
-    /**
-     * Set the value of telephoneFollowUpDefinitions
-     *
-     * @param telephoneFollowUpDefinitions new value of
-     * telephoneFollowUpDefinitions
-     */
-    public void setTelephoneFollowUpDefinitions(ArrayList<TelephoneFollowUpDefinition> telephoneFollowUpDefinitions) {
-        this.telephoneFollowUpDefinitions = telephoneFollowUpDefinitions;
-    }
-
     /**
      * Get the value of footExamRiskDefinitions
      *
      * @return the value of footExamRiskDefinitions
      */
-    public ArrayList<FootExamRiskDefinition> getFootExamRiskDefinitions() {
+    public List<FootExamRiskDefinition> getFootExamRiskDefinitions() {
         return footExamRiskDefinitions;
     }
 
-    /**
-     * Set the value of footExamRiskDefinitions
-     *
-     * @param footExamRiskDefinitions new value of footExamRiskDefinitions
-     */
-    public void setFootExamRiskDefinitions(ArrayList<FootExamRiskDefinition> footExamRiskDefinitions) {
-        this.footExamRiskDefinitions = footExamRiskDefinitions;
-    }
-
     /**
      * Get the value of eyeExamDefinitions
      *
      * @return the value of eyeExamDefinitions
      */
-    public ArrayList<EyeExamDefinition> getEyeExamDefinitions() {
+    public List<EyeExamDefinition> getEyeExamDefinitions() {
         return eyeExamDefinitions;
     }
 
-    /**
-     * Set the value of eyeExamDefinitions
-     *
-     * @param eyeExamDefinitions new value of eyeExamDefinitions
-     */
-    public void setEyeExamDefinitions(ArrayList<EyeExamDefinition> eyeExamDefinitions) {
-        this.eyeExamDefinitions = eyeExamDefinitions;
-    }
-
     /**
      * Get the value of qualityReferences
      *
      * @return the value of qualityReferences
      */
-    public ArrayList<QualityReference> getQualityReferences() {
+    public List<QualityReference> getQualityReferences() {
         return qualityReferences;
     }
 
-    /**
-     * Set the value of qualityReferences
-     *
-     * @param qualityReferences new value of qualityReferences
-     */
-    public void setQualityReferences(ArrayList<QualityReference> qualityReferences) {
-        this.qualityReferences = qualityReferences;
-    }
-
     /**
      * Get the value of clinic
      *
@@ -299,102 +275,92 @@ public class ReferenceContainer implements Serializable {
         return clinic;
     }
 
-    /**
-     * Set the value of clinic
-     *
-     * @param clinic new value of clinic
-     */
-    public void setClinic(Clinic clinic) {
-        this.clinic = clinic;
-    }
-
     /**
      * Get the value of noteTopics
      *
      * @return the value of noteTopics
      */
-    public ArrayList<String> getNoteTopics() {
+    public List<String> getNoteTopics() {
         return noteTopics;
     }
 
-    /**
-     * Set the value of noteTopics
-     *
-     * @param noteTopics new value of noteTopics
-     */
-    public void setNoteTopics(ArrayList<String> noteTopics) {
-        this.noteTopics = noteTopics;
-    }
-
     /**
      * Get the value of languages
      *
      * @return the value of languages
      */
-    public ArrayList<String> getLanguages() {
+    public List<String> getLanguages() {
         return languages;
     }
 
     /**
-     * Set the value of languages
+     * Get the value of reasonsForInactivity
      *
-     * @param languages new value of languages
+     * @return the value of reasonsForInactivity
      */
-    public void setLanguages(ArrayList<String> languages) {
-        this.languages = languages;
+    public List<String> getReasonsForInactivity() {
+        return reasonsForInactivity;
     }
 
     /**
-     * Get the value of reasonsForInactivity
+     * Get the value of emailMessageSubjects
      *
-     * @return the value of reasonsForInactivity
+     * @return the value of emailMessageSubjects
      */
-    public ArrayList<String> getReasonsForInactivity() {
-        return reasonsForInactivity;
+    public List<String> getEmailMessageSubjects() {
+        return emailMessageSubjects;
     }
 
     /**
-     * Set the value of reasonsForInactivity
+     * Get the value of healthyTargets
      *
-     * @param reasonsForInactivity new value of reasonsForInactivity
+     * @return the value of healthyTargets
      */
-    public void setReasonsForInactivity(ArrayList<String> reasonsForInactivity) {
-        this.reasonsForInactivity = reasonsForInactivity;
+    public HealthyTargetReference getHealthyTargets() {
+        return healthyTargets;
     }
 
     /**
-     * Get the value of emailMessageSubjects
+     * Returns the quality reference for the given role
      *
-     * @return the value of emailMessageSubjects
+     * @param role the role
+     * @return the quality reference or null if the role is not found
      */
-    public ArrayList<String> getEmailMessageSubjects() {
-        return emailMessageSubjects;
+    public QualityReference getQualityReference(String role) {
+        return qualityReferencesByRole.get(role);
     }
 
     /**
-     * Set the value of emailMessageSubjects
+     * Returns the therapy for the given prescription class
      *
-     * @param emailMessageSubjects new value of emailMessageSubjects
+     * @param prescriptionClass the prescription class
+     * @return the therapy or null if the prescription class is not found
      */
-    public void setEmailMessageSubjects(ArrayList<String> emailMessageSubjects) {
-        this.emailMessageSubjects = emailMessageSubjects;
+    public Therapy getTherapy(String prescriptionClass) {
+        return therapiesByPrescriptionClass.get(prescriptionClass);
     }
 
     /**
-     * Get the value of healthyTargets
+     * Returns the medication for the given medication ID
      *
-     * @return the value of healthyTargets
+     * @param medicationId the medication ID
+     * @return the medication or null if the medication ID is not found
      */
-    public HealthyTargetReference getHealthyTargets() {
-        return healthyTargets;
+    public Medication getMedication(String medicationId) {
+        return medicationsById.get(medicationId);
     }
 
     /**
-     * Set the value of healthyTargets
+     * Returns an unmodifiable copy of the given list
      *
-     * @param healthyTargets new value of healthyTargets
-     */
-    public void setHealthyTargets(HealthyTargetReference healthyTargets) {
-        this.healthyTargets = healthyTargets;
+     * @param <T> the type of the list elements
+     * @param list the list to copy or null
+     * @return the copy of the list, empty if the list is null
+     */
+    private static <T> List<T> copy(ArrayList<T> list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(list));
     }
 }
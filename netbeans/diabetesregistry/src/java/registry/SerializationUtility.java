@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package registry;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * This class writes and reads the field values of the registry objects that
+ * are held in sessions in a compact binary form. Each value that may be null
+ * is preceded by a marker, so no class descriptors or field names are
+ * written.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+class SerializationUtility {
+
+    /**
+     * This method checks the format version read from a stream.
+     *
+     * @param type the class being read
+     * @param version the version read
+     * @param supported the highest version this class can read
+     * @throws InvalidClassException if the version is not supported
+     */
+    static void checkVersion(Class<?> type, int version, int supported)
+            throws InvalidClassException {
+        if ((version < 1) || (version > supported)) {
+            throw new InvalidClassException(type.getName(),
+                    "unsupported format version " + version);
+        }
+    }
+
+    /**
+     * This method writes a string that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeString(ObjectOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * This method reads a string that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static String readString(ObjectInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This method writes a date that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeDate(ObjectOutput out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+
+    /**
+     * This method reads a date that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static Date readDate(ObjectInput in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    /**
+     * This method writes a timestamp that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeTimestamp(ObjectOutput out, Timestamp value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+            out.writeInt(value.getNanos());
+        }
+    }
+
+    /**
+     * This method reads a timestamp that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static Timestamp readTimestamp(ObjectInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Timestamp value = new Timestamp(in.readLong());
+        value.setNanos(in.readInt());
+        return value;
+    }
+
+    /**
+     * This method writes a decimal that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeDecimal(ObjectOutput out, BigDecimal value)
+            throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    /**
+     * This method reads a decimal that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static BigDecimal readDecimal(ObjectInput in) throws IOException {
+        int length = in.readShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    /**
+     * This method writes an integer that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeInteger(ObjectOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * This method reads an integer that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static Integer readInteger(ObjectInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * This method writes a boolean that may be null.
+     *
+     * @param out the output
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeBoolean(ObjectOutput out, Boolean value) throws IOException {
+        out.writeByte((value == null) ? -1 : (value ? 1 : 0));
+    }
+
+    /**
+     * This method reads a boolean that may be null.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    static Boolean readBoolean(ObjectInput in) throws IOException {
+        byte value = in.readByte();
+        return (value < 0) ? null : (value == 1);
+    }
+}
@@ -15,7 +15,10 @@
  */
 package registry;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Timestamp;
 
 /**
@@ -24,13 +27,18 @@ import java.sql.Timestamp;
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class User implements Serializable {
+public class User implements Externalizable {
     
     /**
      * Serial version UID
      */
     private static final long serialVersionUID = -8266674184210079232L;
 
+    /**
+     * The version of the compact serialized form
+     */
+    private static final int FORMAT_VERSION = 1;
+
     /**
      * The username
      */
@@ -279,4 +287,47 @@ public class User implements Serializable {
     public void setEmailAddress(String emailAddress) {
         this.emailAddress = emailAddress;
     }
+
+    /**
+     * This method writes the user in the compact form preceded by the
+     * format version.
+     *
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        SerializationUtility.writeString(out, userName);
+        SerializationUtility.writeString(out, firstName);
+        SerializationUtility.writeString(out, lastName);
+        SerializationUtility.writeString(out, jobTitle);
+        out.writeBoolean(administrator);
+        out.writeBoolean(active);
+        SerializationUtility.writeTimestamp(out, dateJoined);
+        SerializationUtility.writeTimestamp(out, lastLogin);
+        SerializationUtility.writeString(out, emailAddress);
+    }
+
+    /**
+     * This method reads the user written by the writeExternal method.
+     *
+     * @param in the input
+     * @throws IOException if an I/O error occurs or the format version is not
+     * supported
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        SerializationUtility.checkVersion(User.class, in.readByte(),
+                FORMAT_VERSION);
+        userName = SerializationUtility.readString(in);
+        firstName = SerializationUtility.readString(in);
+        lastName = SerializationUtility.readString(in);
+        jobTitle = SerializationUtility.readString(in);
+        administrator = in.readBoolean();
+        active = in.readBoolean();
+        dateJoined = SerializationUtility.readTimestamp(in);
+        lastLogin = SerializationUtility.readTimestamp(in);
+        emailAddress = SerializationUtility.readString(in);
+    }
 }
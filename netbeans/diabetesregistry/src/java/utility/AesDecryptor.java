@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * This class decrypts values encrypted by the MySQL AES_ENCRYPT function, so
+ * encrypted columns can be decrypted in the application instead of the
+ * database. MySQL uses AES-128 in ECB mode with PKCS padding and folds the key
+ * string into 16 bytes with XOR. Each thread keeps its own cipher.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class AesDecryptor {
+
+    /**
+     * The character set of the database, latin1, which MySQL implements as
+     * windows-1252. The database script creates the database with this
+     * character set and the connection URL requests it, so procedure
+     * parameters and key strings are encoded the same way on every server.
+     */
+    private static final Charset DATABASE_CHARSET = Charset.forName("windows-1252");
+
+    /**
+     * The length in bytes of an AES-128 key
+     */
+    private static final int KEY_LENGTH = 16;
+
+    /**
+     * The cipher of each thread
+     */
+    private static final ThreadLocal<Cipher> CIPHERS = new CipherThreadLocal();
+
+    /**
+     * The most recently used key string and its key
+     */
+    private static volatile Key lastKey = null;
+
+    /**
+     * This method decrypts a value as the AES_DECRYPT function would.
+     *
+     * @param encrypted the encrypted value or null
+     * @param keyString the key string given to AES_ENCRYPT
+     * @return the decrypted value or null if the value is null or cannot be
+     * decrypted with the key
+     */
+    public static String decrypt(byte[] encrypted, String keyString) {
+        if ((encrypted == null) || (keyString == null)) {
+            return null;
+        }
+        Cipher cipher = CIPHERS.get();
+        if (cipher == null) {
+            return null;
+        }
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, getKey(keyString));
+            return new String(cipher.doFinal(encrypted), DATABASE_CHARSET);
+        } catch (GeneralSecurityException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the AES key for the given key string, folding the bytes of the
+     * string into 16 bytes as MySQL does
+     *
+     * @param keyString the key string
+     * @return the key
+     */
+    private static SecretKeySpec getKey(String keyString) {
+        Key key = lastKey;
+        if ((key != null) && key.keyString.equals(keyString)) {
+            return key.spec;
+        }
+        byte[] folded = new byte[KEY_LENGTH];
+        byte[] bytes = keyString.getBytes(DATABASE_CHARSET);
+        for (int i = 0; i < bytes.length; i++) {
+            folded[i % KEY_LENGTH] ^= bytes[i];
+        }
+        key = new Key(keyString, new SecretKeySpec(folded, "AES"));
+        lastKey = key;
+        return key.spec;
+    }
+
+    /**
+     * This class holds a key string and the AES key made from it.
+     */
+    private static class Key {
+
+        /**
+         * The key string
+         */
+        private final String keyString;
+
+        /**
+         * The AES key
+         */
+        private final SecretKeySpec spec;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param keyString the key string
+         * @param spec the AES key
+         */
+        private Key(String keyString, SecretKeySpec spec) {
+            this.keyString = keyString;
+            this.spec = spec;
+        }
+    }
+
+    /**
+     * This class creates the cipher of each thread.
+     */
+    private static class CipherThreadLocal extends ThreadLocal<Cipher> {
+
+        @Override
+        protected Cipher initialValue() {
+            try {
+                return Cipher.getInstance("AES/ECB/PKCS5Padding");
+            } catch (GeneralSecurityException ex) {
+                Logger.getLogger(AesDecryptor.class.getName()).log(Level.SEVERE,
+                        "An exception occurred in the initialValue method.", ex);
+                return null;
+            }
+        }
+    }
+}
@@ -16,6 +16,9 @@
 package utility;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import registry.Patient;
 
 /**
@@ -44,129 +47,150 @@ public class CallListUtility {
     }
 
     /**
-     * This method sorts the patients in the given list in ascending order.
-     *
-     * @param callList the list of patients in the call list
-     * @param sortBy the indicator of sort type
+     * The comparator ordering patients by last name
      */
-    public static void sortPatients(ArrayList<Patient> callList, SortType sortBy) {
+    private static final Comparator<Patient> LAST_NAME_ORDER = new LastNameComparator();
+
+    /**
+     * The comparator ordering patients by last measurement date
+     */
+    private static final Comparator<Patient> LAST_MEASUREMENT_DATE_ORDER
+            = new LastMeasurementDateComparator();
+
+    /**
+     * The comparator ordering patients by patient ID, used to make every
+     * ordering total
+     */
+    private static final Comparator<Patient> PATIENT_ID_ORDER = new PatientIdComparator();
+
+    /**
+     * The cached comparators for each sort type in ascending order. Ties on
+     * the chosen sort type are broken by the remaining sort type and then by
+     * patient ID.
+     */
+    private static final EnumMap<SortType, Comparator<Patient>> ASCENDING_ORDERS
+            = new EnumMap<>(SortType.class);
+
+    /**
+     * The cached comparators for each sort type in descending order
+     */
+    private static final EnumMap<SortType, Comparator<Patient>> DESCENDING_ORDERS
+            = new EnumMap<>(SortType.class);
 
-        int numberOfPatients = callList.size();
-        int index; 
-        int indexOfNextEarliest;
-        for (index = 0; index < numberOfPatients - 1; index++) {
-            indexOfNextEarliest = indexOfEarliest(index,
-                    callList, numberOfPatients, sortBy);
-            swap(index, indexOfNextEarliest, callList);
+    static {
+        for (SortType sortBy : SortType.values()) {
+            ArrayList<SortType> sortKeys = new ArrayList<>();
+            sortKeys.add(sortBy);
+            for (SortType other : SortType.values()) {
+                if (other != sortBy) {
+                    sortKeys.add(other);
+                }
+            }
+            Comparator<Patient> order
+                    = buildComparator(sortKeys.toArray(new SortType[sortKeys.size()]));
+            ASCENDING_ORDERS.put(sortBy, order);
+            DESCENDING_ORDERS.put(sortBy, order.reversed());
         }
     }
 
     /**
-     * This method returns the index of the earliest patient. Since the last
-     * measurement date for a patient may be null, the comparison for that sort
-     * type must handle the possibility of null dates.
+     * This method sorts the patients in the given list in ascending order.
+     * Patients without a last measurement date are placed before all others.
+     * The sort is stable and runs in O(n log n) time.
      *
-     * @param index the index
-     * @param callList the list of patients
-     * @param numberOfPatients the number of patients
+     * @param callList the list of patients in the call list
      * @param sortBy the indicator of sort type
-     * @return the index of the earliest patient
      */
-    private static int indexOfEarliest(int index,
-            ArrayList<Patient> callList, int numberOfPatients, SortType sortBy) {
-        Patient earliestPatient = callList.get(index);
-        int indexOfMin = index;
-        int i;
-        if (sortBy == SortType.LAST_NAME) {
-            for (i = index + 1; i < numberOfPatients; i++) {
-                if (callList.get(i).getLastName()
-                        .compareTo(earliestPatient.getLastName()) < 0) {
-                    earliestPatient = callList.get(i);
-                    indexOfMin = i;
-                }
-            }
-        } else if (sortBy == SortType.LAST_MEASUREMENT_DATE) {
-            for (i = index + 1; i < numberOfPatients; i++) {
-                if ((callList.get(i).getDateOfLastMeasurement() == null)
-                        || ((earliestPatient.getDateOfLastMeasurement() != null)
-                        && (callList.get(i).getDateOfLastMeasurement()
-                        .compareTo(earliestPatient.getDateOfLastMeasurement()) < 0))) {
-                    earliestPatient = callList.get(i);
-                    indexOfMin = i;
-                }
-            }
-        }
-        return indexOfMin;
+    public static void sortPatients(ArrayList<Patient> callList, SortType sortBy) {
+        Collections.sort(callList, ASCENDING_ORDERS.get(sortBy));
     }
 
     /**
      * This method sorts the patients in the given list in descending order.
+     * Patients without a last measurement date are placed after all others.
+     * The sort is stable and runs in O(n log n) time.
      *
      * @param callList the list of patients in the call list
      * @param sortBy the indicator of sort type
      */
     public static void reverseSortPatients(ArrayList<Patient> callList, SortType sortBy) {
+        Collections.sort(callList, DESCENDING_ORDERS.get(sortBy));
+    }
 
-        int numberOfPatients = callList.size();
-        int index;
-        int indexOfNextLatest;
-        for (index = 0; index < numberOfPatients - 1; index++) {
-            indexOfNextLatest = indexOfLatest(index,
-                    callList, numberOfPatients, sortBy);
-            swap(index, indexOfNextLatest, callList);
+    /**
+     * This method builds a comparator applying the given sort types in order
+     * of precedence, followed by patient ID.
+     *
+     * @param sortKeys the sort types in order of precedence
+     * @return the comparator
+     */
+    private static Comparator<Patient> buildComparator(SortType... sortKeys) {
+        Comparator<Patient> order = null;
+        for (SortType sortBy : sortKeys) {
+            Comparator<Patient> next = (sortBy == SortType.LAST_NAME)
+                    ? LAST_NAME_ORDER : LAST_MEASUREMENT_DATE_ORDER;
+            order = (order == null) ? next : order.thenComparing(next);
         }
+        return (order == null) ? PATIENT_ID_ORDER : order.thenComparing(PATIENT_ID_ORDER);
     }
 
     /**
-     * This method returns the index of the latest patient. Since the last
-     * measurement date for a patient may be null, the comparison for that sort
-     * type must handle the possibility of null dates.
+     * This method compares two values that may be null. Null values are
+     * ordered before all other values.
      *
-     * @param index the index
-     * @param callList the list of patients
-     * @param numberOfPatients the number of patients
-     * @param sortBy the indicator of sort type
-     * @return the index of the earliest patient
+     * @param <T> the type of value
+     * @param first the first value
+     * @param second the second value
+     * @return a negative integer, zero, or a positive integer as the first value
+     * is less than, equal to, or greater than the second value
      */
-    private static int indexOfLatest(int index,
-            ArrayList<Patient> callList, int numberOfPatients, SortType sortBy) {
-        Patient latestPatient = callList.get(index);
-        int indexOfMax = index;
-        int i;
-        if (sortBy == SortType.LAST_NAME) {
-            for (i = index + 1; i < numberOfPatients; i++) {
-                if (callList.get(i).getLastName()
-                        .compareTo(latestPatient.getLastName()) > 0) {
-                    latestPatient = callList.get(i);
-                    indexOfMax = i;
-                }
-            }
-        } else if (sortBy == SortType.LAST_MEASUREMENT_DATE) {
-            for (i = index + 1; i < numberOfPatients; i++) {
-                if ((latestPatient.getDateOfLastMeasurement() == null)
-                        || ((callList.get(i).getDateOfLastMeasurement() != null)
-                        && (callList.get(i).getDateOfLastMeasurement()
-                        .compareTo(latestPatient.getDateOfLastMeasurement()) > 0))) {
-                    latestPatient = callList.get(i);
-                    indexOfMax = i;
-                }
+    private static <T extends Comparable<? super T>> int compareNullsFirst(T first, T second) {
+        if (first == null) {
+            return (second == null) ? 0 : -1;
+        }
+        if (second == null) {
+            return 1;
+        }
+        return first.compareTo(second);
+    }
+
+    /**
+     * This comparator orders patients by last name and then first name.
+     */
+    private static class LastNameComparator implements Comparator<Patient> {
+
+        @Override
+        public int compare(Patient first, Patient second) {
+            int result = compareNullsFirst(first.getLastName(), second.getLastName());
+            if (result == 0) {
+                result = compareNullsFirst(first.getFirstName(), second.getFirstName());
             }
+            return result;
         }
-        return indexOfMax;
     }
 
     /**
-     * This method swaps patients in the call list.
-     *
-     * @param index index of patient to be swapped
-     * @param nextIndex the index of the next patient in order
-     * @param callList the call list
+     * This comparator orders patients by the date of the last measurement.
+     * Since the last measurement date for a patient may be null, patients
+     * without a date are ordered first.
+     */
+    private static class LastMeasurementDateComparator implements Comparator<Patient> {
+
+        @Override
+        public int compare(Patient first, Patient second) {
+            return compareNullsFirst(first.getDateOfLastMeasurement(),
+                    second.getDateOfLastMeasurement());
+        }
+    }
+
+    /**
+     * This comparator orders patients by patient ID.
      */
-    private static void swap(int index, int nextIndex,
-            ArrayList<Patient> callList) {
-        Patient temp;
-        temp = callList.get(index);
-        callList.set(index, callList.get(nextIndex));
-        callList.set(nextIndex, temp);
+    private static class PatientIdComparator implements Comparator<Patient> {
+
+        @Override
+        public int compare(Patient first, Patient second) {
+            return Integer.compare(first.getPatientId(), second.getPatientId());
+        }
     }
 }
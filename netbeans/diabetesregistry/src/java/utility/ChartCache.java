@@ -0,0 +1,380 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class holds rendered chart images shared by all sessions. Charts are
+ * stored by a key made from the chart type, the chart dimensions, and a hash
+ * of the data drawn, so identical charts requested by different users are
+ * rendered only once. The least recently used charts are removed when the
+ * cache is full.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 2, 2017
+ */
+public class ChartCache {
+
+    /**
+     * The maximum number of charts held in the cache
+     */
+    private static final int MAXIMUM_CHARTS = 256;
+
+    /**
+     * The maximum total size in bytes of the charts held in the cache
+     */
+    private static final long MAXIMUM_BYTES = 32L * 1024L * 1024L;
+
+    /**
+     * The hash algorithm used for chart keys
+     */
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * The digits used to write the key
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The rendered charts in access order
+     */
+    private static final LinkedHashMap<String, byte[]> CHARTS
+            = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The total size in bytes of the charts held in the cache
+     */
+    private static long totalBytes = 0;
+
+    /**
+     * This method creates the key identifying a chart. The key is a
+     * hexadecimal hash of the chart type, the dimensions, and the values of
+     * the data drawn in the chart, and is suitable as an entity tag. The
+     * values are read directly from the chart data objects and their fields,
+     * so the data does not have to be serialized to create the key.
+     *
+     * @param chartType the type of chart
+     * @param width the width of the chart
+     * @param height the height of the chart
+     * @param chartData the objects holding the data drawn in the chart
+     * @return the chart key or null if the key could not be created
+     */
+    public static String createKey(String chartType, int width, int height,
+            Object... chartData) {
+        try {
+            Fingerprint fingerprint = new Fingerprint(
+                    MessageDigest.getInstance(HASH_ALGORITHM));
+            fingerprint.addString(chartType);
+            fingerprint.addLong(width);
+            fingerprint.addLong(height);
+            for (Object data : chartData) {
+                fingerprint.add(data);
+            }
+            byte[] hash = fingerprint.digest();
+            char[] key = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                key[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+                key[(2 * i) + 1] = HEX_DIGITS[hash[i] & 0x0f];
+            }
+            return new String(key);
+        } catch (NoSuchAlgorithmException | IllegalAccessException ex) {
+            Logger.getLogger(ChartCache.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the createKey method.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * This method returns the rendered chart for the given key.
+     *
+     * @param key the chart key
+     * @return the PNG bytes of the chart or null if the chart is not cached
+     */
+    public static synchronized byte[] getChart(String key) {
+        return CHARTS.get(key);
+    }
+
+    /**
+     * This method stores a rendered chart, removing the least recently used
+     * charts if the cache limits are exceeded.
+     *
+     * @param key the chart key
+     * @param png the PNG bytes of the chart
+     */
+    public static synchronized void putChart(String key, byte[] png) {
+        if ((key == null) || (png == null) || (png.length > MAXIMUM_BYTES)) {
+            return;
+        }
+        byte[] previous = CHARTS.put(key, png);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+        totalBytes += png.length;
+        while ((CHARTS.size() > MAXIMUM_CHARTS) || (totalBytes > MAXIMUM_BYTES)) {
+            String eldest = CHARTS.keySet().iterator().next();
+            totalBytes -= CHARTS.remove(eldest).length;
+        }
+    }
+
+    /**
+     * This method removes all charts from the cache.
+     */
+    public static synchronized void clear() {
+        CHARTS.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * This class feeds the values of chart data objects to a message digest.
+     * Each value is preceded by a tag naming its kind, so different data
+     * cannot produce the same sequence of bytes. Objects other than strings,
+     * numbers, dates, collections, maps and arrays are read field by field.
+     */
+    private static class Fingerprint {
+
+        /**
+         * The fields read from each class of chart data object
+         */
+        private static final ConcurrentHashMap<Class<?>, Field[]> FIELDS
+                = new ConcurrentHashMap<>();
+
+        /**
+         * The digest receiving the values
+         */
+        private final MessageDigest digest;
+
+        /**
+         * The bytes added since the digest was last updated
+         */
+        private byte[] buffer = new byte[1024];
+
+        /**
+         * The number of bytes in the buffer
+         */
+        private int count = 0;
+
+        /**
+         * The objects being read, used to stop on circular references
+         */
+        private final IdentityHashMap<Object, Boolean> visiting
+                = new IdentityHashMap<>();
+
+        /**
+         * Parameterized constructor
+         *
+         * @param digest the digest receiving the values
+         */
+        private Fingerprint(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        /**
+         * Adds a value of any kind to the fingerprint
+         *
+         * @param value the value or null
+         * @throws IllegalAccessException if a field cannot be read
+         */
+        private void add(Object value) throws IllegalAccessException {
+            if (value == null) {
+                addByte((byte) 0);
+            } else if (value instanceof String) {
+                addString((String) value);
+            } else if (value instanceof BigDecimal) {
+                BigDecimal decimal = (BigDecimal) value;
+                addByte((byte) 2);
+                addBytes(decimal.unscaledValue().toByteArray());
+                addLong(decimal.scale());
+            } else if ((value instanceof Double) || (value instanceof Float)) {
+                addByte((byte) 3);
+                addLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Number) {
+                addByte((byte) 4);
+                addLong(((Number) value).longValue());
+            } else if (value instanceof Boolean) {
+                addByte((byte) (((Boolean) value) ? 5 : 6));
+            } else if (value instanceof Date) {
+                addByte((byte) 7);
+                addLong(((Date) value).getTime());
+            } else if (value instanceof Enum) {
+                addByte((byte) 8);
+                addString(((Enum<?>) value).name());
+            } else if (value instanceof Character) {
+                addByte((byte) 9);
+                addLong((Character) value);
+            } else if (visiting.put(value, Boolean.TRUE) == null) {
+                if (value instanceof Collection) {
+                    addByte((byte) 10);
+                    Collection<?> collection = (Collection<?>) value;
+                    addLong(collection.size());
+                    for (Object element : collection) {
+                        add(element);
+                    }
+                } else if (value instanceof Map) {
+                    addByte((byte) 11);
+                    Map<?, ?> map = (Map<?, ?>) value;
+                    addLong(map.size());
+                    for (Map.Entry<?, ?> entry : map.entrySet()) {
+                        add(entry.getKey());
+                        add(entry.getValue());
+                    }
+                } else if (value instanceof int[]) {
+                    addByte((byte) 12);
+                    int[] values = (int[]) value;
+                    addLong(values.length);
+                    for (int v : values) {
+                        addLong(v);
+                    }
+                } else if (value instanceof long[]) {
+                    addByte((byte) 12);
+                    long[] values = (long[]) value;
+                    addLong(values.length);
+                    for (long v : values) {
+                        addLong(v);
+                    }
+                } else if (value.getClass().isArray()) {
+                    addByte((byte) 12);
+                    int length = Array.getLength(value);
+                    addLong(length);
+                    for (int i = 0; i < length; i++) {
+                        add(Array.get(value, i));
+                    }
+                } else {
+                    addByte((byte) 13);
+                    addString(value.getClass().getName());
+                    for (Field field : getFields(value.getClass())) {
+                        add(field.get(value));
+                    }
+                }
+                visiting.remove(value);
+            } else {
+                addByte((byte) 14);
+            }
+        }
+
+        /**
+         * Adds a string to the fingerprint
+         *
+         * @param value the string
+         */
+        private void addString(String value) {
+            addByte((byte) 1);
+            addLong(value.length());
+            addBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Adds a whole number to the fingerprint
+         *
+         * @param value the number
+         */
+        private void addLong(long value) {
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[count++] = (byte) (value >>> (56 - (8 * i)));
+            }
+        }
+
+        /**
+         * Adds a single byte to the fingerprint
+         *
+         * @param value the byte
+         */
+        private void addByte(byte value) {
+            ensureCapacity(1);
+            buffer[count++] = value;
+        }
+
+        /**
+         * Adds an array of bytes to the fingerprint
+         *
+         * @param values the bytes
+         */
+        private void addBytes(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, buffer, count, values.length);
+            count += values.length;
+        }
+
+        /**
+         * Makes room in the buffer, passing its contents to the digest when it
+         * is full
+         *
+         * @param length the number of bytes to be added
+         */
+        private void ensureCapacity(int length) {
+            if (count + length > buffer.length) {
+                digest.update(buffer, 0, count);
+                count = 0;
+                if (length > buffer.length) {
+                    buffer = new byte[length];
+                }
+            }
+        }
+
+        /**
+         * Returns the hash of the values added
+         *
+         * @return the hash
+         */
+        private byte[] digest() {
+            digest.update(buffer, 0, count);
+            count = 0;
+            return digest.digest();
+        }
+
+        /**
+         * Returns the instance fields of a class and its superclasses, made
+         * accessible and cached for later use
+         *
+         * @param type the class
+         * @return the fields
+         */
+        private static Field[] getFields(Class<?> type) {
+            Field[] fields = FIELDS.get(type);
+            if (fields == null) {
+                ArrayList<Field> found = new ArrayList<>();
+                for (Class<?> c = type; (c != null) && (c != Object.class);
+                        c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            field.setAccessible(true);
+                            found.add(field);
+                        }
+                    }
+                }
+                fields = found.toArray(new Field[found.size()]);
+                FIELDS.put(type, fields);
+            }
+            return fields;
+        }
+    }
+}
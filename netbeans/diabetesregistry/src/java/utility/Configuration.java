@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.util.Objects;
+
+/**
+ * This class holds the configuration properties read from the configuration
+ * file. A Configuration object is never modified; when the file changes, a
+ * new object replaces it.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class Configuration {
+
+    /**
+     * The email host
+     */
+    private final String mailHost;
+
+    /**
+     * The clinic number
+     */
+    private final String clinicNumber;
+
+    /**
+     * The JNDI name of the data source
+     */
+    private final String dataSourceName;
+
+    /**
+     * The JNDI name of the read-only data source
+     */
+    private final String readDataSourceName;
+
+    /**
+     * The largest number of reminder email messages sent per minute
+     */
+    private final int emailsPerMinute;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param mailHost the email host
+     * @param clinicNumber the clinic number
+     * @param dataSourceName the JNDI name of the data source
+     * @param readDataSourceName the JNDI name of the read-only data source
+     * @param emailsPerMinute the largest number of reminder email messages
+     * sent per minute
+     */
+    Configuration(String mailHost, String clinicNumber, String dataSourceName,
+            String readDataSourceName, int emailsPerMinute) {
+        this.mailHost = mailHost;
+        this.clinicNumber = clinicNumber;
+        this.dataSourceName = dataSourceName;
+        this.readDataSourceName = readDataSourceName;
+        this.emailsPerMinute = emailsPerMinute;
+    }
+
+    /**
+     * Get the value of mailHost
+     *
+     * @return the value of mailHost
+     */
+    public String getMailHost() {
+        return mailHost;
+    }
+
+    /**
+     * Get the value of clinicNumber
+     *
+     * @return the value of clinicNumber
+     */
+    public String getClinicNumber() {
+        return clinicNumber;
+    }
+
+    /**
+     * Get the value of dataSourceName
+     *
+     * @return the value of dataSourceName
+     */
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * Get the value of readDataSourceName
+     *
+     * @return the value of readDataSourceName or null if none is configured
+     */
+    public String getReadDataSourceName() {
+        return readDataSourceName;
+    }
+
+    /**
+     * Get the value of emailsPerMinute
+     *
+     * @return the value of emailsPerMinute
+     */
+    public int getEmailsPerMinute() {
+        return emailsPerMinute;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Configuration)) {
+            return false;
+        }
+        Configuration other = (Configuration) obj;
+        return Objects.equals(mailHost, other.mailHost)
+                && Objects.equals(clinicNumber, other.clinicNumber)
+                && Objects.equals(dataSourceName, other.dataSourceName)
+                && Objects.equals(readDataSourceName, other.readDataSourceName)
+                && (emailsPerMinute == other.emailsPerMinute);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mailHost, clinicNumber, dataSourceName,
+                readDataSourceName, emailsPerMinute);
+    }
+}
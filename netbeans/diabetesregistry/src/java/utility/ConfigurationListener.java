@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+/**
+ * This interface is implemented by classes that must be told when the
+ * configuration file is reloaded with changed properties.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public interface ConfigurationListener {
+
+    /**
+     * This method is called after the changed configuration has replaced the
+     * previous configuration.
+     *
+     * @param previous the previous configuration
+     * @param current the changed configuration
+     */
+    void configurationChanged(Configuration previous, Configuration current);
+}
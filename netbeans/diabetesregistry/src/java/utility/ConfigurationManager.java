@@ -15,9 +15,15 @@
  */
 package utility;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.ServletContext;
@@ -32,7 +38,11 @@ import org.xml.sax.SAXException;
 
 /**
  * This class handles configuration properties needed for application
- * functionality.
+ * functionality. The configuration file is parsed once into a Configuration
+ * object which is shared by all lookups. The file is checked periodically for
+ * changes, and a changed file replaces the shared Configuration object and
+ * notifies the registered listeners. The clinic number is read once at
+ * startup, so a change to it takes effect only after a restart.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
@@ -45,10 +55,21 @@ public class ConfigurationManager {
     public static final String DATASOURCE_JNDI_NAME_KEY = "dataSourceName";
 
     /**
-     * The map holding the JNDI name for the data source
+     * The key to the read-only data source JNDI name value
+     */
+    public static final String READ_DATASOURCE_JNDI_NAME_KEY = "readDataSourceName";
+
+    /**
+     * The map holding the JNDI names for the data sources
      */
     public static final HashMap<String, String> DATASOURCE_JNDI_NAME_MAP = new HashMap<>();
 
+    /**
+     * The number of reminder email messages sent per minute when the
+     * configuration file does not give a valid number
+     */
+    public static final int DEFAULT_EMAILS_PER_MINUTE = 60;
+
     /**
      * The location of the configuration file
      */
@@ -60,26 +81,113 @@ public class ConfigurationManager {
     private static final int SINGLE_ELEMENT = 0;
 
     /**
-     * This method retrieves the email host from the configuration file.
+     * The time in seconds between checks of the configuration file for changes
+     */
+    private static final long RELOAD_CHECK_INTERVAL = 30;
+
+    /**
+     * The current configuration or null if it has not been read
+     */
+    private static volatile Configuration configuration = null;
+
+    /**
+     * The listeners notified of configuration changes
+     */
+    private static final CopyOnWriteArrayList<ConfigurationListener> LISTENERS
+            = new CopyOnWriteArrayList<>();
+
+    /**
+     * The executor checking the configuration file for changes
+     */
+    private static ScheduledExecutorService watchExecutor = null;
+
+    /**
+     * The time the configuration file was last modified when it was read
+     */
+    private static long lastModified = 0;
+
+    /**
+     * This method reads the configuration file and starts checking it for
+     * changes. It is called when the application is started. The file is
+     * watched only when the application is deployed as a directory.
      *
      * @param sc the ServletContext object
-     * @return the email host
      */
-    public static String getMailHost(ServletContext sc) {
-
-        String host = null;
-        String baseElement = "host";
-        String propertyName = "value";
+    public static synchronized void initialize(ServletContext sc) {
+        reload(sc);
+        String path = sc.getRealPath(CONFIGURATION_PROPERTIES_LOCATION);
+        if ((path != null) && (watchExecutor == null)) {
+            File file = new File(path);
+            lastModified = file.lastModified();
+            watchExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new WatchThreadFactory());
+            watchExecutor.scheduleWithFixedDelay(new Watch(sc, file),
+                    RELOAD_CHECK_INTERVAL, RELOAD_CHECK_INTERVAL, TimeUnit.SECONDS);
+        }
+    }
 
-        try {
-            host = readConfigurationFile(sc, baseElement, propertyName);
+    /**
+     * This method stops checking the configuration file and removes the
+     * listeners. It is called when the application is shut down.
+     */
+    public static synchronized void shutdown() {
+        if (watchExecutor != null) {
+            watchExecutor.shutdownNow();
+            watchExecutor = null;
+        }
+        LISTENERS.clear();
+        configuration = null;
+    }
 
-        } catch (ParserConfigurationException | SAXException | IOException ex) {
-            Logger.getLogger(ConfigurationManager.class.getName()).log(Level.SEVERE,
-                    "An exception occurred in getMailHost method.", ex);
+    /**
+     * This method returns the current configuration, reading the
+     * configuration file if it has not been read.
+     *
+     * @param sc the ServletContext object
+     * @return the configuration or null if the file could not be read
+     */
+    public static Configuration getConfiguration(ServletContext sc) {
+        Configuration current = configuration;
+        if (current == null) {
+            synchronized (ConfigurationManager.class) {
+                current = configuration;
+                if (current == null) {
+                    reload(sc);
+                    current = configuration;
+                }
+            }
         }
+        return current;
+    }
 
-        return host;
+    /**
+     * This method registers a listener to be notified of configuration
+     * changes.
+     *
+     * @param listener the listener
+     */
+    public static void addListener(ConfigurationListener listener) {
+        LISTENERS.addIfAbsent(listener);
+    }
+
+    /**
+     * This method removes a listener.
+     *
+     * @param listener the listener
+     */
+    public static void removeListener(ConfigurationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * This method retrieves the email host from the configuration file.
+     *
+     * @param sc the ServletContext object
+     * @return the email host
+     */
+    public static String getMailHost(ServletContext sc) {
+        Configuration current = getConfiguration(sc);
+        return (current == null) ? null : current.getMailHost();
     }
 
     /**
@@ -90,20 +198,8 @@ public class ConfigurationManager {
      * @return the clinic number as a string
      */
     public static String getClinicNumber(ServletContext sc) {
-
-        String clinicNumber = null;
-        String baseElement = "clinic";
-        String propertyName = "number";
-
-        try {
-            clinicNumber = readConfigurationFile(sc, baseElement, propertyName);
-
-        } catch (ParserConfigurationException | SAXException | IOException ex) {
-            Logger.getLogger(ConfigurationManager.class.getName()).log(Level.SEVERE,
-                    "An exception occurred in getClinicNumber method.", ex);
-        }
-
-        return clinicNumber;
+        Configuration current = getConfiguration(sc);
+        return (current == null) ? null : current.getClinicNumber();
     }
 
     /**
@@ -114,66 +210,212 @@ public class ConfigurationManager {
      * @return the name of the data source
      */
     public static String getDataSource(ServletContext sc) {
+        Configuration current = getConfiguration(sc);
+        return (current == null) ? null : current.getDataSourceName();
+    }
 
-        String jndiName = null;
-        String baseElement = "datasource";
-        String propertyName = "jndi";
+    /**
+     * This method retrieves the JNDI name for the read-only data source from
+     * the configuration file. Read-only queries are sent to this data source,
+     * which may be a replica of the primary database.
+     *
+     * @param sc the ServletContext object
+     * @return the name of the read-only data source or null if none is
+     * configured
+     */
+    public static String getReadDataSource(ServletContext sc) {
+        Configuration current = getConfiguration(sc);
+        return (current == null) ? null : current.getReadDataSourceName();
+    }
 
-        try {
-            jndiName = readConfigurationFile(sc, baseElement, propertyName);
+    /**
+     * This method retrieves the largest number of reminder email messages sent
+     * per minute from the configuration file.
+     *
+     * @param sc the ServletContext object
+     * @return the number of messages per minute
+     */
+    public static int getEmailsPerMinute(ServletContext sc) {
+        Configuration current = getConfiguration(sc);
+        return (current == null) ? DEFAULT_EMAILS_PER_MINUTE
+                : current.getEmailsPerMinute();
+    }
 
+    /**
+     * This method reads the configuration file and replaces the current
+     * configuration if the properties have changed. The listeners are
+     * notified of the change. If the file cannot be read, the current
+     * configuration is kept.
+     *
+     * @param sc the ServletContext object
+     */
+    private static void reload(ServletContext sc) {
+        Configuration loaded;
+        try {
+            loaded = readConfigurationFile(sc);
         } catch (ParserConfigurationException | SAXException | IOException ex) {
             Logger.getLogger(ConfigurationManager.class.getName()).log(Level.SEVERE,
-                    "An exception occurred in getDataSource method.", ex);
+                    "An exception occurred in reload method.", ex);
+            return;
         }
 
-        return jndiName;
+        Configuration previous;
+        synchronized (ConfigurationManager.class) {
+            previous = configuration;
+            if (loaded.equals(previous)) {
+                return;
+            }
+            configuration = loaded;
+        }
+        if (previous != null) {
+            Logger.getLogger(ConfigurationManager.class.getName()).log(Level.INFO,
+                    "The configuration file was reloaded.");
+            for (ConfigurationListener listener : LISTENERS) {
+                try {
+                    listener.configurationChanged(previous, loaded);
+                } catch (RuntimeException ex) {
+                    Logger.getLogger(ConfigurationManager.class.getName()).log(Level.SEVERE,
+                            "A configuration listener failed.", ex);
+                }
+            }
+        }
     }
 
     /**
-     * This method reads the configuration file to find the property value for
-     * the element and property name given.
+     * This method reads all properties from the configuration file.
      *
      * @param sc the ServletContext object
-     * @param baseElement the element containing the desired property value
-     * @param propertyName the name of the desired property
-     * @return the configuration property value
+     * @return the configuration
      * @throws javax.xml.parsers.ParserConfigurationException
      * @throws org.xml.sax.SAXException
      * @throws java.io.IOException
      */
-    private static String readConfigurationFile(ServletContext sc, String baseElement,
-            String propertyName) throws ParserConfigurationException, SAXException, IOException {
+    private static Configuration readConfigurationFile(ServletContext sc)
+            throws ParserConfigurationException, SAXException, IOException {
 
-        String propertyValue = null;
+        try (InputStream input = sc.getResourceAsStream(CONFIGURATION_PROPERTIES_LOCATION)) {
+            if (input == null) {
+                throw new IOException("The configuration file was not found.");
+            }
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+            Document doc = dBuilder.parse(input);
+
+            /* Normalize the nodes */
+            doc.getDocumentElement().normalize();
+
+            return new Configuration(readProperty(doc, "host", "value"),
+                    readProperty(doc, "clinic", "number"),
+                    readProperty(doc, "datasource", "jndi"),
+                    readProperty(doc, "datasource", "readjndi"),
+                    parseEmailsPerMinute(readProperty(doc, "email", "perminute")));
+        }
+    }
 
-        InputStream input = sc.getResourceAsStream(CONFIGURATION_PROPERTIES_LOCATION);
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(input);
+    /**
+     * This method finds the property value for the element and property name
+     * given.
+     *
+     * @param doc the configuration document
+     * @param baseElement the element containing the desired property value
+     * @param propertyName the name of the desired property
+     * @return the configuration property value or null if the property is not
+     * present
+     */
+    private static String readProperty(Document doc, String baseElement,
+            String propertyName) {
 
-        /* Normalize the nodes */
-        doc.getDocumentElement().normalize();
+        String propertyValue = null;
 
         /* Find the base element */
         NodeList nodeList = doc.getElementsByTagName(baseElement);
 
         /* There should only be one node in the element. */
         Node n = nodeList.item(SINGLE_ELEMENT);
-        if (n.getNodeType() == Node.ELEMENT_NODE) {
+        if ((n != null) && (n.getNodeType() == Node.ELEMENT_NODE)) {
             Element e = (Element) n;
-            propertyValue = e.getElementsByTagName(propertyName).item(SINGLE_ELEMENT)
-                    .getTextContent();
+            Node property = e.getElementsByTagName(propertyName).item(SINGLE_ELEMENT);
+            if (property != null) {
+                propertyValue = property.getTextContent();
+            }
         }
-        if (input != null) {
+        return propertyValue;
+    }
+
+    /**
+     * This method converts the number of reminder email messages sent per
+     * minute, using the default if the value is missing or not a positive
+     * number.
+     *
+     * @param value the property value
+     * @return the number of messages per minute
+     */
+    private static int parseEmailsPerMinute(String value) {
+        if (value != null) {
             try {
-                input.close();
-            } catch (IOException ex) {
-                Logger.getLogger(ConfigurationManager.class.getName()).log(Level.SEVERE,
-                        "An exception occurred in readConfigurationFile method.", ex);
+                int emailsPerMinute = Integer.parseInt(value.trim());
+                if (emailsPerMinute > 0) {
+                    return emailsPerMinute;
+                }
+            } catch (NumberFormatException ex) {
+                Logger.getLogger(ConfigurationManager.class.getName()).log(Level.WARNING,
+                        "The email perminute property is not a number.", ex);
             }
         }
+        return DEFAULT_EMAILS_PER_MINUTE;
+    }
 
-        return propertyValue;
+    /**
+     * This task reloads the configuration file when its modification time
+     * changes.
+     */
+    private static class Watch implements Runnable {
+
+        /**
+         * The ServletContext object
+         */
+        private final ServletContext sc;
+
+        /**
+         * The configuration file
+         */
+        private final File file;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param sc the ServletContext object
+         * @param file the configuration file
+         */
+        private Watch(ServletContext sc, File file) {
+            this.sc = sc;
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            long modified = file.lastModified();
+            synchronized (ConfigurationManager.class) {
+                if (modified == lastModified) {
+                    return;
+                }
+                lastModified = modified;
+            }
+            reload(sc);
+        }
+    }
+
+    /**
+     * This factory creates the daemon thread that checks the configuration
+     * file.
+     */
+    private static class WatchThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "configuration-watch");
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -15,21 +15,31 @@
  */
 package utility;
 
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
 
 /**
- * This class returns and frees connections to the database.
+ * This class returns and frees connections to the database. Read-only queries
+ * may be routed to a separate data source. The use of the connections is
+ * recorded in a ConnectionPoolMetrics object which may be
+ * registered with the platform MBean server. When the configuration file
+ * names different data sources, the pool switches to them without a
+ * redeploy.
  *
  * @author Bryan Daniel
  * @version 2, March 16, 2017
  */
-public class ConnectionPool {
+public class ConnectionPool implements ConfigurationListener {
 
     /**
      * The connection pool
@@ -39,21 +49,35 @@ public class ConnectionPool {
     /**
      * The data source
      */
-    private static DataSource dataSource = null;
+    private static volatile DataSource dataSource = null;
+
+    /**
+     * The data source for read-only queries
+     */
+    private static volatile DataSource readDataSource = null;
+
+    /**
+     * The JMX name of the connection pool metrics
+     */
+    private static final String METRICS_OBJECT_NAME
+            = "diabetesregistry:type=ConnectionPool";
+
+    /**
+     * The connection pool metrics
+     */
+    private final ConnectionPoolMetrics metrics;
 
     /**
      * The private constructor ensures that only a single instance of
      * ConnectionPool is created.
      */
     private ConnectionPool() {
-        try {
-            InitialContext ic = new InitialContext();
-            dataSource = (DataSource) ic.lookup(ConfigurationManager
-                    .DATASOURCE_JNDI_NAME_MAP.get(ConfigurationManager.DATASOURCE_JNDI_NAME_KEY));
-        } catch (NamingException e) {
-            Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
-                    "An exception occurred in the constructor for ConnectionPool.", e);
-        }
+        lookupDataSources(ConfigurationManager.DATASOURCE_JNDI_NAME_MAP
+                .get(ConfigurationManager.DATASOURCE_JNDI_NAME_KEY),
+                ConfigurationManager.DATASOURCE_JNDI_NAME_MAP
+                .get(ConfigurationManager.READ_DATASOURCE_JNDI_NAME_KEY));
+        metrics = new ConnectionPoolMetrics(dataSource);
+        ConfigurationManager.addListener(this);
     }
 
     /**
@@ -68,21 +92,79 @@ public class ConnectionPool {
         return pool;
     }
 
+    /**
+     * This method switches to the data sources named in a changed
+     * configuration. Connections already borrowed are returned to the data
+     * source they came from.
+     *
+     * @param previous the previous configuration
+     * @param current the changed configuration
+     */
+    @Override
+    public void configurationChanged(Configuration previous, Configuration current) {
+        if (Objects.equals(previous.getDataSourceName(), current.getDataSourceName())
+                && Objects.equals(previous.getReadDataSourceName(),
+                        current.getReadDataSourceName())) {
+            return;
+        }
+        synchronized (ConnectionPool.class) {
+            ConfigurationManager.DATASOURCE_JNDI_NAME_MAP.put(
+                    ConfigurationManager.DATASOURCE_JNDI_NAME_KEY,
+                    current.getDataSourceName());
+            ConfigurationManager.DATASOURCE_JNDI_NAME_MAP.put(
+                    ConfigurationManager.READ_DATASOURCE_JNDI_NAME_KEY,
+                    current.getReadDataSourceName());
+            lookupDataSources(current.getDataSourceName(),
+                    current.getReadDataSourceName());
+            metrics.setDataSource(dataSource);
+        }
+        Logger.getLogger(ConnectionPool.class.getName()).log(Level.INFO,
+                "The connection pool now uses the data source {0}.",
+                current.getDataSourceName());
+    }
+
     /**
      * This method returns the connection to the database.
      *
      * @return the connection
      */
     public Connection getConnection() {
+        long start = System.nanoTime();
         try {
-            return dataSource.getConnection();
+            Connection connection = dataSource.getConnection();
+            metrics.recordBorrow(connection, System.nanoTime() - start);
+            return connection;
         } catch (SQLException e) {
+            metrics.recordBorrowFailure(System.nanoTime() - start);
             Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
                     "An exception occurred in the getConnection method.", e);
             return null;
         }
     }
 
+    /**
+     * This method returns a connection for read-only queries. The connection
+     * comes from the read-only data source if one is configured, and from the
+     * primary data source otherwise. A read-only data source may be a replica
+     * that lags behind the primary, so queries that must see a change just
+     * written, and procedures that write, should use the getConnection method.
+     *
+     * @return the connection
+     */
+    public Connection getReadConnection() {
+        long start = System.nanoTime();
+        try {
+            Connection connection = readDataSource.getConnection();
+            metrics.recordBorrow(connection, System.nanoTime() - start);
+            return connection;
+        } catch (SQLException e) {
+            metrics.recordBorrowFailure(System.nanoTime() - start);
+            Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the getReadConnection method.", e);
+            return null;
+        }
+    }
+
     /**
      * This method frees the connection to the database.
      *
@@ -90,6 +172,7 @@ public class ConnectionPool {
      */
     public void freeConnection(Connection c) {
         try {
+            metrics.recordFree(c);
             c.close();
         } catch (SQLException e) {
             Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
@@ -97,4 +180,80 @@ public class ConnectionPool {
         }
     }
 
+    /**
+     * This method returns the metrics recording the use of the connections.
+     *
+     * @return the connection pool metrics
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * This method registers the connection pool metrics with the platform
+     * MBean server.
+     */
+    public void registerMetrics() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(METRICS_OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the registerMetrics method.", e);
+        }
+    }
+
+    /**
+     * This method removes the connection pool metrics from the platform MBean
+     * server.
+     */
+    public void unregisterMetrics() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(METRICS_OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the unregisterMetrics method.", e);
+        }
+    }
+
+    /**
+     * This method looks up the data sources with the given JNDI names. If the
+     * read-only data source is not configured or cannot be found, read-only
+     * queries use the primary data source. If the primary data source cannot
+     * be found, the current data sources are kept.
+     *
+     * @param name the JNDI name of the data source
+     * @param readName the JNDI name of the read-only data source
+     */
+    private static void lookupDataSources(String name, String readName) {
+        DataSource primary;
+        try {
+            InitialContext ic = new InitialContext();
+            primary = (DataSource) ic.lookup(name);
+        } catch (NamingException e) {
+            Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the lookupDataSources method.", e);
+            return;
+        }
+        DataSource read = primary;
+        if ((readName != null) && !readName.equals(name)) {
+            try {
+                InitialContext ic = new InitialContext();
+                read = (DataSource) ic.lookup(readName);
+            } catch (NamingException e) {
+                Logger.getLogger(ConnectionPool.class.getName()).log(Level.SEVERE,
+                        "The read-only data source could not be found. "
+                        + "Read-only queries will use the primary data source.", e);
+            }
+        }
+        dataSource = primary;
+        readDataSource = read;
+    }
 }
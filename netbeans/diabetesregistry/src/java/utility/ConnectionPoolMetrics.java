@@ -0,0 +1,553 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * This class records the use of database connections. It measures the time
+ * spent waiting for connections, the time each calling method holds its
+ * connection, and the number of connections in use, and it reports
+ * connections held long enough to suggest a leak. The counters are updated
+ * without locking so that recording adds little to each borrow. The stack of
+ * the borrowing code is captured only for a sampled fraction of borrows, or
+ * for every borrow while leak detection is enabled, and the calling method is
+ * found from the stack when a report is requested.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ConnectionPoolMetrics implements ConnectionPoolMetricsMBean {
+
+    /**
+     * The upper bounds in milliseconds of the borrow latency ranges
+     */
+    private static final long[] LATENCY_BOUNDS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    /**
+     * The time in milliseconds after which a held connection is reported as a
+     * suspected leak, matching the removeAbandonedTimeout of the data source
+     */
+    private static final long LEAK_THRESHOLD = 60L * 1000L;
+
+    /**
+     * The default number of borrows for each borrow whose stack is captured
+     */
+    private static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    /**
+     * The largest number of hold times kept until a report is requested
+     */
+    private static final int MAXIMUM_PENDING_SAMPLES = 10000;
+
+    /**
+     * The data source providing the connections
+     */
+    private volatile DataSource dataSource;
+
+    /**
+     * The number of connections borrowed
+     */
+    private final LongAdder borrowCount = new LongAdder();
+
+    /**
+     * The number of failed borrows
+     */
+    private final LongAdder borrowFailureCount = new LongAdder();
+
+    /**
+     * The total time in nanoseconds spent waiting for connections
+     */
+    private final LongAdder totalBorrowNanos = new LongAdder();
+
+    /**
+     * The longest time in nanoseconds spent waiting for a connection
+     */
+    private final AtomicLong maximumBorrowNanos = new AtomicLong();
+
+    /**
+     * The number of borrows in each latency range, the last range holding
+     * borrows longer than the last bound
+     */
+    private final AtomicLongArray borrowLatencyCounts
+            = new AtomicLongArray(LATENCY_BOUNDS.length + 1);
+
+    /**
+     * The largest number of connections held at one time
+     */
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+
+    /**
+     * The connections currently held by the application
+     */
+    private final ConcurrentHashMap<Connection, Borrow> activeConnections
+            = new ConcurrentHashMap<>();
+
+    /**
+     * The hold times by call site
+     */
+    private final ConcurrentHashMap<String, CallSite> callSites
+            = new ConcurrentHashMap<>();
+
+    /**
+     * The hold times of sampled borrows not yet added to the call sites
+     */
+    private final ConcurrentLinkedQueue<Sample> pendingSamples
+            = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of pending samples
+     */
+    private final AtomicInteger pendingSampleCount = new AtomicInteger();
+
+    /**
+     * Indicates whether the stack is captured for every borrow
+     */
+    private volatile boolean leakDetectionEnabled = false;
+
+    /**
+     * The number of borrows for each borrow whose stack is captured, or 0 if
+     * no borrows are sampled
+     */
+    private volatile int callSiteSampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param dataSource the data source providing the connections
+     */
+    public ConnectionPoolMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * This method sets the data source whose connection counts are reported.
+     *
+     * @param dataSource the data source providing the connections
+     */
+    void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * This method records a successful borrow.
+     *
+     * @param connection the borrowed connection
+     * @param waitNanos the time in nanoseconds spent waiting for the
+     * connection
+     */
+    void recordBorrow(Connection connection, long waitNanos) {
+        borrowCount.increment();
+        recordWait(waitNanos);
+        Throwable stack = null;
+        if (leakDetectionEnabled || isSampled()) {
+            stack = new Throwable();
+        }
+        activeConnections.put(connection, new Borrow(stack));
+        int active = activeConnections.size();
+        int peak = peakActiveCount.get();
+        while ((active > peak) && !peakActiveCount.compareAndSet(peak, active)) {
+            peak = peakActiveCount.get();
+        }
+    }
+
+    /**
+     * This method records a failed borrow.
+     *
+     * @param waitNanos the time in nanoseconds spent before the failure
+     */
+    void recordBorrowFailure(long waitNanos) {
+        borrowFailureCount.increment();
+        recordWait(waitNanos);
+    }
+
+    /**
+     * This method records the return of a connection and the time it was
+     * held by its call site.
+     *
+     * @param connection the returned connection
+     */
+    void recordFree(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        Borrow borrow = activeConnections.remove(connection);
+        if (borrow == null) {
+            return;
+        }
+        long holdNanos = System.nanoTime() - borrow.startNanos;
+        if ((borrow.stack != null)
+                && (pendingSampleCount.get() < MAXIMUM_PENDING_SAMPLES)) {
+            pendingSampleCount.incrementAndGet();
+            pendingSamples.add(new Sample(borrow.stack, holdNanos));
+        }
+        if (TimeUnit.NANOSECONDS.toMillis(holdNanos) > LEAK_THRESHOLD) {
+            Logger.getLogger(ConnectionPoolMetrics.class.getName()).log(Level.WARNING,
+                    "A connection was held for " + toMillis(holdNanos)
+                    + " ms by " + findCallSite(borrow.stack) + ".", borrow.stack);
+        }
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    @Override
+    public long getBorrowFailureCount() {
+        return borrowFailureCount.sum();
+    }
+
+    @Override
+    public double getAverageBorrowMillis() {
+        long count = borrowCount.sum() + borrowFailureCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return toMillis(totalBorrowNanos.sum()) / count;
+    }
+
+    @Override
+    public double getMaximumBorrowMillis() {
+        return toMillis(maximumBorrowNanos.get());
+    }
+
+    @Override
+    public String[] getBorrowLatencyHistogram() {
+        String[] histogram = new String[borrowLatencyCounts.length()];
+        for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+            histogram[i] = "up to " + LATENCY_BOUNDS[i] + " ms: "
+                    + borrowLatencyCounts.get(i);
+        }
+        histogram[LATENCY_BOUNDS.length] = "over "
+                + LATENCY_BOUNDS[LATENCY_BOUNDS.length - 1] + " ms: "
+                + borrowLatencyCounts.get(LATENCY_BOUNDS.length);
+        return histogram;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return activeConnections.size();
+    }
+
+    @Override
+    public int getPeakActiveCount() {
+        return peakActiveCount.get();
+    }
+
+    @Override
+    public int getPoolActiveCount() {
+        return getDataSourceCount("getNumActive", "getActive");
+    }
+
+    @Override
+    public int getPoolIdleCount() {
+        return getDataSourceCount("getNumIdle", "getIdle");
+    }
+
+    @Override
+    public String[] getCallSiteHoldTimes() {
+        addPendingSamples();
+        TreeMap<String, CallSite> sorted = new TreeMap<>(callSites);
+        ArrayList<String> holdTimes = new ArrayList<>();
+        for (Map.Entry<String, CallSite> entry : sorted.entrySet()) {
+            CallSite callSite = entry.getValue();
+            long count = callSite.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            holdTimes.add(String.format("%s: %d connections, average %.2f ms, maximum %.2f ms",
+                    entry.getKey(), count,
+                    toMillis(callSite.totalNanos.sum()) / count,
+                    toMillis(callSite.maximumNanos.get())));
+        }
+        return holdTimes.toArray(new String[holdTimes.size()]);
+    }
+
+    @Override
+    public String[] getSuspectedLeaks() {
+        long now = System.nanoTime();
+        ArrayList<String> leaks = new ArrayList<>();
+        for (Borrow borrow : activeConnections.values()) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - borrow.startNanos);
+            if (heldMillis <= LEAK_THRESHOLD) {
+                continue;
+            }
+            StringBuilder leak = new StringBuilder();
+            leak.append("Held for ").append(heldMillis).append(" ms by ")
+                    .append(findCallSite(borrow.stack)).append(" on thread ")
+                    .append(borrow.threadName);
+            if (borrow.stack != null) {
+                for (StackTraceElement element : borrow.stack.getStackTrace()) {
+                    leak.append("\n    at ").append(element);
+                }
+            }
+            leaks.add(leak.toString());
+        }
+        return leaks.toArray(new String[leaks.size()]);
+    }
+
+    @Override
+    public void reset() {
+        borrowCount.reset();
+        borrowFailureCount.reset();
+        totalBorrowNanos.reset();
+        maximumBorrowNanos.set(0);
+        for (int i = 0; i < borrowLatencyCounts.length(); i++) {
+            borrowLatencyCounts.set(i, 0);
+        }
+        peakActiveCount.set(activeConnections.size());
+        pendingSamples.clear();
+        pendingSampleCount.set(0);
+        callSites.clear();
+    }
+
+    @Override
+    public boolean isLeakDetectionEnabled() {
+        return leakDetectionEnabled;
+    }
+
+    @Override
+    public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+        this.leakDetectionEnabled = leakDetectionEnabled;
+    }
+
+    @Override
+    public int getCallSiteSampleInterval() {
+        return callSiteSampleInterval;
+    }
+
+    @Override
+    public void setCallSiteSampleInterval(int callSiteSampleInterval) {
+        this.callSiteSampleInterval = Math.max(0, callSiteSampleInterval);
+    }
+
+    /**
+     * Returns true if the stack of the current borrow is to be captured
+     *
+     * @return true if the borrow is sampled
+     */
+    private boolean isSampled() {
+        int interval = callSiteSampleInterval;
+        return (interval == 1) || ((interval > 1)
+                && (ThreadLocalRandom.current().nextInt(interval) == 0));
+    }
+
+    /**
+     * This method adds the hold times of the pending samples to the totals of
+     * their call sites.
+     */
+    private void addPendingSamples() {
+        Sample sample;
+        while ((sample = pendingSamples.poll()) != null) {
+            pendingSampleCount.decrementAndGet();
+            String site = findCallSite(sample.stack);
+            CallSite callSite = callSites.get(site);
+            if (callSite == null) {
+                callSite = new CallSite();
+                CallSite existing = callSites.putIfAbsent(site, callSite);
+                if (existing != null) {
+                    callSite = existing;
+                }
+            }
+            callSite.record(sample.holdNanos);
+        }
+    }
+
+    /**
+     * Returns the method that borrowed a connection, found from the stack of
+     * the borrowing code
+     *
+     * @param stack the stack or null if it was not captured
+     * @return the class and method name of the call site
+     */
+    private static String findCallSite(Throwable stack) {
+        if (stack == null) {
+            return "an unrecorded call site";
+        }
+        for (StackTraceElement element : stack.getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.equals(ConnectionPool.class.getName())
+                    && !className.equals(ConnectionPoolMetrics.class.getName())) {
+                return className + "." + element.getMethodName();
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * This method records the time spent waiting for a connection.
+     *
+     * @param waitNanos the wait time in nanoseconds
+     */
+    private void recordWait(long waitNanos) {
+        totalBorrowNanos.add(waitNanos);
+        long maximum = maximumBorrowNanos.get();
+        while ((waitNanos > maximum) && !maximumBorrowNanos.compareAndSet(maximum, waitNanos)) {
+            maximum = maximumBorrowNanos.get();
+        }
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = 0;
+        while ((bucket < LATENCY_BOUNDS.length) && (waitMillis > LATENCY_BOUNDS[bucket])) {
+            bucket++;
+        }
+        borrowLatencyCounts.incrementAndGet(bucket);
+    }
+
+    /**
+     * This method reads a connection count from the data source. The name of
+     * the method depends on the pool implementation configured in the
+     * container, so each of the given names is tried.
+     *
+     * @param methodNames the names of the methods returning the count
+     * @return the count or -1 if the data source does not provide it
+     */
+    private int getDataSourceCount(String... methodNames) {
+        DataSource source = dataSource;
+        if (source == null) {
+            return -1;
+        }
+        for (String methodName : methodNames) {
+            try {
+                Method method = source.getClass().getMethod(methodName);
+                return ((Number) method.invoke(source)).intValue();
+            } catch (ReflectiveOperationException | ClassCastException ex) {
+                /* try the next name */
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds
+     *
+     * @param nanos the time in nanoseconds
+     * @return the time in milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    /**
+     * This class holds the details of a borrowed connection.
+     */
+    private static class Borrow {
+
+        /**
+         * The time in nanoseconds the connection was borrowed
+         */
+        private final long startNanos;
+
+        /**
+         * The stack of the code that borrowed the connection, or null if it
+         * was not captured
+         */
+        private final Throwable stack;
+
+        /**
+         * The name of the thread that borrowed the connection
+         */
+        private final String threadName;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param stack the stack of the code borrowing the connection or null
+         */
+        private Borrow(Throwable stack) {
+            this.startNanos = System.nanoTime();
+            this.stack = stack;
+            this.threadName = Thread.currentThread().getName();
+        }
+    }
+
+    /**
+     * This class holds the hold time of a sampled borrow.
+     */
+    private static class Sample {
+
+        /**
+         * The stack of the code that borrowed the connection
+         */
+        private final Throwable stack;
+
+        /**
+         * The hold time in nanoseconds
+         */
+        private final long holdNanos;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param stack the stack of the code that borrowed the connection
+         * @param holdNanos the hold time in nanoseconds
+         */
+        private Sample(Throwable stack, long holdNanos) {
+            this.stack = stack;
+            this.holdNanos = holdNanos;
+        }
+    }
+
+    /**
+     * This class holds the hold time totals of a call site.
+     */
+    private static class CallSite {
+
+        /**
+         * The number of connections returned
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * The total hold time in nanoseconds
+         */
+        private final LongAdder totalNanos = new LongAdder();
+
+        /**
+         * The longest hold time in nanoseconds
+         */
+        private final AtomicLong maximumNanos = new AtomicLong();
+
+        /**
+         * This method records a hold time.
+         *
+         * @param holdNanos the hold time in nanoseconds
+         */
+        private void record(long holdNanos) {
+            count.increment();
+            totalNanos.add(holdNanos);
+            long maximum = maximumNanos.get();
+            while ((holdNanos > maximum) && !maximumNanos.compareAndSet(maximum, holdNanos)) {
+                maximum = maximumNanos.get();
+            }
+        }
+    }
+}
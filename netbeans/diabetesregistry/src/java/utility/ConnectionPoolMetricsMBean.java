@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+/**
+ * This interface defines the connection pool metrics exposed through JMX.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public interface ConnectionPoolMetricsMBean {
+
+    /**
+     * Returns the number of connections borrowed
+     *
+     * @return the number of connections borrowed
+     */
+    long getBorrowCount();
+
+    /**
+     * Returns the number of failed attempts to borrow a connection
+     *
+     * @return the number of failed borrows
+     */
+    long getBorrowFailureCount();
+
+    /**
+     * Returns the average time in milliseconds spent waiting for a connection
+     *
+     * @return the average borrow time
+     */
+    double getAverageBorrowMillis();
+
+    /**
+     * Returns the longest time in milliseconds spent waiting for a connection
+     *
+     * @return the maximum borrow time
+     */
+    double getMaximumBorrowMillis();
+
+    /**
+     * Returns the number of borrows in each latency range
+     *
+     * @return the borrow latency histogram
+     */
+    String[] getBorrowLatencyHistogram();
+
+    /**
+     * Returns the number of connections currently held by the application
+     *
+     * @return the number of active connections
+     */
+    int getActiveCount();
+
+    /**
+     * Returns the largest number of connections held at one time
+     *
+     * @return the peak number of active connections
+     */
+    int getPeakActiveCount();
+
+    /**
+     * Returns the number of active connections reported by the data source
+     *
+     * @return the number of active connections or -1 if unavailable
+     */
+    int getPoolActiveCount();
+
+    /**
+     * Returns the number of idle connections reported by the data source
+     *
+     * @return the number of idle connections or -1 if unavailable
+     */
+    int getPoolIdleCount();
+
+    /**
+     * Returns the connection hold times for each calling method, measured on
+     * the borrows whose stack was captured
+     *
+     * @return the hold times by call site
+     */
+    String[] getCallSiteHoldTimes();
+
+    /**
+     * Returns the connections held longer than the leak threshold along with
+     * the stack traces of the code that borrowed them, where captured
+     *
+     * @return the suspected connection leaks
+     */
+    String[] getSuspectedLeaks();
+
+    /**
+     * Resets the counters and histograms
+     */
+    void reset();
+
+    /**
+     * Returns true if the stack is captured for every borrow
+     *
+     * @return true if leak detection is enabled
+     */
+    boolean isLeakDetectionEnabled();
+
+    /**
+     * Sets whether the stack is captured for every borrow
+     *
+     * @param leakDetectionEnabled true to capture every stack
+     */
+    void setLeakDetectionEnabled(boolean leakDetectionEnabled);
+
+    /**
+     * Returns the number of borrows for each borrow whose stack is captured
+     *
+     * @return the sample interval or 0 if no borrows are sampled
+     */
+    int getCallSiteSampleInterval();
+
+    /**
+     * Sets the number of borrows for each borrow whose stack is captured
+     *
+     * @param callSiteSampleInterval the sample interval or 0 to sample none
+     */
+    void setCallSiteSampleInterval(int callSiteSampleInterval);
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+
+/**
+ * This class reads rows of comma-separated values from a character stream.
+ * Quoted values may contain commas, doubled quotes and line breaks. Rows are
+ * read one at a time, so files of any size may be read without holding them
+ * in memory.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class CsvReader {
+
+    /**
+     * The stream providing the values
+     */
+    private final Reader reader;
+
+    /**
+     * The character read ahead of the current position or -2 if none
+     */
+    private int pushedBack = -2;
+
+    /**
+     * The line number of the last row read
+     */
+    private int lineNumber = 0;
+
+    /**
+     * The number of line breaks read
+     */
+    private int linesRead = 0;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param reader the stream providing the values
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the line number in the stream where the last row read began
+     *
+     * @return the line number of the last row
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * This method reads the next row of values. Blank lines are skipped.
+     *
+     * @return the values of the row or null at the end of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public String[] readRow() throws IOException {
+        ArrayList<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean rowStarted = false;
+        int c = read();
+
+        while (c != -1) {
+            if (!rowStarted) {
+                if ((c == '\r') || (c == '\n')) {
+                    skipLineBreak(c);
+                    c = read();
+                    continue;
+                }
+                rowStarted = true;
+                lineNumber = linesRead + 1;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linesRead++;
+                    }
+                    value.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if ((c == '\r') || (c == '\n')) {
+                skipLineBreak(c);
+                break;
+            } else {
+                value.append((char) c);
+            }
+            c = read();
+        }
+
+        if (!rowStarted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values.toArray(new String[values.size()]);
+    }
+
+    /**
+     * This method consumes the rest of a line break.
+     *
+     * @param c the line break character read
+     * @throws IOException if the stream cannot be read
+     */
+    private void skipLineBreak(int c) throws IOException {
+        linesRead++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    /**
+     * This method reads the next character, returning any character read
+     * ahead first.
+     *
+     * @return the character or -1 at the end of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * This class writes rows of comma-separated values to a character stream.
+ * Values containing commas, quotes or line breaks are quoted. Rows are
+ * written directly to the stream, so any number of rows may be written
+ * without holding them in memory.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class CsvWriter {
+
+    /**
+     * The line separator required by RFC 4180
+     */
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    /**
+     * The stream receiving the values
+     */
+    private final Writer writer;
+
+    /**
+     * The number of rows written
+     */
+    private int rowCount = 0;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param writer the stream receiving the values
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * This method writes one row of values. Null values are written as empty
+     * fields.
+     *
+     * @param values the values of the row
+     * @throws IOException if the values cannot be written
+     */
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeValue(values[i].toString());
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+        rowCount++;
+    }
+
+    /**
+     * Get the value of rowCount
+     *
+     * @return the value of rowCount
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * This method writes any buffered values to the stream.
+     *
+     * @throws IOException if the values cannot be written
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * This method writes a single value, quoting it if necessary.
+     *
+     * @param value the value
+     * @throws IOException if the value cannot be written
+     */
+    private void writeValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c == ',') || (c == '"') || (c == '\n') || (c == '\r')) {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.mail.AuthenticationFailedException;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import registry.EmailMessage;
+import registry.Patient;
+
+/**
+ * This class sends batches of reminder email messages in the background so
+ * that the request submitting a batch returns immediately. Each batch is
+ * sent by a small number of sender threads, each keeping its own connection
+ * to the mail server. Messages are limited to the number per minute set in
+ * the configuration file across all senders, and a message that fails is
+ * retried with an increasing delay. Batches are sent in the order submitted.
+ * The progress of each batch is given to the job listener, which records it
+ * in the database so it survives a restart and can be read by any server.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class EmailDispatcher {
+
+    /**
+     * The number of sender threads, each holding one mail server connection
+     */
+    private static final int SENDERS = 3;
+
+    /**
+     * The time in milliseconds between recordings of the progress of a job
+     */
+    private static final long RECORD_INTERVAL = 5000;
+
+    /**
+     * The number of attempts made to send a message
+     */
+    private static final int MAXIMUM_ATTEMPTS = 3;
+
+    /**
+     * The time in milliseconds before the first retry, doubled for each
+     * further retry
+     */
+    private static final long INITIAL_RETRY_DELAY = 2000;
+
+    /**
+     * The number of jobs kept for progress reporting
+     */
+    private static final int RETAINED_JOBS = 50;
+
+    /**
+     * The jobs by ID in the order submitted
+     */
+    private static final LinkedHashMap<String, EmailJob> JOBS = new LinkedHashMap<>();
+
+    /**
+     * The lock guarding the send schedule
+     */
+    private static final Object THROTTLE_LOCK = new Object();
+
+    /**
+     * The earliest time in milliseconds the next message may be sent
+     */
+    private static long nextSendTime = 0;
+
+    /**
+     * The time in milliseconds between messages
+     */
+    private static long sendInterval
+            = 60000L / ConfigurationManager.DEFAULT_EMAILS_PER_MINUTE;
+
+    /**
+     * The listener recording the progress of the jobs or null if progress is
+     * not recorded
+     */
+    private static volatile EmailJobListener jobListener = null;
+
+    /**
+     * The executor running the senders
+     */
+    private static ThreadPoolExecutor executor = null;
+
+    /**
+     * This method queues a batch of reminder messages for sending.
+     *
+     * @param emailPatients the list of patients
+     * @param from the mailer's address
+     * @param messages the list of messages
+     * @param bodyIsHTML a boolean indicating if the body is HTML
+     * @param emailPassword the user-provided email password
+     * @param host the mail host
+     * @param clinicId the clinic ID
+     * @param messagesPerMinute the largest number of messages sent per minute
+     * @return the queued job or null if the job could not be created
+     */
+    public static synchronized EmailJob submit(ArrayList<Patient> emailPatients,
+            String from, ArrayList<EmailMessage> messages, boolean bodyIsHTML,
+            String emailPassword, String host, int clinicId,
+            int messagesPerMinute) {
+        EmailJob job;
+        try {
+            Session mailSession = Session.getInstance(
+                    EmailUtility.getMailProperties(host));
+            job = new EmailJob(UUID.randomUUID().toString(), clinicId,
+                    emailPatients, from, messages, bodyIsHTML, emailPassword,
+                    mailSession);
+        } catch (AddressException ex) {
+            Logger.getLogger(EmailDispatcher.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the submit method.", ex);
+            return null;
+        }
+        synchronized (THROTTLE_LOCK) {
+            sendInterval = 60000L / Math.max(1, messagesPerMinute);
+        }
+        record(job, true);
+
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(SENDERS, SENDERS, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new SenderThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+        }
+        int senders = Math.max(1, Math.min(SENDERS, emailPatients.size()));
+        for (int i = 0; i < senders; i++) {
+            job.senderStarted();
+        }
+        for (int i = 0; i < senders; i++) {
+            executor.execute(new Sender(job));
+        }
+
+        JOBS.put(job.getId(), job);
+        Iterator<EmailJob> iterator = JOBS.values().iterator();
+        while ((JOBS.size() > RETAINED_JOBS) && iterator.hasNext()) {
+            if (iterator.next().isComplete()) {
+                iterator.remove();
+            }
+        }
+        return job;
+    }
+
+    /**
+     * This method returns the job with the given ID.
+     *
+     * @param id the job ID
+     * @return the job or null if the job is not found
+     */
+    public static synchronized EmailJob getJob(String id) {
+        return (id == null) ? null : JOBS.get(id);
+    }
+
+    /**
+     * This method sets the listener recording the progress of the jobs.
+     *
+     * @param listener the listener or null to stop recording progress
+     */
+    public static void setJobListener(EmailJobListener listener) {
+        jobListener = listener;
+    }
+
+    /**
+     * This method stops the sender threads. It is called when the application
+     * is shut down.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        JOBS.clear();
+        jobListener = null;
+    }
+
+    /**
+     * This method gives the progress of a job to the job listener. Unless
+     * forced, the progress is given at most once per record interval.
+     *
+     * @param job the job
+     * @param force true if the progress must be given
+     */
+    private static void record(EmailJob job, boolean force) {
+        EmailJobListener listener = jobListener;
+        if ((listener != null)
+                && (job.isRecordingDue(RECORD_INTERVAL) || force)) {
+            try {
+                listener.jobChanged(job.getStatus());
+            } catch (RuntimeException ex) {
+                Logger.getLogger(EmailDispatcher.class.getName()).log(Level.SEVERE,
+                        "An exception occurred in the record method.", ex);
+            }
+        }
+    }
+
+    /**
+     * This method waits until the next message may be sent under the
+     * per-minute limit.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private static void awaitSendTime() throws InterruptedException {
+        long wait;
+        synchronized (THROTTLE_LOCK) {
+            long now = System.currentTimeMillis();
+            long sendTime = Math.max(now, nextSendTime);
+            nextSendTime = sendTime + sendInterval;
+            wait = sendTime - now;
+        }
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    /**
+     * This method closes a mail server connection.
+     *
+     * @param transport the connection
+     */
+    private static void close(Transport transport) {
+        try {
+            if (transport != null) {
+                transport.close();
+            }
+        } catch (MessagingException e) {
+            Logger.getLogger(EmailDispatcher.class.getName()).log(Level.SEVERE,
+                    "Unable to close email transport connection.", e);
+        }
+    }
+
+    /**
+     * This task sends messages to the patients of a job until none remain,
+     * keeping one connection to the mail server open between messages.
+     */
+    private static class Sender implements Runnable {
+
+        /**
+         * The job
+         */
+        private final EmailJob job;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param job the job
+         */
+        private Sender(EmailJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            Transport transport = null;
+            try {
+                Patient p;
+                while ((p = job.nextRecipient()) != null) {
+                    if (!EmailUtility.isEmailAddressValid(p.getEmailAddress())) {
+                        job.recordSkipped();
+                        record(job, false);
+                        continue;
+                    }
+                    boolean sent = false;
+                    long retryDelay = INITIAL_RETRY_DELAY;
+                    for (int attempt = 1; (attempt <= MAXIMUM_ATTEMPTS) && !sent; attempt++) {
+                        try {
+                            if ((transport == null) || !transport.isConnected()) {
+                                transport = job.getMailSession().getTransport();
+                                transport.connect(job.getFrom(), job.getEmailPassword());
+                            }
+                            Message message = job.createMessage(p);
+                            awaitSendTime();
+                            transport.sendMessage(message, message.getAllRecipients());
+                            sent = true;
+                        } catch (AuthenticationFailedException ex) {
+                            Logger.getLogger(EmailDispatcher.class.getName()).log(Level.SEVERE,
+                                    "The mail server rejected the credentials for job "
+                                    + job.getId() + ".", ex);
+                            job.recordFailed();
+                            job.failAuthentication();
+                            return;
+                        } catch (MessagingException ex) {
+                            Logger.getLogger(EmailDispatcher.class.getName()).log(Level.WARNING,
+                                    "Attempt " + attempt + " to send a message for job "
+                                    + job.getId() + " failed.", ex);
+                            close(transport);
+                            transport = null;
+                            if (attempt < MAXIMUM_ATTEMPTS) {
+                                Thread.sleep(retryDelay);
+                                retryDelay *= 2;
+                            }
+                        }
+                    }
+                    if (sent) {
+                        job.recordSent();
+                    } else {
+                        job.recordFailed();
+                    }
+                    record(job, false);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close(transport);
+                if (job.senderFinished()) {
+                    record(job, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * This factory creates the daemon threads that send messages.
+     */
+    private static class SenderThreadFactory implements ThreadFactory {
+
+        /**
+         * The number of threads created
+         */
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "registry-email-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
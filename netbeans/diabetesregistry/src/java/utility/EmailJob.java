@@ -0,0 +1,355 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import registry.EmailJobStatus;
+import registry.EmailMessage;
+import registry.Patient;
+
+/**
+ * This class holds a batch of reminder email messages queued for sending by
+ * the EmailDispatcher and the progress of the batch. The sender address and
+ * the message templates are prepared once for the whole batch.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class EmailJob {
+
+    /**
+     * The job ID
+     */
+    private final String id;
+
+    /**
+     * The clinic ID
+     */
+    private final int clinicId;
+
+    /**
+     * The number of patients in the batch
+     */
+    private final int total;
+
+    /**
+     * The patients waiting to be sent a message
+     */
+    private final ConcurrentLinkedQueue<Patient> recipients;
+
+    /**
+     * The mail session
+     */
+    private final Session mailSession;
+
+    /**
+     * The sender's address
+     */
+    private final InternetAddress fromAddress;
+
+    /**
+     * The message templates by language
+     */
+    private final ReminderTemplates templates;
+
+    /**
+     * Indicates whether the message bodies are HTML
+     */
+    private final boolean bodyIsHTML;
+
+    /**
+     * The email password, cleared when the job is complete
+     */
+    private volatile String emailPassword;
+
+    /**
+     * The number of messages sent
+     */
+    private final AtomicInteger sentCount = new AtomicInteger();
+
+    /**
+     * The number of messages that could not be sent
+     */
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    /**
+     * The number of patients skipped because of an invalid address
+     */
+    private final AtomicInteger skippedCount = new AtomicInteger();
+
+    /**
+     * The number of senders still working on the job
+     */
+    private final AtomicInteger activeSenders = new AtomicInteger();
+
+    /**
+     * Indicates whether the mail server rejected the credentials
+     */
+    private volatile boolean authenticationFailed = false;
+
+    /**
+     * Indicates whether all senders have finished
+     */
+    private volatile boolean complete = false;
+
+    /**
+     * The time in milliseconds the progress was last recorded
+     */
+    private final AtomicLong lastRecordedTime = new AtomicLong();
+
+    /**
+     * Parameterized constructor
+     *
+     * @param id the job ID
+     * @param clinicId the clinic ID
+     * @param emailPatients the list of patients
+     * @param from the mailer's address
+     * @param messages the list of messages
+     * @param bodyIsHTML a boolean indicating if the body is HTML
+     * @param emailPassword the user-provided email password
+     * @param mailSession the mail session
+     * @throws AddressException if the mailer's address is invalid
+     */
+    EmailJob(String id, int clinicId, ArrayList<Patient> emailPatients, String from,
+            ArrayList<EmailMessage> messages, boolean bodyIsHTML,
+            String emailPassword, Session mailSession) throws AddressException {
+        this.id = id;
+        this.clinicId = clinicId;
+        this.total = emailPatients.size();
+        this.recipients = new ConcurrentLinkedQueue<>(emailPatients);
+        this.fromAddress = new InternetAddress(from);
+        this.templates = new ReminderTemplates(messages);
+        this.bodyIsHTML = bodyIsHTML;
+        this.emailPassword = emailPassword;
+        this.mailSession = mailSession;
+    }
+
+    /**
+     * Get the value of id
+     *
+     * @return the value of id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the value of total
+     *
+     * @return the value of total
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the number of messages sent
+     *
+     * @return the number of messages sent
+     */
+    public int getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Get the number of messages that could not be sent
+     *
+     * @return the number of failed messages
+     */
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Get the number of patients skipped because of an invalid address
+     *
+     * @return the number of skipped patients
+     */
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * Get the value of authenticationFailed
+     *
+     * @return the value of authenticationFailed
+     */
+    public boolean isAuthenticationFailed() {
+        return authenticationFailed;
+    }
+
+    /**
+     * Get the value of complete
+     *
+     * @return the value of complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns the progress of the job. The password is not included.
+     *
+     * @return the progress of the job
+     */
+    public EmailJobStatus getStatus() {
+        return new EmailJobStatus(id, clinicId, total, sentCount.get(),
+                failedCount.get(), skippedCount.get(), authenticationFailed,
+                complete);
+    }
+
+    /**
+     * Returns the mail session
+     *
+     * @return the mail session
+     */
+    Session getMailSession() {
+        return mailSession;
+    }
+
+    /**
+     * Returns the sender's address
+     *
+     * @return the sender's address
+     */
+    String getFrom() {
+        return fromAddress.getAddress();
+    }
+
+    /**
+     * Returns the email password
+     *
+     * @return the email password
+     */
+    String getEmailPassword() {
+        return emailPassword;
+    }
+
+    /**
+     * This method removes the next patient from the queue.
+     *
+     * @return the patient or null if no patients remain
+     */
+    Patient nextRecipient() {
+        return authenticationFailed ? null : recipients.poll();
+    }
+
+    /**
+     * This method creates the message for a patient in the patient's language,
+     * personalized with the patient's details.
+     *
+     * @param patient the patient
+     * @return the message
+     * @throws MessagingException if the message cannot be created
+     */
+    Message createMessage(Patient patient) throws MessagingException {
+        String subject = templates.getSubject(patient.getLanguage()).render(patient);
+        String body = templates.getBody(patient.getLanguage()).render(patient);
+
+        Message message = new MimeMessage(mailSession);
+        message.setSubject(subject);
+        message.setSentDate(new Date());
+        if (bodyIsHTML) {
+            message.setContent(body, "text/html");
+        } else {
+            message.setText(body);
+        }
+        message.setFrom(fromAddress);
+        message.setRecipient(Message.RecipientType.TO,
+                new InternetAddress(patient.getEmailAddress()));
+        return message;
+    }
+
+    /**
+     * Records a message sent
+     */
+    void recordSent() {
+        sentCount.incrementAndGet();
+    }
+
+    /**
+     * Records a message that could not be sent
+     */
+    void recordFailed() {
+        failedCount.incrementAndGet();
+    }
+
+    /**
+     * Records a patient skipped because of an invalid address
+     */
+    void recordSkipped() {
+        skippedCount.incrementAndGet();
+    }
+
+    /**
+     * This method stops the job after the mail server rejects the credentials.
+     * The patients not yet sent a message are counted as failed.
+     */
+    void failAuthentication() {
+        authenticationFailed = true;
+        Patient p;
+        while ((p = recipients.poll()) != null) {
+            failedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a sender starting work on the job
+     */
+    void senderStarted() {
+        activeSenders.incrementAndGet();
+    }
+
+    /**
+     * This method records a sender finishing work on the job. When the last
+     * sender finishes, the job is complete and the password is cleared.
+     *
+     * @return true if the job is complete, false otherwise
+     */
+    boolean senderFinished() {
+        if (activeSenders.decrementAndGet() == 0) {
+            emailPassword = null;
+            complete = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the progress was last recorded at least the given
+     * interval ago, in which case the current time is taken as the time of
+     * recording. Only one of the concurrent callers receives true.
+     *
+     * @param interval the interval in milliseconds
+     * @return true if the progress should be recorded, false otherwise
+     */
+    boolean isRecordingDue(long interval) {
+        long now = System.currentTimeMillis();
+        long last = lastRecordedTime.get();
+        return (now - last >= interval)
+                && lastRecordedTime.compareAndSet(last, now);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import registry.EmailJobStatus;
+
+/**
+ * This interface is implemented by classes that record the progress of the
+ * reminder email jobs sent by the EmailDispatcher.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public interface EmailJobListener {
+
+    /**
+     * This method is called when a job is submitted, periodically while it
+     * is sent, and when it is complete. It is called on the sender threads.
+     *
+     * @param status the progress of the job
+     */
+    void jobChanged(EmailJobStatus status);
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.util.ArrayList;
+import registry.Patient;
+
+/**
+ * This class holds the subject or body of an email message prepared for
+ * personalization. The text is split once into literal sections and
+ * placeholders, so a message is personalized by joining the sections with
+ * the patient's values rather than by searching the text for each recipient.
+ * The placeholders are {firstName}, {lastName} and {lastVisitDate}; any other
+ * text in braces is kept as written.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class EmailTemplate {
+
+    /**
+     * The placeholder for the patient's first name
+     */
+    public static final String FIRST_NAME = "{firstName}";
+
+    /**
+     * The placeholder for the patient's last name
+     */
+    public static final String LAST_NAME = "{lastName}";
+
+    /**
+     * The placeholder for the date of the patient's last measurement
+     */
+    public static final String LAST_VISIT_DATE = "{lastVisitDate}";
+
+    /**
+     * The placeholders in the order they are tried
+     */
+    private static final String[] PLACEHOLDERS = {FIRST_NAME, LAST_NAME,
+        LAST_VISIT_DATE};
+
+    /**
+     * The literal sections, one more than the number of placeholders
+     */
+    private final String[] sections;
+
+    /**
+     * The placeholders between the literal sections
+     */
+    private final String[] placeholders;
+
+    /**
+     * The total length of the literal sections
+     */
+    private final int literalLength;
+
+    /**
+     * Parameterized constructor
+     *
+     * @param sections the literal sections
+     * @param placeholders the placeholders between the literal sections
+     */
+    private EmailTemplate(String[] sections, String[] placeholders) {
+        this.sections = sections;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String section : sections) {
+            length += section.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * This method prepares the given text for personalization.
+     *
+     * @param text the subject or body text
+     * @return the template
+     */
+    public static EmailTemplate compile(String text) {
+        if (text == null) {
+            text = "";
+        }
+        ArrayList<String> sections = new ArrayList<>();
+        ArrayList<String> placeholders = new ArrayList<>();
+        int sectionStart = 0;
+        int brace = text.indexOf('{');
+        while (brace >= 0) {
+            String placeholder = matchPlaceholder(text, brace);
+            if (placeholder != null) {
+                sections.add(text.substring(sectionStart, brace));
+                placeholders.add(placeholder);
+                sectionStart = brace + placeholder.length();
+            }
+            brace = text.indexOf('{', (placeholder != null) ? sectionStart : brace + 1);
+        }
+        sections.add(text.substring(sectionStart));
+        return new EmailTemplate(sections.toArray(new String[sections.size()]),
+                placeholders.toArray(new String[placeholders.size()]));
+    }
+
+    /**
+     * Returns true if the template has no placeholders
+     *
+     * @return true if every recipient receives the same text, false otherwise
+     */
+    public boolean isConstant() {
+        return placeholders.length == 0;
+    }
+
+    /**
+     * This method returns the text personalized for the patient. Missing
+     * values are left blank.
+     *
+     * @param patient the patient
+     * @return the personalized text
+     */
+    public String render(Patient patient) {
+        if (placeholders.length == 0) {
+            return sections[0];
+        }
+        StringBuilder text = new StringBuilder(literalLength + 16 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            text.append(sections[i]);
+            Object value = getValue(placeholders[i], patient);
+            if (value != null) {
+                text.append(value);
+            }
+        }
+        text.append(sections[placeholders.length]);
+        return text.toString();
+    }
+
+    /**
+     * This method returns the placeholder starting at the given position.
+     *
+     * @param text the text
+     * @param start the position of an opening brace
+     * @return the placeholder or null if none starts at the position
+     */
+    private static String matchPlaceholder(String text, int start) {
+        for (String placeholder : PLACEHOLDERS) {
+            if (text.startsWith(placeholder, start)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method returns the patient's value for a placeholder.
+     *
+     * @param placeholder the placeholder
+     * @param patient the patient
+     * @return the value or null if the value is missing
+     */
+    private static Object getValue(String placeholder, Patient patient) {
+        switch (placeholder) {
+            case FIRST_NAME:
+                return patient.getFirstName();
+            case LAST_NAME:
+                return patient.getLastName();
+            case LAST_VISIT_DATE:
+                return patient.getDateOfLastMeasurement();
+            default:
+                return null;
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class EmailUtility {
     /**
      * The default language for email messages
      */
-    private static final String DEFAULT_LANGUAGE = "English";
+    static final String DEFAULT_LANGUAGE = "English";
 
     /**
      * This method takes the given parameters and uses them to send an email
@@ -72,13 +72,7 @@ public class EmailUtility {
         }
 
         /* This section gets a mail session. */
-        Properties props = new Properties();
-        props.put("mail.transport.protocol", "smtps");
-        props.put("mail.smtps.host", host);
-        props.put("mail.smtps.port", 465);
-        props.put("mail.smtps.auth", "true");
-        props.put("mail.smtps.quitwait", "false");
-        Session session = Session.getDefaultInstance(props);
+        Session session = Session.getDefaultInstance(getMailProperties(host));
         session.setDebug(true);
         Transport transport = null;
 
@@ -144,13 +138,7 @@ public class EmailUtility {
         }
 
         /* This section gets a mail session. */
-        Properties props = new Properties();
-        props.put("mail.transport.protocol", "smtps");
-        props.put("mail.smtps.host", host);
-        props.put("mail.smtps.port", 465);
-        props.put("mail.smtps.auth", "true");
-        props.put("mail.smtps.quitwait", "false");
-        Session session = Session.getDefaultInstance(props);
+        Session session = Session.getDefaultInstance(getMailProperties(host));
         session.setDebug(true);
         Transport transport = null;
 
@@ -159,30 +147,15 @@ public class EmailUtility {
             transport = session.getTransport();
             transport.connect(from, emailPassword);
 
+            ReminderTemplates templates = new ReminderTemplates(messages);
+            Address fromAddress = new InternetAddress(from);
+
             for (Patient p : emailPatients) {
 
                 if (isEmailAddressValid(p.getEmailAddress())) {
 
-                    String language = null;
-                    String subject = "";
-                    String body = "";
-
-                    for (EmailMessage em : messages) {
-                        if (em.getLanguage().equals(p.getLanguage())) {
-                            language = em.getLanguage();
-                            subject = em.getSubject();
-                            body = em.getMessage();
-                        }
-                    }
-                    if (language == null) {
-                        language = DEFAULT_LANGUAGE;
-                        for (EmailMessage em : messages) {
-                            if (em.getLanguage().equals(language)) {
-                                subject = em.getSubject();
-                                body = em.getMessage();
-                            }
-                        }
-                    }
+                    String subject = templates.getSubject(p.getLanguage()).render(p);
+                    String body = templates.getBody(p.getLanguage()).render(p);
 
                     /* This section creates a message. */
                     Message message = new MimeMessage(session);
@@ -195,7 +168,6 @@ public class EmailUtility {
                     }
 
                     /* This section addresses the message. */
-                    Address fromAddress = new InternetAddress(from);
                     Address toAddress = new InternetAddress(p.getEmailAddress());
                     message.setFrom(fromAddress);
                     message.setRecipient(Message.RecipientType.TO, toAddress);
@@ -222,6 +194,23 @@ public class EmailUtility {
         return true;
     }
 
+    /**
+     * This method returns the properties of a mail session sending through
+     * the given host.
+     *
+     * @param host the mail host
+     * @return the mail session properties
+     */
+    static Properties getMailProperties(String host) {
+        Properties props = new Properties();
+        props.put("mail.transport.protocol", "smtps");
+        props.put("mail.smtps.host", host);
+        props.put("mail.smtps.port", 465);
+        props.put("mail.smtps.auth", "true");
+        props.put("mail.smtps.quitwait", "false");
+        return props;
+    }
+
     /**
      * This method does a basic check of an input string to validate that it is
      * an email address.
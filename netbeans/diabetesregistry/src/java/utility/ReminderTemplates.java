@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import registry.EmailMessage;
+
+/**
+ * This class holds the subject and body templates of a set of reminder
+ * messages indexed by language. The templates are prepared once for a batch
+ * of messages, and the message in the default language is found up front so
+ * that each recipient's message is selected with a single lookup.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class ReminderTemplates {
+
+    /**
+     * The template pair used when no message exists in either the patient's
+     * language or the default language
+     */
+    private static final Templates EMPTY = new Templates(null);
+
+    /**
+     * The templates by language
+     */
+    private final HashMap<String, Templates> templatesByLanguage;
+
+    /**
+     * The templates in the default language
+     */
+    private final Templates defaultTemplates;
+
+    /**
+     * This constructor prepares the templates of the given messages. When
+     * messages share a language, the last one in the list is used.
+     *
+     * @param messages the list of messages
+     */
+    public ReminderTemplates(ArrayList<EmailMessage> messages) {
+        templatesByLanguage = new HashMap<>();
+        for (EmailMessage em : messages) {
+            templatesByLanguage.put(em.getLanguage(), new Templates(em));
+        }
+        Templates defaults = templatesByLanguage.get(EmailUtility.DEFAULT_LANGUAGE);
+        defaultTemplates = (defaults == null) ? EMPTY : defaults;
+    }
+
+    /**
+     * This method returns the subject template in the given language, or in
+     * the default language if none exists.
+     *
+     * @param language the patient's language
+     * @return the subject template
+     */
+    public EmailTemplate getSubject(String language) {
+        return select(language).subject;
+    }
+
+    /**
+     * This method returns the body template in the given language, or in the
+     * default language if none exists.
+     *
+     * @param language the patient's language
+     * @return the body template
+     */
+    public EmailTemplate getBody(String language) {
+        return select(language).body;
+    }
+
+    /**
+     * This method selects the templates in the given language.
+     *
+     * @param language the patient's language
+     * @return the templates
+     */
+    private Templates select(String language) {
+        Templates templates = templatesByLanguage.get(language);
+        return (templates == null) ? defaultTemplates : templates;
+    }
+
+    /**
+     * This class holds the subject and body templates of one message.
+     */
+    private static class Templates {
+
+        /**
+         * The subject template
+         */
+        private final EmailTemplate subject;
+
+        /**
+         * The body template
+         */
+        private final EmailTemplate body;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param em the message or null for empty templates
+         */
+        private Templates(EmailMessage em) {
+            subject = EmailTemplate.compile((em == null) ? "" : em.getSubject());
+            body = EmailTemplate.compile((em == null) ? "" : em.getMessage());
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class SessionObjectUtility {
     public static final String PASSWORD_MANAGEMENT_KEY = "passwordManagementKey";
 
     /**
-     * The patients attribute key
+     * The patients attribute key, set per request from the shared roster
      */
     public static final String PATIENTS = "patients";
 
@@ -71,6 +71,11 @@ public class SessionObjectUtility {
      */
     public static final String CALL_LIST_SUBJECT = "callListSubject";
 
+    /**
+     * The attribute key for the ID of the reminder email job
+     */
+    public static final String EMAIL_JOB_ID = "emailJobId";
+
     /**
      * The measurement date-type-header attribute key
      */
@@ -279,7 +284,7 @@ public class SessionObjectUtility {
         session.setAttribute(PATIENT, null);
         session.setAttribute(PROGRESS_NOTE, null);
         session.setAttribute(PROGRESS_DATES, null);
-        session.setAttribute(CALL_LIST_PATIENTS, null);
+        WorkingSetStore.remove(session, CALL_LIST_PATIENTS);
         session.setAttribute(RECENT_CHECKLIST_ITEMS, null);
     }
 
@@ -293,7 +298,7 @@ public class SessionObjectUtility {
 
         session.setAttribute(PROGRESS_NOTE, null);
         session.setAttribute(PROGRESS_DATES, null);
-        session.setAttribute(CALL_LIST_PATIENTS, null);
+        WorkingSetStore.remove(session, CALL_LIST_PATIENTS);
         session.setAttribute(RECENT_CHECKLIST_ITEMS, null);
     }
 }
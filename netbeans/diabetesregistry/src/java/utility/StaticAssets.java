@@ -0,0 +1,392 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletContext;
+
+/**
+ * This class holds the fingerprinted style sheets, scripts and images of the
+ * application. When the application starts, each file is read once and given
+ * a URL containing a hash of its content, such as
+ * <code>/script/main.3f9a2c1b7d0e.js</code>, along with a gzip-compressed
+ * copy. A fingerprinted URL always names the same content, so browsers may
+ * cache it indefinitely, and a changed file is requested under its new URL.
+ * The pages find the fingerprinted URLs in the "assets" context attribute, and
+ * the relative image URLs in style sheets are rewritten to the fingerprinted
+ * images before the style sheets are fingerprinted.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class StaticAssets {
+
+    /**
+     * The directories holding the fingerprinted files
+     */
+    private static final String[] DIRECTORIES = {"/style/", "/script/"};
+
+    /**
+     * The extensions of the fingerprinted files
+     */
+    private static final String[] EXTENSIONS
+            = {".css", ".js", ".svg", ".png", ".gif", ".jpg", ".jpeg", ".ico"};
+
+    /**
+     * The extensions of files that are already compressed
+     */
+    private static final String[] COMPRESSED_EXTENSIONS
+            = {".png", ".gif", ".jpg", ".jpeg"};
+
+    /**
+     * The pattern of a URL in a style sheet
+     */
+    private static final Pattern CSS_URL
+            = Pattern.compile("url\\(\\s*([\"']?)([^\"')]+)\\1\\s*\\)");
+
+    /**
+     * The number of hexadecimal hash characters placed in a URL
+     */
+    private static final int FINGERPRINT_LENGTH = 12;
+
+    /**
+     * The assets by fingerprinted path
+     */
+    private static volatile HashMap<String, Asset> assets = new HashMap<>();
+
+    /**
+     * This method reads and fingerprints the style sheets, scripts and images
+     * and publishes their URLs in the "assets" context attribute. Paths that
+     * are not fingerprinted are published unchanged. The style sheets are
+     * fingerprinted last, once the images they refer to have their URLs.
+     *
+     * @param sc the servlet context
+     */
+    public static void initialize(ServletContext sc) {
+        HashMap<String, Asset> fingerprinted = new HashMap<>();
+        AssetUrls urls = new AssetUrls();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ArrayList<String> styleSheets = new ArrayList<>();
+            for (String directory : DIRECTORIES) {
+                addAssets(sc, directory, digest, fingerprinted, urls, styleSheets);
+            }
+            for (String path : styleSheets) {
+                byte[] content = readResource(sc, path);
+                if (content != null) {
+                    addAsset(sc, path, rewriteUrls(path, content, urls), digest,
+                            fingerprinted, urls);
+                }
+            }
+        } catch (NoSuchAlgorithmException | IOException ex) {
+            Logger.getLogger(StaticAssets.class.getName()).log(Level.SEVERE,
+                    "An exception occurred in the initialize method.", ex);
+            fingerprinted.clear();
+            urls.clear();
+        }
+        assets = fingerprinted;
+        sc.setAttribute("assets", urls);
+    }
+
+    /**
+     * This method returns the asset for a fingerprinted path.
+     *
+     * @param path the context-relative path of the request
+     * @return the asset or null if the path is not fingerprinted
+     */
+    public static Asset getAsset(String path) {
+        return assets.get(path);
+    }
+
+    /**
+     * This method fingerprints the scripts and images in a directory and its
+     * subdirectories. The style sheets are collected to be fingerprinted
+     * later.
+     *
+     * @param sc the servlet context
+     * @param directory the directory path
+     * @param digest the message digest
+     * @param fingerprinted the assets by fingerprinted path
+     * @param urls the fingerprinted paths by original path
+     * @param styleSheets the paths of the style sheets found
+     * @throws IOException if a file cannot be read
+     */
+    private static void addAssets(ServletContext sc, String directory,
+            MessageDigest digest, HashMap<String, Asset> fingerprinted,
+            AssetUrls urls, ArrayList<String> styleSheets) throws IOException {
+        Set<String> paths = sc.getResourcePaths(directory);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                addAssets(sc, path, digest, fingerprinted, urls, styleSheets);
+                continue;
+            }
+            int extension = path.lastIndexOf('.');
+            if ((extension < 0) || !contains(EXTENSIONS,
+                    path.substring(extension).toLowerCase())) {
+                continue;
+            }
+            if (path.endsWith(".css")) {
+                styleSheets.add(path);
+                continue;
+            }
+            byte[] content = readResource(sc, path);
+            if (content != null) {
+                addAsset(sc, path, content, digest, fingerprinted, urls);
+            }
+        }
+    }
+
+    /**
+     * This method fingerprints a file. Files that are already compressed get
+     * no gzip copy.
+     *
+     * @param sc the servlet context
+     * @param path the file path
+     * @param content the file content
+     * @param digest the message digest
+     * @param fingerprinted the assets by fingerprinted path
+     * @param urls the fingerprinted paths by original path
+     * @throws IOException if the content cannot be compressed
+     */
+    private static void addAsset(ServletContext sc, String path, byte[] content,
+            MessageDigest digest, HashMap<String, Asset> fingerprinted,
+            AssetUrls urls) throws IOException {
+        int extension = path.lastIndexOf('.');
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest(content)) {
+            hash.append(String.format("%02x", b));
+        }
+        String fingerprint = hash.substring(0, FINGERPRINT_LENGTH);
+        String fingerprintedPath = path.substring(0, extension) + "."
+                + fingerprint + path.substring(extension);
+        byte[] gzipContent = contains(COMPRESSED_EXTENSIONS,
+                path.substring(extension).toLowerCase()) ? null : gzip(content);
+        Asset asset = new Asset(content, gzipContent,
+                sc.getMimeType(path), "\"" + fingerprint + "\"");
+        fingerprinted.put(fingerprintedPath, asset);
+        urls.put(path, fingerprintedPath);
+    }
+
+    /**
+     * This method rewrites the relative URLs of a style sheet that name
+     * fingerprinted files, such as the jQuery UI images, to the fingerprinted
+     * file names. Other URLs are left unchanged.
+     *
+     * @param path the style sheet path
+     * @param content the style sheet content
+     * @param urls the fingerprinted paths by original path
+     * @return the rewritten content
+     */
+    private static byte[] rewriteUrls(String path, byte[] content, AssetUrls urls) {
+        URI directory = URI.create(path.substring(0, path.lastIndexOf('/') + 1));
+        String css = new String(content, StandardCharsets.ISO_8859_1);
+        Matcher matcher = CSS_URL.matcher(css);
+        StringBuffer rewritten = new StringBuffer();
+        while (matcher.find()) {
+            String reference = matcher.group(2).trim();
+            String replacement = matcher.group();
+            if ((reference.indexOf(':') < 0) && !reference.startsWith("/")
+                    && (reference.indexOf('?') < 0) && (reference.indexOf('#') < 0)) {
+                try {
+                    String resolved = directory.resolve(reference).getPath();
+                    String fingerprintedPath = urls.get(resolved);
+                    if (!fingerprintedPath.equals(resolved)) {
+                        replacement = "url(" + matcher.group(1)
+                                + reference.substring(0, reference.lastIndexOf('/') + 1)
+                                + fingerprintedPath.substring(
+                                        fingerprintedPath.lastIndexOf('/') + 1)
+                                + matcher.group(1) + ")";
+                    }
+                } catch (IllegalArgumentException ex) {
+                    /* a URL that is not valid is left unchanged */
+                }
+            }
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(rewritten);
+        return rewritten.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * This method determines whether an array holds the given value.
+     *
+     * @param values the array
+     * @param value the value
+     * @return true if the array holds the value, false otherwise
+     */
+    private static boolean contains(String[] values, String value) {
+        for (String v : values) {
+            if (v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method reads a file of the web application.
+     *
+     * @param sc the servlet context
+     * @param path the file path
+     * @return the file content or null if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    private static byte[] readResource(ServletContext sc, String path)
+            throws IOException {
+        try (InputStream in = sc.getResourceAsStream(path)) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * This method compresses content with gzip.
+     *
+     * @param content the content
+     * @return the compressed content
+     * @throws IOException if the content cannot be compressed
+     */
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * This class holds the content of a fingerprinted file.
+     */
+    public static class Asset {
+
+        /**
+         * The file content
+         */
+        private final byte[] content;
+
+        /**
+         * The gzip-compressed file content or null if the file is already
+         * compressed
+         */
+        private final byte[] gzipContent;
+
+        /**
+         * The content type
+         */
+        private final String contentType;
+
+        /**
+         * The entity tag
+         */
+        private final String entityTag;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param content the file content
+         * @param gzipContent the gzip-compressed file content or null
+         * @param contentType the content type
+         * @param entityTag the entity tag
+         */
+        private Asset(byte[] content, byte[] gzipContent, String contentType,
+                String entityTag) {
+            this.content = content;
+            this.gzipContent = gzipContent;
+            this.contentType = contentType;
+            this.entityTag = entityTag;
+        }
+
+        /**
+         * Get the value of content
+         *
+         * @return the value of content
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * Get the value of gzipContent
+         *
+         * @return the value of gzipContent
+         */
+        public byte[] getGzipContent() {
+            return gzipContent;
+        }
+
+        /**
+         * Get the value of contentType
+         *
+         * @return the value of contentType
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Get the value of entityTag
+         *
+         * @return the value of entityTag
+         */
+        public String getEntityTag() {
+            return entityTag;
+        }
+    }
+
+    /**
+     * This map returns the fingerprinted path for an original path, or the
+     * original path if the file is not fingerprinted, so the pages continue
+     * to work if fingerprinting fails.
+     */
+    private static class AssetUrls extends HashMap<String, String> {
+
+        /**
+         * Serial version UID
+         */
+        private static final long serialVersionUID = 6094817253260418372L;
+
+        @Override
+        public String get(Object key) {
+            String url = super.get(key);
+            return (url == null) ? (String) key : url;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -156,56 +157,13 @@ public class StringUtility {
     }
 
     /**
-     * This method sorts the strings in the given list.
+     * This method sorts the strings in the given list in ascending order. The
+     * sort is stable and runs in O(n log n) time.
      *
      * @param stringList the string list
      */
     public static void sortStrings(ArrayList<String> stringList) {
-
-        int numberOfStrings = stringList.size();
-        int index, indexOfNextEarliest;
-        for (index = 0; index < numberOfStrings - 1; index++) {
-            indexOfNextEarliest = indexOfEarliest(index,
-                    stringList, numberOfStrings);
-            swap(index, indexOfNextEarliest, stringList);
-        }
-    }
-
-    /**
-     * This method returns the index of the earliest string.
-     *
-     * @param index the index
-     * @param stringList the list of strings
-     * @param numberOfStrings the number of strings
-     * @return the index of the earliest string
-     */
-    private static int indexOfEarliest(int index,
-            ArrayList<String> stringList, int numberOfStrings) {
-        String earliestString = stringList.get(index);
-        int indexOfMin = index;
-        int i;
-        for (i = index + 1; i < numberOfStrings; i++) {
-            if (stringList.get(i).compareTo(earliestString) < 0) {
-                earliestString = stringList.get(i);
-                indexOfMin = i;
-            }
-        }
-        return indexOfMin;
-    }
-
-    /**
-     * This method swaps strings in the string list.
-     *
-     * @param index index of string to be swapped
-     * @param indexOfNextEarliest the index of the earlier string
-     * @param stringList the string list
-     */
-    private static void swap(int index, int indexOfNextEarliest,
-            ArrayList<String> stringList) {
-        String temp;
-        temp = stringList.get(index);
-        stringList.set(index, stringList.get(indexOfNextEarliest));
-        stringList.set(indexOfNextEarliest, temp);
+        Collections.sort(stringList);
     }
 
     /**
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2017 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utility;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+import registry.ContinuousSeries;
+import registry.DemographicData;
+import registry.Stats;
+
+/**
+ * This class holds the large objects a session needs only briefly, such as
+ * the data drawn in charts and the patients of a call list, outside of the
+ * session. The session holds only a small handle naming its working set, so
+ * the objects are not written when sessions are persisted or replicated.
+ * Working sets are removed when their session ends, when they have not been
+ * used for the time-to-live, or when the store is full, in which case the
+ * least recently used working sets are removed first. A removed object is
+ * read as null, so callers must be able to recompute it. The store is held
+ * in the memory of one server and is not replicated, although the
+ * application is marked distributable. A session that moves to another
+ * server finds its working set empty: charts are not found until the page is
+ * reloaded and the call list must be selected again. A cluster should
+ * therefore route each session to the same server.
+ *
+ * @author Bryan Daniel
+ * @version 1, April 3, 2017
+ */
+public class WorkingSetStore {
+
+    /**
+     * The session attribute holding the working set handle
+     */
+    private static final String HANDLE = "workingSetHandle";
+
+    /**
+     * The time in milliseconds a working set is kept after it was last used
+     */
+    private static final long TIME_TO_LIVE = 30L * 60L * 1000L;
+
+    /**
+     * The largest total weight of the stored objects, where an object weighs
+     * one plus the number of values it holds
+     */
+    private static final long MAXIMUM_WEIGHT = 500000;
+
+    /**
+     * The working sets by handle ID in access order
+     */
+    private static final LinkedHashMap<String, WorkingSet> WORKING_SETS
+            = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The total weight of the stored objects
+     */
+    private static long totalWeight = 0;
+
+    /**
+     * This method stores an object in the working set of the session,
+     * replacing any object stored under the same name. Storing null removes
+     * the object.
+     *
+     * @param session the session
+     * @param name the object name
+     * @param value the object
+     */
+    public static void put(HttpSession session, String name, Object value) {
+        if (value == null) {
+            remove(session, name);
+            return;
+        }
+        Handle handle = (Handle) session.getAttribute(HANDLE);
+        if (handle == null) {
+            handle = getHandle(session);
+        }
+        put(handle.id, name, value);
+    }
+
+    /**
+     * This method returns an object from the working set of the session.
+     *
+     * @param session the session
+     * @param name the object name
+     * @return the object or null if it was not stored or has been removed
+     */
+    public static Object get(HttpSession session, String name) {
+        Handle handle = (Handle) session.getAttribute(HANDLE);
+        return (handle == null) ? null : get(handle.id, name);
+    }
+
+    /**
+     * This method removes an object from the working set of the session.
+     *
+     * @param session the session
+     * @param name the object name
+     */
+    public static void remove(HttpSession session, String name) {
+        Handle handle = (Handle) session.getAttribute(HANDLE);
+        if (handle != null) {
+            remove(handle.id, name);
+        }
+    }
+
+    /**
+     * This method returns the handle of the session's working set, binding a
+     * new handle to the session if it still has none. The handle is checked
+     * and created under the class lock, so concurrent first requests of a
+     * session share one handle and no working set is released by a replaced
+     * handle.
+     *
+     * @param session the session
+     * @return the handle
+     */
+    private static synchronized Handle getHandle(HttpSession session) {
+        Handle handle = (Handle) session.getAttribute(HANDLE);
+        if (handle == null) {
+            handle = new Handle();
+            session.setAttribute(HANDLE, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * This method stores an object in a working set and removes expired and
+     * least recently used working sets while the store is over its limit.
+     *
+     * @param id the handle ID
+     * @param name the object name
+     * @param value the object
+     */
+    private static synchronized void put(String id, String name, Object value) {
+        WorkingSet workingSet = WORKING_SETS.get(id);
+        if (workingSet == null) {
+            workingSet = new WorkingSet();
+            WORKING_SETS.put(id, workingSet);
+        }
+        Entry entry = new Entry(value);
+        Entry previous = workingSet.entries.put(name, entry);
+        if (previous != null) {
+            workingSet.weight -= previous.weight;
+            totalWeight -= previous.weight;
+        }
+        workingSet.weight += entry.weight;
+        totalWeight += entry.weight;
+        workingSet.lastUsed = System.currentTimeMillis();
+        evict(id);
+    }
+
+    /**
+     * This method returns an object from a working set.
+     *
+     * @param id the handle ID
+     * @param name the object name
+     * @return the object or null if it is not stored
+     */
+    private static synchronized Object get(String id, String name) {
+        WorkingSet workingSet = WORKING_SETS.get(id);
+        if (workingSet == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - workingSet.lastUsed > TIME_TO_LIVE) {
+            release(id);
+            return null;
+        }
+        workingSet.lastUsed = now;
+        Entry entry = workingSet.entries.get(name);
+        return (entry == null) ? null : entry.value;
+    }
+
+    /**
+     * This method removes an object from a working set.
+     *
+     * @param id the handle ID
+     * @param name the object name
+     */
+    private static synchronized void remove(String id, String name) {
+        WorkingSet workingSet = WORKING_SETS.get(id);
+        if (workingSet == null) {
+            return;
+        }
+        Entry entry = workingSet.entries.remove(name);
+        if (entry != null) {
+            workingSet.weight -= entry.weight;
+            totalWeight -= entry.weight;
+        }
+        if (workingSet.entries.isEmpty()) {
+            WORKING_SETS.remove(id);
+        }
+    }
+
+    /**
+     * This method removes a working set.
+     *
+     * @param id the handle ID
+     */
+    private static synchronized void release(String id) {
+        WorkingSet workingSet = WORKING_SETS.remove(id);
+        if (workingSet != null) {
+            totalWeight -= workingSet.weight;
+        }
+    }
+
+    /**
+     * This method removes the expired working sets and then the least
+     * recently used working sets until the store is within its limit. The
+     * working set just written is kept.
+     *
+     * @param currentId the handle ID of the working set just written
+     */
+    private static void evict(String currentId) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, WorkingSet>> sets
+                = WORKING_SETS.entrySet().iterator();
+        while (sets.hasNext()) {
+            Map.Entry<String, WorkingSet> set = sets.next();
+            WorkingSet workingSet = set.getValue();
+            boolean expired = (now - workingSet.lastUsed > TIME_TO_LIVE);
+            if (!expired && (totalWeight <= MAXIMUM_WEIGHT)) {
+
+                /* the remaining working sets were used more recently */
+                return;
+            }
+            if (!expired && set.getKey().equals(currentId)) {
+                continue;
+            }
+            sets.remove();
+            totalWeight -= workingSet.weight;
+        }
+    }
+
+    /**
+     * This method estimates the weight of an object as one plus the number of
+     * values it holds, counting the points of a series, the ages of the
+     * demographic data, the values in each group of statistics and the
+     * elements of a collection.
+     *
+     * @param value the object
+     * @return the weight
+     */
+    private static long weigh(Object value) {
+        long weight = 1;
+        if (value instanceof ContinuousSeries) {
+            weight += ((ContinuousSeries) value).size();
+        } else if (value instanceof DemographicData) {
+            Collection<Integer> ages = ((DemographicData) value).getAges();
+            if (ages != null) {
+                weight += ages.size();
+            }
+        } else if (value instanceof Stats) {
+            Collection<? extends Collection<?>> groups = ((Stats) value).getGroups();
+            if (groups != null) {
+                for (Collection<?> group : groups) {
+                    weight += 1 + ((group == null) ? 0 : group.size());
+                }
+            }
+        } else if (value instanceof Collection) {
+            weight += ((Collection<?>) value).size();
+        }
+        return weight;
+    }
+
+    /**
+     * This class holds the stored objects of one session.
+     */
+    private static class WorkingSet {
+
+        /**
+         * The stored objects by name
+         */
+        private final HashMap<String, Entry> entries = new HashMap<>();
+
+        /**
+         * The total weight of the stored objects
+         */
+        private long weight = 0;
+
+        /**
+         * The time in milliseconds the working set was last used
+         */
+        private long lastUsed;
+    }
+
+    /**
+     * This class holds a stored object and its weight.
+     */
+    private static class Entry {
+
+        /**
+         * The stored object
+         */
+        private final Object value;
+
+        /**
+         * The weight of the object
+         */
+        private final long weight;
+
+        /**
+         * Parameterized constructor
+         *
+         * @param value the stored object
+         */
+        private Entry(Object value) {
+            this.value = value;
+            weight = weigh(value);
+        }
+    }
+
+    /**
+     * This class is the session attribute naming the working set of the
+     * session. The working set is removed when the handle is removed from the
+     * session or the session ends.
+     */
+    private static class Handle implements Serializable,
+            HttpSessionBindingListener {
+
+        /**
+         * Serial version UID
+         */
+        private static final long serialVersionUID = 3478126590341857201L;
+
+        /**
+         * The handle ID
+         */
+        private final String id = UUID.randomUUID().toString();
+
+        @Override
+        public void valueBound(HttpSessionBindingEvent event) {
+            /* the working set is created when an object is first stored */
+        }
+
+        @Override
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            release(id);
+        }
+    }
+}
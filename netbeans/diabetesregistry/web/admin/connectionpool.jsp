@@ -0,0 +1,58 @@
+<%-- 
+    Document   : connectionpool
+    Created on : April 3, 2017, 10:14:52 AM
+    Author     : Bryan Daniel
+--%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<jsp:include page="/includes/taskheader.jsp" />
+<h2>Administration Functions</h2>
+<c:if test="${errorMessage != null}">
+    <p class="error"><c:out value="${errorMessage}"/></p>
+</c:if>
+<c:if test="${message != null}">
+    <p class="success"><c:out value="${message}"/></p>
+</c:if>
+<jsp:include page="/includes/adminnav.jsp" />
+<h3>Connection Pool</h3>
+<c:if test="${connectionPoolMetrics != null}">
+    <table class="adminText">
+        <tr><td class="datalabels">Connections borrowed:</td><td><c:out value="${connectionPoolMetrics.borrowCount}"/></td></tr>
+        <tr><td class="datalabels">Failed borrows:</td><td><c:out value="${connectionPoolMetrics.borrowFailureCount}"/></td></tr>
+        <tr><td class="datalabels">Average wait (ms):</td><td><fmt:formatNumber value="${connectionPoolMetrics.averageBorrowMillis}" maxFractionDigits="2"/></td></tr>
+        <tr><td class="datalabels">Maximum wait (ms):</td><td><fmt:formatNumber value="${connectionPoolMetrics.maximumBorrowMillis}" maxFractionDigits="2"/></td></tr>
+        <tr><td class="datalabels">Active connections:</td><td><c:out value="${connectionPoolMetrics.activeCount}"/></td></tr>
+        <tr><td class="datalabels">Peak active connections:</td><td><c:out value="${connectionPoolMetrics.peakActiveCount}"/></td></tr>
+        <tr><td class="datalabels">Pool active connections:</td><td><c:out value="${connectionPoolMetrics.poolActiveCount}"/></td></tr>
+        <tr><td class="datalabels">Pool idle connections:</td><td><c:out value="${connectionPoolMetrics.poolIdleCount}"/></td></tr>
+    </table>
+    <h4>Wait Times</h4>
+    <ul>
+        <c:forEach var="range" items="${connectionPoolMetrics.borrowLatencyHistogram}">
+            <li><c:out value="${range}"/></li>
+        </c:forEach>
+    </ul>
+    <h4>Hold Times by Caller</h4>
+    <ul>
+        <c:forEach var="callSite" items="${connectionPoolMetrics.callSiteHoldTimes}">
+            <li><c:out value="${callSite}"/></li>
+        </c:forEach>
+    </ul>
+    <h4>Suspected Leaks</h4>
+    <c:choose>
+        <c:when test="${empty connectionPoolMetrics.suspectedLeaks}">
+            <p>No connections have been held longer than the leak threshold.</p>
+        </c:when>
+        <c:otherwise>
+            <c:forEach var="leak" items="${connectionPoolMetrics.suspectedLeaks}">
+                <pre><c:out value="${leak}"/></pre>
+            </c:forEach>
+        </c:otherwise>
+    </c:choose>
+    <form action="admin" method="post">
+        <input type="hidden" name="action" value="resetconnectionpoolmetrics">
+        <input class="button" type="submit" value="Reset">
+    </form>
+</c:if>
+</section>
+<jsp:include page="/includes/footer.jsp" />
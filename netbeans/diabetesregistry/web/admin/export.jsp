@@ -0,0 +1,18 @@
+<%-- 
+    Document   : export
+    Created on : April 3, 2017, 2:37:18 PM
+    Author     : Bryan Daniel
+--%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<jsp:include page="/includes/taskheader.jsp" />
+<h2>Administration Functions</h2>
+<jsp:include page="/includes/adminnav.jsp" />
+<h3>Data Export</h3>
+<p class="adminText">Download the clinic registry data as comma-separated values.</p>
+<ul>
+    <li><a href="<c:url value='/admin/export?type=patients'/>">Patients</a></li>
+    <li><a href="<c:url value='/admin/export?type=labs'/>">Laboratory Results</a></li>
+    <li><a href="<c:url value='/admin/export?type=notes'/>">Progress Notes</a></li>
+</ul>
+</section>
+<jsp:include page="/includes/footer.jsp" />
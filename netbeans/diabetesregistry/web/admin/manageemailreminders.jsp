@@ -76,6 +76,12 @@
                     <textarea cols="60" rows="30" id="message" name="message" required><c:out value="${selectedEmailMessageConfiguration.emailMessage.message}"/></textarea>
                 </td><td></td>
             </tr>
+            <tr>
+                <td></td>
+                <td>
+                    <p class="adminText">The placeholders {firstName}, {lastName} and {lastVisitDate} are replaced with each patient's details.</p>
+                </td><td></td>
+            </tr>
             <tr>
                 <td></td>
                 <td>
@@ -134,6 +140,12 @@
                     <textarea cols="60" rows="30" id="message" name="message" required></textarea>
                 </td><td></td>
             </tr>
+            <tr>
+                <td></td>
+                <td>
+                    <p class="adminText">The placeholders {firstName}, {lastName} and {lastVisitDate} are replaced with each patient's details.</p>
+                </td><td></td>
+            </tr>
             <tr>
                 <td></td>
                 <td>
@@ -21,7 +21,7 @@
             <label for="clinicname">Clinic:</label>
         </td>
         <td>
-            <output name="clinicname"><c:out value="${applicationScope.references.clinic.clinicName}"/></output>
+            <output name="clinicname"><c:out value="${references.clinic.clinicName}"/></output>
         </td>
     </tr>
 </table>
@@ -33,7 +33,7 @@
                 <label for="clinicName" class="labels">Clinic Name:</label>
             </td>
             <td>
-                <input id="clinicName" type="text" name="clinicName" value="<c:out value="${applicationScope.references.clinic.clinicName}"/>" required>
+                <input id="clinicName" type="text" name="clinicName" value="<c:out value="${references.clinic.clinicName}"/>" required>
             </td><td></td>
         </tr>
         <tr>
@@ -41,7 +41,7 @@
                 <label for="address" class="labels">Clinic Address:</label>
             </td>
             <td>
-                <input id="address" type="text" name="address" value="<c:out value="${applicationScope.references.clinic.address}"/>" required>
+                <input id="address" type="text" name="address" value="<c:out value="${references.clinic.address}"/>" required>
             </td><td></td>
         </tr>
         <tr>
@@ -49,7 +49,7 @@
                 <label for="phoneNumber" class="labels">Phone Number:</label>
             </td>
             <td>
-                <input id="phoneNumber" type="text" name="phoneNumber" value="<c:out value="${applicationScope.references.clinic.phoneNumber}"/>" required>
+                <input id="phoneNumber" type="text" name="phoneNumber" value="<c:out value="${references.clinic.phoneNumber}"/>" required>
             </td><td></td>
         </tr>        
         <tr>
@@ -57,7 +57,7 @@
                 <label for="email">Email:</label>
             </td>
             <td>
-                <input id="email" type="email" name="email" value="<c:out value="${applicationScope.references.clinic.emailAddress}"/>">
+                <input id="email" type="email" name="email" value="<c:out value="${references.clinic.emailAddress}"/>">
             </td>
         </tr>
         <tr>
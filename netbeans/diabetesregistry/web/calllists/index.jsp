@@ -12,6 +12,23 @@
 <c:if test="${message != null}">
     <p class="success"><c:out value="${message}"/></p>
 </c:if>
+<c:if test="${emailJob != null}">
+    <form class="contentText" action="calllists" method="post">
+        <input type="hidden" name="action" value="showEmailProgress">
+        <c:choose>
+            <c:when test="${emailJob.authenticationFailed}">
+                <p class="error">The email reminders were stopped because the mail server rejected the administrator email password.</p>
+            </c:when>
+            <c:when test="${emailJob.complete}">
+                <p>Email reminders finished: <c:out value="${emailJob.sentCount}"/> sent, <c:out value="${emailJob.failedCount}"/> failed, <c:out value="${emailJob.skippedCount}"/> skipped for invalid addresses.</p>
+            </c:when>
+            <c:otherwise>
+                <p>Sending email reminders: <c:out value="${emailJob.sentCount + emailJob.failedCount + emailJob.skippedCount}"/> of <c:out value="${emailJob.total}"/> processed.
+                    <input class="button" type="submit" value="Refresh"></p>
+            </c:otherwise>
+        </c:choose>
+    </form>
+</c:if>
 <section class="pagecontent">
     <table class="patientselect">
         <tr>
@@ -19,7 +36,7 @@
                 <label for="clinicname" class="labels">Clinic:</label>
             </td>
             <td>
-                <output name="clinicname"><c:out value="${applicationScope.references.clinic.clinicName}"/></output>
+                <output name="clinicname"><c:out value="${references.clinic.clinicName}"/></output>
             </td>
         </tr>
     </table>
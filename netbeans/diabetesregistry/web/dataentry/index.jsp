@@ -19,7 +19,7 @@
                 <label for="clinicname" class="labels">Clinic:</label>
             </td>
             <td>
-                <output name="clinicname"><c:out value="${applicationScope.references.clinic.clinicName}"/></output>
+                <output name="clinicname"><c:out value="${references.clinic.clinicName}"/></output>
             </td>
         </tr>
     </table>
@@ -41,6 +41,30 @@
             </tr>
         </table>
     </form>
+    <form class="contentText" action="dataentry" method="post" enctype="multipart/form-data">
+        <input type="hidden" name="action" value="importResults">
+        <table class="patientselect">
+            <tr>
+                <td class="datalabels">
+                    <label for="labfile" class="labels">Import Lab File:</label>
+                </td>
+                <td>
+                    <input type="file" id="labfile" name="labfile" accept=".csv,text/csv">
+                    <input class="button" type="submit" value="Import">
+                </td>
+            </tr>
+        </table>
+    </form>
+    <c:if test="${labImportReport != null}">
+        <p class="contentText"><c:out value="${labImportReport.savedRowCount} of ${labImportReport.rowCount} results were saved for ${labImportReport.savedVisitCount} patient visits."/></p>
+        <c:if test="${not empty labImportReport.errors}">
+            <ul class="error">
+                <c:forEach var="error" items="${labImportReport.errors}">
+                    <li><c:out value="${error}"/></li>
+                </c:forEach>
+            </ul>
+        </c:if>
+    </c:if>
 </section>
 <c:if test="${patient != null}">
     <section class="pagecontent">
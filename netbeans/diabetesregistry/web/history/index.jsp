@@ -20,7 +20,7 @@
                 <label for="clinicname">Clinic:</label>
             </td>
             <td>
-                <output name="clinicname"><c:out value="${applicationScope.references.clinic.clinicName}"/></output>
+                <output name="clinicname"><c:out value="${references.clinic.clinicName}"/></output>
             </td>
         </tr>
     </table>
@@ -29,15 +29,11 @@
         <table class="patientselect">
             <tr>
                 <td class="datalabels">
-                    <label for="patientselect">Select Patient:</label>
+                    <label for="patientsearch">Select Patient:</label>
                 </td>
                 <td>
-                    <select name="patientselect" onchange="this.form.submit()">
-                        <option value="" selected disabled>Select a patient</option>
-                        <c:forEach var="p" items="${patients}">
-                            <option value="${p.patientId}"><c:out value="${p.lastName}, ${p.firstName} (${p.birthDate})"/></option>
-                        </c:forEach>
-                    </select>
+                    <input type="text" id="patientsearch" class="patientsearch" data-source="<c:url value='/patientsearch'/>" placeholder="Name, birth date or ID" autocomplete="off">
+                    <input type="hidden" name="patientselect">
                 </td>
             </tr>
         </table>
@@ -12,4 +12,6 @@
         <li><a href="<c:url value='/admin?action=showpasswordresetrequests'/>">Password Reset Requests</a></li>
         <li><a href="<c:url value='/admin?action=manageemailconfigurations'/>">Email Reminder Management</a></li>
         <li><a href="<c:url value='/admin?action=managequalitychecklist'/>">Quality Checklist Management</a></li>
+        <li><a href="<c:url value='/admin?action=showconnectionpool'/>">Connection Pool</a></li>
+        <li><a href="<c:url value='/admin?action=showexport'/>">Data Export</a></li>
     </ul>
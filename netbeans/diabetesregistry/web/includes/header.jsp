@@ -11,7 +11,7 @@
         <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
         <title>Diabetes Registry</title>
         <meta name="robots" content="noindex, nofollow">
-        <link rel="stylesheet" type="text/css" href="<c:url value='/style/main.css'/>">        
+        <link rel="stylesheet" type="text/css" href="<c:url value="${applicationScope.assets['/style/main.css']}"/>">        
     </head>
     <body>
         <header>
@@ -11,12 +11,12 @@
         <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
         <title>Diabetes Registry</title>
         <meta name="robots" content="noindex, nofollow">
-        <link rel="stylesheet" href="<c:url value='/script/jquery-ui.css'/>">
-        <script src="<c:url value='/script/jquery-1.12.1.js'/>"></script>
-        <script src="<c:url value='/script/jquery-ui.js'/>"></script>
-        <script src="<c:url value='/script/confirm.js'/>"></script>
-        <link rel="stylesheet" type="text/css" href="<c:url value='/style/main.css'/>">
-        <script type="text/javascript" src="<c:url value='/script/main.js'/>"></script>
+        <link rel="stylesheet" href="<c:url value="${applicationScope.assets['/script/jquery-ui.css']}"/>">
+        <script src="<c:url value="${applicationScope.assets['/script/jquery-1.12.1.js']}"/>"></script>
+        <script src="<c:url value="${applicationScope.assets['/script/jquery-ui.js']}"/>"></script>
+        <script src="<c:url value="${applicationScope.assets['/script/confirm.js']}"/>"></script>
+        <link rel="stylesheet" type="text/css" href="<c:url value="${applicationScope.assets['/style/main.css']}"/>">
+        <script type="text/javascript" src="<c:url value="${applicationScope.assets['/script/main.js']}"/>"></script>
     </head>
     <body>
         <header>
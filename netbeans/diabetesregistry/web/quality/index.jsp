@@ -20,7 +20,7 @@
                 <label for="clinicname" class="labels">Clinic:</label>
             </td>
             <td>
-                <output name="clinicname"><c:out value="${applicationScope.references.clinic.clinicName}"/></output>
+                <output name="clinicname"><c:out value="${references.clinic.clinicName}"/></output>
             </td>
         </tr>
     </table>
@@ -117,5 +117,32 @@ $(document).ready(function () {
         $("#userTable").show();
         $("#editUserForm").hide();        
     });
+    $(".patientsearch").each(function () {
+        var search = $(this);
+        search.autocomplete({
+            minLength: 1,
+            delay: 250,
+            source: function (request, response) {
+                $.getJSON(search.data("source"), {q: request.term},
+                        function (data) {
+                            response($.map(data.patients, function (p) {
+                                return {
+                                    label: p.lastName + ", " + p.firstName
+                                            + " (" + p.birthDate + ")",
+                                    id: p.id
+                                };
+                            }));
+                        }).fail(function () {
+                    response([]);
+                });
+            },
+            select: function (event, ui) {
+                search.val(ui.item.label);
+                search.siblings("input[name=patientselect]").val(ui.item.id);
+                search.closest("form").submit();
+                return false;
+            }
+        });
+    });
 });
 